@@ -0,0 +1,279 @@
+import javafx.scene.image.Image;
+import javafx.scene.text.Font;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Represents the images and fonts of the game, decoded once on a pool of background threads.
+ * <p>
+ * When the game starts, every asset the menus and gameplay screens need is decoded at the same time while the splash screen is shown,
+ * and each screen is created as soon as its own assets are ready, starting with the main menu.
+ * The screens then get the decoded images and fonts through ImageManager and TextManager without decoding them again.
+ * <p>
+ * Assets are kept for the whole game, since every screen keeps the images it shows anyway.
+ * An asset that was not preloaded is decoded on the thread that asks for it.
+ * @see ImageManager#loadImage(javafx.scene.image.ImageView, String)
+ * @see TextManager#loadCustomFont(String, double)
+ */
+public class AssetPreloader {
+
+    /** The font of the game. */
+    public static final String FONT = "../assets/fonts/impact/impact.ttf";
+    /** The assets the main menu needs. */
+    public static final String[] MAIN_MENU_ASSETS = {
+        "../assets/backgrounds/MainMenuBackground.png",
+        FONT,
+        "../assets/sprites/teenCatSprite.png",
+        "../assets/sprites/teenDogSprite.png"
+    };
+    /** The assets of the other screens: the menu screens after the main menu, then the gameplay screens. */
+    public static final String[] SCREEN_ASSETS = {
+        "../assets/sprites/teenDuckSprite.png",
+        "../assets/sprites/teenDragonSprite.png",
+        "../assets/backgrounds/BedroomBackground.png",
+        "../assets/backgrounds/KitchenBackground.png",
+        "../assets/backgrounds/PlaygroundBackground.png",
+        "../assets/backgrounds/VetBackground.png",
+        "../assets/sprites/health.png",
+        "../assets/sprites/hunger.png",
+        "../assets/sprites/happy.png",
+        "../assets/sprites/sleep.png"
+    };
+
+    /** The decoded or decoding images, keyed by path. */
+    private static final Map<String, CompletableFuture<Image>> images = new ConcurrentHashMap<>();
+    /** The loaded or loading fonts, keyed by path. */
+    private static final Map<String, CompletableFuture<Font>> fonts = new ConcurrentHashMap<>();
+    /** The listeners told about every asset that finishes loading. */
+    private static final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    /** The number of assets asked for. */
+    private static final AtomicInteger requested = new AtomicInteger();
+    /** The number of assets finished loading, including the ones that failed. */
+    private static final AtomicInteger loaded = new AtomicInteger();
+    /** Decodes an image. Replaced by tests, which run without the JavaFX toolkit. */
+    private static AssetDecoder<Image> imageDecoder = path -> {
+        try (InputStream is = Files.newInputStream(Paths.get(path))) {
+            return new Image(is);
+        }
+    };
+    /** Loads a font. Replaced by tests, which run without the JavaFX toolkit. */
+    private static AssetDecoder<Font> fontDecoder = path -> {
+        try (InputStream fontStream = Files.newInputStream(Paths.get(path))) {
+            return Font.loadFont(fontStream, Font.getDefault().getSize());
+        }
+    };
+    /** The background threads that decode assets. Created on the first preload. */
+    private static ExecutorService workers;
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public AssetPreloader() {
+        throw new NullPointerException("DON'T CREATE AN ASSETPRELOADER OBJECT!!!");
+    }
+
+    /**
+     * Starts decoding assets on the background threads, unless they are already loaded or loading.
+     * Paths ending in .ttf or .otf are loaded as fonts, the others as images.
+     * @param paths the paths of the assets
+     * @return completes once all the assets finished loading, even if some of them failed
+     */
+    public static CompletableFuture<Void> preload(String... paths) {
+        CompletableFuture<?>[] assets = new CompletableFuture<?>[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            CompletableFuture<?> asset = isFont(paths[i])
+                    ? load(fonts, paths[i], fontDecoder, true)
+                    : load(images, paths[i], imageDecoder, true);
+            // A missing asset is reported when a screen asks for it, and must not hold back the screens
+            assets[i] = asset.exceptionally(e -> null);
+        }
+        return CompletableFuture.allOf(assets);
+    }
+
+    /**
+     * Returns a decoded image, waiting for it if it is still being decoded.
+     * @param path the path of the image file
+     * @return the image, or null if it could not be read
+     */
+    public static Image getImage(String path) {
+        return await(load(images, path, imageDecoder, false));
+    }
+
+    /**
+     * Returns a loaded font at a size, waiting for it if it is still being loaded.
+     * @param path the path of the font file
+     * @param size the font size
+     * @return the font, or null if it could not be read
+     */
+    public static Font getFont(String path, double size) {
+        Font font = await(load(fonts, path, fontDecoder, false));
+        if (font == null || font.getSize() == size) {
+            return font;
+        }
+        // The font file is only read once: other sizes are the same font under its name
+        return new Font(font.getName(), size);
+    }
+
+    /**
+     * Adds a listener that is told every time an asset finishes loading.
+     * It is called on the thread that loaded the asset, which is not the JavaFX thread.
+     * @param listener the listener
+     */
+    public static void addProgressListener(ProgressListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a progress listener.
+     * @param listener the listener
+     */
+    public static void removeProgressListener(ProgressListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of assets asked for so far.
+     * @return the number of assets
+     */
+    public static int getRequestedCount() {
+        return requested.get();
+    }
+
+    /**
+     * Returns the number of assets that finished loading, including the ones that failed.
+     * @return the number of assets
+     */
+    public static int getLoadedCount() {
+        return loaded.get();
+    }
+
+    /**
+     * Sets how assets are decoded. Used by tests, which run without the JavaFX toolkit.
+     * @param imageLoader decodes an image file
+     * @param fontLoader loads a font file
+     */
+    static void setDecoders(AssetDecoder<Image> imageLoader, AssetDecoder<Font> fontLoader) {
+        imageDecoder = imageLoader;
+        fontDecoder = fontLoader;
+    }
+
+    /** Forgets every asset and listener. Used by tests. */
+    static void clear() {
+        images.clear();
+        fonts.clear();
+        listeners.clear();
+        requested.set(0);
+        loaded.set(0);
+    }
+
+    /**
+     * Helper method that returns the asset of a path, starting to load it if nobody has yet.
+     * Only the first caller loads it, on the background threads or on its own thread.
+     */
+    private static <T> CompletableFuture<T> load(Map<String, CompletableFuture<T>> assets, String path, AssetDecoder<T> decoder, boolean inBackground) {
+        CompletableFuture<T> asset = assets.get(path);
+        if (asset != null) {
+            return asset;
+        }
+        CompletableFuture<T> loading = new CompletableFuture<>();
+        asset = assets.putIfAbsent(path, loading);
+        if (asset != null) {
+            return asset;
+        }
+        requested.incrementAndGet();
+        Runnable task = () -> {
+            T result = null;
+            RuntimeException failure = null;
+            try {
+                result = decoder.decode(path);
+            } catch (IOException e) {
+                failure = new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            // Progress is published first, so whoever waits for the asset sees it counted
+            int done = loaded.incrementAndGet();
+            try {
+                for (ProgressListener listener : listeners) {
+                    listener.onProgress(done, requested.get());
+                }
+            } finally {
+                if (failure != null) {
+                    loading.completeExceptionally(failure);
+                } else {
+                    loading.complete(result);
+                }
+            }
+        };
+        if (inBackground) {
+            getWorkers().execute(task);
+        } else {
+            task.run();
+        }
+        return loading;
+    }
+
+    /** Helper method that waits for an asset, and prints why it failed, as the screens did before they shared their assets. */
+    private static <T> T await(CompletableFuture<T> asset) {
+        try {
+            return asset.join();
+        } catch (CompletionException e) {
+            (e.getCause() != null ? e.getCause() : e).printStackTrace();
+            return null;
+        }
+    }
+
+    /** Helper method that returns if a path is a font file. */
+    private static boolean isFont(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".ttf") || lower.endsWith(".otf");
+    }
+
+    /** Helper method that returns the background threads that decode assets, created on first use. */
+    private static synchronized ExecutorService getWorkers() {
+        if (workers == null) {
+            // One core is left for the JavaFX thread, which builds the screens meanwhile
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            AtomicInteger count = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "asset-loader-" + count.incrementAndGet());
+                // Assets still decoding when the game exits are not needed anymore
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+
+    /** Represents the code that decodes an asset file. */
+    public interface AssetDecoder<T> {
+        /**
+         * Decodes an asset file.
+         * @param path the path of the file
+         * @return the asset
+         * @throws IOException if the file cannot be read
+         */
+        T decode(String path) throws IOException;
+    }
+
+    /** Represents the code that is told about loading progress, e.g. the splash screen. */
+    public interface ProgressListener {
+        /**
+         * Called every time an asset finishes loading.
+         * @param loaded the number of assets that finished loading
+         * @param requested the number of assets asked for
+         */
+        void onProgress(int loaded, int requested);
+    }
+}
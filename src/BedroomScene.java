@@ -13,6 +13,11 @@ import javafx.scene.control.Button;
  */
 public class BedroomScene extends GameScene {
 
+    /** The energy the pet gains on every sleep tick in the bedroom. */
+    public static final int SLEEP_ENERGY_GAIN = 15;
+    /** The score the pet gains on every sleep tick in the bedroom. */
+    public static final int SLEEP_SCORE_GAIN = 15;
+
     /** The UI scene for the bedroom. */
     private Scene scene;
     /** The image for the background picture. */
@@ -64,13 +69,8 @@ public class BedroomScene extends GameScene {
         // Set sleep button action
         commandButton.setOnAction(e -> {
             commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(true);
-            screenManager.getSleepTimer().start();
-            pet.setSleepingState(true);
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+            // Falling asleep starts the sleep timer, and the other buttons are disabled when the screen is told about it
+            screenManager.runOnSimulation(() -> pet.setSleepingState(true));
             System.out.println("Sleeping");
         });
 
@@ -131,6 +131,22 @@ public class BedroomScene extends GameScene {
         return this.pet;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSleepEnergyGain() {
+        return SLEEP_ENERGY_GAIN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSleepScoreGain() {
+        return SLEEP_SCORE_GAIN;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -152,35 +168,52 @@ public class BedroomScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onTimerTick() {
-        if (pet.isHungry()) pet.incrementHappiness(-20);
-        pet.decrementAllStats(8);
-        pet.incrementCoins(1);
-        screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        updatePetState();
-        UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onSnapshot(PetSnapshot snapshot, boolean happy) {
+        screenOverlay.showSnapshot(snapshot);
+        UIUpdate.updateUI(snapshot, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), happy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onFellAsleep(Pet pet) {
+        commandButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(true);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onSleepTick() {
-        if (pet.isStillSleeping()) {
-            pet.incrementEnergy(15);
-            pet.incrementScore(15);
-            screenOverlay.setScoreText("SCORE: " + String.valueOf(pet.getScore()));
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onWokeUp(Pet pet) {
+        screenOverlay.getLeftArrowButton().setDisable(false);
+        screenOverlay.getRightArrowButton().setDisable(false);
+        screenOverlay.getInventoryButton().setDisable(false);
+        screenOverlay.getSettingsButton().setDisable(false);
+        if (!pet.isStillAngry()) {
+            commandButton.setDisable(false);
         }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onAngry(Pet pet) {
+        commandButton.setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCalmed(Pet pet) {
         if (!pet.isStillSleeping()) {
-            screenManager.getSleepTimer().pause();
-            screenOverlay.getLeftArrowButton().setDisable(false);
-            screenOverlay.getRightArrowButton().setDisable(false);
-            screenOverlay.getInventoryButton().setDisable(false);
-            screenOverlay.getSettingsButton().setDisable(false);
-            if (!pet.isStillAngry()) {
-                commandButton.setDisable(false);
-            }       
+            commandButton.setDisable(false);
         }
     }
 
@@ -188,13 +221,12 @@ public class BedroomScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onAngryTick() {
-        if (!pet.isStillAngry()) {
-            screenManager.getAngryTimer().pause();
-            if (!pet.isStillSleeping()) {
-                commandButton.setDisable(false);
-            }     
-        }
+    public void onDied(Pet pet) {
+        commandButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(false);
     }
 
     /**
@@ -217,47 +249,7 @@ public class BedroomScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    protected void updatePetState() {
-        if (pet.isDead()) {
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        if (pet.isSleeping()) {
-            pet.incrementHealth(-40);
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(true);
-            screenManager.getSleepTimer().start();
-        }
-        if (pet.isHungry()) {
-            pet.incrementHealth(-20);
-            pet.incrementHappiness(-20);
-        }
-        if (pet.isAngry()) {
-            commandButton.setDisable(true);
-            screenManager.getAngryTimer().start();
-        }     
-        if (pet.isDead()) {
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-    } 
+    public void onRemove() {
+        petOverlay.release();
+    }
 }
@@ -75,7 +75,7 @@ public class ButtonManager {
      * @param imagePath The path to the image file.
      */
     public static void setCustomButtonSprite(Button button, String imagePath) {
-        Image buttonImage = new Image("file:" + imagePath);
+        Image buttonImage = AssetPreloader.getImage(imagePath);
         ImageView imageView = new ImageView(buttonImage);
         imageView.setFitWidth(DEFAULT_BUTTON_WIDTH);
         imageView.setFitHeight(DEFAULT_BUTTON_HEIGHT);
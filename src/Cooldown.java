@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/** Represents a cooldown, the time a player must wait before using an action again (e.g. playing or healing).
+ * <p>
+ * A cooldown stores the game time at which it ends, on the simulation scheduler's clock, which never goes backwards.
+ * The remaining time is computed when it is asked for, and a single task wakes the cooldown's listener when it ends,
+ * so nothing has to count down every second. Only while a screen shows the seconds left does a task run once per second, to update them.
+ * Cooldowns can be used from any thread. The wake up task runs on the scheduler's thread.
+ * <p>
+ * The remaining time is saved with the pet, and the cooldown continues from there when the game is loaded.
+ * @see TickScheduler
+ */
+public class Cooldown implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The remaining time when the cooldown was saved or created, in milliseconds. Only used until the cooldown is bound to a clock. */
+    private long remainingMillis;
+
+    /** The scheduler whose clock the cooldown uses, or null until it is first used. */
+    private transient TickScheduler scheduler;
+    /** The channel of the wake up task. */
+    private transient TickScheduler.Channel channel;
+    /** The scheduler time at which the cooldown ends, in milliseconds. */
+    private transient long deadline;
+    /** The task that runs when the cooldown ends, or null if there is none. */
+    private transient TickScheduler.Task wakeUp;
+    /** Run when the cooldown ends, or null. */
+    private transient Runnable onReady;
+    /** The task that runs when the whole seconds left go down, or null if there is none. */
+    private transient TickScheduler.Task secondTask;
+    /** Run every time the whole seconds left go down, or null. */
+    private transient Runnable onSecond;
+
+    /**
+     * Creates a cooldown that is ready, using the simulation scheduler.
+     */
+    public Cooldown() {
+        this(null);
+    }
+
+    /**
+     * Creates a cooldown that is ready, using a specific scheduler. Used by tests.
+     * @param scheduler the scheduler whose clock is used
+     */
+    Cooldown(TickScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts the cooldown, replacing any time that was left.
+     * @param durationMillis how long the cooldown lasts, in milliseconds
+     */
+    public synchronized void start(long durationMillis) {
+        bind();
+        deadline = scheduler.getTimeMillis() + Math.max(0, durationMillis);
+        scheduleWakeUp();
+    }
+
+    /**
+     * Returns the time left before the cooldown ends.
+     * @return the time in milliseconds, 0 if the cooldown is ready
+     */
+    public synchronized long getRemainingMillis() {
+        bind();
+        return Math.max(0, deadline - scheduler.getTimeMillis());
+    }
+
+    /**
+     * Returns the time left before the cooldown ends, in whole seconds, rounded up. Used for button labels.
+     * @return the time in seconds, 0 if the cooldown is ready
+     */
+    public int getRemainingSeconds() {
+        return (int) ((getRemainingMillis() + 999) / 1000);
+    }
+
+    /**
+     * Returns whether the cooldown is over.
+     * @return true if the action can be used again
+     */
+    public boolean isReady() {
+        return getRemainingMillis() == 0;
+    }
+
+    /**
+     * Removes some of the time left, for time that passed while the game was closed.
+     * @param millis the time that passed, in milliseconds
+     */
+    public synchronized void elapse(long millis) {
+        if (millis <= 0 || isReady()) {
+            return;
+        }
+        deadline = Math.max(scheduler.getTimeMillis(), deadline - millis);
+        scheduleWakeUp();
+    }
+
+    /**
+     * Sets what runs when the cooldown ends. It runs once per cooldown, on the scheduler's thread.
+     * @param onReady the code to run, or null for nothing
+     */
+    public synchronized void setOnReady(Runnable onReady) {
+        this.onReady = onReady;
+        scheduleWakeUp();
+    }
+
+    /**
+     * Sets what runs every time the whole seconds left go down (e.g. from 10 to 9), until the last second, on the scheduler's thread.
+     * Used by screens that show the seconds left, while they are shown. The end of the cooldown is still told through setOnReady.
+     * @param onSecond the code to run, or null to stop
+     */
+    public synchronized void setOnSecond(Runnable onSecond) {
+        this.onSecond = onSecond;
+        scheduleWakeUp();
+    }
+
+    /** Helper method that starts using the scheduler's clock, continuing from the saved remaining time. */
+    private void bind() {
+        if (channel != null) {
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = TickScheduler.getSimulation();
+        }
+        channel = scheduler.createChannel("cooldown");
+        deadline = scheduler.getTimeMillis() + remainingMillis;
+    }
+
+    /** Helper method that replaces the wake up and second tasks with ones at the current deadline, on the scheduler's thread. */
+    private void scheduleWakeUp() {
+        bind();
+        scheduler.execute(() -> {
+            replaceWakeUp();
+            replaceSecondTask();
+        });
+    }
+
+    /** Helper method that replaces the wake up task. Only called on the scheduler's thread. */
+    private synchronized void replaceWakeUp() {
+        if (wakeUp != null) {
+            wakeUp.cancel();
+            wakeUp = null;
+        }
+        if (onReady == null) {
+            return;
+        }
+        long remaining = getRemainingMillis();
+        if (remaining > 0) {
+            Runnable ready = onReady;
+            wakeUp = channel.schedule(remaining, () -> {
+                synchronized (this) {
+                    wakeUp = null;
+                }
+                ready.run();
+            });
+        }
+    }
+
+    /** Helper method that replaces the second task with one at the next whole second left. Only called on the scheduler's thread. */
+    private synchronized void replaceSecondTask() {
+        if (secondTask != null) {
+            secondTask.cancel();
+            secondTask = null;
+        }
+        if (onSecond == null) {
+            return;
+        }
+        long remaining = getRemainingMillis();
+        long untilNextSecond = remaining % 1000 == 0 ? 1000 : remaining % 1000;
+        if (untilNextSecond < remaining) {
+            Runnable second = onSecond;
+            secondTask = channel.schedule(untilNextSecond, () -> {
+                replaceSecondTask();
+                second.run();
+            });
+        }
+    }
+
+    /** Saves the remaining time, since the scheduler's clock starts over every time the game starts. */
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        remainingMillis = getRemainingMillis();
+        out.defaultWriteObject();
+    }
+
+    /** Reads the remaining time. The cooldown is bound to a clock when it is first used. */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+    }
+
+    /**
+     * Creates a cooldown with time left, used when reading a save file.
+     * @param remainingMillis the time left, in milliseconds
+     * @return the cooldown
+     */
+    static Cooldown withRemaining(long remainingMillis) {
+        Cooldown cooldown = new Cooldown();
+        cooldown.remainingMillis = Math.max(0, remainingMillis);
+        return cooldown;
+    }
+}
@@ -1,9 +1,19 @@
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A gacha is a system that randomly gives items to the player.
  * This system is used to randomly give items to the player.
+ * <p>
+ * Rolls use an alias table (Vose's method), so a roll takes the same time no matter how many items there are.
+ * The table is built on the first roll and rebuilt after the items or their chances change.
+ * <p>
+ * Every gacha owns its random number generator. Its seed and roll count are saved with the game,
+ * so any past roll can be replayed, and a seed can be set to get the same rolls every time.
+ * @see GachaRandom
  */
 public class Gacha implements Serializable {
 
@@ -15,6 +25,22 @@ public class Gacha implements Serializable {
     private int totalGachaChance;
     /** The inventory to insert the item into. */
     private Inventory inventory;
+    /** The random number generator of this gacha. Null in old save files until the first roll. */
+    private GachaRandom random;
+
+    /** The journal that records the roll count, or null if it is not recorded. */
+    private transient PetJournal journal;
+
+    /** The item each column of the alias table stands for, or null if the table must be rebuilt. */
+    private transient Item[] aliasItems;
+    /** The position of the item used when a roll lands above a column's cutoff. */
+    private transient int[] aliasOthers;
+    /** For each column, the part (out of the total gacha chance) that belongs to the column's own item. */
+    private transient long[] aliasCutoffs;
+    /** The sum of the chances in the alias table (negative chances count as 0). */
+    private transient int aliasTotal;
+    /** The total gacha chance when the alias table was built, to notice chances changed directly on an item. */
+    private transient int aliasBuiltFor;
 
     /**
      * Creates a new gacha system. A gacha is a system that randomly gives items to the player.
@@ -28,9 +54,26 @@ public class Gacha implements Serializable {
      * @param inventory the inventory to insert the item into
      */
     public Gacha(Inventory inventory) {
+        this(inventory, new GachaRandom());
+    }
+
+    /**
+     * Creates a new gacha system that always gives the same rolls for the same seed and items.
+     * Useful for tests and simulations.
+     * @see #Gacha(Inventory)
+     * @param inventory the inventory to insert the item into
+     * @param seed the seed of the random number generator
+     */
+    public Gacha(Inventory inventory, long seed) {
+        this(inventory, new GachaRandom(seed));
+    }
+
+    /** Helper constructor that creates a gacha with a generator. */
+    private Gacha(Inventory inventory, GachaRandom random) {
         gachaItems = new ArrayList<Item>();
         totalGachaChance = 0;
         this.inventory = inventory;
+        this.random = random;
     }
 
     /**
@@ -46,12 +89,14 @@ public class Gacha implements Serializable {
                 gachaItems.set(index, i);
                 i.setGachaChance(gachaChance);
                 totalGachaChance += gachaChance;
+                aliasItems = null;
                 return;
             }
         }
         i.setGachaChance(gachaChance);
         gachaItems.add(i);
         totalGachaChance += gachaChance;
+        aliasItems = null;
     }
 
     /**
@@ -64,6 +109,7 @@ public class Gacha implements Serializable {
             if (i.getItemName().equalsIgnoreCase(itemName)) {
                 gachaItems.remove(i);
                 totalGachaChance -= i.getGachaChance();
+                aliasItems = null;
                 return;
             }
         }
@@ -82,6 +128,7 @@ public class Gacha implements Serializable {
                 totalGachaChance -= i.getGachaChance();
                 i.setGachaChance(gachaChance);
                 totalGachaChance += i.getGachaChance();
+                aliasItems = null;
                 return;
             }
         }
@@ -98,16 +145,206 @@ public class Gacha implements Serializable {
      * @return the item object obtained from the gacha roll
      */
     public Item rollGacha() {
-        int random = (int) (Math.random() * totalGachaChance);
-        int sum = 0;
-        for (Item i : gachaItems) {
-            sum += i.getGachaChance();
-            if (random < sum) {
-                inventory.updateItemQuantity(i.getItemName(), 1);;
-                return i;
+        Item i = drawItem();
+        if (i != null) {
+            inventory.updateItemQuantity(i.getItemName(), 1);
+            recordRolls();
+        }
+        return i;
+    }
+
+    /**
+     * Rolls the gacha several times in one pass.
+     * <p>
+     * The results are counted per item and inserted into the inventory with one update per item, instead of one per roll.
+     * This method does not take coins, use Pet.pullGacha for that.
+     * @see Pet#pullGacha(int, int)
+     * @param rolls the number of rolls
+     * @return the summary of the items obtained
+     * @throws IllegalArgumentException if rolls is negative
+     */
+    public GachaSummary rollMany(int rolls) {
+        if (rolls < 0) {
+            throw new IllegalArgumentException("The number of rolls cannot be negative.");
+        }
+        if (rolls == 0 || !hasAliasTable()) {
+            return new GachaSummary(new Item[0], new int[0]);
+        }
+        Item[] items = aliasItems;
+        int[] counts = new int[items.length];
+        for (int r = 0; r < rolls; r++) {
+            counts[drawColumn()]++;
+        }
+
+        Map<String, Integer> changes = new LinkedHashMap<>();
+        for (int index = 0; index < items.length; index++) {
+            if (counts[index] > 0) {
+                changes.put(items[index].getItemName(), counts[index]);
+            }
+        }
+        inventory.updateItemQuantities(changes);
+        recordRolls();
+        return new GachaSummary(items, counts);
+    }
+
+    /**
+     * Picks a random item using the alias table, without inserting it into the inventory.
+     * @return the item, or null if no item has a gacha chance
+     */
+    Item drawItem() {
+        if (!hasAliasTable()) {
+            return null;
+        }
+        return aliasItems[drawColumn()];
+    }
+
+    /**
+     * Returns the items that past or future rolls give, without changing the inventory or the generator.
+     * <p>
+     * Roll number k is the k-th roll since the seed was set, starting at 0. The result uses the current items and chances,
+     * so it matches the real rolls as long as the items and chances were the same back then.
+     * @param firstRoll the number of the first roll to replay
+     * @param rolls the number of rolls to replay
+     * @return the items, in roll order. Empty if no item has a gacha chance.
+     */
+    public List<Item> replay(long firstRoll, int rolls) {
+        List<Item> results = new ArrayList<>(rolls);
+        if (!hasAliasTable()) {
+            return results;
+        }
+        GachaRandom generator = getRandom();
+        for (int r = 0; r < rolls; r++) {
+            results.add(aliasItems[columnFor(generator.doubleAt(firstRoll + r))]);
+        }
+        return results;
+    }
+
+    /**
+     * Restarts the random number generator from a seed.
+     * The following rolls are the same every time the same seed and items are used.
+     * @param seed the new seed
+     */
+    public void setSeed(long seed) {
+        random = new GachaRandom(seed);
+        recordRolls();
+    }
+
+    /**
+     * Returns the random number generator of this gacha.
+     * Its seed and count identify every roll made so far.
+     * @return the generator
+     */
+    public GachaRandom getRandom() {
+        if (random == null) {
+            random = new GachaRandom();
+        }
+        return random;
+    }
+
+    /**
+     * Sets the random number generator, used when loading a save file.
+     * @param random the generator
+     */
+    void setRandom(GachaRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Sets the journal that records the roll count.
+     * @see Pet#setJournal(PetJournal)
+     * @param journal the journal, or null to stop recording
+     */
+    void setJournal(PetJournal journal) {
+        this.journal = journal;
+    }
+
+    /** Helper method that records the generator's position in the journal, if there is one. */
+    private void recordRolls() {
+        if (journal != null) {
+            journal.recordRolls(random.getSeed(), random.getCount());
+        }
+    }
+
+    /** Helper method that builds the alias table if needed, and returns false if no item can be rolled. */
+    private boolean hasAliasTable() {
+        if (aliasItems == null || aliasBuiltFor != totalGachaChance || aliasItems.length != gachaItems.size()) {
+            buildAliasTable();
+        }
+        return aliasTotal > 0;
+    }
+
+    /** Helper method that rolls once and returns the position of the item in the alias table. */
+    private int drawColumn() {
+        return columnFor(getRandom().nextDouble());
+    }
+
+    /** Helper method that turns a random number between 0 and 1 into the position of an item in the alias table. */
+    private int columnFor(double uniform) {
+        // One draw picks both the column and the point inside it
+        long columns = aliasItems.length;
+        long point = Math.min((long) (uniform * columns * aliasTotal), columns * aliasTotal - 1);
+        int column = (int) (point / aliasTotal);
+        return point % aliasTotal < aliasCutoffs[column] ? column : aliasOthers[column];
+    }
+
+    /**
+     * Builds the alias table from the current gacha chances.
+     * <p>
+     * Every item gets a column of height total gacha chance. An item's chance, multiplied by the number of items, is poured into columns:
+     * items below the average fill part of their own column and lend the rest to an item above the average.
+     * All numbers are integers, so the table gives exactly the configured chances.
+     */
+    private void buildAliasTable() {
+        int n = gachaItems.size();
+        aliasItems = gachaItems.toArray(new Item[0]);
+        aliasOthers = new int[n];
+        aliasCutoffs = new long[n];
+        aliasBuiltFor = totalGachaChance;
+        aliasTotal = 0;
+        for (Item i : aliasItems) {
+            aliasTotal += Math.max(0, i.getGachaChance());
+        }
+        if (aliasTotal <= 0) {
+            return;
+        }
+
+        long[] scaled = new long[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int index = 0; index < n; index++) {
+            scaled[index] = (long) Math.max(0, aliasItems[index].getGachaChance()) * n;
+            if (scaled[index] < aliasTotal) {
+                small[smallCount++] = index;
+            } else {
+                large[largeCount++] = index;
             }
         }
-        return null;
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            aliasCutoffs[less] = scaled[less];
+            aliasOthers[less] = more;
+            scaled[more] -= aliasTotal - scaled[less];
+            if (scaled[more] < aliasTotal) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is exactly full
+        while (largeCount > 0) {
+            int full = large[--largeCount];
+            aliasCutoffs[full] = aliasTotal;
+            aliasOthers[full] = full;
+        }
+        while (smallCount > 0) {
+            int full = small[--smallCount];
+            aliasCutoffs[full] = aliasTotal;
+            aliasOthers[full] = full;
+        }
     }
 
     /**
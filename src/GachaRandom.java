@@ -0,0 +1,122 @@
+import java.io.Serializable;
+import java.security.SecureRandom;
+
+/** Represents the random number generator owned by a gacha.
+ * <p>
+ * This is a SplitMix64 generator (the algorithm behind java.util.SplittableRandom), kept as a seed and the number of values drawn.
+ * Value number k only depends on the seed and k, so any value can be computed again without replaying the ones before it.
+ * This is what makes a pull history reproducible: the seed and the roll count are saved with the game.
+ * <p>
+ * Every gacha has its own generator, so several gachas can be rolled on different threads without sharing any state.
+ */
+public class GachaRandom implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The increment between two states, the odd number closest to 2^64 divided by the golden ratio. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /** Used to create seeds when none is given. */
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    /** The seed the generator started from. */
+    private final long seed;
+    /** The number of values drawn so far. */
+    private long count;
+
+    /**
+     * Creates a generator with a random seed.
+     */
+    public GachaRandom() {
+        this(SEEDS.nextLong());
+    }
+
+    /**
+     * Creates a generator that always gives the same values for the same seed.
+     * @param seed the seed
+     */
+    public GachaRandom(long seed) {
+        this.seed = seed;
+        this.count = 0;
+    }
+
+    /**
+     * Creates a generator at a known position, used when loading a save file.
+     * @param seed the seed
+     * @param count the number of values already drawn
+     */
+    GachaRandom(long seed, long count) {
+        this.seed = seed;
+        this.count = count;
+    }
+
+    /**
+     * Returns the next random value.
+     * @return a uniformly distributed long
+     */
+    public long nextLong() {
+        return valueAt(count++);
+    }
+
+    /**
+     * Returns the next random value between 0 (inclusive) and 1 (exclusive).
+     * @return a uniformly distributed double
+     */
+    public double nextDouble() {
+        return toDouble(nextLong());
+    }
+
+    /**
+     * Returns a value drawn earlier or later, without moving the generator.
+     * @param index the position of the value, starting at 0
+     * @return the value between 0 (inclusive) and 1 (exclusive) that nextDouble returned or will return at that position
+     */
+    public double doubleAt(long index) {
+        return toDouble(valueAt(index));
+    }
+
+    /**
+     * Creates a new, independent generator seeded from this one.
+     * Use one per thread when running many rolls in parallel.
+     * @return the new generator
+     */
+    public GachaRandom split() {
+        return new GachaRandom(nextLong());
+    }
+
+    /**
+     * Returns the seed the generator started from.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of values drawn so far.
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Moves the generator to a position, as if that many values had been drawn. Used when replaying the journal.
+     * @param count the number of values drawn
+     */
+    void setCount(long count) {
+        this.count = count;
+    }
+
+    /** Helper method that computes value number index. */
+    private long valueAt(long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Helper method that turns the top 53 bits of a value into a double between 0 and 1. */
+    private static double toDouble(long value) {
+        return (value >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Represents the result of rolling the gacha several times: how many of each item were obtained.
+ * <p>
+ * Items are listed in the same order as in the gacha, and only items obtained at least once are listed.
+ * @see Gacha#rollMany(int)
+ */
+public class GachaSummary {
+
+    /** The items obtained, in gacha order. */
+    private final List<Item> items;
+    /** How many times each item was obtained, in the same order as items. */
+    private final int[] counts;
+    /** The total number of rolls. */
+    private final int totalRolls;
+
+    /**
+     * Creates a new summary.
+     * @param gachaItems the items of the gacha
+     * @param rollCounts how many times each item was obtained, in the same order as gachaItems
+     */
+    GachaSummary(Item[] gachaItems, int[] rollCounts) {
+        List<Item> obtained = new ArrayList<>();
+        int[] obtainedCounts = new int[gachaItems.length];
+        int total = 0;
+        for (int i = 0; i < gachaItems.length; i++) {
+            if (rollCounts[i] > 0) {
+                obtainedCounts[obtained.size()] = rollCounts[i];
+                obtained.add(gachaItems[i]);
+                total += rollCounts[i];
+            }
+        }
+        this.items = Collections.unmodifiableList(obtained);
+        this.counts = obtainedCounts;
+        this.totalRolls = total;
+    }
+
+    /**
+     * Returns the items obtained at least once.
+     * @return the items, in gacha order
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns how many times an item was obtained.
+     * @param itemName the name of the item
+     * @return the number of times the item was obtained, or 0 if it was not obtained
+     */
+    public int getCount(String itemName) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getItemName().equalsIgnoreCase(itemName)) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the total number of rolls.
+     * @return the number of rolls
+     */
+    public int getTotalRolls() {
+        return totalRolls;
+    }
+
+    /**
+     * Returns the summary as text, e.g. "7x Soccer Ball, 3x Toy Car".
+     * @return the summary text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(counts[i]).append("x ").append(items.get(i).getItemName());
+        }
+        return text.toString();
+    }
+}
@@ -7,70 +7,78 @@ import javafx.scene.text.Text;
  * This class is mostly used for the screen manager class.
  * It provides the empty methods for many methods on gameplay screens that must be accessed through the screen manager.
  * There are no functional methods in this class.
+ * <p>
+ * Gameplay screens react to the pet simulation's events (e.g. falling asleep, getting angry) by updating their buttons.
+ * @see PetSimulationListener
  */
-public abstract class GameScene {
+public abstract class GameScene implements PetSimulationListener {
     
     /**
-     * Represents the events that occur after every few seconds.
-     * <p>
-     * Every few seconds, the pet's stats besides health will decrease.
-     * Additionally, the pet will gain coins.
-     * The pet's states and UI will be updated accordingly.
+     * Returns the energy the pet gains on every sleep tick while this screen is shown.
+     * @return the energy gained per sleep tick
+     * @see PetSimulation#sleepTick(int, int)
      */
-    public void onTimerTick() {
-        // Default nothing. Do something in children gameplay screens.
+    public int getSleepEnergyGain() {
+        return PetSimulation.SLEEP_ENERGY;
     }
 
     /**
-     * Represents the events that occur when the pet is sleeping.
-     * <p>
-     * This timer is called when the pet starts sleeping, and is no longer called when the pet stops sleeping.
-     * This timer will continuously check if the pet is still sleeping, and if so, will increase the pet's energy value.
-     * If not, the gameplay buttons will be enabled again, assuming all other conditions are met.
+     * Returns the score the pet gains on every sleep tick while this screen is shown.
+     * @return the score gained per sleep tick
+     * @see PetSimulation#sleepTick(int, int)
+     */
+    public int getSleepScoreGain() {
+        return 0;
+    }
+
+    /**
+     * Shows a snapshot of the pet that is not right after a player action making it happy.
+     * @see #onSnapshot(PetSnapshot, boolean)
+     * @param snapshot the pet as it is now
      */
-    public void onSleepTick() {
-       // Default nothing. Do something in children gameplay screens.
+    @Override
+    public void onSnapshot(PetSnapshot snapshot) {
+        onSnapshot(snapshot, false);
     }
 
     /**
-     * Represents the events that occur when the pet is angry.
+     * Shows a snapshot of the pet on the screen. Called on the JavaFX thread.
      * <p>
-     * This timer is called when the pet is angry, and is no longer called when the pet is no longer angry.
-     * This timer will continuously check if the pet is still angry.
-     * If not, the gameplay buttons will be enabled again, assuming all other conditions are met.
+     * The pet looks happy if the snapshot is the first one after the player gave it something that increases happiness.
+     * The next snapshot (e.g. after a stat tick) shows it as usual again.
+     * @param snapshot the pet as it is now
+     * @param happy whether the pet just received something that increases happiness
      */
-    public void onAngryTick() {
+    public void onSnapshot(PetSnapshot snapshot, boolean happy) {
         // Default nothing. Do something in children gameplay screens.
     }
 
     /**
-     * Represents the cooldown for the play button in the playground class.
+     * Represents the events that occur when the scene is entered.
      * <p>
-     * This cooldown is called when the play button is pressed, and is no longer called when the cooldown reaches 0.
-     * Every second, the cooldown is decreased until it reaches 0. When that happens, the play button will be enabled.
+     * On scene entry, all UI elements are brought from the previous scene to maintain consistency.
+     * Additionally, the stat decrease timer will start. If there are any buttons that require a condition to work, this method also checks for that condition.
+     * It updates the buttons clickablility and the pet's states accordingly.
      */
-    public void onPlayCooldownTick() {
-        // Default nothing. Do something in sleep screen.
+    public void onEnter() {
+        // Default nothing. Do something in children gameplay screens.
     }
 
     /**
-     * Represents the cooldown for the vet button in the vet class.
+     * Represents the events that occur when another scene replaces this one on the screen.
      * <p>
-     * This cooldown is called when the vet button is pressed, and is no longer called when the cooldown reaches 0.
-     * Every second, the cooldown is decreased until it reaches 0. When that happens, the vet button will be enabled.
+     * Gameplay screens use this to stop updating what is only visible while they are shown (e.g. the seconds left on a cooldown).
      */
-    public void onVetCooldownTick() {
-        // Default nothing. Do something in sleep screen.
+    public void onLeave() {
+        // Default nothing. Do something in children gameplay screens.
     }
 
     /**
-     * Represents the events that occur when the scene is entered.
+     * Represents the events that occur when the scene is removed from the screen manager.
      * <p>
-     * On scene entry, all UI elements are brought from the previous scene to maintain consistency.
-     * Additionally, the stat decrease timer will start. If there are any buttons that require a condition to work, this method also checks for that condition.
-     * It updates the buttons clickablility and the pet's states accordingly.
+     * Gameplay screens use this to give their pet sprites back to the sprite atlas cache, so the frames can be freed once no scene uses them.
      */
-    public void onEnter() {
+    public void onRemove() {
         // Default nothing. Do something in children gameplay screens.
     }
 
@@ -119,11 +127,13 @@ public abstract class GameScene {
 
     /**
      * Updates the pet's states upon every stat increase or decrease.
+     * Gameplay screens run the rules of the pet simulation, and react to its events.
      * <p>
      * If the pet is dead, all buttons besides settings are no longer functional.
      * If the pet is angry, all buttons that don't increase happiness are not functional.
      * If the pet is sleeping, all buttons besides settings are no longer functional, and the pet will receive a health penalty.
      * If the pet is hungry, they will lose health and happiness over time.
+     * @see PetSimulation#updateState()
      */
     protected void updatePetState() {
 
@@ -7,6 +7,10 @@ public class GameState implements Serializable {
 
     /** The pet that should be restored. */
     private Pet pet;
+    /** When the save file was written, in milliseconds since the epoch, or 0 if unknown. */
+    private long savedAt;
+    /** When the pet was last played, if it is later than the save time (changes were journaled after the save). */
+    private transient long lastPlayedAt;
 
     /** 
      * Constructs a new save data structure that will persist through resets.
@@ -22,6 +26,16 @@ public class GameState implements Serializable {
 
     }
 
+    /**
+     * Constructs a save data structure read from a save file.
+     * @param pet The pet that should be restored.
+     * @param savedAt When the save file was written, in milliseconds since the epoch.
+     */
+    GameState(Pet pet, long savedAt) {
+        this.pet = pet;
+        this.savedAt = savedAt;
+    }
+
     /** 
      * Returns the pet that should be restored.
      * @return The pet that should be restored.
@@ -30,5 +44,30 @@ public class GameState implements Serializable {
         return pet;
     }
 
+    /**
+     * Returns when the save file was written.
+     * @return the time in milliseconds since the epoch, or 0 if the save was not read from a file or is too old to know
+     */
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    /**
+     * Returns when the pet was last played: the save time, or the last change replayed from the journal if it is later.
+     * This is where offline time starts.
+     * @return the time in milliseconds since the epoch, or 0 if unknown
+     */
+    public long getLastPlayedAt() {
+        return Math.max(savedAt, lastPlayedAt);
+    }
+
+    /**
+     * Sets when the pet was last played, used when changes made after the save are replayed.
+     * @param lastPlayedAt the time in milliseconds since the epoch
+     */
+    void setLastPlayedAt(long lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+
 }
 
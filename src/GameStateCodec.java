@@ -0,0 +1,318 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Represents the binary format of save files.
+ * <p>
+ * A save file starts with a magic number and a version, followed by a small header with the information shown on the load game screen,
+ * a table of every item, the pet's attributes, the inventory and gacha as indices into the item table,
+ * the seed and roll count of the gacha's random number generator, and the time left on the pet's cooldowns.
+ * Items shared by the inventory and the gacha are only written once.
+ * <p>
+ * This replaces Java serialization for save files. Legacy save files are still read by the save load manager.
+ * @see SaveLoadManager
+ */
+public class GameStateCodec {
+
+    /** The first four bytes of every save file ("EVOP"). */
+    public static final int MAGIC = 0x45564F50;
+    /** The version written by this class. Bump it whenever the layout changes, and keep reading older versions. */
+    public static final int VERSION = 4;
+    /** The first version with a preview header. */
+    private static final int HEADER_VERSION = 2;
+    /** The first version with the gacha's random number generator. */
+    private static final int RANDOM_VERSION = 3;
+    /** The first version with the pet's cooldowns. */
+    private static final int COOLDOWN_VERSION = 4;
+    /** The most items a save file can hold, so a damaged count cannot make the reader run out of memory. */
+    private static final int MAX_ITEM_COUNT = 1 << 16;
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public GameStateCodec() {
+        throw new NullPointerException("DON'T CREATE A GAMESTATECODEC OBJECT!!!");
+    }
+
+    /**
+     * Writes a game state, including the header, stamped with the current time.
+     * @param gameState the game state to write
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written to
+     */
+    public static void write(GameState gameState, DataOutput out) throws IOException {
+        write(gameState, out, System.currentTimeMillis());
+    }
+
+    /**
+     * Writes a game state, including the header.
+     * @param gameState the game state to write
+     * @param out the output to write to
+     * @param lastModified the time to store in the header, in milliseconds since the epoch
+     * @throws IOException if the output cannot be written to
+     */
+    public static void write(GameState gameState, DataOutput out, long lastModified) throws IOException {
+        write(gameState, snapshot(gameState.getPet()), out, lastModified);
+    }
+
+    /**
+     * Takes the snapshot a save is encoded from. The pet's lock is only held while it is copied,
+     * so a tick or a player action is either completely in the save or not at all.
+     * @param pet the pet to save
+     * @return the snapshot
+     */
+    static PetSnapshot snapshot(Pet pet) {
+        synchronized (pet) {
+            return pet.snapshot();
+        }
+    }
+
+    /**
+     * Writes a game state from a snapshot of its pet, including the header.
+     * The stats, states and item quantities come from the snapshot, so they all agree even if the pet changes while it is written.
+     * @param gameState the game state to write
+     * @param stats the snapshot of the game state's pet
+     * @param out the output to write to
+     * @param lastModified the time to store in the header, in milliseconds since the epoch
+     * @throws IOException if the output cannot be written to
+     */
+    static void write(GameState gameState, PetSnapshot stats, DataOutput out, long lastModified) throws IOException {
+        Pet pet = gameState.getPet();
+        Inventory inventory = pet.getInventory();
+        Gacha gacha = pet.getGacha();
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        // Header, always in this order so it can be read without the rest of the file
+        out.writeUTF(stats.getName());
+        out.writeUTF(stats.getType());
+        out.writeInt(stats.getScore());
+        out.writeInt(stats.getEvoLevel());
+        out.writeInt(stats.getHealth());
+        out.writeLong(lastModified);
+
+        // Item table, each item object written once
+        Map<Item, Integer> itemIndices = new IdentityHashMap<>();
+        List<Item> itemTable = new ArrayList<>();
+        if (inventory != null) {
+            addToTable(inventory.getItems(), itemIndices, itemTable);
+        }
+        if (gacha != null) {
+            addToTable(gacha.getGachaItems(), itemIndices, itemTable);
+        }
+        out.writeInt(itemTable.size());
+        for (int i = 0; i < itemTable.size(); i++) {
+            Item item = itemTable.get(i);
+            out.writeUTF(item.getItemName());
+            out.writeUTF(item.getItemType());
+            out.writeInt(item.getScoreIncrease());
+            // The inventory's items come first in the table, in the inventory's order
+            out.writeInt(i < stats.getItemCount() ? stats.getItemQuantity(i) : item.getQuantity());
+            out.writeInt(item.getGachaChance());
+        }
+
+        // Pet
+        out.writeUTF(stats.getName());
+        out.writeUTF(stats.getType());
+        out.writeInt(stats.getHealth());
+        out.writeInt(stats.getEnergy());
+        out.writeInt(stats.getFullness());
+        out.writeInt(stats.getHappiness());
+        out.writeInt(stats.getMaxHealth());
+        out.writeInt(stats.getMaxEnergy());
+        out.writeInt(stats.getMaxFullness());
+        out.writeInt(stats.getMaxHappiness());
+        out.writeBoolean(stats.isInAngryState());
+        out.writeBoolean(stats.isInSleepingState());
+        out.writeInt(stats.getScore());
+        out.writeInt(stats.getCoins());
+        out.writeInt(stats.getEvoLevel());
+
+        // Inventory and gacha, as indices into the item table (-1 if missing)
+        writeIndices(inventory == null ? null : inventory.getItems(), itemIndices, out);
+        writeIndices(gacha == null ? null : gacha.getGachaItems(), itemIndices, out);
+
+        // Gacha random number generator, only if there is a gacha
+        if (gacha != null) {
+            out.writeLong(gacha.getRandom().getSeed());
+            out.writeLong(gacha.getRandom().getCount());
+        }
+
+        // Time left on the cooldowns, since the game clock starts over when the game is loaded
+        out.writeLong(pet.getPlayCooldown().getRemainingMillis());
+        out.writeLong(pet.getVetCooldown().getRemainingMillis());
+    }
+
+    /**
+     * Reads a game state, including the header.
+     * @param in the input to read from
+     * @return the game state
+     * @throws IOException if the input cannot be read, does not start with the magic number, or has an unknown version
+     */
+    public static GameState read(DataInput in) throws IOException {
+        int version = readVersion(in);
+        long savedAt = 0;
+        if (version >= HEADER_VERSION) {
+            savedAt = readHeader(in, null).getLastModified();
+        }
+
+        // Item table
+        int itemCount = readCount(in, false);
+        Item[] itemTable = new Item[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            String itemName = in.readUTF();
+            String itemType = in.readUTF();
+            int scoreIncrease = in.readInt();
+            Item item;
+            try {
+                item = new Item(itemName, itemType, scoreIncrease);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Invalid item in save file: " + itemName, e);
+            }
+            item.updateQuantity(in.readInt());
+            item.setGachaChance(in.readInt());
+            itemTable[i] = item;
+        }
+
+        // Pet attributes
+        String name = in.readUTF();
+        String type = in.readUTF();
+        int health = in.readInt();
+        int energy = in.readInt();
+        int fullness = in.readInt();
+        int happiness = in.readInt();
+        int maxHealth = in.readInt();
+        int maxEnergy = in.readInt();
+        int maxFullness = in.readInt();
+        int maxHappiness = in.readInt();
+        boolean isInAngryState = in.readBoolean();
+        boolean isInSleepingState = in.readBoolean();
+        int score = in.readInt();
+        int coins = in.readInt();
+        int evoLevel = in.readInt();
+
+        // Inventory and gacha
+        Inventory inventory = null;
+        int inventoryCount = readCount(in, true);
+        if (inventoryCount >= 0) {
+            inventory = new Inventory();
+            for (int i = 0; i < inventoryCount; i++) {
+                Item item = readItem(in, itemTable);
+                try {
+                    inventory.addNewItem(item);
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IOException("Repeated item in save file: " + item.getItemName(), e);
+                }
+            }
+        }
+        Gacha gacha = null;
+        int gachaCount = readCount(in, true);
+        if (gachaCount >= 0) {
+            gacha = new Gacha(inventory);
+            for (int i = 0; i < gachaCount; i++) {
+                Item item = readItem(in, itemTable);
+                gacha.addNewItem(item, item.getGachaChance());
+            }
+            if (version >= RANDOM_VERSION) {
+                long seed = in.readLong();
+                long count = in.readLong();
+                gacha.setRandom(new GachaRandom(seed, count));
+            }
+        }
+
+        Pet pet = new Pet(name, type, inventory, gacha,
+                health, energy, fullness, happiness,
+                maxHealth, maxEnergy, maxFullness, maxHappiness,
+                isInAngryState, isInSleepingState, score, coins, evoLevel);
+        if (version >= COOLDOWN_VERSION) {
+            long playRemaining = in.readLong();
+            long vetRemaining = in.readLong();
+            pet.setCooldowns(Cooldown.withRemaining(playRemaining), Cooldown.withRemaining(vetRemaining));
+        }
+        return new GameState(pet, savedAt);
+    }
+
+    /**
+     * Reads only the header of a save file.
+     * @param in the input to read from
+     * @param fileName the name of the save file, stored in the preview
+     * @return the preview, or null if the file was written before headers existed
+     * @throws IOException if the input cannot be read, does not start with the magic number, or has an unknown version
+     */
+    public static SavePreview readPreview(DataInput in, String fileName) throws IOException {
+        if (readVersion(in) < HEADER_VERSION) {
+            return null;
+        }
+        return readHeader(in, fileName);
+    }
+
+    /** Helper method that checks the magic number and returns the version. */
+    private static int readVersion(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an EvoPets save file.");
+        }
+        int version = in.readUnsignedShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save file version: " + version);
+        }
+        return version;
+    }
+
+    /** Helper method that reads the header fields. */
+    private static SavePreview readHeader(DataInput in, String fileName) throws IOException {
+        String petName = in.readUTF();
+        String petType = in.readUTF();
+        int score = in.readInt();
+        int evoLevel = in.readInt();
+        int health = in.readInt();
+        long lastModified = in.readLong();
+        return new SavePreview(fileName, petName, petType, score, evoLevel, health, lastModified);
+    }
+
+    /** Helper method that adds items that are not in the item table yet. */
+    private static void addToTable(List<Item> items, Map<Item, Integer> itemIndices, List<Item> itemTable) {
+        for (Item item : items) {
+            if (!itemIndices.containsKey(item)) {
+                itemIndices.put(item, itemTable.size());
+                itemTable.add(item);
+            }
+        }
+    }
+
+    /** Helper method that writes a list of items as indices into the item table. */
+    private static void writeIndices(List<Item> items, Map<Item, Integer> itemIndices, DataOutput out) throws IOException {
+        if (items == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(items.size());
+        for (Item item : items) {
+            out.writeInt(itemIndices.get(item));
+        }
+    }
+
+    /** Helper method that reads a number of items, or -1 for a missing list if allowed. */
+    private static int readCount(DataInput in, boolean canBeMissing) throws IOException {
+        int count = in.readInt();
+        if (count < (canBeMissing ? -1 : 0) || count > MAX_ITEM_COUNT) {
+            throw new IOException("Invalid item count in save file: " + count);
+        }
+        return count;
+    }
+
+    /** Helper method that reads an index and returns the item it refers to. */
+    private static Item readItem(DataInput in, Item[] itemTable) throws IOException {
+        int index = in.readInt();
+        if (index < 0 || index >= itemTable.length) {
+            throw new IOException("Invalid item index in save file: " + index);
+        }
+        return itemTable[index];
+    }
+}
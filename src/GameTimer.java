@@ -1,14 +1,18 @@
-import javafx.animation.*;
-import javafx.util.Duration;
-
 /** Represents timers that will continuously run every few seconds.
  * <p>
  * Useful for background tasks that automatically update the UI and gamestate.
+ * Every timer is a channel of a tick scheduler, so all timers are driven by the same pulse.
+ * Timers can be started, paused and stopped from any thread. The change is made on the scheduler's thread.
+ * @see TickScheduler
  */
 public class GameTimer {
-    
-    /** The timeline object. */
-    private Timeline timeline;
+
+    /** The scheduler that runs the timer. */
+    private final TickScheduler scheduler;
+    /** The channel of the tick scheduler that holds this timer's task. */
+    private final TickScheduler.Channel channel;
+    /** The scheduled task, or null if the timer is stopped. */
+    private volatile TickScheduler.Task task;
     /** The runnable object. */
     private Runnable onTick;
     /** The frequency of the timer ticks. */
@@ -22,45 +26,63 @@ public class GameTimer {
      * @param onTick The runnable to run on each tick.
      */
     public GameTimer(double intervalSeconds, Runnable onTick) {
-        this.intervalSeconds = intervalSeconds;
-        this.onTick = onTick;
-        createTimeline();
+        this(TickScheduler.getDefault(), intervalSeconds, onTick);
     }
 
-    /** A helper method for the constructor.
-     * <p>
-     * Creates a new timeline object and sets the runnable to run on each tick.
+    /** Constructs a new game timer on a specific scheduler.
+     * Used for the pet's timers, which run on the simulation scheduler, and by tests, which move their scheduler forward by hand.
+     * @param scheduler The scheduler that runs the timer.
+     * @param intervalSeconds The interval in seconds between ticks.
+     * @param onTick The runnable to run on each tick.
      */
-    private void createTimeline() {
-        timeline = new Timeline(
-            new KeyFrame(Duration.seconds(intervalSeconds), 
-            e -> onTick.run())
-        );
-        timeline.setCycleCount(Animation.INDEFINITE);
+    GameTimer(TickScheduler scheduler, double intervalSeconds, Runnable onTick) {
+        this.scheduler = scheduler;
+        this.channel = scheduler.createChannel("timer");
+        this.intervalSeconds = intervalSeconds;
+        this.onTick = onTick;
     }
 
-    /** Starts the timeline. */
-    public void start() { 
-        timeline.play(); 
+    /** Starts the timer, or resumes it where it was paused. Does nothing if it is running. */
+    public void start() {
+        scheduler.execute(() -> {
+            if (task == null) {
+                long intervalMillis = Math.round(intervalSeconds * 1000);
+                task = channel.schedule(intervalMillis, intervalMillis, onTick);
+            }
+            channel.resume();
+        });
     }
 
-    /** Pauses the timeline. */
+    /** Pauses the timer. It continues where it left off when started again. */
     public void pause() {
-        timeline.pause(); 
+        scheduler.execute(channel::pause);
     }
 
-    /** Stops the timeline. */
-    public void stop() { 
-        timeline.stop(); 
+    /** Stops the timer. It starts a full interval over when started again. */
+    public void stop() {
+        scheduler.execute(() -> {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+        });
     }
-    
+
     /** Sets the frequency of each timer tick.
-     * 
+     * The timer is stopped, and uses the new interval once it is started again.
      * @param seconds The interval in seconds between ticks.
      */
     public void setInterval(double seconds) {
-        intervalSeconds = seconds;
-        createTimeline();
+        scheduler.execute(() -> intervalSeconds = seconds);
+        stop();
+    }
+
+    /** Returns whether the timer is running (started and not paused or stopped).
+     * On another thread than the scheduler's, the last start, pause or stop may not be seen yet.
+     * @return true if the timer is running
+     */
+    public boolean isRunning() {
+        return task != null && !channel.isPaused();
     }
 
-}
\ No newline at end of file
+}
@@ -1,9 +1,6 @@
 import javafx.scene.image.ImageView;
 import javafx.scene.image.Image;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,17 +11,15 @@ public class ImageManager {
     private static List<ImageView> registeredImages = new ArrayList<>();
 
     /**
-     * Load an image and set it to an ImageView
+     * Load an image and set it to an ImageView. The image is decoded once and shared through the asset preloader.
      * @param imageView the ImageView to set the image to
      * @param path the path to the image file
      * @throws IOException if the image file cannot be read
      */
     public static void loadImage(ImageView imageView, String path) throws IOException {
-        try (InputStream is = Files.newInputStream(Paths.get(path))) {
-            Image img = new Image(is);
+        Image img = AssetPreloader.getImage(path);
+        if (img != null) {
             imageView.setImage(img);
-        } catch (IOException e) {
-            e.printStackTrace(); // Handle I/O exceptions
         }
     }
 
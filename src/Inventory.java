@@ -1,10 +1,14 @@
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * An inventory is a list of items that the player has.
  * To add items, use the addItem method, and insert an item object.
  * Items remain in the inventory until they are deleted, even if their quantity is zero.
+ * <p>
+ * Item names are case insensitive. Lookups by name use an index, so they take the same time no matter how many items there are.
  */
 public class Inventory implements Serializable {
 
@@ -13,6 +17,12 @@ public class Inventory implements Serializable {
     /** A list that stores all items inside this inventory, including ones that have no quantity. */ 
     private ArrayList<Item> items;
 
+    /** The items keyed by their folded name, rebuilt after loading. Always holds the same items as the list. */
+    private transient HashMap<String, Item> index;
+
+    /** The journal that records quantity changes, or null if changes are not recorded. */
+    private transient PetJournal journal;
+
     /**
      * Creates a new inventory. An inventory is a list of items that the player has. 
      * <p>
@@ -26,6 +36,7 @@ public class Inventory implements Serializable {
      */
     public Inventory() {
         items = new ArrayList<Item>();
+        index = new HashMap<String, Item>();
     }
 
     /**
@@ -34,12 +45,12 @@ public class Inventory implements Serializable {
      * @throws IllegalArgumentException if an item with the same name already exists in the inventory
      */
     public void addNewItem(Item i) {
-        for (Item existingItem : items) {
-            if (existingItem.getItemName().equalsIgnoreCase(i.getItemName())) {
-                throw new IllegalArgumentException("Item with the same name already exists in the inventory.");
-            }
+        String key = foldName(i.getItemName());
+        if (getIndex().containsKey(key)) {
+            throw new IllegalArgumentException("Item with the same name already exists in the inventory.");
         }
         items.add(i);
+        index.put(key, i);
     }
 
     /**
@@ -48,13 +59,11 @@ public class Inventory implements Serializable {
      * @throws IllegalArgumentException if the item does not exist in the inventory
      */
     public void deleteItem(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                items.remove(i);
-                return;
-            }
+        Item i = getIndex().remove(foldName(itemName));
+        if (i == null) {
+            throw new IllegalArgumentException("Item does not exist in the inventory.");
         }
-        throw new IllegalArgumentException("Item does not exist in the inventory.");
+        items.remove(i);
     }
 
     /**
@@ -65,16 +74,27 @@ public class Inventory implements Serializable {
         return items;
     }
 
+    /**
+     * Returns the quantity of every item, in the same order as getItems().
+     * @return a new array holding the quantities
+     */
+    public int[] getQuantities() {
+        int[] quantities = new int[items.size()];
+        for (int i = 0; i < quantities.length; i++) {
+            quantities[i] = items.get(i).getQuantity();
+        }
+        return quantities;
+    }
+
     /**
      * Finds an item by its name and returns its type (food or gift).
      * @param itemName the name of the item to search for
      * @return the type of the item if found, or null if the item is not found
      */
     public String getItemType(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                return i.getItemType();
-            }
+        Item i = findItem(itemName);
+        if (i != null) {
+            return i.getItemType();
         }
         return null; // Return null if the item is not found
     }
@@ -85,10 +105,9 @@ public class Inventory implements Serializable {
      * @return the quantity of the item if found, or -1 if the item is not found
      */
     public int getItemQuantity(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                return i.getQuantity();
-            }
+        Item i = findItem(itemName);
+        if (i != null) {
+            return i.getQuantity();
         }
         return -1; // Return -1 if the item is not found
     }
@@ -99,23 +118,36 @@ public class Inventory implements Serializable {
      * @param value the value to add to the current quantity. Can be positive or negative.
      */
     public void updateItemQuantity(String itemName, int value) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                i.updateQuantity(value);
+        Item i = findItem(itemName);
+        if (i != null) {
+            i.updateQuantity(value);
+            if (journal != null) {
+                journal.recordItem(i.getItemName(), i.getQuantity());
             }
         }
     }
 
+    /**
+     * Updates the quantities of several items at once, with one lookup per item.
+     * Used to insert the results of many gacha rolls.
+     * @see #updateItemQuantity(String, int)
+     * @param changes the value to add to the quantity of each item, by item name. Items that do not exist are ignored.
+     */
+    public void updateItemQuantities(Map<String, Integer> changes) {
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            updateItemQuantity(change.getKey(), change.getValue());
+        }
+    }
+
     /**
      * Finds an item by its name and returns its score increase.
      * @param itemName the name of the item to search for
      * @return the score increase of the item if found, or -1 if the item is not found
      */
     public int getItemScoreIncrease(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                return i.getScoreIncrease();
-            }
+        Item i = findItem(itemName);
+        if (i != null) {
+            return i.getScoreIncrease();
         }
         return -1; // Return -1 if the item is not found
 
@@ -127,12 +159,7 @@ public class Inventory implements Serializable {
      * @return true if the inventory has the item, false otherwise
      */
     public boolean hasItem(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                return true;
-            }
-        }
-        return false;
+        return findItem(itemName) != null;
     }
 
     /**
@@ -142,16 +169,57 @@ public class Inventory implements Serializable {
      * @throws IllegalArgumentException if the item does not exist in the inventory
      */
     public Item useItem(String itemName) {
-        for (Item i : items) {
-            if (i.getItemName().equalsIgnoreCase(itemName)) {
-                if (i.getQuantity() > 0) {
-                    i.updateQuantity(-1);
-                    return i;
-                }
-                return null; // Return null if the item's quantity is 0
+        Item i = findItem(itemName);
+        if (i == null) {
+            throw new IllegalArgumentException("Item does not exist in the inventory.");
+        }
+        if (i.getQuantity() > 0) {
+            i.updateQuantity(-1);
+            if (journal != null) {
+                journal.recordItem(i.getItemName(), i.getQuantity());
+            }
+            return i;
+        }
+        return null; // Return null if the item's quantity is 0
+    }
+
+    /**
+     * Sets the journal that records quantity changes.
+     * @see Pet#setJournal(PetJournal)
+     * @param journal the journal, or null to stop recording
+     */
+    void setJournal(PetJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Folds an item name so that two names that are equal ignoring case give the same key.
+     * Each character is folded the same way String.equalsIgnoreCase compares them.
+     * @param itemName the item name
+     * @return the index key
+     */
+    static String foldName(String itemName) {
+        StringBuilder key = new StringBuilder(itemName.length());
+        for (int i = 0; i < itemName.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(itemName.charAt(i))));
+        }
+        return key.toString();
+    }
+
+    /** Helper method that finds an item by name, or returns null. */
+    private Item findItem(String itemName) {
+        return getIndex().get(foldName(itemName));
+    }
+
+    /** Helper method that returns the index, rebuilding it after loading or if the list was changed directly. */
+    private HashMap<String, Item> getIndex() {
+        if (index == null || index.size() != items.size()) {
+            index = new HashMap<String, Item>();
+            for (Item i : items) {
+                index.putIfAbsent(foldName(i.getItemName()), i);
             }
         }
-        throw new IllegalArgumentException("Item does not exist in the inventory.");
+        return index;
     }
 
 }
@@ -26,6 +26,13 @@ public class InventoryScene extends GameScene {
     private Pet pet;
     /** The button that allows the player to gacha. */
     private Button gachaButton;
+    /** The button that allows the player to gacha ten times at once. */
+    private Button gachaTenButton;
+
+    /** The number of coins a single gacha roll costs. */
+    private static final int GACHA_COST = 2;
+    /** The number of rolls done by the multi pull button. */
+    private static final int MULTI_PULL_ROLLS = 10;
 
     /**
      * Creates a new inventory scene.
@@ -134,16 +141,16 @@ public class InventoryScene extends GameScene {
         });
 
         // gacha button logic
-        gachaButton = new Button("Gacha (2 coins)");
+        gachaButton = new Button("Gacha (" + GACHA_COST + " coins)");
         ButtonManager.registerButton(gachaButton);
-        gachaButton.setOnAction(e -> {
-            pet.incrementCoins(-2);
-            Item wonItem = pet.getGacha().rollGacha();
-            System.out.println("🎁 You received: " + wonItem.getItemName());
-            screenManager.transition(previousSceneName, false);
-        });
+        gachaButton.setOnAction(e -> pullGacha(screenManager, previousSceneName, 1));
 
-        buttonRow.getChildren().addAll(backButton, gachaButton);
+        // rolls ten times with a single inventory update and a single transition
+        gachaTenButton = new Button("Gacha x" + MULTI_PULL_ROLLS + " (" + (GACHA_COST * MULTI_PULL_ROLLS) + " coins)");
+        ButtonManager.registerButton(gachaTenButton);
+        gachaTenButton.setOnAction(e -> pullGacha(screenManager, previousSceneName, MULTI_PULL_ROLLS));
+
+        buttonRow.getChildren().addAll(backButton, gachaButton, gachaTenButton);
         rootLayout.getChildren().add(buttonRow);
 
         // Circular ❓ info button
@@ -175,6 +182,22 @@ public class InventoryScene extends GameScene {
         return scene;
     }
 
+    /** Helper method that pays for and rolls the gacha, then returns to the previous scene once.
+     *
+     * @param screenManager the screen manager that manages the scenes
+     * @param previousSceneName the name of the scene to return to
+     * @param rolls the number of rolls
+     */
+    private void pullGacha(ScreenManager screenManager, String previousSceneName, int rolls) {
+        GachaSummary summary = pet.pullGacha(rolls, GACHA_COST);
+        if (summary == null) {
+            onEnter();
+            return;
+        }
+        System.out.println("🎁 You received: " + summary);
+        screenManager.transition(previousSceneName, false);
+    }
+
     /** Helper method that gets the images file of the objects.
      * 
      * @param itemName the name of the item
@@ -226,8 +249,8 @@ public class InventoryScene extends GameScene {
     @Override
     public void onEnter() {
         int count = 0;
-        if (pet.getCoins() < 2) gachaButton.setDisable(true);
-        else gachaButton.setDisable(false);
+        gachaButton.setDisable(pet.getCoins() < GACHA_COST);
+        gachaTenButton.setDisable(pet.getCoins() < GACHA_COST * MULTI_PULL_ROLLS);
         for (Item item : pet.getInventory().getItems()) {
             if (pet.isStillAngry() && count <= 2) {
                 buttons[count].setDisable(true);
@@ -37,6 +37,13 @@ public class KitchenScene extends GameScene {
     /** The button to purchase a salad. */
     private Button saladButton;
 
+    /** The price of a burger, in coins. */
+    public static final int BURGER_PRICE = 2;
+    /** The price of a pizza, in coins. */
+    public static final int PIZZA_PRICE = 5;
+    /** The price of a salad, in coins. */
+    public static final int SALAD_PRICE = 7;
+
     /** Creates a kitchen scene.
      * <p>
      * In this scene, the pet can purchase food using coins. The food will be brought into the inventory, where the pet can eat the food.
@@ -62,62 +69,13 @@ public class KitchenScene extends GameScene {
         ImageManager.loadImage(backgroundImageView, "../assets/backgrounds/KitchenBackground.png");
         ImageManager.scaleBackground(backgroundImageView, Main.WIDTH, Main.HEIGHT);
 
-        // burger button
-        burgerButton = new Button("Buy Burger (2 coins)");
-        burgerButton.setOnAction(e -> {
-            if (pet.getCoins() >= 2) {
-                pet.getInventory().updateItemQuantity("Burger", 1);
-                pet.incrementCoins(-2);
-                if (pet.getCoins() < 7) {
-                    saladButton.setDisable(true);
-                }        
-                if (pet.getCoins() < 5) {
-                    pizzaButton.setDisable(true);
-                }
-                if (pet.getCoins() < 2) {
-                    burgerButton.setDisable(true);
-                }
-            }
-            screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        });
-        
-        // pizza button
-        pizzaButton = new Button("Buy Pizza (5 coins)");
-        pizzaButton.setOnAction(e -> {
-            if (pet.getCoins() >= 5) {
-                pet.incrementCoins(-5);
-                pet.getInventory().updateItemQuantity("Pizza", 1);
-                if (pet.getCoins() < 7) {
-                    saladButton.setDisable(true);
-                }        
-                if (pet.getCoins() < 5) {
-                    pizzaButton.setDisable(true);
-                }
-                if (pet.getCoins() < 2) {
-                    burgerButton.setDisable(true);
-                }
-            }
-            screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        });
-
-        // salad button
-        saladButton = new Button("Buy Salad (7 coins)");
-        saladButton.setOnAction(e -> {
-            if (pet.getCoins() >= 7) {
-                pet.incrementCoins(-7);
-                pet.getInventory().updateItemQuantity("Salad", 1);
-                if (pet.getCoins() < 7) {
-                    saladButton.setDisable(true);
-                }
-                if (pet.getCoins() < 5) {
-                    pizzaButton.setDisable(true);
-                }
-                if (pet.getCoins() < 2) {
-                    burgerButton.setDisable(true);
-                }
-            }
-            screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        });
+        // food buttons
+        burgerButton = new Button("Buy Burger (" + BURGER_PRICE + " coins)");
+        burgerButton.setOnAction(e -> buyFood("Burger", BURGER_PRICE));
+        pizzaButton = new Button("Buy Pizza (" + PIZZA_PRICE + " coins)");
+        pizzaButton.setOnAction(e -> buyFood("Pizza", PIZZA_PRICE));
+        saladButton = new Button("Buy Salad (" + SALAD_PRICE + " coins)");
+        saladButton.setOnAction(e -> buyFood("Salad", SALAD_PRICE));
 
         // Set button properties
         burgerButton.setMinSize(75, 50);
@@ -180,6 +138,30 @@ public class KitchenScene extends GameScene {
         foodContainer.setTranslateX(width * 0.5);
     }
 
+    /**
+     * Helper method that buys a food and puts it in the inventory, if the pet has enough coins.
+     * The coins are checked and spent in one step, so coins gained by a stat tick at the same time are never lost.
+     * The purchase runs on the simulation thread, and the coins and buttons are shown from the snapshot after it.
+     */
+    private void buyFood(String food, int price) {
+        screenManager.runOnSimulation(() -> {
+            if (pet.spendCoins(price)) {
+                pet.getInventory().updateItemQuantity(food, 1);
+            }
+        });
+    }
+
+    /**
+     * Helper method that enables the food buttons the pet has enough coins for, and disables the others.
+     * @param coins the pet's coins, read once so every button agrees
+     * @param usable whether the pet can eat now (e.g. it is not angry or sleeping), or every button is disabled
+     */
+    private void updateFoodButtons(int coins, boolean usable) {
+        burgerButton.setDisable(!usable || coins < BURGER_PRICE);
+        pizzaButton.setDisable(!usable || coins < PIZZA_PRICE);
+        saladButton.setDisable(!usable || coins < SALAD_PRICE);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -202,24 +184,7 @@ public class KitchenScene extends GameScene {
             screenManager.getAngryTimer().start();
         }
         else {
-            if (pet.getCoins() < 7) {
-                saladButton.setDisable(true);
-            }
-            else {
-                saladButton.setDisable(false);
-            }
-            if (pet.getCoins() < 5) {
-                pizzaButton.setDisable(true);
-            }
-            else {
-                pizzaButton.setDisable(false);
-            }
-            if (pet.getCoins() < 2) {
-                burgerButton.setDisable(true);
-            }
-            else {
-               burgerButton.setDisable(false);
-            }
+            updateFoodButtons(pet.getCoins(), true);
         }
         
         screenManager.getStatTimer().start();
@@ -229,70 +194,68 @@ public class KitchenScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onTimerTick() {
-        if (pet.isHungry()) pet.incrementHappiness(-20);
-        pet.decrementAllStats(8);
-        pet.incrementCoins(1);
-        screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        if (!pet.isStillAngry() && !pet.isStillSleeping()) {
-            if (pet.getCoins() >= 2) {
-                burgerButton.setDisable(false);
-            }
-            if (pet.getCoins() >= 5) {
-                pizzaButton.setDisable(false);
-            }
-            if (pet.getCoins() >= 7) {
-                saladButton.setDisable(false);
-            }
-        }
-        updatePetState();
-        UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onSnapshot(PetSnapshot snapshot, boolean happy) {
+        screenOverlay.showSnapshot(snapshot);
+        updateFoodButtons(snapshot.getCoins(), !snapshot.isDead() && !snapshot.isStillAngry() && !snapshot.isStillSleeping());
+        UIUpdate.updateUI(snapshot, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), happy);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onSleepTick() {
-        if (pet.isStillSleeping()) {
-            pet.incrementEnergy(10);
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
-        }
-        if (!pet.isStillSleeping()) {
-            screenManager.getSleepTimer().pause();
-            screenOverlay.getLeftArrowButton().setDisable(false);
-            screenOverlay.getRightArrowButton().setDisable(false);
-            screenOverlay.getInventoryButton().setDisable(false);
-            screenOverlay.getSettingsButton().setDisable(false);
-            if (!pet.isStillAngry() && pet.getCoins() >= 2) {
-                burgerButton.setDisable(false);
-                if (pet.getCoins() >= 5) {
-                    pizzaButton.setDisable(false);
-                }
-                if (pet.getCoins() >= 7) {
-                    saladButton.setDisable(false);
-                }
-            }       
-        }
+    public void onFellAsleep(Pet pet) {
+        burgerButton.setDisable(true);
+        pizzaButton.setDisable(true);
+        saladButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(true);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onAngryTick() {
-        if (!pet.isStillAngry()) {
-            screenManager.getAngryTimer().pause();
-            if (!pet.isStillSleeping() && pet.getCoins() >= 2) {
-                burgerButton.setDisable(false);
-                if (pet.getCoins() >= 5) {
-                    pizzaButton.setDisable(false);
-                }
-                if (pet.getCoins() >= 7) {
-                    saladButton.setDisable(false);
-                }
-            }     
-        }
+    public void onWokeUp(Pet pet) {
+        screenOverlay.getLeftArrowButton().setDisable(false);
+        screenOverlay.getRightArrowButton().setDisable(false);
+        screenOverlay.getInventoryButton().setDisable(false);
+        screenOverlay.getSettingsButton().setDisable(false);
+        updateFoodButtons(pet.getCoins(), !pet.isStillAngry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onAngry(Pet pet) {
+        burgerButton.setDisable(true);
+        pizzaButton.setDisable(true);
+        saladButton.setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCalmed(Pet pet) {
+        updateFoodButtons(pet.getCoins(), !pet.isStillSleeping());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onDied(Pet pet) {
+        burgerButton.setDisable(true);
+        pizzaButton.setDisable(true);
+        saladButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(false);
     }
 
     /**
@@ -323,55 +286,7 @@ public class KitchenScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    protected void updatePetState() {
-        if (pet.isDead()) {
-            burgerButton.setDisable(true);
-            pizzaButton.setDisable(true);
-            saladButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        if (pet.isSleeping()) {
-            pet.incrementHealth(-40);
-            burgerButton.setDisable(true);
-            pizzaButton.setDisable(true);
-            saladButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(true);
-            screenManager.getSleepTimer().start();
-        }
-        if (pet.isHungry()) {
-            pet.incrementHealth(-20);
-            pet.incrementHappiness(-20);
-        }
-        if (pet.isAngry()) {
-            burgerButton.setDisable(true);
-            pizzaButton.setDisable(true);
-            saladButton.setDisable(true);
-            screenManager.getAngryTimer().start();
-        }  
-        if (pet.isDead()) {
-            burgerButton.setDisable(true);
-            pizzaButton.setDisable(true);
-            saladButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
+    public void onRemove() {
+        petOverlay.release();
     }
 }
@@ -1,7 +1,5 @@
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.Path;
+import java.util.List;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -23,17 +21,19 @@ public class LoadGameScene extends GameScene {
     private ImageView backgroundImage;
     /** The VBox that holds the screen elements. */
     private VBox vBox;
-    /** The array of save files. */
-    private GameState[] saveFiles;
+    /** The previews of the save files shown on the screen. */
+    private SavePreview[] saveFiles;
 
     /**
      * Constructs the load game screen.
      * <p>
      * This screen allows the user to load a past save file. There are 3 save slots, each displaying information about the save.
+     * The slots show the most recent saves, read from the save index. A save is only loaded when its slot is clicked.
+     * When a save is loaded, the pet catches up on the time that passed since it was last played.
      * @param screenManager The screen manager that manages the transitions between screens.
      */
     public LoadGameScene(ScreenManager screenManager) throws IOException {
-        this.saveFiles = new GameState[3];
+        this.saveFiles = new SavePreview[3];
 
         // Use a StackPane as the root layout
         StackPane root = new StackPane();
@@ -62,14 +62,25 @@ public class LoadGameScene extends GameScene {
                 Button button = createLoadButton(null, null);
                 vBox.getChildren().add(button);
             } else {
-                Pet pet = saveFiles[i].getPet();
-                String details = "Pet Type: " + pet.getType() + "\nScore: " + pet.getScore() + "\nEvoLevel: " + pet.getEvoLevel();
-                Button button = createLoadButton(saveFiles[i].getPet().getName(), details);
+                SavePreview preview = saveFiles[i];
+                String details = "Pet Type: " + preview.getPetType() + "\nScore: " + preview.getScore() + "\nEvoLevel: " + preview.getEvoLevel();
+                Button button = createLoadButton(preview.getPetName(), details);
 
                 // Loads the game when the button is clicked
                 button.setOnAction(e -> {
+                    GameState gameState = SaveLoadManager.loadGame(SaveIndex.getSaveFolder().resolve(preview.getFileName()).toString());
+                    if (gameState == null) {
+                        button.setDisable(true);
+                        return;
+                    }
+                    Pet pet = gameState.getPet();
                     ButtonManager.clearButtonElements();
 
+                    // The pet's time kept passing while the game was closed
+                    if (gameState.getLastPlayedAt() > 0) {
+                        screenManager.getSimulation(pet).fastForward(System.currentTimeMillis() - gameState.getLastPlayedAt());
+                    }
+
                     try {
                         PlaygroundScene playgroundScene = new PlaygroundScene(screenManager, pet);
                         BedroomScene bedroomScene = new BedroomScene(screenManager, pet);
@@ -82,6 +93,9 @@ public class LoadGameScene extends GameScene {
                         screenManager.addScreen("Vet", vetScene.getScene(), vetScene);
 
                         screenManager.getGameScene("Settings").setPet(pet);
+
+                        // Records every change so progress survives a crash
+                        PetJournal.attach(pet.getName(), pet);
                     }
                     catch (IOException ex) {
                         ex.printStackTrace();
@@ -152,23 +166,11 @@ public class LoadGameScene extends GameScene {
         return button;
     }
 
-    /** Populates the saveFiles array with past game objects */
+    /** Populates the saveFiles array with the previews of the most recent saves */
     private void getSaves() {
-        String folderPath = System.getProperty("user.dir");
-
-        try (var stream = Files.list(Paths.get(folderPath))) {
-            int count = 0;
-            for (Path path : stream.toArray(Path[]::new)) {
-                String saveFile = path.toString();
-                if (saveFile.endsWith(".ser") && !saveFile.endsWith("TimeInformation.ser") && count < 3) {
-                    System.out.println(saveFile);
-                    saveFiles[count] = SaveLoadManager.loadGame(saveFile);
-                    count++;
-                }
-                if (count >= 3) break;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        List<SavePreview> previews = SaveIndex.getPreviews(SaveIndex.getSaveFolder());
+        for (int i = 0; i < saveFiles.length && i < previews.size(); i++) {
+            saveFiles[i] = previews.get(i);
         }
     }
 
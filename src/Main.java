@@ -1,4 +1,5 @@
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -13,6 +14,10 @@ public class Main extends Application {
     public static final double WIDTH = 1280;
     /** Height of the game window */
     public static final double HEIGHT = 720;
+    /** The names of the screens created after the main menu. */
+    private static final String[] MENU_SCREENS = {
+        "Credits", "Settings", "NewAndLoad", "PetSelection", "PetName", "Tutorial", "ParentControlPassword", "ParentControls"
+    };
     
     /**
      * Starts the JavaFX application.
@@ -20,6 +25,19 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException{
+        // For testing: java -Devopets.timeScale=1000 (or 10, or max) Main runs the pet's time faster
+        String timeScale = System.getProperty("evopets.timeScale");
+        if (timeScale != null) {
+            try {
+                TickScheduler.getSimulation().setTimeScale(TickScheduler.parseTimeScale(timeScale));
+            }
+            catch (IllegalArgumentException e) {
+                e.printStackTrace();
+            }
+        }
+        // Sprites and play time run from the JavaFX pulse, and the pet's timers from their own thread
+        TickScheduler.getDefault().start();
+        TickScheduler.getSimulation().startThread("Pet simulation");
 
         TimeInformation time = SaveLoadManager.loadTime();
         if (time == null) {
@@ -28,29 +46,26 @@ public class Main extends Application {
         else {
             time.createCheckTimes();
         }
-        // Creates all scenes that don't require the pet object
         ScreenManager screenManager = new ScreenManager(primaryStage, time);
-        MainMenuScene mainMenuScene = new MainMenuScene(screenManager);
-        LoadAndNewGameScene loadAndNewgameScreen = new LoadAndNewGameScene(screenManager);
-        CreditsScene creditsScene = new CreditsScene(screenManager);
-        SettingsScene settingsScene = new SettingsScene(screenManager);
-        PetSelectionScene petSelectionScene = new PetSelectionScene(screenManager);
-        PetNameScene petNameScene = new PetNameScene(screenManager);
-        TutorialScene tutorialScene = new TutorialScene(screenManager);
-        ParentControlPasswordScene parentControlPasswordScene = new ParentControlPasswordScene(screenManager);
-        ParentControlsScene parentControlsScene = new ParentControlsScene(screenManager);
-        // Pushes all scenes to the screen manager
-        screenManager.addScreen("MainMenu", mainMenuScene.getScene(), mainMenuScene);
-        screenManager.addScreen("Credits", creditsScene.getScene(), creditsScene);
-        screenManager.addScreen("Settings", settingsScene.getScene(), settingsScene);
-        screenManager.addScreen("NewAndLoad", loadAndNewgameScreen.getScene(), loadAndNewgameScreen);
-        screenManager.addScreen("PetSelection", petSelectionScene.getScene(), petSelectionScene);
-        screenManager.addScreen("PetName", petNameScene.getScene(), petNameScene);
-        screenManager.addScreen("Tutorial", tutorialScene.getScene(), tutorialScene);
-        screenManager.addScreen("ParentControlPassword", parentControlPasswordScene.getScene(), parentControlPasswordScene);
-        screenManager.addScreen("ParentControls", parentControlsScene.getScene(), parentControlsScene);
-        // Sets the initial scene to the main menu
-        screenManager.switchTo("MainMenu");
+        // The splash is shown while the assets of all screens are decoded in the background, the main menu's first
+        SplashScene splashScene = new SplashScene();
+        AssetPreloader.ProgressListener progress = (loaded, requested) -> Platform.runLater(() -> splashScene.setProgress(loaded, requested));
+        AssetPreloader.addProgressListener(progress);
+        CompletableFuture<Void> mainMenuAssets = AssetPreloader.preload(AssetPreloader.MAIN_MENU_ASSETS);
+        CompletableFuture<Void> screenAssets = AssetPreloader.preload(AssetPreloader.SCREEN_ASSETS);
+        // The main menu's buttons work before the other screens are created: they are shown once they are
+        for (String name : MENU_SCREENS) {
+            screenManager.expectScreen(name);
+        }
+        mainMenuAssets.thenRun(() -> Platform.runLater(() -> {
+            showMainMenu(screenManager);
+            // Queued after the main menu, so it is always shown first
+            screenAssets.thenRun(() -> Platform.runLater(() -> {
+                addMenuScreens(screenManager);
+                AssetPreloader.removeProgressListener(progress);
+            }));
+        }));
+        primaryStage.setScene(splashScene.getScene());
         primaryStage.setTitle("EvoPets");
         primaryStage.setWidth(WIDTH);
         primaryStage.setHeight(HEIGHT);
@@ -61,6 +76,58 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Creates the main menu and switches to it, replacing the splash screen.
+     * @param screenManager the screen manager that stores the scenes
+     */
+    private static void showMainMenu(ScreenManager screenManager) {
+        try {
+            MainMenuScene mainMenuScene = new MainMenuScene(screenManager);
+            screenManager.addScreen("MainMenu", mainMenuScene.getScene(), mainMenuScene);
+            screenManager.switchTo("MainMenu");
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates all the other scenes that don't require the pet object and pushes them to the screen manager.
+     * @param screenManager the screen manager that stores the scenes
+     */
+    private static void addMenuScreens(ScreenManager screenManager) {
+        try {
+            LoadAndNewGameScene loadAndNewgameScreen = new LoadAndNewGameScene(screenManager);
+            CreditsScene creditsScene = new CreditsScene(screenManager);
+            SettingsScene settingsScene = new SettingsScene(screenManager);
+            PetSelectionScene petSelectionScene = new PetSelectionScene(screenManager);
+            PetNameScene petNameScene = new PetNameScene(screenManager);
+            TutorialScene tutorialScene = new TutorialScene(screenManager);
+            ParentControlPasswordScene parentControlPasswordScene = new ParentControlPasswordScene(screenManager);
+            ParentControlsScene parentControlsScene = new ParentControlsScene(screenManager);
+            screenManager.addScreen("Credits", creditsScene.getScene(), creditsScene);
+            screenManager.addScreen("Settings", settingsScene.getScene(), settingsScene);
+            screenManager.addScreen("NewAndLoad", loadAndNewgameScreen.getScene(), loadAndNewgameScreen);
+            screenManager.addScreen("PetSelection", petSelectionScene.getScene(), petSelectionScene);
+            screenManager.addScreen("PetName", petNameScene.getScene(), petNameScene);
+            screenManager.addScreen("Tutorial", tutorialScene.getScene(), tutorialScene);
+            screenManager.addScreen("ParentControlPassword", parentControlPasswordScene.getScene(), parentControlPasswordScene);
+            screenManager.addScreen("ParentControls", parentControlsScene.getScene(), parentControlsScene);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Called when the game closes. Waits for the journal and background saves to finish writing.
+     */
+    @Override
+    public void stop() {
+        PetJournal.closeCurrent();
+        SaveService.flush();
+    }
+
     /**
      * Enforces a 16:9 aspect ratio for the game window.
      * This method ensures that the width and height of the stage maintain a 16:9 ratio.
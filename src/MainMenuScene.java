@@ -72,8 +72,8 @@ public class MainMenuScene extends GameScene {
         spriteContainer.setAlignment(Pos.CENTER);
 
         // Load sprite sheets
-        catSheet = new Image("file:../assets/sprites/teenCatSprite.png");
-        dogSheet = new Image("file:../assets/sprites/teenDogSprite.png");
+        catSheet = AssetPreloader.getImage("../assets/sprites/teenCatSprite.png");
+        dogSheet = AssetPreloader.getImage("../assets/sprites/teenDogSprite.png");
 
         // Initialize ImageViews for sprites
         sprite1 = new ImageView();
@@ -10,9 +10,8 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.List;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
@@ -274,38 +273,30 @@ public class ParentControlsScene extends GameScene {
     /** Revives all pets that are currently stored as save files. */
     private void revivePet() {
 
-        // Finds all pet save files
-        String folderPath = System.getProperty("user.dir");
+        // Only the dead pets in the save slots are loaded, the rest are checked from the save index
+        Path folder = SaveIndex.getSaveFolder();
+        List<SavePreview> previews = SaveIndex.getPreviews(folder);
         boolean hasRevived = false;
 
-        try (var stream = Files.list(Paths.get(folderPath))) {
-            int count = 0;
-            for (Path path : stream.toArray(Path[]::new)) {
-                String saveFile = path.toString();
-                if (saveFile.endsWith(".ser") && !saveFile.endsWith("TimeInformation.ser") && count < 3) {
-                    Pet pet = SaveLoadManager.loadGame(saveFile).getPet();
-                    if (pet.isDead()) {
-                        pet.incrementHealth(1000);
-                        pet.incrementEnergy(1000);
-                        pet.incrementHappiness(1000);
-                        pet.incrementFullness(1000);
-                        revivePetButton.setText("Pet revived!");
-                        hasRevived = true;
-                        GameState gameState = new GameState(pet);
-                        SaveLoadManager.saveGame(pet.getName(), gameState);
-                    }
-                    count++;
-                }
-                if (count >= 3) {
-                    if (!hasRevived) {
-                        revivePetButton.setText("No pets to revive.");
-                    }
-                    break;
-                }
+        for (int i = 0; i < previews.size() && i < 3; i++) {
+            SavePreview preview = previews.get(i);
+            if (!preview.isDead()) {
+                continue;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            GameState gameState = SaveLoadManager.loadGame(folder.resolve(preview.getFileName()).toString());
+            if (gameState == null) {
+                continue;
+            }
+            Pet pet = gameState.getPet();
+            pet.incrementHealth(1000);
+            pet.incrementEnergy(1000);
+            pet.incrementHappiness(1000);
+            pet.incrementFullness(1000);
+            hasRevived = true;
+            SaveService.saveGame(pet.getName(), gameState, null);
         }
+
+        revivePetButton.setText(hasRevived ? "Pet revived!" : "No pets to revive.");
     }
 
-}
\ No newline at end of file
+}
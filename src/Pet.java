@@ -1,51 +1,118 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The main class that stores the attributes of a single pet.
  * There will probably be one of these per save file.
+ * <p>
+ * The pet is changed by the player on the JavaFX thread and by the simulation on its own thread.
+ * The four stats are packed into one word and the score and coins into another, and both are changed with compare and set,
+ * so stat changes never wait for a lock and no change is lost when two threads change the same stat.
+ * Every other change (states, evolution, items, gacha) holds the pet's lock.
+ * snapshot() reads the stats, score and coins as they were at a single point in time.
+ * <p>
+ * Listeners are told about every change (stats, thresholds, sleeping, anger, death and evolution) when it happens,
+ * so nothing has to check the pet's state over and over. The state checks (e.g. isSleeping, isStillAngry) never change the pet.
+ * @see PetListener
  */
 public class Pet implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** The health stat, in change events. */
+    public static final int HEALTH = 0;
+    /** The energy stat, in change events. */
+    public static final int ENERGY = 1;
+    /** The fullness stat, in change events. */
+    public static final int FULLNESS = 2;
+    /** The happiness stat, in change events. */
+    public static final int HAPPINESS = 3;
+    /** The score, in change events. */
+    public static final int SCORE = 4;
+    /** The coins, in change events. */
+    public static final int COINS = 5;
+
+    /** The number of bits each stat takes in the packed stats. */
+    private static final int STAT_BITS = 13;
+    /** The highest value a stat or a max stat can have, so that every stat fits in its bits of the packed stats. */
+    public static final int MAX_STAT = (1 << STAT_BITS) - 1;
+    /** Adds one to the change stamp kept above the four stats in the packed stats. */
+    private static final long STAMP = 1L << (4 * STAT_BITS);
+    /** The journal record of each stat, score and coins. */
+    private static final byte[] RECORDS = {
+            PetJournal.HEALTH, PetJournal.ENERGY, PetJournal.FULLNESS, PetJournal.HAPPINESS, PetJournal.SCORE, PetJournal.COINS };
+
+    /** The fields written by Java serialization. They are the fields the pet had before its stats were packed, so older saves still load. */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("name", String.class),
+            new ObjectStreamField("type", String.class),
+            new ObjectStreamField("health", int.class),
+            new ObjectStreamField("energy", int.class),
+            new ObjectStreamField("fullness", int.class),
+            new ObjectStreamField("happiness", int.class),
+            new ObjectStreamField("maxHealth", int.class),
+            new ObjectStreamField("maxEnergy", int.class),
+            new ObjectStreamField("maxFullness", int.class),
+            new ObjectStreamField("maxHappiness", int.class),
+            new ObjectStreamField("isInAngryState", boolean.class),
+            new ObjectStreamField("isInSleepingState", boolean.class),
+            new ObjectStreamField("inventory", Inventory.class),
+            new ObjectStreamField("gacha", Gacha.class),
+            new ObjectStreamField("score", int.class),
+            new ObjectStreamField("coins", int.class),
+            new ObjectStreamField("evoLevel", int.class),
+            new ObjectStreamField("playCooldown", Cooldown.class),
+            new ObjectStreamField("vetCooldown", Cooldown.class)
+    };
+
     /** The name of the pet (e.g. Fido) */ 
     private String name;
     /** The type of the pet (e.g. Dog) */
     private String type;
 
-    /** The health of the pet (0-100) */
-    private int health;
-    /** The energy of the pet (0-100) */
-    private int energy;
-    /** The fullness of the pet (0-100) */
-    private int fullness;
-    /** The happiness of the pet (0-100) */
-    private int happiness;
+    /**
+     * The health, energy, fullness and happiness of the pet (0-100), 13 bits each starting from the lowest bits,
+     * and a change stamp in the highest 12 bits that changes with every update, so a snapshot can tell if the stats changed while it was read.
+     */
+    private transient AtomicLong stats;
 
     /** The max amount of health the pet can have */
-    private int maxHealth;
+    private volatile int maxHealth;
     /** The max amount of energy the pet can have */
-    private int maxEnergy;
+    private volatile int maxEnergy;
     /** The max amount of fullness the pet can have */
-    private int maxFullness;
+    private volatile int maxFullness;
     /** The max amount of happiness the pet can have */
-    private int maxHappiness;
+    private volatile int maxHappiness;
 
     /** If the pet is currently in the angry state */
-    private boolean isInAngryState;
-    private boolean isInSleepingState;
+    private volatile boolean isInAngryState;
+    private volatile boolean isInSleepingState;
 
     /** The inventory that this pet uses */
     private Inventory inventory;
     /** The gacha system this pet uses */
     private Gacha gacha;
 
-    /** The score of the pet, as per the functional requirements */
-    private int score;
-    /** The number of coins the pet has */
-    private int coins;
+    /** The score of the pet, as per the functional requirements (lowest 32 bits), and the number of coins the pet has (highest 32 bits) */
+    private transient AtomicLong progress;
     /** The evolution level of the pet */
-    private int evoLevel;
+    private volatile int evoLevel;
+
+    /** The cooldown of the play button, or null in saves from before cooldowns were saved */
+    private Cooldown playCooldown;
+    /** The cooldown of the heal button, or null in saves from before cooldowns were saved */
+    private Cooldown vetCooldown;
+
+    /** The journal that records every change to this pet, or null if changes are not recorded */
+    private transient PetJournal journal;
+    /** The listeners told about every change, replaced by a new array when one is added or removed */
+    private transient volatile PetListener[] listeners = new PetListener[0];
 
     /**
      * Creates a new pet, probably called once per save file.
@@ -71,10 +138,7 @@ public class Pet implements Serializable {
         this.inventory = inventory;
         this.gacha = gacha;
 
-        this.health = 75;
-        this.energy = 75;
-        this.fullness = 75;
-        this.happiness = 75;
+        this.stats = new AtomicLong(packStats(75, 75, 75, 75));
 
         this.isInAngryState = false;
         this.isInSleepingState = false;
@@ -84,45 +148,73 @@ public class Pet implements Serializable {
         this.maxFullness = 100;
         this.maxHappiness = 100;
 
-        this.coins = 0;
-        this.score = 0;
+        this.progress = new AtomicLong(packProgress(0, 0));
         this.evoLevel = 1;
     }
 
+    /**
+     * Restores a pet with every attribute already known.
+     * <p>
+     * Only used when reading a save file. Use the public constructor to create a new pet.
+     * @see GameStateCodec
+     */
+    Pet(String name, String type, Inventory inventory, Gacha gacha,
+            int health, int energy, int fullness, int happiness,
+            int maxHealth, int maxEnergy, int maxFullness, int maxHappiness,
+            boolean isInAngryState, boolean isInSleepingState, int score, int coins, int evoLevel) {
+        this.name = name;
+        this.type = type;
+        this.inventory = inventory;
+        this.gacha = gacha;
+
+        this.stats = new AtomicLong(packStats(health, energy, fullness, happiness));
+
+        this.isInAngryState = isInAngryState;
+        this.isInSleepingState = isInSleepingState;
+
+        this.maxHealth = Math.min(maxHealth, MAX_STAT);
+        this.maxEnergy = Math.min(maxEnergy, MAX_STAT);
+        this.maxFullness = Math.min(maxFullness, MAX_STAT);
+        this.maxHappiness = Math.min(maxHappiness, MAX_STAT);
+
+        this.progress = new AtomicLong(packProgress(score, coins));
+        this.evoLevel = evoLevel;
+    }
+
     /** Increases the pet's health by the specified amount.
      * Can be negative to decrease health.
-     * The pet's stat will remain between 0 and 100.
+     * The pet's stat will remain between 0 and its max health, which is never above MAX_STAT.
      * @param amount - The amount to increase the health by
      */
     public void incrementHealth(int amount) {
-        this.health = Math.max(0, Math.min(maxHealth, this.health + amount));
+        incrementStat(HEALTH, amount, maxHealth);
     }
 
     /** Increases the pet's energy by the specified amount.
      * Can be negative to decrease energy.
-     * The pet's stat will remain between 0 and 100.
+     * The pet's stat will remain between 0 and its max energy, which is never above MAX_STAT.
      * @param amount - The amount to increase the energy by
      */
     public void incrementEnergy(int amount) {
-        this.energy = Math.max(0, Math.min(maxEnergy, this.energy + amount));
+        incrementStat(ENERGY, amount, maxEnergy);
     }
 
     /** Increases the pet's fullness by the specified amount.
      * Can be negative to decrease fullness.
-     * The pet's stat will remain between 0 and 100.
+     * The pet's stat will remain between 0 and its max fullness, which is never above MAX_STAT.
      * @param amount - The amount to increase the fullness by
      */
     public void incrementFullness(int amount) {
-        this.fullness = Math.max(0, Math.min(maxFullness, this.fullness + amount));
+        incrementStat(FULLNESS, amount, maxFullness);
     }
 
     /** Increases the pet's happiness by the specified amount.
      * Can be negative to decrease happiness.
-     * The pet's stat will remain between 0 and 100.
+     * The pet's stat will remain between 0 and its max happiness, which is never above MAX_STAT.
      * @param amount - The amount to increase the happiness by
      */
     public void incrementHappiness(int amount) {
-        this.happiness = Math.max(0, Math.min(maxHappiness, this.happiness + amount));
+        incrementStat(HAPPINESS, amount, maxHappiness);
     }
 
     /** Increases the pet's score by the specified amount.
@@ -132,7 +224,7 @@ public class Pet implements Serializable {
      * @param amount - The amount to increase the score by
      */
     public void incrementScore(int amount) {
-        this.score = Math.max(0, this.score + amount);
+        incrementProgress(SCORE, amount);
     }
 
     /** Increases the pet's coins by the specified amount.
@@ -141,52 +233,85 @@ public class Pet implements Serializable {
      * @param amount - The amount to increase the coins by
      */
     public void incrementCoins(int amount) {
-        this.coins = Math.max(0, this.coins + amount);
+        incrementProgress(COINS, amount);
+    }
+
+    /**
+     * Spends coins if the pet has enough of them.
+     * Either all the coins are spent, or none are.
+     * @param amount the number of coins to spend. Should be positive.
+     * @return true if the coins were spent, false if the pet does not have enough coins
+     */
+    public boolean spendCoins(int amount) {
+        if (amount < 0) {
+            return false;
+        }
+        long current;
+        int old;
+        do {
+            current = progress.get();
+            old = unpackCoins(current);
+            if (old < amount) {
+                return false;
+            }
+        } while (!progress.compareAndSet(current, packProgress(unpackScore(current), old - amount)));
+        changed(COINS, old, old - amount);
+        return true;
     }
 
     /**
-     * Decrements all stats besides health by 1.
+     * Decrements all stats besides health by the specified amount, in a single update.
      * @param amount the value to decrease stats by. Should be positive.
      */
     public void decrementAllStats(int amount) {
-        incrementHappiness(amount*(-1));
-        incrementEnergy(amount*(-1));
-        incrementFullness(amount*(-1));
-        if (happiness < 0) happiness = 0;
-        if (energy < 0) energy = 0;
-        if (fullness < 0) fullness = 0;
+        long current;
+        long updated;
+        do {
+            current = stats.get();
+            updated = current;
+            updated = withStat(updated, HAPPINESS, clamp(unpackStat(current, HAPPINESS), -amount, maxHappiness));
+            updated = withStat(updated, ENERGY, clamp(unpackStat(current, ENERGY), -amount, maxEnergy));
+            updated = withStat(updated, FULLNESS, clamp(unpackStat(current, FULLNESS), -amount, maxFullness));
+        } while (updated != current && !stats.compareAndSet(current, updated + STAMP));
+        changed(HAPPINESS, unpackStat(current, HAPPINESS), unpackStat(updated, HAPPINESS));
+        changed(ENERGY, unpackStat(current, ENERGY), unpackStat(updated, ENERGY));
+        changed(FULLNESS, unpackStat(current, FULLNESS), unpackStat(updated, FULLNESS));
     }
 
     /**
-     * Sets the pet's health to the specified amount.
-     * @param maxHealth - The new health value
+     * Sets the pet's max health to the specified amount.
+     * A value above MAX_STAT, the most a packed stat can hold, is lowered to MAX_STAT without any error.
+     * @param maxHealth - The new max health value
      */
     public void setMaxHealth(int maxHealth) {
-        this.maxHealth = maxHealth;
+        this.maxHealth = Math.min(maxHealth, MAX_STAT);
     }
 
     /**
-     * Sets the pet's energy to the specified amount.
-     * @param maxEnergy - The new energy value
+     * Sets the pet's max energy to the specified amount.
+     * A value above MAX_STAT, the most a packed stat can hold, is lowered to MAX_STAT without any error.
+     * @param maxEnergy - The new max energy value
      */
     public void setMaxEnergy(int maxEnergy) {
-        this.maxEnergy = maxEnergy;
+        this.maxEnergy = Math.min(maxEnergy, MAX_STAT);
     }
 
     /**
-     * Sets the pet's fullness to the specified amount.
-     * @param maxFullness - The new fullness value
+     * Sets the pet's max fullness to the specified amount.
+     * A value above MAX_STAT, the most a packed stat can hold, is lowered to MAX_STAT without any error.
+     * @param maxFullness - The new max fullness value
      */
     public void setMaxFullness(int maxFullness) {
-        this.maxFullness = maxFullness;
+        this.maxFullness = Math.min(maxFullness, MAX_STAT);
     }
 
     /**
-     * Sets the pet's happiness to the specified amount.
-     * @param maxHappiness - The new happiness value
+     * Sets the pet's max happiness to the specified amount.
+     * A value above MAX_STAT, the most a packed stat can hold, is lowered to MAX_STAT without any error.
+     * @param maxHappiness - The new max happiness value
      */
     public void setMaxHappiness(int maxHappiness) {
-        this.maxHappiness = maxHappiness;
+        this.maxHappiness = Math.min(maxHappiness, MAX_STAT);
     }
 
     /** 
@@ -210,7 +335,7 @@ public class Pet implements Serializable {
      * @return the health of the pet
      */
     public int getHealth() {
-        return health;
+        return unpackStat(stats.get(), HEALTH);
     }
 
     /** 
@@ -218,7 +343,7 @@ public class Pet implements Serializable {
      * @return the energy of the pet
      */
     public int getEnergy() {
-        return energy;
+        return unpackStat(stats.get(), ENERGY);
     }
 
     /** 
@@ -226,7 +351,7 @@ public class Pet implements Serializable {
      * @return the fullness of the pet
      */
     public int getFullness() {
-        return fullness;
+        return unpackStat(stats.get(), FULLNESS);
     }
 
     /** 
@@ -234,7 +359,7 @@ public class Pet implements Serializable {
      * @return the happiness of the pet
      */
     public int getHappiness() {
-        return happiness;
+        return unpackStat(stats.get(), HAPPINESS);
     }
 
     /**
@@ -266,6 +391,40 @@ public class Pet implements Serializable {
         return gacha;
     }
 
+    /**
+     * Returns the cooldown of the play button in the playground.
+     * The cooldown is saved with the pet, so it continues after switching scenes or loading the game.
+     * @return the play cooldown
+     */
+    public synchronized Cooldown getPlayCooldown() {
+        if (playCooldown == null) {
+            playCooldown = new Cooldown();
+        }
+        return playCooldown;
+    }
+
+    /**
+     * Returns the cooldown of the heal button at the vet.
+     * The cooldown is saved with the pet, so it continues after switching scenes or loading the game.
+     * @return the vet cooldown
+     */
+    public synchronized Cooldown getVetCooldown() {
+        if (vetCooldown == null) {
+            vetCooldown = new Cooldown();
+        }
+        return vetCooldown;
+    }
+
+    /**
+     * Restores the pet's cooldowns. Only used when reading a save file.
+     * @param playCooldown the play cooldown
+     * @param vetCooldown the vet cooldown
+     */
+    void setCooldowns(Cooldown playCooldown, Cooldown vetCooldown) {
+        this.playCooldown = playCooldown;
+        this.vetCooldown = vetCooldown;
+    }
+
     /**
      * Returns the evolution level of the pet.
      * @return the evolution level of the pet
@@ -279,11 +438,49 @@ public class Pet implements Serializable {
      * @return the score of the pet
      */
     public int getScore() {
-        return score;
+        return unpackScore(progress.get());
     }
 
     public int getCoins() {
-        return coins;
+        return unpackCoins(progress.get());
+    }
+
+    /**
+     * Returns a stat, the score or the coins.
+     * @param stat HEALTH, ENERGY, FULLNESS, HAPPINESS, SCORE or COINS
+     * @return the current value
+     */
+    int getStat(int stat) {
+        switch (stat) {
+            case SCORE:
+                return getScore();
+            case COINS:
+                return getCoins();
+            default:
+                return unpackStat(stats.get(), stat);
+        }
+    }
+
+    /**
+     * Returns the pet's stats, score and coins as they were at a single point in time,
+     * along with its max stats, states, evolution level and item quantities.
+     * Never waits for a lock: if the stats change while the score and coins are read, they are read again.
+     * Called while holding the pet's lock, the whole snapshot is a single point in time.
+     * @see PetSimulation#getSnapshot()
+     * @return the snapshot
+     */
+    public PetSnapshot snapshot() {
+        long before;
+        long packedProgress;
+        do {
+            before = stats.get();
+            packedProgress = progress.get();
+        } while (stats.get() != before);
+        return new PetSnapshot(name, type,
+                unpackStat(before, HEALTH), unpackStat(before, ENERGY), unpackStat(before, FULLNESS), unpackStat(before, HAPPINESS),
+                maxHealth, maxEnergy, maxFullness, maxHappiness, isInAngryState, isInSleepingState,
+                unpackScore(packedProgress), unpackCoins(packedProgress), evoLevel,
+                inventory == null ? new int[0] : inventory.getQuantities());
     }
 
     public int getMaxHealth() {
@@ -309,29 +506,27 @@ public class Pet implements Serializable {
      * @return true if the pet is dead, false otherwise
      */
     public boolean isDead() {
-        return health == 0;
+        return getHealth() == 0;
     }
 
     /**
-     * Returns if the pet is sleeping.
+     * Returns if the pet is out of energy, and should fall asleep.
      * If the pet is sleeping, there should be a health penalty.
      * No player interaction can be done until the pet wakes up, where the energy level will return to 100.
-     * @return true if the pet is sleeping, false otherwise
+     * Does not change the sleeping state. The simulation does that.
+     * @see PetSimulation#updateState()
+     * @return true if the pet is out of energy, false otherwise
      */
     public boolean isSleeping() {
-        if (energy == 0) {
-            isInSleepingState = true;
-            return true;
-        }
-        return false;
+        return getEnergy() == 0;
     }
 
     public boolean isSleepy() {
-        return ((energy*100)/(maxEnergy)) <= 25;
+        return ((getEnergy()*100)/(maxEnergy)) <= 25;
     }
 
     public boolean isSick() {
-        return ((health*100)/(maxHealth)) <= 25;
+        return ((getHealth()*100)/(maxHealth)) <= 25;
     }
 
     /**
@@ -340,43 +535,62 @@ public class Pet implements Serializable {
      * @return true if the pet is hungry, false otherwise
      */
     public boolean isHungry() {
-        return fullness == 0;
+        return getFullness() == 0;
     }
 
     /**
-     * Returns if the pet is angry.
+     * Returns if the pet has no happiness left, and should become angry.
      * If the pet is angry, they should refuse all commands that don't increase happiness.
      * The pet remains in this state until their happiness reaches at least 50.
-     * @return true if the pet is angry, false otherwise
+     * Does not change the angry state. The simulation does that.
+     * @see PetSimulation#updateState()
+     * @return true if the pet has no happiness left, false otherwise
      */
     public boolean isAngry() {
-        if (happiness == 0) isInAngryState = true;
-        return happiness == 0;
+        return getHappiness() == 0;
     }
 
     /** 
-     * Should only be called if the pet is in the angry state.
-     * If the pet is not longer angry, return true.
-     * @return true if the pet has recovered from the angry state, false otherwise.
+     * Returns if the pet is in the angry state and has not recovered yet (happiness still below half).
+     * Does not change the angry state. The simulation's angry ticks do that.
+     * @return true if the pet is still angry, false otherwise.
      */
     public boolean isStillAngry() {
-        if (!isInAngryState || !(happiness < 0.5*maxHappiness)) {
-            isInAngryState = false;
-            return false;
-        }
-        return true;
+        return isInAngryState && getHappiness() < 0.5*maxHappiness;
     }
 
+    /**
+     * Returns if the pet is in the sleeping state and has not recovered yet (energy not full).
+     * Does not change the sleeping state. The simulation's sleep ticks do that.
+     * @return true if the pet is still sleeping, false otherwise.
+     */
     public boolean isStillSleeping() {
-        if (!isInSleepingState || energy == maxEnergy) {
-            isInSleepingState = false;
-            return false;
+        return isInSleepingState && getEnergy() != maxEnergy;
+    }
+
+    /**
+     * Sets the sleeping state, recording it and telling the listeners only if it changed.
+     * @param state true to put the pet to sleep, false to wake it up
+     */
+    public synchronized void setSleepingState(boolean state) {
+        if (isInSleepingState != state) {
+            isInSleepingState = state;
+            record(PetJournal.SLEEPING, state ? 1 : 0);
+            for (PetListener listener : listeners) {
+                listener.onSleepingChanged(this, state);
+            }
         }
-        return true;
     }
 
-    public void setSleepingState(boolean state) {
-        isInSleepingState = state;
+    /** Sets the angry state, recording it and telling the listeners only if it changed. */
+    synchronized void setAngryState(boolean state) {
+        if (isInAngryState != state) {
+            isInAngryState = state;
+            record(PetJournal.ANGRY, state ? 1 : 0);
+            for (PetListener listener : listeners) {
+                listener.onAngryChanged(this, state);
+            }
+        }
     }
 
     /**
@@ -422,7 +636,7 @@ public class Pet implements Serializable {
      * @param itemName - The name of the item to give
      * @return the item if its quantity is greater than 0, or null if the item's quantity is 0
      */
-    public Item giveItem(String itemName) {
+    public synchronized Item giveItem(String itemName) {
         Item item = inventory.useItem(itemName);
         if (item == null) {
             return null;
@@ -436,13 +650,259 @@ public class Pet implements Serializable {
         return item;
     }
 
+    /**
+     * Pays for and rolls the gacha several times.
+     * The coins for every roll are taken at once, and the gacha is only rolled if the pet can pay for all of them.
+     * @see Gacha#rollMany(int)
+     * @param rolls the number of rolls
+     * @param costPerRoll the number of coins each roll costs
+     * @return the summary of the items obtained, or null if the pet does not have enough coins or the gacha is empty
+     */
+    public synchronized GachaSummary pullGacha(int rolls, int costPerRoll) {
+        if (gacha == null || gacha.getTotalGachaChance() <= 0) {
+            return null;
+        }
+        long cost = (long) rolls * costPerRoll;
+        if (cost > Integer.MAX_VALUE || !spendCoins((int) cost)) {
+            return null;
+        }
+        return gacha.rollMany(rolls);
+    }
+
     /**
      * Increases the evolution level by 1.
      * Should be used with a condition in the front-end (e.g. if score is greater than a certain amount).
      */
-    public void evolve() {
+    public synchronized void evolve() {
         evoLevel++;
+        record(PetJournal.EVOLVE, evoLevel);
+        for (PetListener listener : listeners) {
+            listener.onEvolved(this, evoLevel);
+        }
+    }
+
+    /**
+     * Adds a listener that is told about every change to the pet.
+     * Listeners are not saved with the pet.
+     * @param listener the listener to add
+     */
+    public synchronized void addListener(PetListener listener) {
+        PetListener[] current = listeners;
+        PetListener[] added = Arrays.copyOf(current, current.length + 1);
+        added[current.length] = listener;
+        listeners = added;
+    }
+
+    /**
+     * Removes a listener. Does nothing if it was not added.
+     * @param listener the listener to remove
+     */
+    public synchronized void removeListener(PetListener listener) {
+        PetListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                PetListener[] removed = new PetListener[current.length - 1];
+                System.arraycopy(current, 0, removed, 0, i);
+                System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+                listeners = removed;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns if a stat is low: sick for health, sleepy for energy, hungry for fullness and unhappy for happiness.
+     * @param stat the stat (HEALTH, ENERGY, FULLNESS or HAPPINESS)
+     * @param value the value of the stat
+     * @return true if the value is low for that stat
+     */
+    private boolean isLow(int stat, int value) {
+        switch (stat) {
+            case HEALTH:
+                return value * 100 / maxHealth <= 25;
+            case ENERGY:
+                return value * 100 / maxEnergy <= 25;
+            case FULLNESS:
+            case HAPPINESS:
+                return value == 0;
+            default:
+                return false;
+        }
+    }
+
+    /** Helper method that tells the listeners about a change, and about the thresholds it crossed. */
+    private void statChanged(int stat, int oldValue, int newValue) {
+        PetListener[] current = listeners;
+        if (oldValue == newValue || current.length == 0) {
+            return;
+        }
+        boolean wasLow = isLow(stat, oldValue);
+        boolean low = isLow(stat, newValue);
+        for (PetListener listener : current) {
+            listener.onStatChanged(this, stat, oldValue, newValue);
+            if (wasLow != low) {
+                listener.onThresholdCrossed(this, stat, low);
+            }
+            if (stat == HEALTH && newValue == 0) {
+                listener.onDied(this);
+            }
+        }
+    }
+
+    /**
+     * Returns the journal recording changes to this pet.
+     * @return the journal, or null if changes are not recorded
+     */
+    public PetJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the journal recording changes to this pet, its inventory and its gacha.
+     * @see PetJournal#attach(String, Pet)
+     * @param journal the journal, or null to stop recording
+     */
+    void setJournal(PetJournal journal) {
+        this.journal = journal;
+        if (inventory != null) {
+            inventory.setJournal(journal);
+        }
+        if (gacha != null) {
+            gacha.setJournal(journal);
+        }
+    }
+
+    /** Writes a pet with Java serialization, unpacking its stats into the fields older versions wrote. */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        PetSnapshot snapshot = snapshot();
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("name", name);
+        fields.put("type", type);
+        fields.put("health", snapshot.getHealth());
+        fields.put("energy", snapshot.getEnergy());
+        fields.put("fullness", snapshot.getFullness());
+        fields.put("happiness", snapshot.getHappiness());
+        fields.put("maxHealth", snapshot.getMaxHealth());
+        fields.put("maxEnergy", snapshot.getMaxEnergy());
+        fields.put("maxFullness", snapshot.getMaxFullness());
+        fields.put("maxHappiness", snapshot.getMaxHappiness());
+        fields.put("isInAngryState", snapshot.isInAngryState());
+        fields.put("isInSleepingState", snapshot.isInSleepingState());
+        fields.put("inventory", inventory);
+        fields.put("gacha", gacha);
+        fields.put("score", snapshot.getScore());
+        fields.put("coins", snapshot.getCoins());
+        fields.put("evoLevel", snapshot.getEvoLevel());
+        fields.put("playCooldown", playCooldown);
+        fields.put("vetCooldown", vetCooldown);
+        out.writeFields();
+    }
+
+    /** Reads a pet saved with Java serialization, by this or an older version. Listeners are not saved, so it starts without any. */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        name = (String) fields.get("name", null);
+        type = (String) fields.get("type", null);
+        maxHealth = Math.min(fields.get("maxHealth", 100), MAX_STAT);
+        maxEnergy = Math.min(fields.get("maxEnergy", 100), MAX_STAT);
+        maxFullness = Math.min(fields.get("maxFullness", 100), MAX_STAT);
+        maxHappiness = Math.min(fields.get("maxHappiness", 100), MAX_STAT);
+        stats = new AtomicLong(packStats(fields.get("health", 0), fields.get("energy", 0), fields.get("fullness", 0), fields.get("happiness", 0)));
+        isInAngryState = fields.get("isInAngryState", false);
+        isInSleepingState = fields.get("isInSleepingState", false);
+        inventory = (Inventory) fields.get("inventory", null);
+        gacha = (Gacha) fields.get("gacha", null);
+        progress = new AtomicLong(packProgress(fields.get("score", 0), fields.get("coins", 0)));
+        evoLevel = fields.get("evoLevel", 1);
+        playCooldown = (Cooldown) fields.get("playCooldown", null);
+        vetCooldown = (Cooldown) fields.get("vetCooldown", null);
+        listeners = new PetListener[0];
+    }
+
+    /** Helper method that adds to a stat with compare and set, keeping it between 0 and max, then records and reports the change. */
+    private void incrementStat(int stat, int amount, int max) {
+        long current;
+        long updated;
+        do {
+            current = stats.get();
+            updated = withStat(current, stat, clamp(unpackStat(current, stat), amount, max));
+        } while (updated != current && !stats.compareAndSet(current, updated + STAMP));
+        changed(stat, unpackStat(current, stat), unpackStat(updated, stat));
+    }
+
+    /** Helper method that adds to the score or the coins with compare and set, keeping them at a minimum of 0, then records and reports the change. */
+    private void incrementProgress(int stat, int amount) {
+        long current;
+        int old;
+        int value;
+        do {
+            current = progress.get();
+            old = stat == SCORE ? unpackScore(current) : unpackCoins(current);
+            value = (int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) old + amount));
+            if (value == old) {
+                return;
+            }
+        } while (!progress.compareAndSet(current,
+                stat == SCORE ? packProgress(value, unpackCoins(current)) : packProgress(unpackScore(current), value)));
+        changed(stat, old, value);
+    }
+
+    /** Helper method that records a change in the journal, if there is one, and tells the listeners about it. */
+    private void changed(int stat, int oldValue, int newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        PetJournal current = journal;
+        if (current != null) {
+            current.recordStat(RECORDS[stat], stat);
+        }
+        statChanged(stat, oldValue, newValue);
+    }
+
+    /** Helper method that adds an amount to a stat, keeping it between 0 and max. */
+    private static int clamp(int value, int amount, int max) {
+        return (int) Math.max(0, Math.min(max, (long) value + amount));
+    }
+
+    /** Helper method that packs the four stats, with a change stamp of 0. Values are kept between 0 and MAX_STAT. */
+    private static long packStats(int health, int energy, int fullness, int happiness) {
+        long packed = withStat(0, HEALTH, Math.max(0, Math.min(MAX_STAT, health)));
+        packed = withStat(packed, ENERGY, Math.max(0, Math.min(MAX_STAT, energy)));
+        packed = withStat(packed, FULLNESS, Math.max(0, Math.min(MAX_STAT, fullness)));
+        return withStat(packed, HAPPINESS, Math.max(0, Math.min(MAX_STAT, happiness)));
+    }
+
+    /** Helper method that returns one stat from the packed stats. */
+    private static int unpackStat(long packed, int stat) {
+        return (int) (packed >>> (stat * STAT_BITS)) & MAX_STAT;
+    }
+
+    /** Helper method that replaces one stat in the packed stats. */
+    private static long withStat(long packed, int stat, int value) {
+        int shift = stat * STAT_BITS;
+        return (packed & ~((long) MAX_STAT << shift)) | ((long) value << shift);
+    }
+
+    /** Helper method that packs the score and the coins. */
+    private static long packProgress(int score, int coins) {
+        return ((long) Math.max(0, coins) << 32) | Math.max(0, score);
+    }
+
+    /** Helper method that returns the score from the packed score and coins. */
+    private static int unpackScore(long packed) {
+        return (int) packed;
+    }
+
+    /** Helper method that returns the coins from the packed score and coins. */
+    private static int unpackCoins(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    /** Helper method that records a change in the journal, if there is one. */
+    private void record(byte op, int value) {
+        if (journal != null) {
+            journal.record(op, value);
+        }
     }
-    
 
 }
@@ -0,0 +1,448 @@
+import java.util.Arrays;
+
+/** Represents a large population of pets run by the same rules as PetSimulation, such as the pets of a daycare server or a balance sweep.
+ * <p>
+ * A pet object carries its own inventory, gacha, cooldowns, listeners and locks, which does not scale past a few hundred thousand pets.
+ * A fleet instead keeps every attribute in its own array of primitives (health in one array, energy in another, ...),
+ * so a pet only costs 45 bytes and a tick runs over the arrays in a tight loop.
+ * <p>
+ * The ticks are run by a kernel. The scalar kernel runs one pet at a time. If VectorFleetKernel was compiled (see the README)
+ * and the jdk.incubator.vector module is added, the vector kernel runs as many pets at once as the CPU's vector registers hold,
+ * with the same results.
+ * <p>
+ * The rules are the ones of PetSimulation: stat ticks, sleep ticks and angry ticks, with the same penalties and clamping.
+ * Dead pets are skipped, like the game stops its timers when the pet dies. The score and evolution level are kept,
+ * but only the player changes them. A fleet is not thread safe.
+ * @see PetSimulation
+ */
+public class PetFleet {
+
+    /** The bit of the sleeping state in a pet's flags. */
+    public static final int SLEEPING = 1;
+    /** The bit of the angry state in a pet's flags. */
+    public static final int ANGRY = 1 << 1;
+
+    /** The number of pets in the fleet. */
+    private int size;
+    /** The seconds run so far, so stat ticks keep happening every third second across calls. */
+    private long seconds;
+
+    /** The vector kernel, or null if it was not compiled or the jdk.incubator.vector module is missing. */
+    private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+    /** The scalar kernel, which always works. */
+    static final Kernel SCALAR_KERNEL = new ScalarKernel();
+
+    /** The kernel that runs the ticks of this fleet. */
+    private Kernel kernel = VECTOR_KERNEL != null ? VECTOR_KERNEL : SCALAR_KERNEL;
+
+    /** The attributes of every pet, one array per attribute, indexed by pet. Kernels read and write them directly. */
+    int[] health;
+    int[] energy;
+    int[] fullness;
+    int[] happiness;
+    int[] maxHealth;
+    int[] maxEnergy;
+    int[] maxFullness;
+    int[] maxHappiness;
+    int[] coins;
+    private int[] score;
+    private byte[] evoLevel;
+    /** The sleeping and angry bits of every pet. An int per pet, so they fit in the same vector lanes as the stats. */
+    int[] flags;
+
+    /**
+     * Creates an empty fleet. The arrays grow as pets are added.
+     * @param capacity the number of pets the fleet holds before growing
+     */
+    public PetFleet(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        health = new int[capacity];
+        energy = new int[capacity];
+        fullness = new int[capacity];
+        happiness = new int[capacity];
+        maxHealth = new int[capacity];
+        maxEnergy = new int[capacity];
+        maxFullness = new int[capacity];
+        maxHappiness = new int[capacity];
+        coins = new int[capacity];
+        score = new int[capacity];
+        evoLevel = new byte[capacity];
+        flags = new int[capacity];
+    }
+
+    /**
+     * Adds a new pet with the same stats as a new Pet object: 75 of every stat out of 100, no coins or score, evolution level 1.
+     * @return the index of the new pet
+     */
+    public int addNew() {
+        return add(75, 75, 75, 75, 100, 100, 100, 100, false, false, 0, 0, 1);
+    }
+
+    /**
+     * Adds a copy of a pet. Its inventory, gacha and cooldowns are not part of the fleet.
+     * @param pet the pet to copy
+     * @return the index of the new pet
+     */
+    public int add(Pet pet) {
+        PetSnapshot snapshot = pet.snapshot();
+        return add(snapshot.getHealth(), snapshot.getEnergy(), snapshot.getFullness(), snapshot.getHappiness(),
+                snapshot.getMaxHealth(), snapshot.getMaxEnergy(), snapshot.getMaxFullness(), snapshot.getMaxHappiness(),
+                snapshot.isInAngryState(), snapshot.isInSleepingState(), snapshot.getScore(), snapshot.getCoins(), snapshot.getEvoLevel());
+    }
+
+    /**
+     * Creates a pet object from a pet of the fleet.
+     * @param index the index of the pet
+     * @param name the name of the pet
+     * @param type the type of the pet
+     * @param inventory the inventory the pet uses
+     * @param gacha the gacha the pet uses
+     * @return the new pet
+     */
+    public Pet toPet(int index, String name, String type, Inventory inventory, Gacha gacha) {
+        checkIndex(index);
+        return new Pet(name, type, inventory, gacha,
+                health[index], energy[index], fullness[index], happiness[index],
+                maxHealth[index], maxEnergy[index], maxFullness[index], maxHappiness[index],
+                isAngry(index), isSleeping(index), score[index], coins[index], evoLevel[index]);
+    }
+
+    /**
+     * Returns the number of pets in the fleet.
+     * @return the number of pets
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a stat of a pet.
+     * @param index the index of the pet
+     * @param stat Pet.HEALTH, Pet.ENERGY, Pet.FULLNESS, Pet.HAPPINESS, Pet.SCORE or Pet.COINS
+     * @return the value of the stat
+     */
+    public int getStat(int index, int stat) {
+        checkIndex(index);
+        return statArray(stat)[index];
+    }
+
+    /**
+     * Increases a stat of a pet, like the increment methods of Pet.
+     * The four stats remain between 0 and their max, and the score and coins at a minimum of 0.
+     * @param index the index of the pet
+     * @param stat Pet.HEALTH, Pet.ENERGY, Pet.FULLNESS, Pet.HAPPINESS, Pet.SCORE or Pet.COINS
+     * @param amount the amount to add. Can be negative.
+     */
+    public void incrementStat(int index, int stat, int amount) {
+        checkIndex(index);
+        int[] values = statArray(stat);
+        long value = Math.max(0, (long) values[index] + amount);
+        switch (stat) {
+            case Pet.HEALTH:
+                value = Math.min(value, maxHealth[index]);
+                break;
+            case Pet.ENERGY:
+                value = Math.min(value, maxEnergy[index]);
+                break;
+            case Pet.FULLNESS:
+                value = Math.min(value, maxFullness[index]);
+                break;
+            case Pet.HAPPINESS:
+                value = Math.min(value, maxHappiness[index]);
+                break;
+            default:
+                value = Math.min(value, Integer.MAX_VALUE);
+                break;
+        }
+        values[index] = (int) value;
+    }
+
+    /**
+     * Returns the evolution level of a pet.
+     * @param index the index of the pet
+     * @return the evolution level
+     */
+    public int getEvoLevel(int index) {
+        checkIndex(index);
+        return evoLevel[index];
+    }
+
+    /**
+     * Returns if a pet is in the sleeping state.
+     * @param index the index of the pet
+     * @return true if the pet is sleeping
+     */
+    public boolean isSleeping(int index) {
+        checkIndex(index);
+        return (flags[index] & SLEEPING) != 0;
+    }
+
+    /**
+     * Returns if a pet is in the angry state.
+     * @param index the index of the pet
+     * @return true if the pet is angry
+     */
+    public boolean isAngry(int index) {
+        checkIndex(index);
+        return (flags[index] & ANGRY) != 0;
+    }
+
+    /**
+     * Returns if a pet is dead.
+     * @param index the index of the pet
+     * @return true if the pet is dead
+     */
+    public boolean isDead(int index) {
+        checkIndex(index);
+        return health[index] == 0;
+    }
+
+    /**
+     * Runs one stat tick on every living pet.
+     * @see PetSimulation#tick()
+     */
+    public void tick() {
+        kernel.run(this, 0, size, 0, 1, false);
+    }
+
+    /**
+     * Runs one sleep tick on every living pet that is sleeping.
+     * @see PetSimulation#sleepTick()
+     */
+    public void sleepTick() {
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & SLEEPING) != 0 && health[i] != 0) {
+                sleepTick(i);
+            }
+        }
+    }
+
+    /**
+     * Runs one angry tick on every living pet that is angry.
+     * @see PetSimulation#angryTick()
+     */
+    public void angryTick() {
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & ANGRY) != 0 && health[i] != 0) {
+                angryTick(i);
+            }
+        }
+    }
+
+    /**
+     * Runs the timers of every pet for some seconds, like the game does while it is open:
+     * every second, a sleep tick if the pet is sleeping and an angry tick if it is angry, and a stat tick every third second.
+     * <p>
+     * Each pet (or each group of pets, with the vector kernel) runs all of its seconds before the next one,
+     * so its attributes stay in the cache. A pet that dies stops there.
+     * @param count the number of seconds to run
+     */
+    public void runSeconds(long count) {
+        if (count <= 0) {
+            return;
+        }
+        // How far the first second is into its stat tick, so no division is needed per second
+        int firstPhase = (int) ((seconds + 1) % PetSimulation.SLEEP_TICKS_PER_STAT_TICK);
+        kernel.run(this, 0, size, firstPhase, count, true);
+        seconds += count;
+    }
+
+    /**
+     * Returns if the vector kernel can be used: VectorFleetKernel was compiled and the jdk.incubator.vector module was added.
+     * @return true if the vector kernel is available
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Returns if this fleet runs its ticks with the vector kernel.
+     * @return true if the vector kernel is used, false if the scalar one is
+     */
+    public boolean isVectorized() {
+        return kernel == VECTOR_KERNEL;
+    }
+
+    /**
+     * Chooses the kernel that runs the ticks of this fleet. Fleets use the vector kernel by default when it is available.
+     * Both kernels give the same results, so this only changes the speed.
+     * @param vectorized true for the vector kernel, false for the scalar one
+     * @throws UnsupportedOperationException if the vector kernel is asked for but is not available
+     */
+    public void setVectorized(boolean vectorized) {
+        if (vectorized && VECTOR_KERNEL == null) {
+            throw new UnsupportedOperationException("The vector kernel is not available. Compile VectorFleetKernel and add the jdk.incubator.vector module.");
+        }
+        kernel = vectorized ? VECTOR_KERNEL : SCALAR_KERNEL;
+    }
+
+    /** Represents the code that runs the timers of a range of pets of a fleet. */
+    interface Kernel {
+        /**
+         * Runs the timers of the pets from one index up to another, one second after the other, each pet stopping when it dies.
+         * @param fleet the fleet
+         * @param from the index of the first pet
+         * @param to the index after the last pet
+         * @param firstPhase how far the first second is into its stat tick. 0 means it ends with a stat tick.
+         * @param count the number of seconds to run
+         * @param timers true to also run the sleep and angry ticks every second, false for stat ticks only
+         */
+        void run(PetFleet fleet, int from, int to, int firstPhase, long count, boolean timers);
+    }
+
+    /** Represents the kernel that runs one pet at a time. */
+    private static class ScalarKernel implements Kernel {
+        @Override
+        public void run(PetFleet fleet, int from, int to, int firstPhase, long count, boolean timers) {
+            int ticksPerStatTick = PetSimulation.SLEEP_TICKS_PER_STAT_TICK;
+            int[] health = fleet.health;
+            int[] flags = fleet.flags;
+            for (int i = from; i < to; i++) {
+                int phase = firstPhase;
+                for (long s = 0; s < count && health[i] != 0; s++) {
+                    if (timers) {
+                        // A sleep tick never changes the angry state, so the flags are read once
+                        int state = flags[i];
+                        if ((state & SLEEPING) != 0) fleet.sleepTick(i);
+                        if ((state & ANGRY) != 0) fleet.angryTick(i);
+                    }
+                    if (phase == 0) fleet.statTick(i);
+                    if (++phase == ticksPerStatTick) phase = 0;
+                }
+            }
+        }
+    }
+
+    /** Helper method that loads the vector kernel, if it was compiled and its module is there. */
+    private static Kernel loadVectorKernel() {
+        try {
+            return (Kernel) Class.forName("VectorFleetKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not compiled, or compiled but run without --add-modules jdk.incubator.vector: the scalar kernel is used
+            return null;
+        }
+    }
+
+    /** Helper method that adds a pet, growing the arrays if they are full. */
+    private int add(int health, int energy, int fullness, int happiness,
+            int maxHealth, int maxEnergy, int maxFullness, int maxHappiness,
+            boolean angry, boolean sleeping, int score, int coins, int evoLevel) {
+        if (size == this.health.length) {
+            grow();
+        }
+        int i = size++;
+        this.health[i] = health;
+        this.energy[i] = energy;
+        this.fullness[i] = fullness;
+        this.happiness[i] = happiness;
+        this.maxHealth[i] = maxHealth;
+        this.maxEnergy[i] = maxEnergy;
+        this.maxFullness[i] = maxFullness;
+        this.maxHappiness[i] = maxHappiness;
+        this.score[i] = score;
+        this.coins[i] = coins;
+        this.evoLevel[i] = (byte) evoLevel;
+        this.flags[i] = (sleeping ? SLEEPING : 0) | (angry ? ANGRY : 0);
+        return i;
+    }
+
+    /** Helper method that doubles the size of every array. */
+    private void grow() {
+        int capacity = Math.max(16, health.length * 2);
+        health = Arrays.copyOf(health, capacity);
+        energy = Arrays.copyOf(energy, capacity);
+        fullness = Arrays.copyOf(fullness, capacity);
+        happiness = Arrays.copyOf(happiness, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        maxEnergy = Arrays.copyOf(maxEnergy, capacity);
+        maxFullness = Arrays.copyOf(maxFullness, capacity);
+        maxHappiness = Arrays.copyOf(maxHappiness, capacity);
+        coins = Arrays.copyOf(coins, capacity);
+        score = Arrays.copyOf(score, capacity);
+        evoLevel = Arrays.copyOf(evoLevel, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    /** Helper method that runs the stat tick of one pet: PetSimulation.tick, then PetSimulation.updateState. */
+    void statTick(int i) {
+        if (fullness[i] == 0) happiness[i] = clamp(happiness[i] - PetSimulation.HUNGER_PENALTY, maxHappiness[i]);
+        happiness[i] = clamp(happiness[i] - PetSimulation.STAT_DECAY, maxHappiness[i]);
+        energy[i] = clamp(energy[i] - PetSimulation.STAT_DECAY, maxEnergy[i]);
+        fullness[i] = clamp(fullness[i] - PetSimulation.STAT_DECAY, maxFullness[i]);
+        coins[i] = (int) Math.min(Integer.MAX_VALUE, (long) coins[i] + PetSimulation.COINS_PER_TICK);
+
+        // The state update. Only living pets are ticked, and the tick above never changes health
+        if (energy[i] == 0) {
+            flags[i] |= SLEEPING;
+            health[i] = clamp(health[i] - PetSimulation.SLEEP_PENALTY, maxHealth[i]);
+        }
+        if (fullness[i] == 0) {
+            health[i] = clamp(health[i] - PetSimulation.HUNGER_PENALTY, maxHealth[i]);
+            happiness[i] = clamp(happiness[i] - PetSimulation.HUNGER_PENALTY, maxHappiness[i]);
+        }
+        if (happiness[i] == 0) {
+            flags[i] |= ANGRY;
+        }
+        if (health[i] == 0) {
+            die(i);
+        }
+    }
+
+    /** Helper method that runs the sleep tick of one pet, waking it up once its energy is full. */
+    void sleepTick(int i) {
+        if (energy[i] != maxEnergy[i]) {
+            energy[i] = clamp(energy[i] + PetSimulation.SLEEP_ENERGY, maxEnergy[i]);
+        }
+        if (energy[i] == maxEnergy[i]) {
+            flags[i] &= ~SLEEPING;
+        }
+    }
+
+    /** Helper method that runs the angry tick of one pet, calming it down once its happiness is back to half. */
+    void angryTick(int i) {
+        if (happiness[i] >= 0.5 * maxHappiness[i]) {
+            flags[i] &= ~ANGRY;
+        }
+    }
+
+    /** Helper method that empties the stats of a pet that just died. */
+    void die(int i) {
+        happiness[i] = clamp(happiness[i] - PetSimulation.DEATH_DECAY, maxHappiness[i]);
+        energy[i] = clamp(energy[i] - PetSimulation.DEATH_DECAY, maxEnergy[i]);
+        fullness[i] = clamp(fullness[i] - PetSimulation.DEATH_DECAY, maxFullness[i]);
+    }
+
+    /** Helper method that keeps a stat between 0 and max, like Pet's increment methods. */
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    /** Helper method that returns the array of a stat. */
+    private int[] statArray(int stat) {
+        switch (stat) {
+            case Pet.HEALTH:
+                return health;
+            case Pet.ENERGY:
+                return energy;
+            case Pet.FULLNESS:
+                return fullness;
+            case Pet.HAPPINESS:
+                return happiness;
+            case Pet.SCORE:
+                return score;
+            case Pet.COINS:
+                return coins;
+            default:
+                throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
+    /** Helper method that checks that a pet exists. */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No pet at index " + index);
+        }
+    }
+}
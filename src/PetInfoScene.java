@@ -48,10 +48,10 @@ public class PetInfoScene extends GameScene {
         content.setAlignment(Pos.CENTER);
 
         // Load sprite sheets
-        catSheet = new Image("file:../assets/sprites/teenCatSprite.png");
-        dogSheet = new Image("file:../assets/sprites/teenDogSprite.png");
-        duckSheet = new Image("file:../assets/sprites/duckSprite.png"); 
-        dragonSheet = new Image("file:../assets/sprites/teenDragonSprite.png");
+        catSheet = AssetPreloader.getImage("../assets/sprites/teenCatSprite.png");
+        dogSheet = AssetPreloader.getImage("../assets/sprites/teenDogSprite.png");
+        duckSheet = AssetPreloader.getImage("../assets/sprites/duckSprite.png"); 
+        dragonSheet = AssetPreloader.getImage("../assets/sprites/teenDragonSprite.png");
 
         // Initialize ImageViews for sprites
         sprite1 = new ImageView();
@@ -0,0 +1,449 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledFuture;
+
+/** Represents the journal of a pet, an append-only file (PetName.journal) of every change made since the last save.
+ * <p>
+ * Every change to the pet's stats, score, coins, evolution level, states, inventory quantities and gacha roll count is recorded as a small binary record.
+ * Records are kept in memory and written to disk in batches every FLUSH_INTERVAL_MILLIS, so a crash loses at most one batch.
+ * Records hold the new value rather than the change, so replaying them always gives the same pet.
+ * <p>
+ * The journal starts with the save time of the snapshot (the save file) it applies to. Every save starts a new journal,
+ * and after COMPACT_AFTER_RECORDS records the pet is saved automatically so the journal never grows large.
+ * When a save file is loaded, the journal is replayed on top of it only if their times match.
+ * <p>
+ * All file writes happen on the save service's writer thread, in order with the save files.
+ * @see SaveService
+ */
+public class PetJournal {
+
+    /** The record holding the new health. */
+    static final byte HEALTH = 1;
+    /** The record holding the new energy. */
+    static final byte ENERGY = 2;
+    /** The record holding the new fullness. */
+    static final byte FULLNESS = 3;
+    /** The record holding the new happiness. */
+    static final byte HAPPINESS = 4;
+    /** The record holding the new score. */
+    static final byte SCORE = 5;
+    /** The record holding the new coins. */
+    static final byte COINS = 6;
+    /** The record holding the new evolution level. */
+    static final byte EVOLVE = 7;
+    /** The record holding the new angry state (1 or 0). */
+    static final byte ANGRY = 8;
+    /** The record holding the new sleeping state (1 or 0). */
+    static final byte SLEEPING = 9;
+    /** The record holding an item name and its new quantity. */
+    static final byte ITEM = 10;
+    /** The record holding the gacha's seed and roll count. */
+    static final byte ROLLS = 11;
+
+    /** How often records are written to disk, in milliseconds. */
+    public static final long FLUSH_INTERVAL_MILLIS = 500;
+    /** How many records are written before the pet is saved and the journal restarted. */
+    public static final int COMPACT_AFTER_RECORDS = 4096;
+
+    /** The first four bytes of every journal file ("EVOJ"). */
+    private static final int MAGIC = 0x45564F4A;
+    /** The version of the journal format. */
+    private static final int VERSION = 1;
+
+    /** The journal of the pet currently being played, or null. */
+    private static PetJournal current;
+
+    /** The save file name, without the .ser extension. */
+    private final String fileName;
+    /** The path of the journal file. */
+    private final Path path;
+    /** The pet whose changes are recorded. */
+    private final Pet pet;
+    /** How many records are written before the pet is saved. */
+    private final int compactAfterRecords;
+
+    /** The records that are not on disk yet. */
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+    /** Writes records into the buffer. */
+    private DataOutputStream out = new DataOutputStream(buffer);
+    /** The save time of the snapshot the buffered records apply to. */
+    private long generation;
+    /** The number of records since the last snapshot. */
+    private int records;
+    /** If a save was already requested because of the number of records. */
+    private boolean compacting;
+
+    /** The save time written in the journal file on disk. Only used on the writer thread. */
+    private long fileGeneration;
+    /** The open journal file. Only used on the writer thread. */
+    private FileChannel channel;
+    /** The periodic flush, cancelled when the journal is closed. */
+    private ScheduledFuture<?> flushTask;
+
+    /** Helper constructor, use attach to create a journal. */
+    private PetJournal(String fileName, Pet pet, int compactAfterRecords) {
+        this.fileName = fileName;
+        this.path = journalPath(fileName);
+        this.pet = pet;
+        this.compactAfterRecords = compactAfterRecords;
+    }
+
+    /**
+     * Starts recording the changes made to a pet. Any journal attached to another pet is closed.
+     * <p>
+     * The pet is saved right away, which also starts a new journal file.
+     * @param fileName the save file name, without the .ser extension (usually the pet's name)
+     * @param pet the pet to record
+     * @return the journal
+     */
+    public static PetJournal attach(String fileName, Pet pet) {
+        return attach(fileName, pet, COMPACT_AFTER_RECORDS);
+    }
+
+    /**
+     * Starts recording the changes made to a pet, with a custom compaction threshold. Used by tests and benchmarks.
+     * @param fileName the save file name, without the .ser extension
+     * @param pet the pet to record
+     * @param compactAfterRecords how many records are written before the pet is saved
+     * @return the journal
+     */
+    static synchronized PetJournal attach(String fileName, Pet pet, int compactAfterRecords) {
+        if (current != null) {
+            current.close();
+        }
+        PetJournal journal = new PetJournal(fileName, pet, compactAfterRecords);
+        pet.setJournal(journal);
+        SaveService.saveGame(fileName, new GameState(pet), null);
+        journal.flushTask = SaveService.schedule(journal::flush, FLUSH_INTERVAL_MILLIS);
+        current = journal;
+        return journal;
+    }
+
+    /**
+     * Stops recording the pet currently being played, writing any remaining records.
+     * Call SaveService.flush afterwards to wait for the write.
+     */
+    public static synchronized void closeCurrent() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Stops recording changes. Records that are not on disk yet are written on the writer thread.
+     */
+    public void close() {
+        pet.setJournal(null);
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        SaveService.execute(() -> {
+            flush();
+            closeChannel();
+        });
+    }
+
+    /**
+     * Records a new value of the pet. Called by the pet whenever it changes.
+     * @param op the kind of record
+     * @param value the new value
+     */
+    void record(byte op, int value) {
+        boolean compact;
+        synchronized (this) {
+            try {
+                out.writeByte(op);
+                out.writeInt(value);
+            } catch (IOException e) {
+                // A ByteArrayOutputStream never throws
+                throw new UncheckedIOException(e);
+            }
+            compact = recorded();
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * Records the current value of a stat, the score or the coins. Called by the pet after it changes one of them.
+     * <p>
+     * The pet changes its stats without a lock, so two threads can change the same stat at once.
+     * The value is read while holding the journal's lock, so the last record of a stat always holds its latest value.
+     * @param op the kind of record
+     * @param stat the stat, as in Pet.HEALTH
+     */
+    void recordStat(byte op, int stat) {
+        boolean compact;
+        synchronized (this) {
+            try {
+                out.writeByte(op);
+                out.writeInt(pet.getStat(stat));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compact = recorded();
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * Records the new quantity of an item. Called by the inventory whenever a quantity changes.
+     * @param itemName the name of the item
+     * @param quantity the new quantity
+     */
+    void recordItem(String itemName, int quantity) {
+        boolean compact;
+        synchronized (this) {
+            try {
+                out.writeByte(ITEM);
+                out.writeUTF(itemName);
+                out.writeInt(quantity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compact = recorded();
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * Records the position of the gacha's random number generator. Called by the gacha after every roll.
+     * @param seed the generator's seed
+     * @param count the number of values drawn
+     */
+    void recordRolls(long seed, long count) {
+        boolean compact;
+        synchronized (this) {
+            try {
+                out.writeByte(ROLLS);
+                out.writeLong(seed);
+                out.writeLong(count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compact = recorded();
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * Saves the pet and restarts the journal from that save.
+     * Called automatically after COMPACT_AFTER_RECORDS records.
+     */
+    public void compact() {
+        SaveService.saveGame(fileName, new GameState(pet), null);
+    }
+
+    /**
+     * Starts a new generation of records. Called by the save service when the pet is encoded.
+     * Records made so far are part of the snapshot, so they are dropped.
+     * @param savedAt the save time of the snapshot
+     */
+    synchronized void startGeneration(long savedAt) {
+        buffer.reset();
+        generation = savedAt;
+        records = 0;
+        compacting = false;
+    }
+
+    /**
+     * Replaces the journal file with an empty one for a snapshot that is now on disk. Called on the writer thread.
+     * @param savedAt the save time of the snapshot
+     * @throws IOException if the journal file cannot be written
+     */
+    void rotate(long savedAt) throws IOException {
+        closeChannel();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(tempPath))) {
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.writeLong(savedAt);
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channel.force(true);
+        synchronized (this) {
+            fileGeneration = savedAt;
+        }
+        flush();
+    }
+
+    /**
+     * Writes the buffered records to disk. Called on the writer thread.
+     * Records of a snapshot that is not on disk yet are kept until the journal is rotated.
+     */
+    void flush() {
+        byte[] bytes;
+        synchronized (this) {
+            if (channel == null || generation != fileGeneration || buffer.size() == 0) {
+                return;
+            }
+            bytes = buffer.toByteArray();
+            buffer.reset();
+        }
+        try {
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Replays a journal on top of a game state that was just loaded.
+     * Nothing happens if there is no journal, or if it belongs to another save.
+     * A record that was only partly written (the game crashed while writing it) ends the replay.
+     * If records were replayed, the time the journal was last written becomes the game state's last played time.
+     * @param fileName the save file path
+     * @param gameState the loaded game state
+     * @return the number of records replayed
+     */
+    static int replay(String fileName, GameState gameState) {
+        Path journalPath = journalPath(fileName.endsWith(".ser") ? fileName.substring(0, fileName.length() - 4) : fileName);
+        if (gameState.getSavedAt() == 0 || !Files.exists(journalPath)) {
+            return 0;
+        }
+        Pet pet = gameState.getPet();
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalPath.toFile())))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION || in.readLong() != gameState.getSavedAt()) {
+                return 0;
+            }
+            while (true) {
+                int op = in.read();
+                if (op < HEALTH || op > ROLLS) {
+                    break;
+                }
+                if (op == ROLLS) {
+                    long seed = in.readLong();
+                    long rolls = in.readLong();
+                    if (pet.getGacha() != null) {
+                        pet.getGacha().setRandom(new GachaRandom(seed, rolls));
+                    }
+                    count++;
+                    continue;
+                }
+                String itemName = op == ITEM ? in.readUTF() : null;
+                int value = in.readInt();
+                apply(pet, op, itemName, value);
+                count++;
+            }
+        } catch (EOFException e) {
+            // The last record was cut off by a crash
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (count > 0) {
+            try {
+                gameState.setLastPlayedAt(Files.getLastModifiedTime(journalPath).toMillis());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the path of the journal for a save file.
+     * @param fileName the save file name, without the .ser extension
+     * @return the journal path
+     */
+    static Path journalPath(String fileName) {
+        return Paths.get(fileName + ".journal").toAbsolutePath();
+    }
+
+    /** Helper method that sets a recorded value on the pet. */
+    private static void apply(Pet pet, int op, String itemName, int value) {
+        switch (op) {
+            case HEALTH:
+                pet.incrementHealth(value - pet.getHealth());
+                break;
+            case ENERGY:
+                pet.incrementEnergy(value - pet.getEnergy());
+                break;
+            case FULLNESS:
+                pet.incrementFullness(value - pet.getFullness());
+                break;
+            case HAPPINESS:
+                pet.incrementHappiness(value - pet.getHappiness());
+                break;
+            case SCORE:
+                pet.incrementScore(value - pet.getScore());
+                break;
+            case COINS:
+                pet.incrementCoins(value - pet.getCoins());
+                break;
+            case EVOLVE:
+                while (pet.getEvoLevel() < value) {
+                    pet.evolve();
+                }
+                break;
+            case ANGRY:
+                pet.setAngryState(value != 0);
+                break;
+            case SLEEPING:
+                pet.setSleepingState(value != 0);
+                break;
+            case ITEM:
+                Inventory inventory = pet.getInventory();
+                if (inventory != null && inventory.hasItem(itemName)) {
+                    inventory.updateItemQuantity(itemName, value - inventory.getItemQuantity(itemName));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** Helper method that counts a record and returns true if the pet should be saved. */
+    private boolean recorded() {
+        records++;
+        if (records >= compactAfterRecords && !compacting) {
+            compacting = true;
+            return true;
+        }
+        return false;
+    }
+
+    /** Helper method that closes the journal file. Only used on the writer thread. */
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,63 @@
+/** Represents an object that is told when a pet changes.
+ * <p>
+ * The pet calls its listeners only when something actually changed, right after the change, on the thread that changed it.
+ * Stat changes are made without a lock, so when two threads change the same stat their events can arrive in either order;
+ * every other event is told while holding the pet's lock. Listeners should only record or pass on the change, and must not wait for another thread.
+ * Every event uses primitive values, so no object is created per event.
+ * <p>
+ * Every method does nothing by default, so a listener only overrides the events it needs.
+ * @see Pet#addListener(PetListener)
+ */
+public interface PetListener {
+
+    /**
+     * Called when a stat, the score or the coins change.
+     * @param pet the pet
+     * @param stat the stat that changed: Pet.HEALTH, Pet.ENERGY, Pet.FULLNESS, Pet.HAPPINESS, Pet.SCORE or Pet.COINS
+     * @param oldValue the value before the change
+     * @param newValue the value after the change
+     */
+    default void onStatChanged(Pet pet, int stat, int oldValue, int newValue) {
+    }
+
+    /**
+     * Called when a stat becomes low or stops being low: sick for health, sleepy for energy,
+     * hungry for fullness (none left) and unhappy for happiness (none left).
+     * @param pet the pet
+     * @param stat the stat: Pet.HEALTH, Pet.ENERGY, Pet.FULLNESS or Pet.HAPPINESS
+     * @param low true if the stat became low, false if it recovered
+     */
+    default void onThresholdCrossed(Pet pet, int stat, boolean low) {
+    }
+
+    /**
+     * Called when the pet falls asleep or wakes up.
+     * @param pet the pet
+     * @param sleeping true if the pet fell asleep, false if it woke up
+     */
+    default void onSleepingChanged(Pet pet, boolean sleeping) {
+    }
+
+    /**
+     * Called when the pet becomes angry or calms down.
+     * @param pet the pet
+     * @param angry true if the pet became angry, false if it calmed down
+     */
+    default void onAngryChanged(Pet pet, boolean angry) {
+    }
+
+    /**
+     * Called when the pet's health reaches 0.
+     * @param pet the pet
+     */
+    default void onDied(Pet pet) {
+    }
+
+    /**
+     * Called when the pet evolves.
+     * @param pet the pet
+     * @param evoLevel the new evolution level
+     */
+    default void onEvolved(Pet pet, int evoLevel) {
+    }
+}
@@ -191,7 +191,9 @@ public class PetNameScene extends GameScene {
         screenManager.addScreen("Kitchen", kitchenScene.getScene(), kitchenScene);
 
         screenManager.getGameScene("Settings").setPet(pet);
-        
+
+        // Records every change so progress survives a crash
+        PetJournal.attach(pet.getName(), pet);
     }
 }
 
@@ -1,4 +1,5 @@
 import javafx.scene.layout.StackPane;
+import javafx.stage.Screen;
 
 /** Represents the class that contains the pet UI, including the pet's states. */
 public class PetOverlay {
@@ -8,8 +9,8 @@ public class PetOverlay {
     /** The sprite manager to create pet sprites */
     private SpriteManager petSprite;
 
-    /** The path to the sprite image */
-    private String spritePath;
+    /** If a pet was built and its frames are acquired from the sprite atlas cache. */
+    private boolean built;
     /** The width of the sprite */
     private int spriteWidth;
     /** The height of the sprite */
@@ -25,48 +26,32 @@ public class PetOverlay {
      * This overlay displays the pet's sprite and manages its animation.
      */
     public PetOverlay() {
-        spriteWidth = 2680; 
-        spriteHeight = 5360; 
-        rows = 4;
-        columns = 8;
+        spriteWidth = SpriteAtlasCache.SHEET_WIDTH; 
+        spriteHeight = SpriteAtlasCache.SHEET_HEIGHT; 
+        rows = SpriteAtlasCache.ROWS;
+        columns = SpriteAtlasCache.COLUMNS;
         root = new StackPane();
         
     }
 
     /** Constructs the pet's sprites using the sprite manager class.
      * Different sprites are used for different pet types.
+     * <p>
+     * Only the frames of the pet's current evolution stage are decoded, and are shared with the other scenes
+     * through the sprite atlas cache, so building the same pet in several scenes only decodes each sprite sheet once.
+     * The next stage is prefetched as the pet gets close to it. The frames are decoded at the size the game window shows them at.
+     * @see SpriteAtlasCache
+     * @see UIUpdate#setPrefetchFraction(double)
      * @param pet The pet object to be displayed in the overlay.
      */
     public void buildPet(Pet pet) {
 
-        switch (pet.getType()) {
-            case ("Dog"):
-                spritePath = "../assets/sprites/babyDogSprite.png";
-                petSprite = new SpriteManager(spritePath, spriteWidth, spriteHeight, rows, columns, pet);
-                petSprite.extractFrames("../assets/sprites/teenDogSprite.png");
-                petSprite.extractFrames("../assets/sprites/adultDogSprite.png");
-                break;
-            case ("Cat"):
-                spritePath = "../assets/sprites/babyCatSprite.png";
-                petSprite = new SpriteManager(spritePath, spriteWidth, spriteHeight, rows, columns, pet);
-                petSprite.extractFrames("../assets/sprites/teenCatSprite.png");
-                petSprite.extractFrames("../assets/sprites/adultCatSprite.png");
-                break;
-            case ("Duck"):
-                spritePath = "../assets/sprites/babyDuckSprite.png";
-                petSprite = new SpriteManager(spritePath, spriteWidth, spriteHeight, rows, columns, pet);
-                petSprite.extractFrames("../assets/sprites/teenDuckSprite.png");
-                petSprite.extractFrames("../assets/sprites/adultDuckSprite.png");
-                break;
-            case ("Dinosaur"):
-                spritePath = "../assets/sprites/babyDragonSprite.png";
-                petSprite = new SpriteManager(spritePath, spriteWidth, spriteHeight, rows, columns, pet);
-                petSprite.extractFrames("../assets/sprites/teenDragonSprite.png");
-                petSprite.extractFrames("../assets/sprites/adultDragonSprite.png");
-                break;
-            default:
-                throw new IllegalArgumentException("You entered the wrong name.");
-        }
+        // Frees the frames of a previously built pet
+        release();
+
+        int tier = SpriteAtlasCache.fitFrameSize(framePixels(Main.WIDTH, Main.HEIGHT));
+        petSprite = new SpriteManager(pet.getType(), pet.getEvoLevel(), tier, spriteWidth, spriteHeight, columns, rows, pet);
+        built = true;
 
         // Set the initial frame
         petSprite.setCurrentFrame(0);
@@ -79,6 +64,19 @@ public class PetOverlay {
         // Resize sprite to a specific size when the PetOverlay is created
         petSprite.scaleSprite(100, 200);
     }
+
+    /**
+     * Stops the animation and gives the pet's frames back to the sprite atlas cache.
+     * Should be called when the scene that owns this overlay is discarded.
+     */
+    public void release() {
+        if (!built) {
+            return;
+        }
+        petSprite.release();
+        root.getChildren().remove(petSprite.getSpriteView());
+        built = false;
+    }
     
     /** Adds the overlay to the gameplay screens.
      * 
@@ -98,17 +96,32 @@ public class PetOverlay {
 
     /**
      * Updates the scaling of the sprite based on the screen size.
+     * If the window got bigger than the sprites were decoded for, they are decoded again at a higher tier in the background.
      * @param width the width of the screen
      * @param height the height of the screen
      */
     public void updateScaling(double width, double height) {
         // Scale the sprite dynamically
         petSprite.scaleSprite(width * 0.5, height * 1); 
+        petSprite.raiseTier(SpriteAtlasCache.fitFrameSize(framePixels(width, height)));
 
         // Translate the sprite based on screen size 
         petSprite.translateSprite(0.125, 0.6, width, height);
     }
 
+    /** Helper method that returns the width of a frame on screen, in physical pixels, once the sprite is scaled for a screen size.
+     * The sprite fits half the width and the full height, and a frame is square, so it takes half of the smaller side. */
+    private double framePixels(double width, double height) {
+        double outputScale;
+        if (root.getScene() != null && root.getScene().getWindow() != null) {
+            outputScale = root.getScene().getWindow().getOutputScaleX();
+        }
+        else {
+            outputScale = Screen.getPrimary().getOutputScaleX();
+        }
+        return Math.min(width, height) * 0.5 * outputScale;
+    }
+
     /** Starts the sprite's animation. Used when the gameplay screens are active. */
     public void startAnimation() {
         petSprite.startAnimation();
@@ -167,7 +167,7 @@ public class PetSelectionScene extends GameScene {
     public Button createPetButton(String petName, String spriteSheetPath, int col, int row, double buttonSize) {
         Button button = new Button();
 
-        Image spriteSheet = new Image("file:" + spriteSheetPath);
+        Image spriteSheet = AssetPreloader.getImage(spriteSheetPath);
         ImageView imageView = new ImageView(spriteSheet);
 
         int spriteWidth = 2640 / 4; 
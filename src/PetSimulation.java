@@ -0,0 +1,418 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Represents the rules that make a pet's stats change over time.
+ * <p>
+ * Every stat tick, the pet loses some of every stat besides health and gains a coin. A hungry pet also loses happiness and health,
+ * and a pet that runs out of energy falls asleep with a health penalty. While sleeping or angry, sleep and angry ticks check if the pet recovered.
+ * <p>
+ * This class does not use JavaFX, so the rules can be run as fast as needed in tests and simulations.
+ * The gameplay screens listen to its events to update their buttons.
+ * <p>
+ * The pet also evolves here, as soon as its score reaches the next evolution score.
+ * <p>
+ * In the game, the simulation runs on the simulation scheduler's thread while the player changes the pet on the JavaFX thread.
+ * Every tick holds the pet's lock, so state changes (sleeping, anger, evolution, items) never land in the middle of a tick.
+ * The player's stat changes do not take the lock: they are compare and set updates that can land between two changes of a tick without being lost.
+ * Listeners are called on the thread that runs the tick, while the lock is held, so they must not wait for another thread.
+ * <p>
+ * Once a tick, a state update or a player action is complete, the simulation publishes a PetSnapshot of the pet.
+ * The screens draw the latest snapshot instead of reading the pet one getter at a time, so they never show half of a tick.
+ * @see PetSimulationListener
+ * @see PetSnapshot
+ */
+public class PetSimulation {
+
+    /** The amount every stat besides health decreases by on each stat tick. */
+    public static final int STAT_DECAY = 8;
+    /** The coins gained on each stat tick. */
+    public static final int COINS_PER_TICK = 1;
+    /** The happiness and health a hungry pet loses on each stat tick. */
+    public static final int HUNGER_PENALTY = 20;
+    /** The health a pet loses when it falls asleep from having no energy. */
+    public static final int SLEEP_PENALTY = 40;
+    /** The energy a sleeping pet gains on each sleep tick. */
+    public static final int SLEEP_ENERGY = 10;
+    /** The amount every stat besides health drops by when the pet dies. */
+    static final int DEATH_DECAY = 1000;
+    /** The time between two stat ticks, in milliseconds. */
+    public static final long STAT_TICK_MILLIS = 3000;
+    /** The time between two sleep ticks or two angry ticks, in milliseconds. */
+    public static final long SLEEP_TICK_MILLIS = 1000;
+    /** The number of sleep ticks in the time of one stat tick. */
+    static final int SLEEP_TICKS_PER_STAT_TICK = (int) (STAT_TICK_MILLIS / SLEEP_TICK_MILLIS);
+    /** The score needed to reach each evolution level after the first (level 2, then level 3). */
+    public static final int[] EVOLVE_SCORES = { 500, 1000 };
+
+    /** The simulated pet. */
+    private final Pet pet;
+    /** The listeners notified of the simulation's events. */
+    private final List<PetSimulationListener> listeners = new CopyOnWriteArrayList<>();
+    /** The pet as it was after the last complete change. */
+    private volatile PetSnapshot snapshot;
+    /** How many ticks or state updates are running, nested, on the thread holding the pet's lock. Only used while holding it. */
+    private int running;
+
+    /**
+     * Creates a simulation for a pet.
+     * The pet evolves as soon as its score is high enough.
+     * @param pet the pet to simulate
+     */
+    public PetSimulation(Pet pet) {
+        this.pet = pet;
+        this.snapshot = pet.snapshot();
+        pet.addListener(new PetListener() {
+            @Override
+            public void onStatChanged(Pet pet, int stat, int oldValue, int newValue) {
+                if (stat == Pet.SCORE) {
+                    evolveIfReady();
+                }
+                publish();
+            }
+
+            @Override
+            public void onSleepingChanged(Pet pet, boolean sleeping) {
+                publish();
+            }
+
+            @Override
+            public void onAngryChanged(Pet pet, boolean angry) {
+                publish();
+            }
+
+            @Override
+            public void onEvolved(Pet pet, int evoLevel) {
+                publish();
+            }
+        });
+        evolveIfReady();
+    }
+
+    /**
+     * Returns the simulated pet.
+     * @return the pet
+     */
+    public Pet getPet() {
+        return pet;
+    }
+
+    /**
+     * Returns the pet as it was after the last complete tick, state update or player action.
+     * Never waits: the snapshot is replaced, never changed.
+     * @return the latest snapshot
+     */
+    public PetSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Takes a new snapshot of the pet and tells the listeners, unless a tick is running on this thread, which publishes when it ends.
+     * Called whenever the pet changes. Waits for a tick running on another thread, so the snapshot is never taken in the middle of it.
+     * @return the latest snapshot
+     */
+    public PetSnapshot publish() {
+        synchronized (pet) {
+            if (running == 0) {
+                PetSnapshot published = pet.snapshot();
+                snapshot = published;
+                for (PetSimulationListener listener : listeners) {
+                    listener.onSnapshot(published);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Adds a listener that is notified of the simulation's events.
+     * @param listener the listener to add
+     */
+    public void addListener(PetSimulationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener the listener to remove
+     */
+    public void removeListener(PetSimulationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Runs one stat tick, which happens every few seconds.
+     * <p>
+     * A hungry pet loses happiness, then every stat besides health decreases and the pet gains a coin.
+     * The pet's states are then updated.
+     * @see #updateState()
+     */
+    public void tick() {
+        synchronized (pet) {
+            running++;
+            try {
+                if (pet.isHungry()) pet.incrementHappiness(-HUNGER_PENALTY);
+                pet.decrementAllStats(STAT_DECAY);
+                pet.incrementCoins(COINS_PER_TICK);
+                updateState();
+                for (PetSimulationListener listener : listeners) {
+                    listener.onStatsChanged(pet);
+                }
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Updates the pet's states. Called after every stat tick, and after every player action that changes the pet's stats.
+     * <p>
+     * If the pet is out of energy, it falls asleep and loses health.
+     * If the pet is hungry, it loses health and happiness.
+     * If the pet has no happiness left, it becomes angry.
+     * If the pet is dead, its other stats drop to 0 and no other event is sent.
+     */
+    public void updateState() {
+        synchronized (pet) {
+            running++;
+            try {
+                if (pet.isDead()) {
+                    die();
+                    return;
+                }
+                if (pet.isSleeping()) {
+                    pet.setSleepingState(true);
+                    pet.incrementHealth(-SLEEP_PENALTY);
+                    for (PetSimulationListener listener : listeners) {
+                        listener.onFellAsleep(pet);
+                    }
+                }
+                if (pet.isHungry()) {
+                    pet.incrementHealth(-HUNGER_PENALTY);
+                    pet.incrementHappiness(-HUNGER_PENALTY);
+                }
+                if (pet.isAngry()) {
+                    pet.setAngryState(true);
+                    for (PetSimulationListener listener : listeners) {
+                        listener.onAngry(pet);
+                    }
+                }
+                if (pet.isDead()) {
+                    die();
+                }
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Runs a player action that changes the pet's stats (e.g. playing), then updates the pet's states.
+     * <p>
+     * The action and the state update hold the pet's lock, so a tick never lands between them,
+     * and a single snapshot is published once both are complete.
+     * @see #updateState()
+     * @param action the changes the player makes to the pet
+     */
+    public void runPlayerAction(Runnable action) {
+        synchronized (pet) {
+            running++;
+            try {
+                action.run();
+                updateState();
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Runs one sleep tick with the usual energy gain.
+     * @see #sleepTick(int, int)
+     */
+    public void sleepTick() {
+        sleepTick(SLEEP_ENERGY, 0);
+    }
+
+    /**
+     * Runs one sleep tick, which happens every second while the pet is sleeping.
+     * <p>
+     * If the pet is still sleeping, it gains energy. Once its energy is full, it wakes up.
+     * @param energyGain the energy gained if the pet is still sleeping
+     * @param scoreGain the score gained if the pet is still sleeping
+     */
+    public void sleepTick(int energyGain, int scoreGain) {
+        synchronized (pet) {
+            running++;
+            try {
+                if (pet.isStillSleeping()) {
+                    pet.incrementEnergy(energyGain);
+                    if (scoreGain != 0) pet.incrementScore(scoreGain);
+                    for (PetSimulationListener listener : listeners) {
+                        listener.onStatsChanged(pet);
+                    }
+                }
+                if (!pet.isStillSleeping()) {
+                    pet.setSleepingState(false);
+                    for (PetSimulationListener listener : listeners) {
+                        listener.onWokeUp(pet);
+                    }
+                }
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Runs one angry tick, which happens every second while the pet is angry.
+     * The pet calms down once its happiness is back to at least half.
+     */
+    public void angryTick() {
+        synchronized (pet) {
+            running++;
+            try {
+                if (!pet.isStillAngry()) {
+                    pet.setAngryState(false);
+                    for (PetSimulationListener listener : listeners) {
+                        listener.onCalmed(pet);
+                    }
+                }
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Catches up on the time the game was closed, as if it had been running.
+     * <p>
+     * The result is the same as running the timers second by second: every second, a sleep tick if the pet is sleeping,
+     * an angry tick if the pet is angry, and a stat tick every third second. Nothing happens once the pet is dead.
+     * <p>
+     * Instead of looping over every tick, the time is cut at the moments the pet's states can change (a stat running out,
+     * falling asleep, waking up, getting hungry or angry). Between two such moments every stat tick changes the stats by the same amount,
+     * so a whole stretch is applied at once. A pet left alone always runs out of fullness and then health, so even a week away
+     * only takes a handful of stretches.
+     * <p>
+     * The pet's cooldowns also lose the time that passed.
+     * @param elapsedMillis the time since the game was saved, in milliseconds
+     * @return the number of stat ticks that were caught up on
+     */
+    public long fastForward(long elapsedMillis) {
+        synchronized (pet) {
+            running++;
+            try {
+                pet.getPlayCooldown().elapse(elapsedMillis);
+                pet.getVetCooldown().elapse(elapsedMillis);
+                long seconds = elapsedMillis / SLEEP_TICK_MILLIS;
+                if (seconds <= 0 || pet.isDead()) {
+                    return 0;
+                }
+                // Happiness never goes up on its own, so only the first angry tick can calm the pet down
+                if (pet.IsInAngryState()) {
+                    angryTick();
+                }
+
+                long statTicks = seconds / SLEEP_TICKS_PER_STAT_TICK;
+                long done = 0;
+                while (done < statTicks && !pet.isDead()) {
+                    long stretch = steadyStatTicks(statTicks - done);
+                    if (stretch > 0) {
+                        applySteadyStatTicks(stretch);
+                        done += stretch;
+                    } else {
+                        for (int s = 0; s < SLEEP_TICKS_PER_STAT_TICK; s++) {
+                            if (pet.IsInSleepingState()) sleepTick();
+                        }
+                        tick();
+                        done++;
+                    }
+                }
+                if (!pet.isDead()) {
+                    for (long s = 0; s < seconds % SLEEP_TICKS_PER_STAT_TICK; s++) {
+                        if (pet.IsInSleepingState()) sleepTick();
+                    }
+                }
+                return done;
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Helper method that returns how many of the next stat ticks (with their sleep ticks) all change the stats by the same amount,
+     * without any state changing. Returns 0 if the next one must be run normally.
+     */
+    private long steadyStatTicks(long limit) {
+        boolean sleeping = pet.IsInSleepingState();
+        boolean hungry = pet.isHungry();
+        long count = limit;
+
+        if (sleeping) {
+            // Every sleep tick of the stretch must leave the energy below max, or the pet wakes up
+            int room = pet.getMaxEnergy() - 1 - SLEEP_TICKS_PER_STAT_TICK * SLEEP_ENERGY - pet.getEnergy();
+            count = room < 0 ? 0 : Math.min(count, room / energyPerStatTick(true) + 1);
+        } else {
+            // The energy must stay above 0, or the pet falls asleep
+            count = Math.min(count, Math.max(0, pet.getEnergy() - 1) / STAT_DECAY);
+        }
+        if (hungry) {
+            // The health must stay above 0, and the happiness must already be gone
+            count = Math.min(count, Math.max(0, pet.getHealth() - 1) / HUNGER_PENALTY);
+            if (pet.getHappiness() > 0 || !pet.IsInAngryState()) count = 0;
+        } else {
+            // The fullness must stay above 0, or the pet gets hungry
+            count = Math.min(count, Math.max(0, pet.getFullness() - 1) / STAT_DECAY);
+            if (pet.getHappiness() > 0) {
+                count = Math.min(count, (pet.getHappiness() - 1) / STAT_DECAY);
+            } else if (!pet.IsInAngryState()) {
+                count = 0;
+            }
+        }
+        return count;
+    }
+
+    /** Helper method that applies stat ticks found by steadyStatTicks, all at once. */
+    private void applySteadyStatTicks(long count) {
+        boolean hungry = pet.isHungry();
+        // Stretches never run a stat out, so they are shorter than the stats (ints)
+        int n = (int) count;
+        pet.incrementEnergy(n * energyPerStatTick(pet.IsInSleepingState()));
+        if (!hungry) {
+            pet.incrementFullness(-n * STAT_DECAY);
+            pet.incrementHappiness(-n * STAT_DECAY);
+        } else {
+            pet.incrementHealth(-n * HUNGER_PENALTY);
+        }
+        pet.incrementCoins(n * COINS_PER_TICK);
+    }
+
+    /** Helper method that returns how much the energy changes over one stat tick and its sleep ticks. */
+    private static int energyPerStatTick(boolean sleeping) {
+        return sleeping ? SLEEP_TICKS_PER_STAT_TICK * SLEEP_ENERGY - STAT_DECAY : -STAT_DECAY;
+    }
+
+    /** Helper method that ends a tick or a state update, publishing a snapshot once the outermost one ends. Called while holding the pet's lock. */
+    private void finish() {
+        running--;
+        publish();
+    }
+
+    /** Helper method that evolves the pet for every evolution score it has reached. */
+    private void evolveIfReady() {
+        synchronized (pet) {
+            while (pet.getEvoLevel() <= EVOLVE_SCORES.length && pet.getScore() >= EVOLVE_SCORES[pet.getEvoLevel() - 1]) {
+                pet.evolve();
+            }
+        }
+    }
+
+    /** Helper method that empties the dead pet's stats and notifies the listeners. */
+    private void die() {
+        pet.decrementAllStats(DEATH_DECAY);
+        for (PetSimulationListener listener : listeners) {
+            listener.onDied(pet);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/** Represents something that reacts to the events of a pet simulation, such as a gameplay screen.
+ * <p>
+ * All methods do nothing by default, so a listener only overrides the events it needs.
+ * Events are called on the thread that runs the simulation.
+ * @see PetSimulation
+ */
+public interface PetSimulationListener {
+
+    /**
+     * Called after a stat tick or a sleep tick changed the pet's stats.
+     * @param pet the simulated pet
+     */
+    default void onStatsChanged(Pet pet) {
+        // Default nothing.
+    }
+
+    /**
+     * Called when the simulation publishes a snapshot, after a complete tick, state update or player action.
+     * @see PetSimulation#getSnapshot()
+     * @param snapshot the pet as it is now
+     */
+    default void onSnapshot(PetSnapshot snapshot) {
+        // Default nothing.
+    }
+
+    /**
+     * Called every time a state update finds the pet out of energy, after the sleeping health penalty.
+     * @param pet the simulated pet
+     */
+    default void onFellAsleep(Pet pet) {
+        // Default nothing.
+    }
+
+    /**
+     * Called once when a sleep tick finds the pet no longer sleeping.
+     * @param pet the simulated pet
+     */
+    default void onWokeUp(Pet pet) {
+        // Default nothing.
+    }
+
+    /**
+     * Called every time a state update finds the pet with no happiness left.
+     * @param pet the simulated pet
+     */
+    default void onAngry(Pet pet) {
+        // Default nothing.
+    }
+
+    /**
+     * Called once when an angry tick finds the pet no longer angry.
+     * @param pet the simulated pet
+     */
+    default void onCalmed(Pet pet) {
+        // Default nothing.
+    }
+
+    /**
+     * Called every time a state update finds the pet dead. No other event follows in the same update.
+     * @param pet the simulated pet
+     */
+    default void onDied(Pet pet) {
+        // Default nothing.
+    }
+}
@@ -0,0 +1,260 @@
+/** Represents a pet as it was at a single point in time: its stats, states and item quantities.
+ * <p>
+ * A snapshot never changes, so it can be read on any thread while the pet keeps changing.
+ * The simulation publishes one after every tick and every player action, which the screens draw,
+ * and saves are encoded from one, so a save never holds half of a tick.
+ * @see Pet#snapshot()
+ * @see PetSimulation#getSnapshot()
+ */
+public final class PetSnapshot {
+
+    /** The name of the pet. */
+    private final String name;
+    /** The type of the pet. */
+    private final String type;
+    /** The health of the pet. */
+    private final int health;
+    /** The energy of the pet. */
+    private final int energy;
+    /** The fullness of the pet. */
+    private final int fullness;
+    /** The happiness of the pet. */
+    private final int happiness;
+    /** The max health of the pet. */
+    private final int maxHealth;
+    /** The max energy of the pet. */
+    private final int maxEnergy;
+    /** The max fullness of the pet. */
+    private final int maxFullness;
+    /** The max happiness of the pet. */
+    private final int maxHappiness;
+    /** If the pet was in the angry state. */
+    private final boolean inAngryState;
+    /** If the pet was in the sleeping state. */
+    private final boolean inSleepingState;
+    /** The score of the pet. */
+    private final int score;
+    /** The number of coins the pet had. */
+    private final int coins;
+    /** The evolution level of the pet. */
+    private final int evoLevel;
+    /** The quantity of every item in the pet's inventory, in the inventory's order. */
+    private final int[] itemQuantities;
+
+    /**
+     * Constructs a snapshot. Only the pet creates snapshots.
+     * @see Pet#snapshot()
+     */
+    PetSnapshot(String name, String type, int health, int energy, int fullness, int happiness,
+            int maxHealth, int maxEnergy, int maxFullness, int maxHappiness,
+            boolean inAngryState, boolean inSleepingState, int score, int coins, int evoLevel, int[] itemQuantities) {
+        this.name = name;
+        this.type = type;
+        this.health = health;
+        this.energy = energy;
+        this.fullness = fullness;
+        this.happiness = happiness;
+        this.maxHealth = maxHealth;
+        this.maxEnergy = maxEnergy;
+        this.maxFullness = maxFullness;
+        this.maxHappiness = maxHappiness;
+        this.inAngryState = inAngryState;
+        this.inSleepingState = inSleepingState;
+        this.score = score;
+        this.coins = coins;
+        this.evoLevel = evoLevel;
+        this.itemQuantities = itemQuantities;
+    }
+
+    /**
+     * Returns the name of the pet.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the pet.
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the health of the pet.
+     * @return the health
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Returns the energy of the pet.
+     * @return the energy
+     */
+    public int getEnergy() {
+        return energy;
+    }
+
+    /**
+     * Returns the fullness of the pet.
+     * @return the fullness
+     */
+    public int getFullness() {
+        return fullness;
+    }
+
+    /**
+     * Returns the happiness of the pet.
+     * @return the happiness
+     */
+    public int getHappiness() {
+        return happiness;
+    }
+
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    public int getMaxEnergy() {
+        return maxEnergy;
+    }
+
+    public int getMaxFullness() {
+        return maxFullness;
+    }
+
+    public int getMaxHappiness() {
+        return maxHappiness;
+    }
+
+    /**
+     * Returns if the pet was in the angry state.
+     * @return true if the pet was angry
+     */
+    public boolean isInAngryState() {
+        return inAngryState;
+    }
+
+    /**
+     * Returns if the pet was in the sleeping state.
+     * @return true if the pet was sleeping
+     */
+    public boolean isInSleepingState() {
+        return inSleepingState;
+    }
+
+    /**
+     * Returns the score of the pet.
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of coins the pet had.
+     * @return the coins
+     */
+    public int getCoins() {
+        return coins;
+    }
+
+    /**
+     * Returns the evolution level of the pet.
+     * @return the evolution level
+     */
+    public int getEvoLevel() {
+        return evoLevel;
+    }
+
+    /**
+     * Returns the number of items in the pet's inventory.
+     * @return the number of items
+     */
+    public int getItemCount() {
+        return itemQuantities.length;
+    }
+
+    /**
+     * Returns the quantity of an item.
+     * @param index the position of the item in the inventory's items
+     * @return the quantity
+     */
+    public int getItemQuantity(int index) {
+        return itemQuantities[index];
+    }
+
+    /**
+     * Returns if the pet was dead.
+     * @see Pet#isDead()
+     * @return true if the pet was dead
+     */
+    public boolean isDead() {
+        return health == 0;
+    }
+
+    /**
+     * Returns if the pet was out of energy.
+     * @see Pet#isSleeping()
+     * @return true if the pet was out of energy
+     */
+    public boolean isSleeping() {
+        return energy == 0;
+    }
+
+    public boolean isSleepy() {
+        return ((energy*100)/(maxEnergy)) <= 25;
+    }
+
+    public boolean isSick() {
+        return ((health*100)/(maxHealth)) <= 25;
+    }
+
+    /**
+     * Returns if the pet was hungry.
+     * @see Pet#isHungry()
+     * @return true if the pet was hungry
+     */
+    public boolean isHungry() {
+        return fullness == 0;
+    }
+
+    /**
+     * Returns if the pet had no happiness left.
+     * @see Pet#isAngry()
+     * @return true if the pet had no happiness left
+     */
+    public boolean isAngry() {
+        return happiness == 0;
+    }
+
+    /**
+     * Returns if the pet was in the angry state and had not recovered yet.
+     * @see Pet#isStillAngry()
+     * @return true if the pet was still angry
+     */
+    public boolean isStillAngry() {
+        return inAngryState && happiness < 0.5*maxHappiness;
+    }
+
+    /**
+     * Returns if the pet was in the sleeping state and had not recovered yet.
+     * @see Pet#isStillSleeping()
+     * @return true if the pet was still sleeping
+     */
+    public boolean isStillSleeping() {
+        return inSleepingState && energy != maxEnergy;
+    }
+
+    /**
+     * Returns if none of the negative states were true.
+     * @see Pet#isNormal()
+     * @return true if the pet was normal
+     */
+    public boolean isNormal() {
+        return !isDead() && !isSleeping() && !isHungry() && !isAngry();
+    }
+}
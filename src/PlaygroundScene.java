@@ -1,3 +1,4 @@
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
@@ -35,8 +36,8 @@ public class PlaygroundScene extends GameScene {
     /** The button to play with the pet. */
     private Button playButton;
 
-    /** The cooldown timer for the play button. */
-    private int playCooldown;
+    /** How long the play button is disabled after playing, in milliseconds. */
+    public static final long PLAY_COOLDOWN_MILLIS = 10_000;
 
     /**
      * Constructs the playground scene.
@@ -48,7 +49,6 @@ public class PlaygroundScene extends GameScene {
      */
     public PlaygroundScene(ScreenManager screenManager, Pet pet) throws IOException {
         this.screenManager = screenManager;
-        this.playCooldown = 0;
         this.pet = pet;
 
         StackPane root = new StackPane();
@@ -69,25 +69,23 @@ public class PlaygroundScene extends GameScene {
             playButton.setDisable(true);
             TextManager.clearTextElements();
             ButtonManager.clearButtonElements();
-            pet.incrementHappiness(80);
-            pet.incrementScore(80);
-            screenOverlay.setScoreText("SCORE: " + String.valueOf(pet.getScore()));
-            playCooldown = 10;
-            screenManager.getPlayCooldownTimer().start();
-            updatePetState();
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), true);
+            // The stats, score and play button are shown from the snapshot after the action
+            screenManager.runPlayerAction(pet, () -> {
+                pet.getPlayCooldown().start(PLAY_COOLDOWN_MILLIS);
+                pet.incrementHappiness(80);
+                pet.incrementScore(80);
+            }, true);
         });
         
         // Exercise button
         exerciseButton = new Button("Exercise");
         exerciseButton.setOnAction(e -> {
-            pet.incrementHealth(40);
-            pet.incrementEnergy(-20);
-            pet.incrementFullness(-20);
-            pet.incrementScore(40);
-            screenOverlay.setScoreText("SCORE: " + String.valueOf(pet.getScore()));
-            updatePetState();
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+            screenManager.runPlayerAction(pet, () -> {
+                pet.incrementHealth(40);
+                pet.incrementEnergy(-20);
+                pet.incrementFullness(-20);
+                pet.incrementScore(40);
+            }, false);
         });
 
         playButton.setMinSize(75, 50);
@@ -174,39 +172,32 @@ public class PlaygroundScene extends GameScene {
             }     
         }
         screenManager.getStatTimer().start();
-        screenManager.getPlayCooldownTimer().start();
-        
+        // The seconds left on the play button count down while this screen is shown
+        pet.getPlayCooldown().setOnSecond(() -> Platform.runLater(this::updatePlayButton));
+        updatePlayButton();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onTimerTick() {
-        if (pet.isHungry()) pet.incrementHappiness(-20);
-        pet.decrementAllStats(8);
-        pet.incrementCoins(1);
-        screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        updatePetState();
-        UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onLeave() {
+        pet.getPlayCooldown().setOnSecond(null);
     }
 
     /**
-     * {@inheritDoc}
+     * Helper method that shows the seconds left on the play cooldown on the play button,
+     * or enables the button once the cooldown is over and the pet can play.
      */
-    @Override
-    public void onPlayCooldownTick() {
-        if (playCooldown > 0) {
-            playButton.setText(String.valueOf(playCooldown));
-            playCooldown--;
+    private void updatePlayButton() {
+        Cooldown cooldown = pet.getPlayCooldown();
+        if (!cooldown.isReady()) {
+            playButton.setText(String.valueOf(cooldown.getRemainingSeconds()));
             playButton.setDisable(true);
         }
         else {
             playButton.setText("Play");
-            if (!pet.isStillSleeping()) {
-                playButton.setDisable(false);
-            }
-            screenManager.getPlayCooldownTimer().pause();
+            playButton.setDisable(pet.isDead() || pet.isStillSleeping());
         }
     }
 
@@ -214,21 +205,55 @@ public class PlaygroundScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onSleepTick() {
-        if (pet.isStillSleeping()) {
-            pet.incrementEnergy(10);
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onSnapshot(PetSnapshot snapshot, boolean happy) {
+        screenOverlay.showSnapshot(snapshot);
+        UIUpdate.updateUI(snapshot, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), happy);
+        updatePlayButton();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onFellAsleep(Pet pet) {
+        playButton.setDisable(true);
+        exerciseButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onWokeUp(Pet pet) {
+        screenOverlay.getLeftArrowButton().setDisable(false);
+        screenOverlay.getRightArrowButton().setDisable(false);
+        screenOverlay.getInventoryButton().setDisable(false);
+        screenOverlay.getSettingsButton().setDisable(false);
+        updatePlayButton();
+        if (!pet.isStillAngry()) {
+            exerciseButton.setDisable(false);
         }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onAngry(Pet pet) {
+        exerciseButton.setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCalmed(Pet pet) {
         if (!pet.isStillSleeping()) {
-            screenManager.getSleepTimer().pause();
-            screenOverlay.getLeftArrowButton().setDisable(false);
-            screenOverlay.getRightArrowButton().setDisable(false);
-            screenOverlay.getInventoryButton().setDisable(false);
-            screenOverlay.getSettingsButton().setDisable(false);
-            if (!pet.isStillAngry()) {
-                playButton.setDisable(false);
-                exerciseButton.setDisable(false);
-            }       
+            exerciseButton.setDisable(false);
         }
     }
 
@@ -236,13 +261,13 @@ public class PlaygroundScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onAngryTick() {
-        if (!pet.isStillAngry()) {
-            screenManager.getAngryTimer().pause();
-            if (!pet.isStillSleeping()) {
-                exerciseButton.setDisable(false);
-            }     
-        }
+    public void onDied(Pet pet) {
+        playButton.setDisable(true);
+        exerciseButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(false);
     }
 
     /**
@@ -273,54 +298,17 @@ public class PlaygroundScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    protected void updatePetState() {
-        if (pet.isDead()) {
-            playButton.setDisable(true);
-            exerciseButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            screenManager.getPlayCooldownTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        if (pet.isSleeping()) {
-            pet.incrementHealth(-40);
-            playButton.setDisable(true);
-            exerciseButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(true);
-            screenManager.getSleepTimer().start();
-        }
-        if (pet.isHungry()) {
-            pet.incrementHealth(-20);
-            pet.incrementHappiness(-20);
-        }
-        if (pet.isAngry()) {
-            exerciseButton.setDisable(true);
-            screenManager.getAngryTimer().start();
-        }  
-        if (pet.isDead()) {
-            playButton.setDisable(true);
-            exerciseButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            screenManager.getPlayCooldownTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        
+    public void onRemove() {
+        onLeave();
+        petOverlay.release();
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void updatePetState() {
+        PetSimulation simulation = screenManager.getSimulation(pet);
+        screenManager.runOnSimulation(simulation::updateState);
     }
 }
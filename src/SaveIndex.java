@@ -0,0 +1,215 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/** Represents the save index, a small file (saves.idx) listing the preview of every save file.
+ * <p>
+ * The index is updated every time a game is saved, so the load game screen can show all saves with one read
+ * instead of loading every save file.
+ * Save files that were added or deleted by hand are picked up the next time the index is read.
+ * Every entry also keeps the last modified time and size of its save file, so a save file replaced without the index
+ * (e.g. copied in, or the index could not be written) is read again instead of showing an old preview.
+ * @see SavePreview
+ */
+public class SaveIndex {
+
+    /** The name of the index file. */
+    public static final String INDEX_FILE_NAME = "saves.idx";
+    /** The first four bytes of the index file ("EVOI"). */
+    private static final int MAGIC = 0x45564F49;
+    /** The version of the index file. */
+    private static final int VERSION = 2;
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public SaveIndex() {
+        throw new NullPointerException("DON'T CREATE A SAVEINDEX OBJECT!!!");
+    }
+
+    /**
+     * Returns the previews of all save files in a folder, most recently saved first.
+     * <p>
+     * Previews come from the index. Only save files missing from the index or changed since it was written are opened,
+     * and the index is rewritten if anything changed.
+     * @param folder the folder containing the save files
+     * @return the list of previews
+     */
+    public static synchronized List<SavePreview> getPreviews(Path folder) {
+        Map<String, Entry> indexed = new HashMap<>();
+        for (Entry entry : read(folder)) {
+            indexed.put(entry.preview.getFileName(), entry);
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        boolean changed = false;
+        for (String fileName : listSaveFiles(folder)) {
+            Entry entry = indexed.remove(fileName);
+            Entry onDisk = new Entry(folder, null, fileName);
+            if (entry == null || onDisk.fileSize < 0 || entry.fileModified != onDisk.fileModified || entry.fileSize != onDisk.fileSize) {
+                SavePreview preview = SaveLoadManager.loadPreview(folder.resolve(fileName).toString());
+                entry = preview == null ? null : new Entry(preview, onDisk.fileModified, onDisk.fileSize);
+                changed = true;
+            }
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        // Anything left in the index no longer has a save file
+        changed = changed || !indexed.isEmpty();
+
+        entries.sort((a, b) -> Long.compare(b.preview.getLastModified(), a.preview.getLastModified()));
+        if (changed) {
+            write(folder, entries);
+        }
+        List<SavePreview> previews = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            previews.add(entry.preview);
+        }
+        return previews;
+    }
+
+    /**
+     * Adds or replaces the preview of a save file in the index.
+     * @param folder the folder containing the save files
+     * @param preview the preview of the save that was just written
+     */
+    public static synchronized void update(Path folder, SavePreview preview) {
+        List<Entry> entries = read(folder);
+        entries.removeIf(e -> e.preview.getFileName().equals(preview.getFileName()));
+        entries.add(0, new Entry(folder, preview, preview.getFileName()));
+        write(folder, entries);
+    }
+
+    /** Helper method that reads the index, or returns an empty list if it is missing or damaged. */
+    private static List<Entry> read(Path folder) {
+        List<Entry> entries = new ArrayList<>();
+        Path indexPath = folder.resolve(INDEX_FILE_NAME);
+        if (!Files.exists(indexPath)) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexPath.toFile())))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION) {
+                return entries;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String fileName = in.readUTF();
+                String petName = in.readUTF();
+                String petType = in.readUTF();
+                int score = in.readInt();
+                int evoLevel = in.readInt();
+                int health = in.readInt();
+                long lastModified = in.readLong();
+                long fileModified = in.readLong();
+                long fileSize = in.readLong();
+                entries.add(new Entry(new SavePreview(fileName, petName, petType, score, evoLevel, health, lastModified), fileModified, fileSize));
+            }
+        } catch (IOException e) {
+            // A damaged index is rebuilt from the save files
+            entries.clear();
+        }
+        return entries;
+    }
+
+    /** Helper method that writes the index to a temporary file and moves it into place. */
+    private static void write(Path folder, List<Entry> entries) {
+        Path indexPath = folder.resolve(INDEX_FILE_NAME);
+        Path tempPath = folder.resolve(INDEX_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempPath.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                SavePreview preview = entry.preview;
+                out.writeUTF(preview.getFileName());
+                out.writeUTF(preview.getPetName());
+                out.writeUTF(preview.getPetType());
+                out.writeInt(preview.getScore());
+                out.writeInt(preview.getEvoLevel());
+                out.writeInt(preview.getHealth());
+                out.writeLong(preview.getLastModified());
+                out.writeLong(entry.fileModified);
+                out.writeLong(entry.fileSize);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Helper method that lists the names of all save files in a folder. */
+    private static List<String> listSaveFiles(Path folder) {
+        List<String> fileNames = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(folder)) {
+            stream.forEach(path -> {
+                String fileName = path.getFileName().toString();
+                if (SaveLoadManager.isSaveFile(fileName)) {
+                    fileNames.add(fileName);
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return fileNames;
+    }
+
+    /** Represents an entry of the index: the preview of a save file, and the file it was read from. */
+    private static final class Entry {
+        /** The preview of the save. */
+        private final SavePreview preview;
+        /** The last modified time of the save file when the preview was read, or -1 if unknown. */
+        private final long fileModified;
+        /** The size of the save file when the preview was read, or -1 if unknown. */
+        private final long fileSize;
+
+        private Entry(SavePreview preview, long fileModified, long fileSize) {
+            this.preview = preview;
+            this.fileModified = fileModified;
+            this.fileSize = fileSize;
+        }
+
+        /** Creates an entry with the save file as it is on disk now. An unreadable file is read again next time. */
+        private Entry(Path folder, SavePreview preview, String fileName) {
+            this.preview = preview;
+            long modified = -1;
+            long size = -1;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(folder.resolve(fileName), BasicFileAttributes.class);
+                modified = attributes.lastModifiedTime().toMillis();
+                size = attributes.size();
+            } catch (IOException e) {
+                // Unknown, so the save file is opened again next time
+            }
+            this.fileModified = modified;
+            this.fileSize = size;
+        }
+    }
+
+    /**
+     * Returns the folder where save files are stored (the working directory).
+     * @return the save folder
+     */
+    public static Path getSaveFolder() {
+        return Paths.get(System.getProperty("user.dir"));
+    }
+}
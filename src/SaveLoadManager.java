@@ -1,28 +1,105 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * The SaveLoadManager class handles saving and loading the game state
- * to and from a file using Java serialization.
+ * to and from a file.
+ * <p>
+ * Save files use the binary format of the game state codec, while time information still uses Java serialization.
  */
 public class SaveLoadManager {
 
+    /** The save time given to the last save, so no two saves get the same time. */
+    private static final AtomicLong lastSaveTime = new AtomicLong();
+
     /**
      * Saves the game state to a file.
-     * 
+     * <p>
+     * The file is written in the binary format of the game state codec, and its preview is added to the save index of its folder.
+     * This method blocks until the file is on disk. Use the save service to save from the JavaFX thread.
+     * @see GameStateCodec
+     * @see SaveIndex
+     * @see SaveService
      * @param fileName  The name of the file to save the game state to.
      * @param gameState The GameState object representing the current game state.
      */
     public static void saveGame(String fileName, GameState gameState) {
         fileName = fileName + ".ser";
-        try (FileOutputStream fileOut = new FileOutputStream(fileName);
-             ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
-            out.writeObject(gameState);
+        long now = nextSaveTime();
+        Path path = Paths.get(fileName).toAbsolutePath();
+        try {
+            PetSnapshot snapshot = GameStateCodec.snapshot(gameState.getPet());
+            writeSaveFile(path, encodeGame(gameState, snapshot, now), new SavePreview(path.getFileName().toString(), snapshot, now));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns the time to stamp a new save with. This is the current time, but always later than any previous save,
+     * so a journal can never be matched with the wrong save.
+     * @return the save time in milliseconds since the epoch
+     */
+    static long nextSaveTime() {
+        long now = System.currentTimeMillis();
+        return lastSaveTime.updateAndGet(last -> Math.max(now, last + 1));
+    }
+
+    /**
+     * Encodes a game state in the binary format of the game state codec.
+     * The result is a snapshot: later changes to the pet do not affect it.
+     * @param gameState The game state to encode.
+     * @param snapshot The snapshot of the game state's pet.
+     * @param lastModified The time to store in the header, in milliseconds since the epoch.
+     * @return The encoded save file.
+     */
+    static byte[] encodeGame(GameState gameState, PetSnapshot snapshot, long lastModified) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try {
+            GameStateCodec.write(gameState, snapshot, new DataOutputStream(bytes), lastModified);
+        } catch (IOException e) {
+            // A ByteArrayOutputStream never throws
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes an encoded save file without ever leaving a partially written save behind.
+     * <p>
+     * The bytes are written to a temporary file and flushed to disk, then the temporary file is renamed over the save file.
+     * If the game crashes at any point, either the old or the new save file is on disk. The save index is updated afterwards.
+     * @param path The path of the save file.
+     * @param bytes The encoded save file.
+     * @param preview The preview to add to the save index.
+     * @throws IOException if the save file cannot be written.
+     */
+    static void writeSaveFile(Path path, byte[] bytes, SavePreview preview) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        SaveIndex.update(path.getParent(), preview);
+    }
+
     public static void saveTime(TimeInformation time) {
         String fileName = "TimeInformation.ser";
         try (FileOutputStream fileOut = new FileOutputStream(fileName);
@@ -35,13 +112,21 @@ public class SaveLoadManager {
 
     /**
      * Loads the game state from a file.
-     * 
+     * <p>
+     * Both the binary format and legacy save files written with Java serialization can be loaded.
+     * If the save has a journal of changes made after it was written, the journal is replayed.
+     * @see PetJournal
      * @param fileName The name of the file to load the game state from.
      * @return The loaded GameState object, or null if an error occurs.
      */
     public static GameState loadGame(String fileName) {
-        try (FileInputStream fileIn = new FileInputStream(fileName);
-            ObjectInputStream in = new ObjectInputStream(fileIn)) {
+        try (BufferedInputStream fileIn = new BufferedInputStream(new FileInputStream(fileName))) {
+            if (isBinarySave(fileIn)) {
+                GameState gameState = GameStateCodec.read(new DataInputStream(fileIn));
+                PetJournal.replay(fileName, gameState);
+                return gameState;
+            }
+            ObjectInputStream in = new ObjectInputStream(fileIn);
             return (GameState) in.readObject();
         } catch (IOException | ClassNotFoundException e) {
             e.printStackTrace();
@@ -49,6 +134,64 @@ public class SaveLoadManager {
         }
     }
 
+    /**
+     * Checks if a stream starts with the magic number of the binary save format, without consuming it.
+     * @param in the stream to check
+     * @return true if the stream is a binary save, false if it is a legacy save
+     * @throws IOException if the stream cannot be read
+     */
+    private static boolean isBinarySave(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        int magic = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = in.read();
+            if (b < 0) {
+                in.reset();
+                return false;
+            }
+            magic = (magic << 8) | b;
+        }
+        in.reset();
+        return magic == GameStateCodec.MAGIC;
+    }
+
+    /**
+     * Loads only the information shown on the load game screen from a save file.
+     * <p>
+     * Only the header is read. Legacy save files have no header, so they are loaded in full.
+     * @param fileName The name of the file to load the preview from.
+     * @return The preview of the save, or null if an error occurs.
+     */
+    public static SavePreview loadPreview(String fileName) {
+        File file = new File(fileName);
+        try (BufferedInputStream fileIn = new BufferedInputStream(new FileInputStream(file))) {
+            if (isBinarySave(fileIn)) {
+                SavePreview preview = GameStateCodec.readPreview(new DataInputStream(fileIn), file.getName());
+                if (preview != null) {
+                    return preview;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        GameState gameState = loadGame(fileName);
+        if (gameState == null) {
+            return null;
+        }
+        return new SavePreview(file.getName(), gameState.getPet(), file.lastModified());
+    }
+
+    /**
+     * Checks if a file name is the name of a save file.
+     * @param fileName The name of the file.
+     * @return true if the file is a save file, false otherwise.
+     */
+    public static boolean isSaveFile(String fileName) {
+        return fileName.endsWith(".ser") && !fileName.endsWith("TimeInformation.ser");
+    }
+
     public static TimeInformation loadTime() {
         try (FileInputStream fileIn = new FileInputStream("TimeInformation.ser");
             ObjectInputStream in = new ObjectInputStream(fileIn)) {
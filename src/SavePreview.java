@@ -0,0 +1,127 @@
+/** Represents the information about a save file that is shown before it is loaded.
+ * <p>
+ * This is stored in the header of every save file and in the save index, so the load game screen
+ * doesn't have to read whole save files just to show them.
+ * @see SaveIndex
+ */
+public class SavePreview {
+
+    /** The name of the save file (e.g. Fido.ser). */
+    private String fileName;
+    /** The name of the pet. */
+    private String petName;
+    /** The type of the pet. */
+    private String petType;
+    /** The score of the pet. */
+    private int score;
+    /** The evolution level of the pet. */
+    private int evoLevel;
+    /** The health of the pet. */
+    private int health;
+    /** When the save file was written, in milliseconds since the epoch. */
+    private long lastModified;
+
+    /**
+     * Constructs a new save preview.
+     * @param fileName the name of the save file
+     * @param petName the name of the pet
+     * @param petType the type of the pet
+     * @param score the score of the pet
+     * @param evoLevel the evolution level of the pet
+     * @param health the health of the pet
+     * @param lastModified when the save file was written, in milliseconds since the epoch
+     */
+    public SavePreview(String fileName, String petName, String petType, int score, int evoLevel, int health, long lastModified) {
+        this.fileName = fileName;
+        this.petName = petName;
+        this.petType = petType;
+        this.score = score;
+        this.evoLevel = evoLevel;
+        this.health = health;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Constructs a save preview from a pet.
+     * @param fileName the name of the save file
+     * @param pet the pet that is saved
+     * @param lastModified when the save file was written, in milliseconds since the epoch
+     */
+    public SavePreview(String fileName, Pet pet, long lastModified) {
+        this(fileName, pet.getName(), pet.getType(), pet.getScore(), pet.getEvoLevel(), pet.getHealth(), lastModified);
+    }
+
+    /**
+     * Constructs a save preview from a snapshot of a pet, so it matches the save encoded from the same snapshot.
+     * @param fileName the name of the save file
+     * @param snapshot the snapshot of the pet that is saved
+     * @param lastModified when the save file was written, in milliseconds since the epoch
+     */
+    public SavePreview(String fileName, PetSnapshot snapshot, long lastModified) {
+        this(fileName, snapshot.getName(), snapshot.getType(), snapshot.getScore(), snapshot.getEvoLevel(), snapshot.getHealth(), lastModified);
+    }
+
+    /**
+     * Returns the name of the save file.
+     * @return the name of the save file
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the name of the pet.
+     * @return the name of the pet
+     */
+    public String getPetName() {
+        return petName;
+    }
+
+    /**
+     * Returns the type of the pet.
+     * @return the type of the pet
+     */
+    public String getPetType() {
+        return petType;
+    }
+
+    /**
+     * Returns the score of the pet.
+     * @return the score of the pet
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the evolution level of the pet.
+     * @return the evolution level of the pet
+     */
+    public int getEvoLevel() {
+        return evoLevel;
+    }
+
+    /**
+     * Returns the health of the pet.
+     * @return the health of the pet
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Returns when the save file was written.
+     * @return the time in milliseconds since the epoch
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns if the saved pet is dead.
+     * @return true if the saved pet is dead, false otherwise
+     */
+    public boolean isDead() {
+        return health == 0;
+    }
+}
@@ -0,0 +1,193 @@
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/** Represents the background saver, which writes save files without blocking the JavaFX thread.
+ * <p>
+ * A save is done in two steps. The pet is encoded into bytes right away, on the calling thread, so the save is a snapshot of the
+ * pet at the moment the player pressed save. The bytes are then written by a single background writer thread, using the same
+ * crash safe write as the save load manager (temporary file, flush to disk, atomic rename).
+ * <p>
+ * If a pet is saved again before its previous save was written, only the newest snapshot is written, and every caller is notified.
+ * Callbacks are run on the JavaFX thread.
+ * <p>
+ * If the pet has a journal, the journal is restarted from the new snapshot once it is on disk.
+ * @see SaveLoadManager
+ * @see PetJournal
+ */
+public class SaveService {
+
+    /** The single writer thread, shared with the pet journal. Created on the first save. */
+    private static ScheduledExecutorService writer;
+    /** Where completion callbacks are run. */
+    private static Executor callbackExecutor = Platform::runLater;
+    /** The saves that were requested but not written yet, keyed by save file path. */
+    private static final Map<Path, PendingSave> pending = new HashMap<>();
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public SaveService() {
+        throw new NullPointerException("DON'T CREATE A SAVESERVICE OBJECT!!!");
+    }
+
+    /**
+     * Saves the game state to a file in the background.
+     * <p>
+     * The game state is encoded before this method returns, so the pet can keep changing while the file is written.
+     * @param fileName The name of the file to save the game state to, without the .ser extension.
+     * @param gameState The GameState object representing the current game state.
+     * @param onComplete Called on the JavaFX thread with true once the file is on disk, or false if it could not be written. Can be null.
+     */
+    public static void saveGame(String fileName, GameState gameState, Consumer<Boolean> onComplete) {
+        long now = SaveLoadManager.nextSaveTime();
+        Path path = Paths.get(fileName + ".ser").toAbsolutePath();
+        PetJournal journal = gameState.getPet().getJournal();
+        if (journal != null) {
+            // Everything recorded so far is in the snapshot taken next. Records hold new values,
+            // so a change recorded between here and the snapshot is simply replayed again on top of it
+            journal.startGeneration(now);
+        }
+        PetSnapshot snapshot = GameStateCodec.snapshot(gameState.getPet());
+        byte[] bytes = SaveLoadManager.encodeGame(gameState, snapshot, now);
+        SavePreview preview = new SavePreview(path.getFileName().toString(), snapshot, now);
+
+        synchronized (pending) {
+            PendingSave save = pending.get(path);
+            if (save != null) {
+                // Not written yet, so the newer snapshot replaces it
+                save.bytes = bytes;
+                save.preview = preview;
+                save.journal = journal;
+                save.callbacks.add(onComplete);
+                return;
+            }
+            save = new PendingSave(bytes, preview, journal);
+            save.callbacks.add(onComplete);
+            pending.put(path, save);
+        }
+        getWriter().execute(() -> write(path));
+    }
+
+    /**
+     * Blocks until every save requested so far has been written.
+     * Called when the game exits so no save is lost.
+     */
+    public static void flush() {
+        ScheduledExecutorService current;
+        synchronized (SaveService.class) {
+            current = writer;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            // The writer runs tasks in order, so once this one runs every earlier save is done
+            current.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sets where completion callbacks are run. Used by tests, which run without the JavaFX toolkit.
+     * @param executor the executor that runs callbacks
+     */
+    static void setCallbackExecutor(Executor executor) {
+        callbackExecutor = executor;
+    }
+
+    /**
+     * Runs a task on the writer thread, after every save requested so far.
+     * @param task the task to run
+     */
+    static void execute(Runnable task) {
+        getWriter().execute(task);
+    }
+
+    /**
+     * Runs a task on the writer thread repeatedly.
+     * @param task the task to run
+     * @param periodMillis the time between two runs, in milliseconds
+     * @return the future used to cancel the task
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long periodMillis) {
+        return getWriter().scheduleWithFixedDelay(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Helper method that writes the newest snapshot of a save file, on the writer thread. */
+    private static void write(Path path) {
+        PendingSave save;
+        synchronized (pending) {
+            save = pending.remove(path);
+        }
+        if (save == null) {
+            return;
+        }
+
+        boolean success;
+        try {
+            SaveLoadManager.writeSaveFile(path, save.bytes, save.preview);
+            if (save.journal != null) {
+                save.journal.rotate(save.preview.getLastModified());
+            }
+            success = true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            success = false;
+        }
+
+        boolean result = success;
+        for (Consumer<Boolean> callback : save.callbacks) {
+            if (callback != null) {
+                callbackExecutor.execute(() -> callback.accept(result));
+            }
+        }
+    }
+
+    /** Helper method that creates the writer thread the first time it is needed. */
+    private static synchronized ScheduledExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "save-writer");
+                // Does not keep the game open, Main.stop flushes it instead
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    /** A save that is waiting for the writer thread. */
+    private static class PendingSave {
+        /** The newest encoded snapshot. */
+        private byte[] bytes;
+        /** The preview of the newest snapshot. */
+        private SavePreview preview;
+        /** The journal of the pet, or null if it has none. */
+        private PetJournal journal;
+        /** Everyone waiting for this file to be written. */
+        private final List<Consumer<Boolean>> callbacks = new ArrayList<>();
+
+        private PendingSave(byte[] bytes, SavePreview preview, PetJournal journal) {
+            this.bytes = bytes;
+            this.preview = preview;
+            this.journal = journal;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** Represents the class that holds information on all the screens.
  * <p>
  * This class is responsible for global actions for the screens, such as timers and screen transitions.
+ * <p>
+ * The pet's timers run on the simulation scheduler's thread, whichever screen is shown, so opening the settings or the inventory
+ * does not stop the pet's time. The simulation's events are gathered and shown on the JavaFX thread at most once per frame.
  */
 public class ScreenManager {
 
@@ -24,14 +29,14 @@ public class ScreenManager {
     private GameTimer sleepTimer;
     /** The timer that is used to update the pet's anger. */
     private GameTimer angryTimer;
-    /** The timer that is used to update the pet's play cooldown. */
-    private GameTimer playCooldownTimer;
-    /** The timer that is used to update the pet's vet cooldown. */
-    private GameTimer vetCooldownTimer;
-    /** The current game scene that is being displayed. */
-    private GameScene currentGameScene;
+    /** The current game scene that is being displayed. Read by the simulation thread. */
+    private volatile GameScene currentGameScene;
     /** The index of the current scene in the scene order. */
     private int currentSceneIndex = 0;
+    /** The simulation of the pet being played, created when it is first needed. Read by the simulation thread. */
+    private volatile PetSimulation simulation;
+    /** Starts and stops the timers on simulation events, and passes the events to the current screen. */
+    private final SimulationEvents simulationEvents = new SimulationEvents();
 
     /** The timer that represents total time elapsed. */
     private GameTimer currentTimer;
@@ -43,6 +48,11 @@ public class ScreenManager {
     /** The delay between screen transitions, allowing time to set up UI. */
     private PauseTransition transitionDelay;
 
+    /** The screens that are still being created, which can already be switched to. */
+    private final ArrayList<String> expectedScreens = new ArrayList<>();
+    /** The expected screen that was switched to before it was added, or null. */
+    private String pendingScreen;
+
     /** The list of valid gameplay scenes that can be transitioned to. */
     private final ArrayList<String> validScenes = new ArrayList<>(List.of("Bedroom", "Kitchen", "Playground", "Vet"));
 
@@ -59,11 +69,11 @@ public class ScreenManager {
         totalPlayTime = timeInfo.getTotalPlayTime();
         this.currentTimer = new GameTimer(1, () -> this.handlePlayTimerTick());
         this.currentTimer.start();
-        this.statTimer = new GameTimer(3, () -> this.handleTimerTick());
-        this.sleepTimer = new GameTimer(1, () -> this.handleSleepTick());
-        this.angryTimer = new GameTimer(1, () -> this.handleAngryTick());
-        this.playCooldownTimer = new GameTimer(1, () -> this.handlePlayCooldownTick());
-        this.vetCooldownTimer = new GameTimer(1, () -> this.handleVetCooldownTick());
+        // The pet's timers run on the simulation scheduler, so they can be sped up without speeding up the play time
+        TickScheduler simulationScheduler = TickScheduler.getSimulation();
+        this.statTimer = new GameTimer(simulationScheduler, PetSimulation.STAT_TICK_MILLIS / 1000.0, () -> this.handleTimerTick());
+        this.sleepTimer = new GameTimer(simulationScheduler, PetSimulation.SLEEP_TICK_MILLIS / 1000.0, () -> this.handleSleepTick());
+        this.angryTimer = new GameTimer(simulationScheduler, PetSimulation.SLEEP_TICK_MILLIS / 1000.0, () -> this.handleAngryTick());
         this.transitionDelay = new PauseTransition(Duration.millis(250));
     }
 
@@ -82,21 +92,54 @@ public class ScreenManager {
         if (!sceneOrder.contains(name)) {
             sceneOrder.add(name);
         }
+
+        expectedScreens.remove(name);
+        if (name.equals(pendingScreen)) {
+            pendingScreen = null;
+            switchTo(name);
+        }
+    }
+
+    /**
+     * Marks a screen that is still being created, e.g. while its assets are decoded.
+     * Switching to it before it is added shows it as soon as it is added.
+     * @param name The name of the screen.
+     */
+    public void expectScreen(String name) {
+        if (!expectedScreens.contains(name)) {
+            expectedScreens.add(name);
+        }
     }
 
     /**
      * Switches to a specific screen. Should only be called for non-gameplay screens.
+     * If the screen is expected but not added yet, it is shown once it is added.
      * @param name The string name of the screen to switch to.
      */
     public void switchTo(String name) {
-        statTimer.pause();
+        if (expectedScreens.contains(name)) {
+            pendingScreen = name;
+            return;
+        }
+        pendingScreen = null;
         Scene scene = getScene(name);
+        GameScene previousGameScene = currentGameScene;
         currentGameScene = getGameScene(name);
+        if (previousGameScene != null && previousGameScene != currentGameScene) {
+            previousGameScene.onLeave();
+        }
+        // The pet of the last gameplay screen is the one being played, and keeps being simulated on other screens
+        Pet pet = currentGameScene.getPet();
+        if (pet != null) {
+            getSimulation(pet);
+        }
         stage.setScene(scene);
         currentGameScene.onEnter();
         stage.show();
 
         currentSceneIndex = sceneOrder.indexOf(name);
+        // The pet may have changed while another screen was shown
+        simulationEvents.post(SimulationEvents.STATS_CHANGED);
     }
 
     /**
@@ -147,40 +190,104 @@ public class ScreenManager {
         getGameScene("ParentControls").setTotalPlaytimetext("Total Playtime: " + String.format("%d:%02d", minutes, seconds));
     }
 
-    /** Calls the method of the timer in gameplay screens that occur once every few seconds. */
+    /** Runs a stat tick of the pet simulation, on the simulation thread. */
     private void handleTimerTick() {
-        if (currentGameScene != null) {
-            currentGameScene.onTimerTick();
+        PetSimulation current = simulation;
+        if (current != null) {
+            current.tick();
         }
     }
 
-    /** Calls the method of the timer in gameplay screens that occur when the pet is sleeping. */
+    /** Runs a sleep tick of the pet simulation, using the energy gain of the current screen, on the simulation thread. */
     private void handleSleepTick() {
-        if (currentGameScene != null) {
-            currentGameScene.onSleepTick();
+        PetSimulation current = simulation;
+        GameScene scene = currentGameScene;
+        if (current != null && scene != null) {
+            current.sleepTick(scene.getSleepEnergyGain(), scene.getSleepScoreGain());
         }
     }
 
-    /** Calls the method of the timer in gameplay screens that occur when the pet is angry. */
+    /** Runs an angry tick of the pet simulation, on the simulation thread. */
     private void handleAngryTick() {
-        if (currentGameScene != null) {
-            currentGameScene.onAngryTick();
+        PetSimulation current = simulation;
+        if (current != null) {
+            current.angryTick();
         }
     }
 
-    /** Calls the method of the timer in gameplay screens that occur when the pet's play is on cooldown. */
-    private void handlePlayCooldownTick() {
-        if (currentGameScene != null) {
-            currentGameScene.onPlayCooldownTick();
+    /** Returns the simulation of a pet.
+     * <p>
+     * The simulation is kept as long as the same pet is played, and replaced when another pet is loaded.
+     * The timers and the current screen follow the pet's change events, and the pet's cooldowns wake up the current screen the same way.
+     * @param pet The pet being played.
+     * @return The simulation of the pet.
+     */
+    public synchronized PetSimulation getSimulation(Pet pet) {
+        if (simulation == null || simulation.getPet() != pet) {
+            if (simulation != null) {
+                simulation.getPet().removeListener(simulationEvents);
+            }
+            PetSimulation created = new PetSimulation(pet);
+            pet.addListener(simulationEvents);
+            created.addListener(new PetSimulationListener() {
+                @Override
+                public void onSnapshot(PetSnapshot snapshot) {
+                    simulationEvents.post(SimulationEvents.STATS_CHANGED);
+                }
+            });
+            // Events only report changes, so the timers start over from the state the pet was loaded in,
+            // rather than keep running (and keep their phase) from the previous pet
+            sleepTimer.stop();
+            angryTimer.stop();
+            if (pet.IsInSleepingState()) {
+                sleepTimer.start();
+            }
+            if (pet.IsInAngryState()) {
+                angryTimer.start();
+            }
+            Runnable refresh = () -> simulationEvents.post(SimulationEvents.STATS_CHANGED);
+            pet.getPlayCooldown().setOnReady(refresh);
+            pet.getVetCooldown().setOnReady(refresh);
+            simulation = created;
         }
-    } 
+        return simulation;
+    }
 
-    /** Calls the method of the timer in gameplay screens that occur when the pet's vet is on cooldown. */
-    private void handleVetCooldownTick() {
-        if (currentGameScene != null) {
-            currentGameScene.onVetCooldownTick();
-        }
-    } 
+    /** Runs a change to the pet's state on the simulation thread, after the tick that may be running.
+     * Used by buttons, so the JavaFX thread does not run the simulation's rules.
+     * @param change The change to run.
+     */
+    public void runOnSimulation(Runnable change) {
+        runOnSimulation(change, false);
+    }
+
+    /** Runs a change to the pet's state on the simulation thread, after the tick that may be running.
+     * Used by buttons, so the JavaFX thread does not run the simulation's rules.
+     * @param change The change to run.
+     * @param happy Whether the change makes the pet happy, so the current screen shows it happy with the stats after the change.
+     */
+    public void runOnSimulation(Runnable change, boolean happy) {
+        TickScheduler.getSimulation().execute(() -> {
+            change.run();
+            if (happy) {
+                // Posted after the change's snapshot, so the happy face is not replaced by it
+                simulationEvents.post(SimulationEvents.HAPPY);
+            }
+        });
+    }
+
+    /** Runs a player action on the pet and updates the pet's states, on the simulation thread, after the tick that may be running.
+     * Used by buttons that change the pet's stats, so the JavaFX thread does not change the pet.
+     * The current screen is then shown the pet after the whole action.
+     * @param pet The pet the player acts on.
+     * @param action The changes the player makes to the pet.
+     * @param happy Whether the action makes the pet happy.
+     * @see PetSimulation#runPlayerAction(Runnable)
+     */
+    public void runPlayerAction(Pet pet, Runnable action, boolean happy) {
+        PetSimulation petSimulation = getSimulation(pet);
+        runOnSimulation(() -> petSimulation.runPlayerAction(action), happy);
+    }
 
     /** Returns the stat timer.
      * 
@@ -206,22 +313,6 @@ public class ScreenManager {
         return angryTimer;
     }
 
-    /** Returns the play cooldown timer.
-     * 
-     * @return The play cooldown timer.
-     */
-    public GameTimer getPlayCooldownTimer() {
-        return playCooldownTimer;
-    }
-
-    /** Returns the vet cooldown timer.
-     * 
-     * @return The vet cooldown timer.
-     */
-    public GameTimer getVetCooldownTimer() {
-        return vetCooldownTimer;
-    }
-
     /** Removes a screen from the list of screens.
      * Used to free up memory.
      * @param name The name of the screen to remove.
@@ -229,6 +320,7 @@ public class ScreenManager {
     private void removeScreen(String name) {
         for (int i = 0; i < screenMap.size(); i++) {
             if (screenMap.get(i).getScreenName().equals(name)) {
+                screenMap.get(i).getGameScene().onRemove();
                 screenMap.remove(i);
                 break;
             }
@@ -242,11 +334,16 @@ public class ScreenManager {
      */
     public void transition(String scene, boolean happy) {
         transitionDelay.stop();
-        getGameScene(scene).getScreenOverlay().setScoreText("SCORE: " + String.valueOf(getGameScene(scene).getPet().getScore()));
-        getGameScene(scene).getScreenOverlay().setCoinsText("COINS: " + String.valueOf(getGameScene(scene).getPet().getCoins()));
-        UIUpdate.updateUI(getGameScene(scene).getPet(), getGameScene(scene).getPetOverlay().getSpriteManager(), getGameScene(scene).getScreenOverlay().getStatBars(), happy);
+        GameScene gameScene = getGameScene(scene);
+        PetSnapshot snapshot = getSimulation(gameScene.getPet()).getSnapshot();
+        gameScene.getScreenOverlay().showSnapshot(snapshot);
+        UIUpdate.updateUI(snapshot, gameScene.getPetOverlay().getSpriteManager(), gameScene.getScreenOverlay().getStatBars(), happy);
         transitionDelay.setOnFinished(e -> {
             switchTo(scene); 
+            if (happy) {
+                // Shown with the refresh switchTo asks for, which would otherwise show the pet as usual again
+                simulationEvents.post(SimulationEvents.HAPPY);
+            }
         });
         transitionDelay.play();
     }
@@ -319,4 +416,112 @@ public class ScreenManager {
         return timeInfo;
     }
 
-}
\ No newline at end of file
+    /** Starts and stops the timers when the pet changes, and passes the changes to the current screen.
+     * Stats are shown from the simulation's latest snapshot, which is posted as a stats change every time it is published.
+     * <p>
+     * The timers are changed right away, on the thread that changed the pet. The screen is only told on the JavaFX thread:
+     * events are gathered as bits, and a single runLater shows every event gathered since the last one,
+     * so even thousands of ticks per frame only cost the JavaFX thread one update.
+     */
+    private class SimulationEvents implements PetListener {
+
+        /** The bit of a stats change. */
+        static final int STATS_CHANGED = 1;
+        /** The bit of the pet falling asleep. */
+        static final int FELL_ASLEEP = 1 << 1;
+        /** The bit of the pet waking up. */
+        static final int WOKE_UP = 1 << 2;
+        /** The bit of the pet getting angry. */
+        static final int ANGRY = 1 << 3;
+        /** The bit of the pet calming down. */
+        static final int CALMED = 1 << 4;
+        /** The bit of the pet dying. */
+        static final int DIED = 1 << 5;
+        /** The bit of a player action that made the pet happy. Shows the latest snapshot with the pet happy. */
+        static final int HAPPY = 1 << 6;
+
+        /** The events not shown yet. A runLater is waiting whenever it is not 0. */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /** Adds an event to show, and asks the JavaFX thread to show the events if it was not asked yet.
+         * Can be called from any thread.
+         * @param event The bit of the event.
+         */
+        void post(int event) {
+            int before;
+            do {
+                before = pending.get();
+                if ((before & event) == event) {
+                    // Already waiting to be shown
+                    return;
+                }
+            } while (!pending.compareAndSet(before, before | event));
+            if (before == 0) {
+                Platform.runLater(this::show);
+            }
+        }
+
+        /** Shows every gathered event on the current screen, on the JavaFX thread.
+         * Events that cancel each other are shown from the pet's state now (e.g. asleep then awake in the same frame).
+         */
+        private void show() {
+            int events = pending.getAndSet(0);
+            GameScene scene = currentGameScene;
+            PetSimulation current = simulation;
+            if (scene == null || current == null) {
+                return;
+            }
+            Pet pet = current.getPet();
+            if ((events & (STATS_CHANGED | HAPPY)) != 0) {
+                scene.onSnapshot(current.getSnapshot(), (events & HAPPY) != 0);
+            }
+            if (pet.IsInSleepingState() && (events & FELL_ASLEEP) != 0) {
+                scene.onFellAsleep(pet);
+            }
+            else if (!pet.IsInSleepingState() && (events & WOKE_UP) != 0) {
+                scene.onWokeUp(pet);
+            }
+            if (pet.IsInAngryState() && (events & ANGRY) != 0) {
+                scene.onAngry(pet);
+            }
+            else if (!pet.IsInAngryState() && (events & CALMED) != 0) {
+                scene.onCalmed(pet);
+            }
+            if ((events & DIED) != 0) {
+                scene.onDied(pet);
+            }
+        }
+
+        @Override
+        public void onSleepingChanged(Pet pet, boolean sleeping) {
+            if (sleeping) {
+                sleepTimer.start();
+                post(FELL_ASLEEP);
+            }
+            else {
+                sleepTimer.pause();
+                post(WOKE_UP);
+            }
+        }
+
+        @Override
+        public void onAngryChanged(Pet pet, boolean angry) {
+            if (angry) {
+                angryTimer.start();
+                post(ANGRY);
+            }
+            else {
+                angryTimer.pause();
+                post(CALMED);
+            }
+        }
+
+        @Override
+        public void onDied(Pet pet) {
+            statTimer.stop();
+            sleepTimer.stop();
+            angryTimer.stop();
+            post(DIED);
+        }
+    }
+}
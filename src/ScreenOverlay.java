@@ -17,8 +17,8 @@ public class ScreenOverlay {
     private StackPane root;
     /** Container for buttons. */
     private VBox buttonContainer;
-    /** The list of sprite bars. */
-    private SpriteManager[] statBars;
+    /** The list of stat bars. */
+    private StatBar[] statBars;
     /** The list of stat icons. */
     private ImageView[] statIcons;
     /** The text that displays the score and number of coins. */
@@ -32,9 +32,6 @@ public class ScreenOverlay {
     /** The button that leads to the settings. */
     private Button settingsButton;
 
-    /** The sprite sheet for the stat bars. */
-    private final String spriteSheetPath = "../assets/sprites/statsBarSprite.png"; 
-
     /** The sprites for the icons. */
     private final String[] iconPaths = {
         "../assets/sprites/health.png",
@@ -119,16 +116,14 @@ public class ScreenOverlay {
         inventoryButton.setTranslateX(20);  // Adjust X position slightly
         inventoryButton.setTranslateY(-20); // Adjust Y position slightly
 
-        statBars = new SpriteManager[4];
+        statBars = new StatBar[4];
         statIcons = new ImageView[iconPaths.length];
 
         // adds stat bars
         for (int i = 0; i < statBars.length; i++) {
-            statBars[i] = new SpriteManager(spriteSheetPath, 10000, 135, 18, 1, pet);
-            statBars[i].setCurrentFrame(4);
-            root.getChildren().add(statBars[i].getSpriteView());
-            statBars[i].startAnimation();
-            statBars[i].scaleSprite(300, 60);
+            statBars[i] = new StatBar();
+            root.getChildren().add(statBars[i].getNode());
+            statBars[i].scaleBar(300, 60);
         }
 
         // adds stat icons
@@ -214,8 +209,8 @@ public class ScreenOverlay {
             double xPos = width * (xOffset + col * xSpacing);
             double yPos = height * (yOffset + row * ySpacing);
     
-            ImageManager.translateImage(statBars[i].getSpriteView(), xPos, yPos);
-            statBars[i].scaleSprite(barMaxWidth, barMaxHeight);
+            statBars[i].translateBar(xPos, yPos);
+            statBars[i].scaleBar(barMaxWidth, barMaxHeight);
     
             ImageManager.translateImage(statIcons[i], xPos + (width * iconOffsetX), yPos + (height * iconOffsetY));
             ImageManager.scaleImage(statIcons[i], iconMaxSize, iconMaxSize);
@@ -246,7 +241,7 @@ public class ScreenOverlay {
      * Returns the stat bars of this screen overlay.
      * @return the stat bars
      */
-    public SpriteManager[] getStatBars() {
+    public StatBar[] getStatBars() {
         return statBars;
     }
 
@@ -282,6 +277,15 @@ public class ScreenOverlay {
         return settingsButton;
     }
 
+    /**
+     * Shows the score and coins of a snapshot of the pet.
+     * @param snapshot the pet's latest snapshot
+     */
+    public void showSnapshot(PetSnapshot snapshot) {
+        setScoreText("SCORE: " + snapshot.getScore());
+        setCoinsText("COINS: " + snapshot.getCoins());
+    }
+
     /**
      * Sets the coin text of this screen overlay.
      * @param text the coins text
@@ -82,9 +82,11 @@ public class SettingsScene extends GameScene {
             }
         });
         saveButton.setOnAction(e -> {
+            saveText.setText("Saving...");
             saveText.setVisible(true);
             GameState gameState = new GameState(pet);
-            SaveLoadManager.saveGame(pet.getName(), gameState);
+            SaveService.saveGame(pet.getName(), gameState, success ->
+                saveText.setText(success ? "Game successfully saved!" : "Save failed, try again."));
         }
         );
         exitButton.setOnAction(e -> {
@@ -0,0 +1,73 @@
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+/**
+ * This class represents the splash screen shown while the game's assets are loading.
+ * <p>
+ * It only uses the default font and no images, so it is shown right away, before any asset is decoded.
+ * @see AssetPreloader
+ */
+public class SplashScene {
+
+    /** The UI scene for the splash screen. */
+    private Scene scene;
+    /** The bar showing how many assets are loaded. */
+    private ProgressBar progressBar;
+    /** The text showing how many assets are loaded. */
+    private Text progressText;
+
+    /**
+     * Constructs the splash screen.
+     * <p>
+     * The splash screen is not stored in the screen manager: the main menu replaces it once its assets are loaded.
+     */
+    public SplashScene() {
+        StackPane root = new StackPane();
+        root.setPrefSize(Main.WIDTH, Main.HEIGHT);
+        root.setStyle("-fx-background-color: #8fd3ff;");
+
+        VBox splashBox = new VBox(30);
+        splashBox.setAlignment(Pos.CENTER);
+
+        Text title = new Text("EvoPets");
+        title.setFont(Font.font(Font.getDefault().getFamily(), FontWeight.BOLD, 90));
+        title.setFill(Color.WHITE);
+
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(Main.WIDTH * 0.4);
+
+        progressText = new Text("Loading...");
+        progressText.setFont(Font.font(20));
+        progressText.setFill(Color.WHITE);
+
+        splashBox.getChildren().addAll(title, progressBar, progressText);
+        root.getChildren().add(splashBox);
+
+        scene = new Scene(root, Main.WIDTH, Main.HEIGHT);
+    }
+
+    /**
+     * Shows how many assets are loaded. Must be called on the JavaFX thread.
+     * @param loaded the number of assets that finished loading
+     * @param requested the number of assets asked for
+     */
+    public void setProgress(int loaded, int requested) {
+        progressBar.setProgress(requested == 0 ? 0 : (double) loaded / requested);
+        progressText.setText("Loading... " + loaded + "/" + requested);
+    }
+
+    /** Returns the scene.
+     *
+     * @return The scene.
+     */
+    public Scene getScene() {
+        return scene;
+    }
+}
@@ -0,0 +1,353 @@
+import javafx.scene.image.Image;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Represents a process-wide cache of the sliced pet sprite sheets.
+ * <p>
+ * Every gameplay scene has its own pet overlay, but they all show the same pet.
+ * This class makes sure each sheet (one per pet type and evolution stage) is only decoded and sliced once,
+ * and that every sprite manager shares the same frame list.
+ * <p>
+ * The cache is reference counted. Call acquire when a sprite manager needs a stage, and release when it no longer does.
+ * Once no sprite manager references a stage, its frames are dropped so they can be garbage collected.
+ * <p>
+ * A stage can also be prefetched: it is then decoded on a background thread, so it is ready by the time the pet evolves.
+ * <p>
+ * Sheets are decoded at the size the frames are shown at, not at their full size: each stage is cached per tier,
+ * a frame size in pixels. The window decides the tier (see fitFrameSize), which only goes up, so enlarging the window
+ * decodes the sprites again at a higher tier but shrinking it keeps the sprites that are already decoded.
+ */
+public class SpriteAtlasCache {
+
+    /** The width of a pet sprite sheet. */
+    public static final int SHEET_WIDTH = 2680;
+    /** The height of a pet sprite sheet. */
+    public static final int SHEET_HEIGHT = 5360;
+    /** The number of columns in a pet sprite sheet. */
+    public static final int COLUMNS = 4;
+    /** The number of rows in a pet sprite sheet. */
+    public static final int ROWS = 8;
+    /** The number of evolution stages (baby, teen, adult). */
+    public static final int STAGES = 3;
+
+    /** The width and height of a frame at every tier, in pixels. The last tier is the size of the frames in the sheets. */
+    public static final int[] FRAME_SIZES = {256, 384, 512, SHEET_WIDTH / COLUMNS};
+
+    /** The sheet name prefix for every evolution stage. */
+    private static final String[] STAGE_PREFIXES = {"baby", "teen", "adult"};
+
+    /** The cached frame lists, keyed by pet type, evolution stage and tier. */
+    private static final Map<String, Entry> entries = new HashMap<>();
+    /** Loads the frames of a stage, from the sprite frame cache or by decoding its sheet. Replaced by tests, which run without the JavaFX toolkit. */
+    private static StageLoader loader = (petType, evoLevel, frameSize) ->
+            SpriteManager.loadFrames(getSheetPath(petType, evoLevel), COLUMNS, ROWS, frameSize, frameSize);
+    /** The tier new sprites are decoded at, or -1 before the window size is known. */
+    private static int tier = -1;
+    /** The background thread that decodes prefetched stages. Created on the first prefetch. */
+    private static ExecutorService prefetcher;
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public SpriteAtlasCache() {
+        throw new NullPointerException("DON'T CREATE A SPRITEATLASCACHE OBJECT!!!");
+    }
+
+    /**
+     * Returns the frames for a pet type and evolution stage, decoding the sheet if no one else is using it.
+     * If the stage is being prefetched, waits for it instead of decoding it again.
+     * Every call must be matched with a call to release.
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage, starting at 1
+     * @param tier the tier to decode at, an index of FRAME_SIZES
+     * @return an unmodifiable list of frames shared by all callers
+     * @throws IllegalArgumentException if the pet type, evolution stage or tier does not exist
+     */
+    public static List<Image> acquire(String petType, int evoLevel, int tier) {
+        // Throws if the pet type, stage or tier does not exist, before anything is cached
+        getSheetPath(petType, evoLevel);
+        int frameSize = getFrameSize(tier);
+        String key = key(petType, evoLevel, tier);
+        CompletableFuture<List<Image>> frames;
+        boolean decode = false;
+        synchronized (SpriteAtlasCache.class) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(new CompletableFuture<>());
+                entries.put(key, entry);
+                decode = true;
+            }
+            entry.references++;
+            frames = entry.frames;
+        }
+        if (decode) {
+            // Decoded on this thread, outside the lock, so other stages can be acquired meanwhile
+            load(key, petType, evoLevel, frameSize, frames);
+        }
+        return await(frames);
+    }
+
+    /**
+     * Starts decoding the frames for a pet type and evolution stage on a background thread, unless they are already cached.
+     * Counts as an acquire: every call must be matched with a call to release.
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage, starting at 1
+     * @param tier the tier to decode at, an index of FRAME_SIZES
+     * @return the frames, once they are decoded
+     * @throws IllegalArgumentException if the pet type, evolution stage or tier does not exist
+     */
+    public static CompletableFuture<List<Image>> prefetch(String petType, int evoLevel, int tier) {
+        // Throws if the pet type, stage or tier does not exist, before anything is cached
+        getSheetPath(petType, evoLevel);
+        int frameSize = getFrameSize(tier);
+        String key = key(petType, evoLevel, tier);
+        CompletableFuture<List<Image>> frames;
+        boolean decode = false;
+        synchronized (SpriteAtlasCache.class) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(new CompletableFuture<>());
+                entries.put(key, entry);
+                decode = true;
+            }
+            entry.references++;
+            frames = entry.frames;
+        }
+        if (decode) {
+            getPrefetcher().execute(() -> load(key, petType, evoLevel, frameSize, frames));
+        }
+        return frames;
+    }
+
+    /**
+     * Waits for frames returned by prefetch.
+     * @param frames the frames returned by prefetch
+     * @return the frames
+     * @throws NullPointerException if the sprite sheet could not be found
+     */
+    public static List<Image> await(CompletableFuture<List<Image>> frames) {
+        try {
+            return frames.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a reference obtained from acquire.
+     * When the last reference is released, the frames are removed from the cache.
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage, starting at 1
+     * @param tier the tier it was acquired at
+     */
+    public static synchronized void release(String petType, int evoLevel, int tier) {
+        String key = key(petType, evoLevel, tier);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        entry.references--;
+        if (entry.references <= 0) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns how many sprite managers currently reference a stage.
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage, starting at 1
+     * @param tier the tier it was acquired at
+     * @return the number of references, or 0 if the stage is not cached at that tier
+     */
+    public static synchronized int getReferenceCount(String petType, int evoLevel, int tier) {
+        Entry entry = entries.get(key(petType, evoLevel, tier));
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * Returns the number of stages currently held in memory.
+     * @return the number of cached stages
+     */
+    public static synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the tier that frames shown at a size need: the smallest one whose frames are at least that big, or the full size.
+     * @param pixels the width of a frame on screen, in physical pixels
+     * @return the tier, an index of FRAME_SIZES
+     */
+    public static int tierFor(double pixels) {
+        for (int i = 0; i < FRAME_SIZES.length - 1; i++) {
+            if (FRAME_SIZES[i] >= pixels) {
+                return i;
+            }
+        }
+        return FRAME_SIZES.length - 1;
+    }
+
+    /**
+     * Tells the cache how big frames are shown, and returns the tier sprites should use.
+     * <p>
+     * The tier only goes up: if the frames are shown smaller than before, the current tier is kept,
+     * so resizing the window back and forth does not decode the sprites again.
+     * @param pixels the width of a frame on screen, in physical pixels
+     * @return the tier to decode sprites at, an index of FRAME_SIZES
+     */
+    public static synchronized int fitFrameSize(double pixels) {
+        int needed = tierFor(pixels);
+        if (needed > tier) {
+            tier = needed;
+        }
+        return tier;
+    }
+
+    /**
+     * Returns the tier sprites should use, the highest one asked for so far by fitFrameSize.
+     * @return the tier, an index of FRAME_SIZES, or the smallest tier if the window size is not known yet
+     */
+    public static synchronized int getTier() {
+        return Math.max(tier, 0);
+    }
+
+    /**
+     * Returns the width and height of a frame at a tier.
+     * @param tier the tier, an index of FRAME_SIZES
+     * @return the frame size, in pixels
+     * @throws IllegalArgumentException if the tier does not exist
+     */
+    public static int getFrameSize(int tier) {
+        if (tier < 0 || tier >= FRAME_SIZES.length) {
+            throw new IllegalArgumentException("Tier must be between 0 and " + (FRAME_SIZES.length - 1) + ".");
+        }
+        return FRAME_SIZES[tier];
+    }
+
+    /**
+     * Returns the memory the frames of one stage take at a tier, 4 bytes per pixel.
+     * @param tier the tier, an index of FRAME_SIZES
+     * @return the size of a stage, in bytes
+     */
+    public static long getStageBytes(int tier) {
+        long frameSize = getFrameSize(tier);
+        return frameSize * frameSize * 4 * COLUMNS * ROWS;
+    }
+
+    /**
+     * Describes the memory a tier saves compared to decoding the sheets at full size.
+     * @param tier the tier, an index of FRAME_SIZES
+     * @return for example "Pet sprites at 384 px per frame: 18.9 MB per stage instead of 57.5 MB (67% saved)"
+     */
+    public static String describeTier(int tier) {
+        long bytes = getStageBytes(tier);
+        long fullBytes = getStageBytes(FRAME_SIZES.length - 1);
+        return String.format("Pet sprites at %d px per frame: %.1f MB per stage instead of %.1f MB (%d%% saved)",
+                getFrameSize(tier), bytes / 1e6, fullBytes / 1e6, Math.round(100.0 * (fullBytes - bytes) / fullBytes));
+    }
+
+    /**
+     * Returns the path of the sprite sheet for a pet type and evolution stage.
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage, starting at 1
+     * @return the path to the sprite sheet
+     * @throws IllegalArgumentException if the pet type or evolution stage does not exist
+     */
+    public static String getSheetPath(String petType, int evoLevel) {
+        if (evoLevel < 1 || evoLevel > STAGES) {
+            throw new IllegalArgumentException("Evolution level must be between 1 and " + STAGES + ".");
+        }
+        String sheetName;
+        switch (petType) {
+            case ("Dog"):
+                sheetName = "Dog";
+                break;
+            case ("Cat"):
+                sheetName = "Cat";
+                break;
+            case ("Duck"):
+                sheetName = "Duck";
+                break;
+            case ("Dinosaur"):
+                sheetName = "Dragon";
+                break;
+            default:
+                throw new IllegalArgumentException("You entered the wrong name.");
+        }
+        return "../assets/sprites/" + STAGE_PREFIXES[evoLevel - 1] + sheetName + "Sprite.png";
+    }
+
+    /**
+     * Sets how stages are decoded. Used by tests, which run without the JavaFX toolkit.
+     * @param stageLoader decodes the frames of a pet type and evolution stage at a frame size
+     */
+    static void setLoader(StageLoader stageLoader) {
+        loader = stageLoader;
+    }
+
+    /** Helper method that decodes a stage and completes its frames. A stage that could not be decoded is removed, so the next acquire tries again. */
+    private static void load(String key, String petType, int evoLevel, int frameSize, CompletableFuture<List<Image>> frames) {
+        try {
+            frames.complete(Collections.unmodifiableList(loader.load(petType, evoLevel, frameSize)));
+        } catch (RuntimeException e) {
+            synchronized (SpriteAtlasCache.class) {
+                Entry entry = entries.get(key);
+                if (entry != null && entry.frames == frames) {
+                    entries.remove(key);
+                }
+            }
+            frames.completeExceptionally(e);
+        }
+    }
+
+    /** Helper method that creates the prefetch thread the first time it is needed. */
+    private static synchronized ExecutorService getPrefetcher() {
+        if (prefetcher == null) {
+            prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sprite-prefetch");
+                // A stage still decoding when the game exits is not needed anymore
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetcher;
+    }
+
+    /** Helper method that builds the cache key for a stage at a tier. */
+    private static String key(String petType, int evoLevel, int tier) {
+        return petType + "#" + evoLevel + "@" + tier;
+    }
+
+    /** Represents the code that decodes and slices the sheet of a stage. */
+    interface StageLoader {
+        /**
+         * Decodes the sheet of a stage so every frame is a square of a size.
+         * @param petType the pet type (e.g. Dog)
+         * @param evoLevel the evolution stage, starting at 1
+         * @param frameSize the width and height of a frame, in pixels
+         * @return the frames, row by row
+         */
+        List<Image> load(String petType, int evoLevel, int frameSize);
+    }
+
+    /** A cached frame list and the number of sprite managers using it. */
+    private static class Entry {
+        /** The shared, unmodifiable frames, completed once they are decoded. */
+        private final CompletableFuture<List<Image>> frames;
+        /** The number of outstanding acquire and prefetch calls. */
+        private int references;
+
+        private Entry(CompletableFuture<List<Image>> frames) {
+            this.frames = frames;
+        }
+    }
+}
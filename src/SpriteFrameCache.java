@@ -0,0 +1,244 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Represents the cache of sliced sprite frames on disk, so sprite sheets only need to be decoded once.
+ * <p>
+ * The first time a sheet is sliced at a frame size, its frames are written to a cache file (in the sprite-cache folder)
+ * as raw premultiplied BGRA pixels, the format JavaFX draws. The next time, the file is memory mapped and every frame
+ * is a slice of it, so there is no PNG decoding, and the pixels are loaded from disk by the operating system as they are drawn.
+ * <p>
+ * Each cache file starts with its index entry: the path, last modified time and size of the sheet it was made from,
+ * and the size and number of frames. A damaged or partly written file is ignored and written again.
+ * <p>
+ * The name of a cache file includes the version of the sheet it was made from, so when a sheet changes its frames go to a new file
+ * instead of replacing the old one, which images may still map (and Windows cannot replace or delete a mapped file).
+ * Old files are deleted once a new one is written, except the ones this game mapped: a later launch deletes those.
+ * @see SpriteManager#loadFrames(String, int, int, int, int)
+ */
+public class SpriteFrameCache {
+
+    /** The name of the cache folder, in the working directory. */
+    public static final String FOLDER_NAME = "sprite-cache";
+    /** The first four bytes of a cache file ("EVOF"). */
+    private static final int MAGIC = 0x45564F46;
+    /** The version of the cache files. */
+    private static final int VERSION = 1;
+    /** The number of bytes per pixel (blue, green, red, alpha). */
+    public static final int BYTES_PER_PIXEL = 4;
+
+    /** The folder the cache files are in. Replaced by tests. */
+    private static Path folder = Paths.get(System.getProperty("user.dir"), FOLDER_NAME);
+    /** The cache files mapped by this game. They are never replaced or deleted, since frames shown on screen may still use them. */
+    private static final Set<Path> mappedFiles = ConcurrentHashMap.newKeySet();
+
+    /** Constructor that doesn't do anything.
+     * @throws NullPointerException if this constructor is called.
+     */
+    public SpriteFrameCache() {
+        throw new NullPointerException("DON'T CREATE A SPRITEFRAMECACHE OBJECT!!!");
+    }
+
+    /**
+     * Returns the cached frames of a sprite sheet, mapped from the cache file.
+     * @param sheet the path of the sprite sheet
+     * @param frameWidth the width of a frame, in pixels
+     * @param frameHeight the height of a frame, in pixels
+     * @param frameCount the number of frames in the sheet
+     * @return the pixels of every frame, row by row, in premultiplied BGRA, or null if there is no cache file or it is stale
+     */
+    public static List<ByteBuffer> read(Path sheet, int frameWidth, int frameHeight, int frameCount) {
+        Path cachePath;
+        try {
+            cachePath = getCachePath(sheet, frameWidth, frameHeight);
+        } catch (IOException e) {
+            // Missing sheet: there is nothing to cache
+            return null;
+        }
+        if (!Files.exists(cachePath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Private (which needs a writable channel), so the frames are writable buffers without ever changing the file
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+            if (mapped.getInt() != MAGIC || (mapped.getShort() & 0xFFFF) != VERSION) {
+                return null;
+            }
+            byte[] pathBytes = new byte[mapped.getShort() & 0xFFFF];
+            mapped.get(pathBytes);
+            BasicFileAttributes attributes = Files.readAttributes(sheet, BasicFileAttributes.class);
+            if (!new String(pathBytes, StandardCharsets.UTF_8).equals(getKey(sheet))
+                    || mapped.getLong() != attributes.lastModifiedTime().toMillis()
+                    || mapped.getLong() != attributes.size()
+                    || mapped.getInt() != frameWidth || mapped.getInt() != frameHeight || mapped.getInt() != frameCount) {
+                return null;
+            }
+            int frameBytes = frameWidth * frameHeight * BYTES_PER_PIXEL;
+            int dataStart = mapped.position();
+            if ((long) dataStart + (long) frameBytes * frameCount != mapped.capacity()) {
+                // Not written to the end
+                return null;
+            }
+            List<ByteBuffer> frames = new ArrayList<>(frameCount);
+            for (int i = 0; i < frameCount; i++) {
+                frames.add(mapped.slice(dataStart + i * frameBytes, frameBytes));
+            }
+            mappedFiles.add(cachePath);
+            return frames;
+        } catch (IOException | BufferUnderflowException e) {
+            // Missing sheet, or a cache file too short to hold its header: the sheet is decoded instead
+            return null;
+        }
+    }
+
+    /**
+     * Writes the frames of a sprite sheet to the cache file of its current version, then deletes the files of its older versions.
+     * The file is written under a temporary name and moved into place, so a cache file is never seen half written.
+     * @param sheet the path of the sprite sheet
+     * @param frameWidth the width of a frame, in pixels
+     * @param frameHeight the height of a frame, in pixels
+     * @param frameCount the number of frames in the sheet
+     * @param frames gives the pixels of every frame
+     */
+    public static void write(Path sheet, int frameWidth, int frameHeight, int frameCount, FrameSource frames) {
+        Path tempPath = null;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(sheet, BasicFileAttributes.class);
+            Path cachePath = getCachePath(sheet, attributes, frameWidth, frameHeight);
+            if (mappedFiles.contains(cachePath)) {
+                // Already read back whole by this game, and in use
+                return;
+            }
+            Files.createDirectories(folder);
+            tempPath = Files.createTempFile(folder, cachePath.getFileName().toString(), ".tmp");
+            byte[] pathBytes = getKey(sheet).getBytes(StandardCharsets.UTF_8);
+            byte[] pixels = new byte[frameWidth * frameHeight * BYTES_PER_PIXEL];
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempPath.toFile()), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(pathBytes.length);
+                out.write(pathBytes);
+                out.writeLong(attributes.lastModifiedTime().toMillis());
+                out.writeLong(attributes.size());
+                out.writeInt(frameWidth);
+                out.writeInt(frameHeight);
+                out.writeInt(frameCount);
+                for (int i = 0; i < frameCount; i++) {
+                    frames.readFrame(i, pixels);
+                    out.write(pixels);
+                }
+            }
+            // Only a damaged file of the same version can be replaced here, and this game has not mapped it
+            Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteOldVersions(sheet, frameWidth, frameHeight, cachePath);
+        } catch (IOException e) {
+            // The frames were decoded anyway, so the game goes on without the cache
+            e.printStackTrace();
+            try {
+                if (tempPath != null) {
+                    Files.deleteIfExists(tempPath);
+                }
+            } catch (IOException ignored) {
+                // Nothing else to clean up
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the cache file of a sprite sheet, as it is now, at a frame size.
+     * @param sheet the path of the sprite sheet
+     * @param frameWidth the width of a frame, in pixels
+     * @param frameHeight the height of a frame, in pixels
+     * @return the path of the cache file, which may not exist
+     * @throws IOException if the sprite sheet cannot be read
+     */
+    public static Path getCachePath(Path sheet, int frameWidth, int frameHeight) throws IOException {
+        return getCachePath(sheet, Files.readAttributes(sheet, BasicFileAttributes.class), frameWidth, frameHeight);
+    }
+
+    /**
+     * Sets the folder of the cache files. Used by tests.
+     * @param cacheFolder the folder
+     */
+    static void setFolder(Path cacheFolder) {
+        folder = cacheFolder;
+    }
+
+    /** Helper method that returns the path of the cache file of a version of a sheet, named after the sheet, the frame size and the version. */
+    private static Path getCachePath(Path sheet, BasicFileAttributes attributes, int frameWidth, int frameHeight) {
+        String version = Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size());
+        return folder.resolve(getPrefix(sheet, frameWidth, frameHeight) + "-" + version + ".frames");
+    }
+
+    /**
+     * Helper method that returns the start of the names of every cache file of a sheet at a frame size, whatever their version.
+     * It includes a hash of the sheet's path, so sheets with the same name in other folders do not share it.
+     */
+    private static String getPrefix(Path sheet, int frameWidth, int frameHeight) {
+        return getUnversionedName(sheet, frameWidth, frameHeight) + "-" + Integer.toHexString(getKey(sheet).hashCode());
+    }
+
+    /** Helper method that returns the name of the sheet at a frame size, which older games used as the name of its cache file. */
+    private static String getUnversionedName(Path sheet, int frameWidth, int frameHeight) {
+        String name = sheet.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return name + "-" + frameWidth + "x" + frameHeight;
+    }
+
+    /**
+     * Helper method that deletes the cache files of the other versions of a sheet at a frame size, including the unversioned ones of older games.
+     * Files this game mapped are kept, and a file that cannot be deleted (e.g. mapped by another game) is tried again next time.
+     */
+    private static void deleteOldVersions(Path sheet, int frameWidth, int frameHeight, Path current) throws IOException {
+        String prefix = getPrefix(sheet, frameWidth, frameHeight);
+        String unversioned = getUnversionedName(sheet, frameWidth, frameHeight);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, unversioned + "*.frames")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean sameSheet = name.equals(unversioned + ".frames") || name.startsWith(prefix + "-");
+                if (sameSheet && !file.equals(current) && !mappedFiles.contains(file)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ignored) {
+                        // Still in use: deleted by a later write
+                    }
+                }
+            }
+        }
+    }
+
+    /** Helper method that returns the path a sheet is recorded under: absolute, so sheets with the same name in other folders do not match. */
+    private static String getKey(Path sheet) {
+        return sheet.toAbsolutePath().normalize().toString();
+    }
+
+    /** Represents the code that gives the pixels of the frames being written. */
+    public interface FrameSource {
+        /**
+         * Copies the pixels of a frame, row by row, in premultiplied BGRA.
+         * @param index the index of the frame
+         * @param pixels the array to copy them to, exactly the size of a frame
+         */
+        void readFrame(int index, byte[] pixels);
+    }
+}
@@ -1,13 +1,16 @@
-import javafx.animation.Animation;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
+import javafx.application.Platform;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
 import javafx.scene.image.WritableImage;
-import javafx.util.Duration;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /** Represents the class that builds sprites from spritesheet paths.
  * <p>
@@ -16,12 +19,16 @@ import java.util.List;
 public class SpriteManager {
     /** The current sprite displayed. */
     private ImageView spriteView;
-    /** The list of all sprites to cycle through. */
+    /** The list of all sprites to cycle through. For pets, the frames of the evolution stage shown. */
     private List<Image> frames;
     /** The index of the current frame. */
     private int currentFrame = 0;
-    /** The timeline object to handle animations. */
-    private Timeline animation;
+    /** The time between two animation frames, in milliseconds. */
+    private static final long FRAME_MILLIS = 250;
+    /** The tick scheduler channel shared by the animations of all sprites. */
+    private static TickScheduler.Channel animations;
+    /** The scheduled animation task, or null if the animation is stopped. */
+    private TickScheduler.Task animation;
     /** The width of the sprite sheet. */
     private double spriteSheetWidth;
     /** The height of the sprite sheet. */
@@ -40,16 +47,34 @@ public class SpriteManager {
     public static final int DEAD = 24;
     public static final int SICK = 28;
 
-    /** The value of the current stat percentage. */
-    private double statPercent; 
-
     /** The pet object. */
     private Pet pet;
 
+    /** The pet type whose frames come from the sprite atlas cache, or null if this sprite does not use the cache. */
+    private String petType;
+    /** The evolution stage whose frames are shown, acquired from the sprite atlas cache. */
+    private int stage;
+    /** The tier of the frames shown. */
+    private int tier;
+    /** The tier new frames are acquired at. Higher than tier while the frames shown are decoded again at a higher tier. */
+    private int wantedTier;
+    /** The evolution stage being prefetched, or 0 if none is. */
+    private int prefetchedStage;
+    /** The tier the prefetched stage is decoded at. */
+    private int prefetchedTier;
+    /** The frames of the prefetched stage, completed once they are decoded. */
+    private CompletableFuture<List<Image>> prefetchedFrames;
+    /** The evolution stage shown once its frames are decoded, or 0 if none is. */
+    private int pendingStage;
+    /** The tier the pending stage is decoded at. */
+    private int pendingTier;
+    /** The frames of the pending stage, completed once they are decoded. */
+    private CompletableFuture<List<Image>> pendingFrames;
+
     /**
      * Constructs a new sprite manager.
      * <p>
-     * Responsible for building sprites and their animations. There should be one of these per stat bar and pet.
+     * Responsible for building sprites and their animations. There should be one of these per pet.
      * @param spriteSheetPath the sprite sheet path
      * @param spriteSheetWidth the sprite sheet width
      * @param spriteSheetHeight the sprite sheet height
@@ -63,29 +88,249 @@ public class SpriteManager {
         this.columns = columns;
         this.rows = rows;
 
-        this.statPercent = 75;
-
         this.pet = pet;
 
         frames = new ArrayList<>();
         
         spriteView = new ImageView(new Image("file:" + spriteSheetPath));
         extractFrames(spriteSheetPath);
-        setupAnimation();
     }
 
+    /**
+     * Constructs a new sprite manager for a pet, whose frames come from the sprite atlas cache.
+     * <p>
+     * Only the frames of the pet's current evolution stage are acquired, and are shared between scenes through the cache.
+     * The next stage is decoded when the pet gets close to it (see prefetchStage) or reaches it (see showStage).
+     * @see SpriteAtlasCache
+     * @param petType the pet type (e.g. Dog)
+     * @param evoLevel the evolution stage to show first
+     * @param tier the tier to decode the frames at, an index of SpriteAtlasCache.FRAME_SIZES
+     * @param spriteSheetWidth the sprite sheet width
+     * @param spriteSheetHeight the sprite sheet height
+     * @param columns the number of columns in the sprite sheet
+     * @param rows the number of rows in the sprite sheet
+     * @param pet the pet object
+     */
+    public SpriteManager(String petType, int evoLevel, int tier, double spriteSheetWidth, double spriteSheetHeight, int columns, int rows, Pet pet) {
+        this.spriteSheetWidth = spriteSheetWidth;
+        this.spriteSheetHeight = spriteSheetHeight;
+        this.columns = columns;
+        this.rows = rows;
+
+        this.pet = pet;
+
+        this.petType = petType;
+        stage = evoLevel;
+        this.tier = tier;
+        wantedTier = tier;
+        frames = SpriteAtlasCache.acquire(petType, evoLevel, tier);
+
+        spriteView = new ImageView();
+    }
+
+    /**
+     * Shows the frames of an evolution stage once they are decoded, and gives the frames of the previous stage back to the sprite atlas cache.
+     * Uses the prefetched frames if that stage was prefetched, or decodes them in the background. The frames shown so far stay on screen meanwhile,
+     * so the JavaFX thread never waits for a sheet. If the frames cannot be decoded, the next call tries again.
+     * Does nothing if the stage is already shown or being switched to, or if this sprite does not use the cache.
+     * @param evoLevel the evolution stage of the pet
+     */
+    public void showStage(int evoLevel) {
+        if (petType == null || evoLevel == stage || evoLevel == pendingStage) {
+            return;
+        }
+        if (evoLevel != prefetchedStage) {
+            prefetchStage(evoLevel);
+            if (evoLevel != prefetchedStage) {
+                // The stage does not exist
+                return;
+            }
+        }
+        // Stages only go forward, so a stage still being switched to (e.g. a big score jump) is not needed anymore
+        releasePending();
+        // The prefetch's reference becomes the reference of the pending stage
+        pendingStage = prefetchedStage;
+        pendingTier = prefetchedTier;
+        pendingFrames = prefetchedFrames;
+        prefetchedStage = 0;
+        prefetchedFrames = null;
+        CompletableFuture<List<Image>> waited = pendingFrames;
+        waited.whenComplete((stageFrames, error) -> Platform.runLater(() -> finishStage(waited, stageFrames, error)));
+    }
+
+    /**
+     * Starts decoding the frames of an evolution stage in the background, so they are ready when the pet reaches it.
+     * Does nothing if the stage is already shown or prefetched, if it does not exist, or if this sprite does not use the cache.
+     * @param evoLevel the evolution stage the pet is getting close to
+     */
+    public void prefetchStage(int evoLevel) {
+        if (petType == null || evoLevel == stage || evoLevel == pendingStage || evoLevel == prefetchedStage || evoLevel < 1 || evoLevel > SpriteAtlasCache.STAGES) {
+            return;
+        }
+        releasePrefetch();
+        prefetchedStage = evoLevel;
+        prefetchedTier = wantedTier;
+        prefetchedFrames = SpriteAtlasCache.prefetch(petType, evoLevel, wantedTier);
+    }
+
+    /**
+     * Decodes the frames shown again at a higher tier, in the background, and shows them once they are ready.
+     * The frames shown so far stay on screen meanwhile. Does nothing if the tier is not higher, or if this sprite does not use the cache.
+     * @see SpriteAtlasCache#fitFrameSize(double)
+     * @param newTier the tier the frames are needed at, an index of SpriteAtlasCache.FRAME_SIZES
+     */
+    public void raiseTier(int newTier) {
+        if (petType == null || newTier <= wantedTier) {
+            return;
+        }
+        // The next stage is prefetched again at the new tier
+        releasePrefetch();
+        wantedTier = newTier;
+        upgradeTier(newTier);
+    }
+
+    /** Helper method that decodes the stage shown at a higher tier in the background, and shows it once it is ready. */
+    private void upgradeTier(int newTier) {
+        String type = petType;
+        int shownStage = stage;
+        SpriteAtlasCache.prefetch(type, shownStage, newTier).whenComplete((stageFrames, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                // The frames shown so far stay on screen
+                error.printStackTrace();
+            }
+            else if (type.equals(petType) && stage == shownStage && tier < newTier && wantedTier == newTier) {
+                SpriteAtlasCache.release(petType, stage, tier);
+                tier = newTier;
+                frames = stageFrames;
+                spriteView.setImage(frames.get(currentFrame));
+            }
+            else {
+                // Released, evolved or raised again meanwhile
+                SpriteAtlasCache.release(type, shownStage, newTier);
+            }
+        }));
+    }
+
+    /**
+     * Returns the tier of the frames shown.
+     * @return the tier, an index of SpriteAtlasCache.FRAME_SIZES
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Stops the animation and gives the frames of the pet back to the sprite atlas cache.
+     * Should be called when the sprite is discarded. Does nothing for sprites that do not use the cache.
+     */
+    public void release() {
+        stopAnimation();
+        if (petType == null) {
+            return;
+        }
+        releasePrefetch();
+        releasePending();
+        SpriteAtlasCache.release(petType, stage, tier);
+        petType = null;
+    }
+
+    /** Helper method that shows the pending stage once its frames are decoded, on the JavaFX thread. */
+    private void finishStage(CompletableFuture<List<Image>> waited, List<Image> stageFrames, Throwable error) {
+        if (waited != pendingFrames) {
+            // Released or replaced meanwhile, which gave its reference back
+            return;
+        }
+        int newStage = pendingStage;
+        int newTier = pendingTier;
+        pendingStage = 0;
+        pendingFrames = null;
+        if (error != null) {
+            // A failed stage is not cached, so there is no reference to give back, and the next update tries again
+            error.printStackTrace();
+            return;
+        }
+        SpriteAtlasCache.release(petType, stage, tier);
+        stage = newStage;
+        tier = newTier;
+        frames = stageFrames;
+        spriteView.setImage(frames.get(currentFrame));
+        // A stage prefetched but skipped (e.g. a big score jump) is not needed anymore
+        if (prefetchedStage != 0 && prefetchedStage <= stage) {
+            releasePrefetch();
+        }
+        // Prefetched before the tier was raised, so it is decoded again
+        if (tier < wantedTier) {
+            upgradeTier(wantedTier);
+        }
+    }
+
+    /** Helper method that gives the prefetched stage back to the sprite atlas cache, if there is one. */
+    private void releasePrefetch() {
+        if (prefetchedStage != 0) {
+            // A failed stage was removed from the cache, and another sprite may have cached it again since
+            if (!prefetchedFrames.isCompletedExceptionally()) {
+                SpriteAtlasCache.release(petType, prefetchedStage, prefetchedTier);
+            }
+            prefetchedStage = 0;
+            prefetchedFrames = null;
+        }
+    }
+
+    /** Helper method that gives the pending stage back to the sprite atlas cache, if there is one. */
+    private void releasePending() {
+        if (pendingStage != 0) {
+            if (!pendingFrames.isCompletedExceptionally()) {
+                SpriteAtlasCache.release(petType, pendingStage, pendingTier);
+            }
+            pendingStage = 0;
+            pendingFrames = null;
+        }
+    }
     
     /**
      * Extracts frames from a given sprite sheet and places them into the frames list.
      * @param spriteSheetPath the sprite sheet path
      */
     public void extractFrames(String spriteSheetPath) {
-        
-        Image spriteSheet = new Image("file:" + spriteSheetPath);
+        frames.addAll(sliceFrames(spriteSheetPath, spriteSheetWidth, spriteSheetHeight, columns, rows));
+    }
+
+    /**
+     * Decodes a sprite sheet once and slices it into frames, row by row.
+     * @param spriteSheetPath the sprite sheet path
+     * @param spriteSheetWidth the sprite sheet width
+     * @param spriteSheetHeight the sprite sheet height
+     * @param columns the number of columns in the sprite sheet
+     * @param rows the number of rows in the sprite sheet
+     * @return the list of frames
+     */
+    public static List<Image> sliceFrames(String spriteSheetPath, double spriteSheetWidth, double spriteSheetHeight, int columns, int rows) {
+        return sliceFrames(spriteSheetPath, spriteSheetWidth, spriteSheetHeight, columns, rows, 0, 0);
+    }
+
+    /**
+     * Decodes a sprite sheet once at a smaller size and slices it into frames, row by row.
+     * <p>
+     * The sheet is scaled down while it is decoded, so the full size sheet is never in memory.
+     * Used when the frames are shown smaller than they are drawn in the sheet.
+     * @param spriteSheetPath the sprite sheet path
+     * @param spriteSheetWidth the sprite sheet width
+     * @param spriteSheetHeight the sprite sheet height
+     * @param columns the number of columns in the sprite sheet
+     * @param rows the number of rows in the sprite sheet
+     * @param decodeWidth the width to decode the sheet at, or 0 for its full size
+     * @param decodeHeight the height to decode the sheet at, or 0 for its full size
+     * @return the list of frames
+     */
+    public static List<Image> sliceFrames(String spriteSheetPath, double spriteSheetWidth, double spriteSheetHeight, int columns, int rows,
+            double decodeWidth, double decodeHeight) {
+        List<Image> slicedFrames = new ArrayList<>();
+
+        Image spriteSheet = new Image("file:" + spriteSheetPath, decodeWidth, decodeHeight, false, true);
         PixelReader pixelReader = spriteSheet.getPixelReader();
 
-        double frameWidth = spriteSheetWidth / columns;
-        double frameHeight = spriteSheetHeight / rows;
+        double frameWidth = (decodeWidth > 0 ? decodeWidth : spriteSheetWidth) / columns;
+        double frameHeight = (decodeHeight > 0 ? decodeHeight : spriteSheetHeight) / rows;
 
         try {
             for (int row = 0; row < rows; row++) {
@@ -93,7 +338,7 @@ public class SpriteManager {
                     Image frame = new WritableImage(pixelReader,
                             (int) (col * frameWidth), (int) (row * frameHeight),
                             (int) frameWidth, (int) frameHeight);
-                    frames.add(frame);
+                    slicedFrames.add(frame);
                 }
             }
         }
@@ -103,7 +348,43 @@ public class SpriteManager {
         catch (Exception e) {
             e.printStackTrace();
         }
-        
+
+        return slicedFrames;
+    }
+
+    /**
+     * Returns the frames of a sprite sheet at a frame size, from the sprite frame cache when it has them.
+     * <p>
+     * Cached frames are shown straight from the mapped cache file, without decoding the sheet.
+     * Otherwise the sheet is decoded and sliced, and the frames are written to the cache for the next time.
+     * @see SpriteFrameCache
+     * @param spriteSheetPath the sprite sheet path
+     * @param columns the number of columns in the sprite sheet
+     * @param rows the number of rows in the sprite sheet
+     * @param frameWidth the width to show a frame at
+     * @param frameHeight the height to show a frame at
+     * @return the list of frames
+     */
+    public static List<Image> loadFrames(String spriteSheetPath, int columns, int rows, int frameWidth, int frameHeight) {
+        Path sheet = Paths.get(spriteSheetPath);
+        int frameCount = columns * rows;
+        List<ByteBuffer> cached = SpriteFrameCache.read(sheet, frameWidth, frameHeight, frameCount);
+        if (cached != null) {
+            List<Image> cachedFrames = new ArrayList<>(frameCount);
+            for (ByteBuffer pixels : cached) {
+                cachedFrames.add(new WritableImage(new PixelBuffer<>(frameWidth, frameHeight, pixels, PixelFormat.getByteBgraPreInstance())));
+            }
+            return cachedFrames;
+        }
+
+        List<Image> slicedFrames = sliceFrames(spriteSheetPath, frameWidth * columns, frameHeight * rows, columns, rows,
+                frameWidth * columns, frameHeight * rows);
+        if (slicedFrames.size() == frameCount) {
+            SpriteFrameCache.write(sheet, frameWidth, frameHeight, frameCount, (index, pixels) ->
+                    slicedFrames.get(index).getPixelReader().getPixels(0, 0, frameWidth, frameHeight,
+                            PixelFormat.getByteBgraPreInstance(), pixels, 0, frameWidth * SpriteFrameCache.BYTES_PER_PIXEL));
+        }
+        return slicedFrames;
     }
 
     /**
@@ -128,21 +409,20 @@ public class SpriteManager {
         return frameImage;
     }
     
-    /** Helper method to set up the animation of the sprites. */
-    private void setupAnimation() {
-        animation = new Timeline(new KeyFrame(Duration.seconds(0.25), e -> {
-        nextFrame();
-        updateStatBars();
-        }));
-        animation.setCycleCount(Animation.INDEFINITE);
+    /** Helper method that returns the scheduler channel of sprite animations, created on first use. */
+    private static TickScheduler.Channel getAnimations() {
+        if (animations == null) {
+            animations = TickScheduler.getDefault().createChannel("sprites");
+        }
+        return animations;
     }
 
-    /** For pets only. It advances to the next frame of the same emotion.
+    /** For pets only. It advances to the next frame of the same emotion, in the evolution stage shown.
      */
     private void nextFrame() {
         if (rows != 1 && !frames.isEmpty()) {
             // Loop through only the first 4 frames
-                spriteView.setImage(frames.get(currentFrame + (pet.getEvoLevel()-1)*32));
+                spriteView.setImage(frames.get(currentFrame));
                 if (currentFrame % 4 == 3) {
                     currentFrame = currentFrame - 3;
                 }
@@ -153,21 +433,6 @@ public class SpriteManager {
         }
     }
 
-    /** For stat bars, check to see if the current stat bar needs changing, and does so accordingly. */
-    private void updateStatBars() {
-        if (rows == 1 && !frames.isEmpty()) {
-                if (statPercent < 1) {
-                    currentFrame = 16;
-                    spriteView.setImage(frames.get(currentFrame));
-                }
-                else {
-                    currentFrame = (int) (16 - Math.ceil(statPercent/6.25));
-                    spriteView.setImage(frames.get(currentFrame));
-                }
-            
-        }
-    }
-
     /** Manually sets the current frame if necessary. */
     public void setCurrentFrame(int frameIndex) {
         if (frameIndex >= 0 && frameIndex < frames.size()) {
@@ -176,14 +441,19 @@ public class SpriteManager {
         }
     }
 
-    /** Start the animation of the sprites. */
+    /** Start the animation of the sprites. Does nothing if it is already running. */
     public void startAnimation() {
-        animation.play();
+        if (animation == null) {
+            animation = getAnimations().schedule(FRAME_MILLIS, FRAME_MILLIS, this::nextFrame);
+        }
     }
 
     /** Stopos the animation of the sprites. */
     public void stopAnimation() {
-        animation.stop();
+        if (animation != null) {
+            animation.cancel();
+            animation = null;
+        }
     }
 
     /**
@@ -247,13 +517,4 @@ public class SpriteManager {
     public void setEmotion(int emotion) {
         currentFrame = emotion;     
     }
-
-    /**
-     * Sets the stat for stat bars. Used to update the current stat bars.
-     * @param stat the new stat
-     * @param maxStat the pet's max stat 
-     */
-    public void setStats(double stat, double maxStat) {
-        this.statPercent = (stat*100/maxStat);
-    }
 }
@@ -0,0 +1,194 @@
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/** Represents a stat bar (health, fullness, happiness or energy) that is drawn with shapes instead of a sprite sheet.
+ * <p>
+ * The bar has the same 16 fill levels as the old stats bar sprite sheet: green when the stat is high, orange in the middle, red when it is low,
+ * and an empty bar when the stat reaches 0.
+ * The bar is only repainted when the fill level actually changes, so there is no animation timer.
+ */
+public class StatBar {
+
+    /** The number of fill levels of a full bar. */
+    public static final int LEVELS = 16;
+
+    /** The width of a single frame of the old sprite sheet, used to keep the same proportions. */
+    private static final double FRAME_WIDTH = 555;
+    /** The height of a single frame of the old sprite sheet, used to keep the same proportions. */
+    private static final double FRAME_HEIGHT = 135;
+    /** The aspect ratio of the old sprite sheet, used so the bars are laid out exactly like before. */
+    private static final double SHEET_ASPECT_RATIO = 10000.0 / 135.0;
+
+    /** The colour of a high stat. */
+    private static final Color HIGH_COLOR = Color.rgb(0, 255, 0);
+    /** The colour of a medium stat. */
+    private static final Color MEDIUM_COLOR = Color.rgb(255, 165, 0);
+    /** The colour of a low stat. */
+    private static final Color LOW_COLOR = Color.rgb(255, 0, 0);
+    /** The colour of the empty part of the bar. */
+    private static final Color TRACK_COLOR = Color.rgb(192, 192, 192);
+
+    /** The node holding the shapes. */
+    private Group root;
+    /** The black outline of the bar. */
+    private Rectangle border;
+    /** The grey, empty part of the bar. */
+    private Rectangle track;
+    /** The coloured, filled part of the bar. */
+    private Rectangle fill;
+
+    /** The number of filled levels currently drawn, between 0 and LEVELS. */
+    private int level;
+    /** The current width of the bar. */
+    private double width;
+    /** The current height of the bar. */
+    private double height;
+
+    /**
+     * Constructs a new stat bar.
+     * <p>
+     * The bar starts at the same fill level the old sprite based bars started at (75%).
+     */
+    public StatBar() {
+        border = new Rectangle();
+        border.setFill(Color.BLACK);
+        track = new Rectangle();
+        track.setFill(TRACK_COLOR);
+        fill = new Rectangle();
+
+        root = new Group(border, track, fill);
+
+        level = levelFor(75);
+        resize(FRAME_WIDTH, FRAME_HEIGHT);
+    }
+
+    /**
+     * Sets the stat for the bar. The bar is only repainted if the fill level changes.
+     * @param stat the new stat
+     * @param maxStat the pet's max stat
+     */
+    public void setStats(double stat, double maxStat) {
+        int newLevel = levelFor(stat * 100 / maxStat);
+        if (newLevel != level) {
+            level = newLevel;
+            repaint();
+        }
+    }
+
+    /**
+     * Returns the number of filled levels currently drawn.
+     * @return the fill level, between 0 (empty) and LEVELS (full)
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Converts a stat percentage to a fill level, using the same buckets as the old sprite sheet.
+     * @param statPercent the stat percentage
+     * @return the fill level, between 0 (empty) and LEVELS (full)
+     */
+    public static int levelFor(double statPercent) {
+        if (statPercent < 1) {
+            return 0;
+        }
+        return (int) Math.min(LEVELS, Math.ceil(statPercent / (100.0 / LEVELS)));
+    }
+
+    /**
+     * Returns the colour used for a fill level.
+     * @param level the fill level
+     * @return the fill colour
+     */
+    public static Color colorFor(int level) {
+        if (level >= 12) {
+            return HIGH_COLOR;
+        }
+        if (level >= 5) {
+            return MEDIUM_COLOR;
+        }
+        return LOW_COLOR;
+    }
+
+    /**
+     * Scales the bar based on passed width and height, laid out the same way the old stat bar sprites were.
+     * @param targetWidth the intended width of the bar
+     * @param targetHeight the intended height of the bar
+     */
+    public void scaleBar(double targetWidth, double targetHeight) {
+        // The old sprites were fitted inside a box with the sheet's aspect ratio
+        double boxWidth = targetWidth;
+        double boxHeight = boxWidth / SHEET_ASPECT_RATIO;
+        if (boxHeight > targetHeight) {
+            boxHeight = targetHeight;
+            boxWidth = boxHeight * SHEET_ASPECT_RATIO;
+        }
+
+        // The frame then preserved its own ratio inside that box
+        double barHeight = boxHeight;
+        double barWidth = barHeight * FRAME_WIDTH / FRAME_HEIGHT;
+        if (barWidth > boxWidth) {
+            barWidth = boxWidth;
+            barHeight = barWidth * FRAME_HEIGHT / FRAME_WIDTH;
+        }
+
+        resize(barWidth, barHeight);
+    }
+
+    /**
+     * Translates the bar to a specific position.
+     * @param x the x translation
+     * @param y the y translation
+     */
+    public void translateBar(double x, double y) {
+        root.setTranslateX(x);
+        root.setTranslateY(y);
+    }
+
+    /**
+     * Returns the node that displays the bar.
+     * @return the bar node
+     */
+    public Node getNode() {
+        return root;
+    }
+
+    /** Helper method that sets the size of all shapes. */
+    private void resize(double newWidth, double newHeight) {
+        if (newWidth == width && newHeight == height) {
+            return;
+        }
+        width = newWidth;
+        height = newHeight;
+
+        double borderSize = height * 0.12;
+        border.setWidth(width);
+        border.setHeight(height);
+        border.setArcWidth(borderSize * 2);
+        border.setArcHeight(borderSize * 2);
+
+        track.setX(borderSize);
+        track.setY(borderSize);
+        track.setWidth(width - borderSize * 2);
+        track.setHeight(height - borderSize * 2);
+        track.setArcWidth(borderSize);
+        track.setArcHeight(borderSize);
+
+        fill.setX(borderSize);
+        fill.setY(borderSize);
+        fill.setHeight(height - borderSize * 2);
+        fill.setArcWidth(borderSize);
+        fill.setArcHeight(borderSize);
+
+        repaint();
+    }
+
+    /** Helper method that redraws the filled part of the bar. */
+    private void repaint() {
+        fill.setWidth(track.getWidth() * level / LEVELS);
+        fill.setFill(colorFor(level));
+        fill.setVisible(level > 0);
+    }
+}
@@ -1,9 +1,5 @@
 import javafx.scene.text.Text;
 import javafx.scene.text.Font;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,17 +50,13 @@ public class TextManager {
     }
 
     /** Loads a custom font from a certain file path to apply to the text.
+     * The font file is only read once and shared through the asset preloader.
      * 
      * @param path the file path of the font
      * @param size the font size
-     * @return the font
+     * @return the font, or null if it could not be read
      */
     public static Font loadCustomFont(String path, double size) {
-        try (InputStream fontStream = Files.newInputStream(Paths.get(path))) {
-            return Font.loadFont(fontStream, size); // Load the font with specified size
-        } catch (IOException e) {
-            e.printStackTrace(); // Handle I/O exceptions
-            return null;
-        }
+        return AssetPreloader.getFont(path, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,641 @@
+import javafx.animation.AnimationTimer;
+
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Represents the scheduler that runs every timed event of the game from a single pulse.
+ * <p>
+ * Game timers and sprite animations do not create their own JavaFX timelines. They schedule tasks on a channel of this scheduler,
+ * and one AnimationTimer moves the scheduler forward once per frame. A channel groups tasks that are paused and resumed together.
+ * <p>
+ * Tasks are kept in a hierarchical timing wheel: four wheels of 64 slots, each slot of a wheel covering a whole turn of the wheel below it.
+ * Scheduling, cancelling and firing a task takes the same time no matter how many tasks there are,
+ * and a pulse only looks at the slots that are due, so the cost of a pulse does not grow with the number of timers and pets.
+ * <p>
+ * The scheduler is a fixed timestep loop: real time is added to an accumulator, multiplied by the time scale,
+ * and game time only moves forward in whole ticks. Tasks fire at the same game time whatever the frame rate is,
+ * so the game plays the same at 1x, 10x or 1000x. If a pulse is late (e.g. the JavaFX thread was busy),
+ * at most MAX_TICKS_PER_PULSE ticks are run and the rest are kept for the next pulses, so no tick is ever dropped.
+ * With the time scale FASTEST, every pulse runs as many ticks as fit in a few milliseconds.
+ * <p>
+ * The game uses two schedulers: the default one for real time (sprites, play time), moved forward by the JavaFX pulse,
+ * and the simulation one for the pet (stat, sleep and angry timers, cooldowns), moved forward by its own thread.
+ * Only the pet's time is sped up for testing, and the JavaFX thread never runs the pet's ticks.
+ * <p>
+ * A started scheduler belongs to the thread that moves it forward. Other threads must not change it directly:
+ * they pass their changes to execute, which runs them on that thread before its next ticks.
+ * Game timers and cooldowns already do this. Tests create their own scheduler and move it forward by hand with advance,
+ * without the JavaFX toolkit or a thread.
+ */
+public class TickScheduler {
+
+    /** The length of one tick of the wheel, in milliseconds. Tasks fire on the first tick at or after their time. */
+    public static final long TICK_MILLIS = 10;
+    /** The number of bits of a tick count used by each wheel (64 slots). */
+    private static final int WHEEL_BITS = 6;
+    /** The number of slots in each wheel. */
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    /** The number of wheels. Together they cover 2^24 ticks (about 46 hours), later tasks wait in the overflow list. */
+    private static final int LEVELS = 4;
+    /** The most ticks run by one pulse (almost 3 hours of game time, or a few milliseconds of work). Ticks past this are run by the next pulses. */
+    public static final int MAX_TICKS_PER_PULSE = 1 << 20;
+    /** The time scale that runs game time as fast as possible. */
+    public static final double FASTEST = Double.POSITIVE_INFINITY;
+    /** The real time a pulse spends running ticks with the time scale FASTEST, in nanoseconds (half a frame at 60 fps). */
+    private static final long FASTEST_BUDGET_NANOS = 8_000_000;
+
+    /** The scheduler used by the game, created on first use. */
+    private static TickScheduler defaultScheduler;
+    /** The scheduler used by the pet simulation, created on first use. */
+    private static TickScheduler simulationScheduler;
+
+    /** The slots of every wheel, the lowest wheel first. */
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    /** The tasks that are too far away for the highest wheel. */
+    private final Bucket overflow = new Bucket();
+    /** The tasks being fired in the current tick. */
+    private final Bucket firing = new Bucket();
+    /** The task that is running, or null. */
+    private Task running;
+    /** The number of ticks that have passed. Read by other threads for the time. */
+    private volatile long currentTick;
+    /** The number of tasks waiting in the wheels (paused tasks are not counted). */
+    private int waiting;
+    /** How fast game time passes compared to real time. */
+    private volatile double timeScale = 1;
+    /** The scaled milliseconds that did not make up a whole tick yet. */
+    private double carryMillis;
+    /** The ticks that are due but were not run yet, because a pulse ran its maximum. */
+    private long backlogTicks;
+    /** The number of tasks fired by the last call to advance. */
+    private int firedLastPulse;
+    /** The number of tasks fired since the scheduler was created. */
+    private long firedTotal;
+    /** The JavaFX pulse that moves the default scheduler forward, created when it is started. */
+    private AnimationTimer pulse;
+    /** The thread that moves the simulation scheduler forward, created when it is started. */
+    private Thread thread;
+    /** The thread the scheduler belongs to once it is started, or null if any thread can use it directly. */
+    private volatile Thread owner;
+    /** The changes passed by other threads, run by the owner before its next ticks. */
+    private final Queue<Runnable> posted = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a scheduler. It does not move forward until advance is called, or start for the JavaFX pulse.
+     */
+    public TickScheduler() {
+        for (Bucket[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Returns the scheduler used by the game.
+     * Main starts its own thread with startThread("Pet simulation"). Until then, scheduled tasks wait.
+     * @return the default scheduler
+     */
+    public static synchronized TickScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new TickScheduler();
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * Returns the scheduler used by the pet simulation: the stat, sleep and angry timers, and the cooldowns.
+     * Its time scale can be changed without changing the speed of the sprites or the play time.
+     * Main starts its own thread with startThread("Pet simulation"). Until then, scheduled tasks wait.
+     * @return the simulation scheduler
+     */
+    public static synchronized TickScheduler getSimulation() {
+        if (simulationScheduler == null) {
+            simulationScheduler = new TickScheduler();
+        }
+        return simulationScheduler;
+    }
+
+    /**
+     * Reads a time scale, as given on the command line.
+     * @param text a number (e.g. 1, 10 or 1000), or "max" for FASTEST
+     * @return the time scale
+     * @throws IllegalArgumentException if the text is not a number or "max", or is negative
+     */
+    public static double parseTimeScale(String text) {
+        String trimmed = text.trim();
+        if (trimmed.equalsIgnoreCase("max")) {
+            return FASTEST;
+        }
+        double timeScale = Double.parseDouble(trimmed.endsWith("x") ? trimmed.substring(0, trimmed.length() - 1) : trimmed);
+        if (timeScale < 0 || Double.isNaN(timeScale)) {
+            throw new IllegalArgumentException("The time scale cannot be negative: " + text);
+        }
+        return timeScale;
+    }
+
+    /**
+     * Creates a channel, a group of tasks that are paused and resumed together.
+     * @param name the name of the channel, for debugging
+     * @return the new channel, not paused
+     */
+    public Channel createChannel(String name) {
+        return new Channel(name);
+    }
+
+    /**
+     * Starts moving the scheduler forward on every JavaFX pulse (once per frame). Must be called on the JavaFX thread.
+     */
+    public void start() {
+        owner = Thread.currentThread();
+        if (pulse == null) {
+            pulse = new AnimationTimer() {
+                /** The time of the previous pulse, or -1 before the first one. */
+                private long lastNanos = -1;
+
+                @Override
+                public void handle(long now) {
+                    if (lastNanos >= 0) {
+                        advanceNanos(now - lastNanos);
+                    }
+                    lastNanos = now;
+                }
+            };
+        }
+        pulse.start();
+    }
+
+    /**
+     * Starts moving the scheduler forward on its own thread, every tick (or as fast as possible with the time scale FASTEST).
+     * Used for the simulation scheduler, so the pet's ticks never wait for a frame and never slow one down.
+     * @param name the name of the thread
+     */
+    public void startThread(String name) {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(() -> {
+            long lastNanos = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                long now = System.nanoTime();
+                try {
+                    advanceNanos(now - lastNanos);
+                }
+                catch (RuntimeException e) {
+                    // A broken task must not stop the pet's time
+                    e.printStackTrace();
+                }
+                lastNanos = now;
+                try {
+                    Thread.sleep(timeScale == FASTEST ? 1 : TICK_MILLIS);
+                }
+                catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }, name);
+        // The game can close without waiting for this thread
+        thread.setDaemon(true);
+        owner = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the JavaFX pulse or the thread. Tasks keep their remaining time until the scheduler is started again.
+     */
+    public void stop() {
+        if (pulse != null) {
+            pulse.stop();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+            owner = null;
+        }
+    }
+
+    /**
+     * Runs a change on the thread the scheduler belongs to. Runs it right away if called on that thread, or if the scheduler is not started.
+     * Otherwise it runs before the next ticks, in the order it was passed.
+     * @param change the code to run
+     */
+    public void execute(Runnable change) {
+        Thread current = owner;
+        if (current == null || current == Thread.currentThread()) {
+            change.run();
+        } else {
+            posted.add(change);
+        }
+    }
+
+    /**
+     * Moves the scheduler forward and fires every task that became due, in order of their time.
+     * @param millis the real time that passed, in milliseconds. It is multiplied by the time scale.
+     */
+    public void advance(long millis) {
+        advanceNanos(millis * 1_000_000L);
+    }
+
+    /** Helper method that moves the scheduler forward by real nanoseconds. */
+    private void advanceNanos(long nanos) {
+        for (Runnable change = posted.poll(); change != null; change = posted.poll()) {
+            change.run();
+        }
+        firedLastPulse = 0;
+        if (timeScale == FASTEST) {
+            long end = System.nanoTime() + FASTEST_BUDGET_NANOS;
+            // The clock is only read every thousand ticks, since reading it costs more than an empty tick
+            while (waiting > 0 && System.nanoTime() < end) {
+                for (int i = 0; i < 1000 && waiting > 0; i++) {
+                    step();
+                }
+            }
+            return;
+        }
+        carryMillis += nanos / 1e6 * timeScale;
+        long ticks = (long) (carryMillis / TICK_MILLIS);
+        carryMillis -= ticks * TICK_MILLIS;
+        backlogTicks += ticks;
+
+        for (int run = 0; backlogTicks > 0 && run < MAX_TICKS_PER_PULSE; run++) {
+            if (waiting == 0) {
+                // Nothing can fire, so the empty ticks are skipped
+                currentTick += backlogTicks;
+                backlogTicks = 0;
+                break;
+            }
+            backlogTicks--;
+            step();
+        }
+    }
+
+    /** Helper method that runs one tick. */
+    private void step() {
+        currentTick++;
+        cascade();
+        fire(wheels[0][(int) (currentTick & (WHEEL_SIZE - 1))]);
+    }
+
+    /**
+     * Sets how fast game time passes compared to real time. For example, 2 runs every timer twice as fast.
+     * @param timeScale the new time scale, 0 to freeze every channel, or FASTEST to run as many ticks as possible on every pulse
+     * @throws IllegalArgumentException if the time scale is negative
+     */
+    public void setTimeScale(double timeScale) {
+        if (timeScale < 0 || Double.isNaN(timeScale)) {
+            throw new IllegalArgumentException("The time scale cannot be negative.");
+        }
+        execute(() -> {
+            this.timeScale = timeScale;
+            if (timeScale == FASTEST) {
+                // Game time runs ahead of real time, so nothing is owed
+                carryMillis = 0;
+                backlogTicks = 0;
+            }
+        });
+    }
+
+    /**
+     * Returns how fast game time passes compared to real time.
+     * @return the time scale
+     */
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Returns the game time that passed since the scheduler was created, rounded down to a tick.
+     * @return the time in milliseconds
+     */
+    public long getTimeMillis() {
+        return currentTick * TICK_MILLIS;
+    }
+
+    /**
+     * Returns the game time that is due but was not run yet, because the pulses were late.
+     * @return the time in milliseconds, 0 if the scheduler has caught up
+     */
+    public long getBacklogMillis() {
+        return backlogTicks * TICK_MILLIS;
+    }
+
+    /**
+     * Returns the number of tasks fired by the last pulse (the last call to advance).
+     * @return the number of tasks
+     */
+    public int getFiredLastPulse() {
+        return firedLastPulse;
+    }
+
+    /**
+     * Returns the number of tasks fired since the scheduler was created.
+     * @return the number of tasks
+     */
+    public long getFiredTotal() {
+        return firedTotal;
+    }
+
+    /**
+     * Returns the number of tasks waiting to fire, not counting the tasks of paused channels.
+     * @return the number of tasks
+     */
+    public int getWaitingCount() {
+        return waiting;
+    }
+
+    /**
+     * Helper method that moves the tasks of the higher wheels down when a lower wheel has made a full turn.
+     * The highest wheel is cascaded first, so a task can fall through several wheels in one tick.
+     */
+    private void cascade() {
+        if ((currentTick & ((1L << (WHEEL_BITS * (LEVELS - 1))) - 1)) == 0) {
+            reinsertAll(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                reinsertAll(wheels[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1))]);
+            }
+        }
+    }
+
+    /** Helper method that empties a bucket and puts its tasks back where they belong now. */
+    private void reinsertAll(Bucket bucket) {
+        Task task = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        while (task != null) {
+            Task next = task.next;
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+            waiting--;
+            insert(task);
+            task = next;
+        }
+    }
+
+    /** Helper method that fires every task of a slot of the lowest wheel. */
+    private void fire(Bucket slot) {
+        if (slot.head == null) {
+            return;
+        }
+        // Moved to a separate list, so tasks can cancel or reschedule anything while firing
+        firing.head = slot.head;
+        firing.tail = slot.tail;
+        slot.head = null;
+        slot.tail = null;
+        for (Task task = firing.head; task != null; task = task.next) {
+            task.bucket = firing;
+        }
+
+        while (firing.head != null) {
+            Task task = firing.head;
+            firing.remove(task);
+            waiting--;
+            firedLastPulse++;
+            firedTotal++;
+            running = task;
+            try {
+                task.action.run();
+            } finally {
+                running = null;
+            }
+            if (task.periodTicks > 0 && !task.cancelled) {
+                task.deadline += task.periodTicks;
+                if (task.channel.paused) {
+                    task.remaining = task.deadline - currentTick;
+                } else {
+                    insert(task);
+                }
+            } else if (!task.cancelled) {
+                task.cancelled = true;
+                task.channel.tasks.remove(task);
+            }
+        }
+    }
+
+    /** Helper method that puts a task in the slot of the wheel matching its time. */
+    private void insert(Task task) {
+        long delta = task.deadline - currentTick;
+        Bucket bucket;
+        if (delta < 0) {
+            // Late (e.g. resumed with no time left), so it fires on the next tick
+            task.deadline = currentTick + 1;
+            delta = 1;
+        }
+        if (delta >= 1L << (WHEEL_BITS * LEVELS)) {
+            bucket = overflow;
+        } else {
+            int level = 0;
+            while (delta >= 1L << (WHEEL_BITS * (level + 1))) {
+                level++;
+            }
+            bucket = wheels[level][(int) ((task.deadline >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1))];
+        }
+        bucket.add(task);
+        waiting++;
+    }
+
+    /** Helper method that turns milliseconds into ticks, rounding up. */
+    private static long toTicks(long millis) {
+        return (millis + TICK_MILLIS - 1) / TICK_MILLIS;
+    }
+
+    /** Represents a group of tasks that are paused and resumed together, such as one game timer or all sprite animations.
+     * <p>
+     * Pausing a channel keeps the remaining time of its tasks, like pausing a JavaFX timeline.
+     */
+    public final class Channel {
+
+        /** The name of the channel, for debugging. */
+        private final String name;
+        /** The tasks of the channel that are not cancelled. */
+        private final Set<Task> tasks = new LinkedHashSet<>();
+        /** Whether the tasks of the channel are frozen. */
+        private boolean paused;
+
+        private Channel(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Schedules a task that runs once.
+         * @param delayMillis the time before the task runs, in milliseconds
+         * @param action the code to run
+         * @return the task, which can be cancelled
+         */
+        public Task schedule(long delayMillis, Runnable action) {
+            return schedule(delayMillis, 0, action);
+        }
+
+        /**
+         * Schedules a task that runs repeatedly. Periods are counted from the scheduled time, so a late pulse does not make the task drift.
+         * @param delayMillis the time before the first run, in milliseconds
+         * @param periodMillis the time between two runs, in milliseconds, or 0 to run once
+         * @param action the code to run
+         * @return the task, which can be cancelled
+         * @throws IllegalArgumentException if the delay or the period is negative
+         */
+        public Task schedule(long delayMillis, long periodMillis, Runnable action) {
+            if (delayMillis < 0 || periodMillis < 0) {
+                throw new IllegalArgumentException("The delay and period cannot be negative.");
+            }
+            Task task = new Task(this, action, periodMillis == 0 ? 0 : Math.max(1, toTicks(periodMillis)));
+            long delay = Math.max(1, toTicks(delayMillis));
+            tasks.add(task);
+            if (paused) {
+                task.remaining = delay;
+            } else {
+                task.deadline = currentTick + delay;
+                insert(task);
+            }
+            return task;
+        }
+
+        /**
+         * Freezes every task of the channel, keeping their remaining time.
+         */
+        public void pause() {
+            if (paused) {
+                return;
+            }
+            paused = true;
+            for (Task task : tasks) {
+                if (task.bucket != null) {
+                    task.remaining = task.deadline - currentTick;
+                    task.bucket.remove(task);
+                    waiting--;
+                }
+            }
+        }
+
+        /**
+         * Resumes every task of the channel where it was paused.
+         */
+        public void resume() {
+            if (!paused) {
+                return;
+            }
+            paused = false;
+            for (Task task : tasks) {
+                if (task.bucket == null && task != running) {
+                    task.deadline = currentTick + Math.max(1, task.remaining);
+                    insert(task);
+                }
+            }
+        }
+
+        /**
+         * Returns whether the channel is paused.
+         * @return true if the channel is paused
+         */
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * Returns the number of tasks of the channel that are not cancelled.
+         * @return the number of tasks
+         */
+        public int getTaskCount() {
+            return tasks.size();
+        }
+
+        @Override
+        public String toString() {
+            return name + (paused ? " (paused, " : " (") + tasks.size() + " tasks)";
+        }
+    }
+
+    /** Represents a scheduled task. */
+    public final class Task {
+
+        /** The channel of the task. */
+        private final Channel channel;
+        /** The code to run. */
+        private final Runnable action;
+        /** The ticks between two runs, or 0 if the task runs once. */
+        private final long periodTicks;
+        /** The tick the task runs at. */
+        private long deadline;
+        /** The ticks that were left when the channel was paused. */
+        private long remaining;
+        /** Whether the task was cancelled or has run (for tasks that run once). */
+        private boolean cancelled;
+        /** The list the task is in, or null if it is paused or running. A running task is rescheduled once it returns. */
+        private Bucket bucket;
+        /** The previous task in the list. */
+        private Task prev;
+        /** The next task in the list. */
+        private Task next;
+
+        private Task(Channel channel, Runnable action, long periodTicks) {
+            this.channel = channel;
+            this.action = action;
+            this.periodTicks = periodTicks;
+        }
+
+        /**
+         * Cancels the task. It will not run again. Does nothing if it was already cancelled.
+         */
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            channel.tasks.remove(this);
+            if (bucket != null) {
+                bucket.remove(this);
+                waiting--;
+            }
+        }
+
+        /**
+         * Returns whether the task was cancelled, or has already run if it runs once.
+         * @return true if the task will not run again
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /** A doubly linked list of tasks, so a task can be removed from the middle without searching. */
+    private static final class Bucket {
+        /** The first task. */
+        private Task head;
+        /** The last task. */
+        private Task tail;
+
+        /** Adds a task at the end. */
+        private void add(Task task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        /** Removes a task that is in this list. */
+        private void remove(Task task) {
+            if (task.prev == null) {
+                head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 /** Represents a utility class that checks for stat updates for the pet and stat bars, and calls the necessary sprite managers. */
 public class UIUpdate {
 
+    /** How close the score must be to the next evolution, as a fraction of its score, for the next stage's sprites to be prefetched. */
+    private static double prefetchFraction = 0.8;
+
     /** Constructor that doesn't do anything.
      * @throws NullPointerException if this constructor is called.
      */
@@ -11,50 +14,88 @@ public class UIUpdate {
     /**
      * Updates the UI based on the current stats of the pet.
      * <p>
-     * Additionally, checks to see if the evolution requirements have been met.
+     * Takes a snapshot of the pet, so the pet is read once. Screens that are told about changes draw the simulation's latest snapshot instead.
+     * @see #updateUI(PetSnapshot, SpriteManager, StatBar[], boolean)
      * @param pet the pet object
      * @param petSpriteManager the sprite manager that manages the pet sprites
-     * @param statSpriteManagers the sprite manages that manages the stat bar sprites
+     * @param statBars the stat bars, in the order health, fullness, happiness, energy
      * @param happy whether the pet just received something that increases happiness
      */
-    public static void updateUI(Pet pet, SpriteManager petSpriteManager, SpriteManager[] statSpriteManagers, boolean happy) {
+    public static void updateUI(Pet pet, SpriteManager petSpriteManager, StatBar[] statBars, boolean happy) {
+        updateUI(pet.snapshot(), petSpriteManager, statBars, happy);
+    }
 
-        if (pet.getScore() >= 500 && pet.getEvoLevel() == 1) {
-            pet.evolve();
-        }
-        else if (pet.getScore() >= 1000 && pet.getEvoLevel() == 2) {
-            pet.evolve();
+    /**
+     * Updates the UI based on a snapshot of the pet.
+     * <p>
+     * Called when the pet changed. Only reads the snapshot: evolving is done by the simulation.
+     * Shows the sprites of the pet's evolution stage, and prefetches the next stage's once the score is close enough to it.
+     * @see PetSimulation#getSnapshot()
+     * @param snapshot the pet as it is now
+     * @param petSpriteManager the sprite manager that manages the pet sprites
+     * @param statBars the stat bars, in the order health, fullness, happiness, energy
+     * @param happy whether the pet just received something that increases happiness
+     */
+    public static void updateUI(PetSnapshot snapshot, SpriteManager petSpriteManager, StatBar[] statBars, boolean happy) {
+
+        int evoLevel = snapshot.getEvoLevel();
+        petSpriteManager.showStage(evoLevel);
+        if (evoLevel <= PetSimulation.EVOLVE_SCORES.length
+                && snapshot.getScore() >= prefetchFraction * PetSimulation.EVOLVE_SCORES[evoLevel - 1]) {
+            petSpriteManager.prefetchStage(evoLevel + 1);
         }
-        if (pet.isDead()) {
+
+        if (snapshot.isDead()) {
             petSpriteManager.setEmotion(SpriteManager.DEAD);
         }
-        else if (pet.isStillSleeping()) {
+        else if (snapshot.isStillSleeping()) {
             petSpriteManager.setEmotion(SpriteManager.SLEEPING);
         }
-        else if (pet.isSick()) {
+        else if (snapshot.isSick()) {
             petSpriteManager.setEmotion(SpriteManager.SICK);
         }
-        else if (pet.isStillAngry()) {
+        else if (snapshot.isStillAngry()) {
             petSpriteManager.setEmotion(SpriteManager.ANGRY);
         }
-        else if (pet.isHungry()) {
+        else if (snapshot.isHungry()) {
             petSpriteManager.setEmotion(SpriteManager.HUNGRY);
         }
-        else if (pet.isSleepy()) {
+        else if (snapshot.isSleepy()) {
             petSpriteManager.setEmotion(SpriteManager.SLEEPY);
         }
         else if (happy) {
             petSpriteManager.setEmotion(SpriteManager.HAPPY);
         }
-        else if (pet.isNormal()) {
+        else if (snapshot.isNormal()) {
             petSpriteManager.setEmotion(SpriteManager.NORMAL);
         }
 
-        statSpriteManagers[0].setStats(pet.getHealth(), pet.getMaxHealth());
-        statSpriteManagers[1].setStats(pet.getFullness(), pet.getMaxFullness());
-        statSpriteManagers[2].setStats(pet.getHappiness(), pet.getMaxHappiness());
-        statSpriteManagers[3].setStats(pet.getEnergy(), pet.getMaxEnergy());
+        statBars[0].setStats(snapshot.getHealth(), snapshot.getMaxHealth());
+        statBars[1].setStats(snapshot.getFullness(), snapshot.getMaxFullness());
+        statBars[2].setStats(snapshot.getHappiness(), snapshot.getMaxHappiness());
+        statBars[3].setStats(snapshot.getEnergy(), snapshot.getMaxEnergy());
+
+    }
 
+    /**
+     * Returns how close the score must be to the next evolution for the next stage's sprites to be prefetched.
+     * @return the fraction of the next evolution's score
+     */
+    public static double getPrefetchFraction() {
+        return prefetchFraction;
     }
 
+    /**
+     * Sets how close the score must be to the next evolution for the next stage's sprites to be prefetched.
+     * For example, 0.8 prefetches the teen sprites at a score of 400 and the adult sprites at 800.
+     * 0 prefetches the next stage right away, and 1 only decodes it when the pet evolves.
+     * @param fraction the fraction of the next evolution's score, between 0 and 1
+     * @throws IllegalArgumentException if the fraction is not between 0 and 1
+     */
+    public static void setPrefetchFraction(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("The prefetch fraction must be between 0 and 1.");
+        }
+        prefetchFraction = fraction;
+    }
 }
@@ -1,5 +1,6 @@
 import java.io.IOException;
 
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
@@ -25,8 +26,9 @@ public class VetScene extends GameScene {
     private Pet pet;
     /** The button that heals the pet. */
     private Button commandButton;
-    /** The cooldown for the heal button. */
-    private int vetCooldown;
+
+    /** How long the heal button is disabled after healing, in milliseconds. */
+    public static final long VET_COOLDOWN_MILLIS = 15_000;
 
     /**
      * Constructs a new vet scene.
@@ -38,7 +40,6 @@ public class VetScene extends GameScene {
     public VetScene(ScreenManager screenManager, Pet pet) throws IOException {
         this.screenManager = screenManager;
         this.pet = pet;
-        this.vetCooldown = 0;
 
         StackPane root = new StackPane();
         root.setPrefSize(Main.WIDTH, Main.HEIGHT);
@@ -59,13 +60,12 @@ public class VetScene extends GameScene {
         // heal button logic
         commandButton.setOnAction(e -> {
             commandButton.setDisable(true); 
-            vetCooldown = 15;
-            pet.incrementHealth(100);
-            pet.incrementScore(100);
-            screenOverlay.setScoreText("SCORE: " + String.valueOf(pet.getScore()));
-            screenManager.getVetCooldownTimer().start();
-            updatePetState();
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), true);
+            // The stats, score and heal button are shown from the snapshot after the action
+            screenManager.runPlayerAction(pet, () -> {
+                pet.getVetCooldown().start(VET_COOLDOWN_MILLIS);
+                pet.incrementHealth(100);
+                pet.incrementScore(100);
+            }, true);
             System.out.println("Healing");
         });
 
@@ -128,47 +128,35 @@ public class VetScene extends GameScene {
     @Override
     public void onEnter() {
         if (pet.isStillAngry()) {
-            commandButton.setDisable(true);
             screenManager.getAngryTimer().start();
         }
-        if (!pet.isStillAngry()) {
-            if (!pet.isStillSleeping() && vetCooldown == 0) {
-                commandButton.setDisable(false);
-            }
-        }
         screenManager.getStatTimer().start();
-        screenManager.getVetCooldownTimer().start();
+        // The seconds left on the heal button count down while this screen is shown
+        pet.getVetCooldown().setOnSecond(() -> Platform.runLater(this::updateHealButton));
+        updateHealButton();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onTimerTick() {
-        if (pet.isHungry()) pet.incrementHappiness(-20);
-        pet.decrementAllStats(8);
-        pet.incrementCoins(1);
-        screenOverlay.setCoinsText("COINS: " + String.valueOf(pet.getCoins()));
-        updatePetState();
-        UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
+    public void onLeave() {
+        pet.getVetCooldown().setOnSecond(null);
     }
 
     /**
-     * {@inheritDoc}
+     * Helper method that shows the seconds left on the vet cooldown on the heal button,
+     * or enables the button once the cooldown is over and the pet can be healed.
      */
-    @Override
-    public void onVetCooldownTick() {
-        if (vetCooldown > 0) {
-            commandButton.setText(String.valueOf(vetCooldown));
-            vetCooldown--;
+    private void updateHealButton() {
+        Cooldown cooldown = pet.getVetCooldown();
+        if (!cooldown.isReady()) {
+            commandButton.setText(String.valueOf(cooldown.getRemainingSeconds()));
             commandButton.setDisable(true);
         }
         else {
             commandButton.setText("Heal");
-            if (!pet.isStillSleeping() && !pet.isStillAngry()) {
-                commandButton.setDisable(false);
-            }
-            screenManager.getPlayCooldownTimer().pause();
+            commandButton.setDisable(pet.isDead() || pet.isStillSleeping() || pet.isStillAngry());
         }
     }
 
@@ -176,34 +164,62 @@ public class VetScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    public void onSleepTick() {
-        if (pet.isStillSleeping()) {
-            pet.incrementEnergy(10);
-            UIUpdate.updateUI(pet, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), false);
-        }
-        if (!pet.isStillSleeping()) {
-            screenManager.getSleepTimer().pause();
-            screenOverlay.getLeftArrowButton().setDisable(false);
-            screenOverlay.getRightArrowButton().setDisable(false);
-            screenOverlay.getInventoryButton().setDisable(false);
-            screenOverlay.getSettingsButton().setDisable(false);
-            if (!pet.isStillAngry() && vetCooldown == 0) {
-                commandButton.setDisable(false);
-            }
-        }
+    public void onSnapshot(PetSnapshot snapshot, boolean happy) {
+        screenOverlay.showSnapshot(snapshot);
+        UIUpdate.updateUI(snapshot, petOverlay.getSpriteManager(), screenOverlay.getStatBars(), happy);
+        updateHealButton();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void onAngryTick() {
-        if (!pet.isStillAngry()) {
-            screenManager.getAngryTimer().pause();
-            if (!pet.isStillSleeping() && vetCooldown == 0) {
-                commandButton.setDisable(false);
-            }
-        }
+    public void onFellAsleep(Pet pet) {
+        commandButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onWokeUp(Pet pet) {
+        screenOverlay.getLeftArrowButton().setDisable(false);
+        screenOverlay.getRightArrowButton().setDisable(false);
+        screenOverlay.getInventoryButton().setDisable(false);
+        screenOverlay.getSettingsButton().setDisable(false);
+        updateHealButton();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onAngry(Pet pet) {
+        commandButton.setDisable(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCalmed(Pet pet) {
+        updateHealButton();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onDied(Pet pet) {
+        commandButton.setDisable(true);
+        screenOverlay.getLeftArrowButton().setDisable(true);
+        screenOverlay.getRightArrowButton().setDisable(true);
+        screenOverlay.getInventoryButton().setDisable(true);
+        screenOverlay.getSettingsButton().setDisable(false);
     }
 
     /**
@@ -234,51 +250,17 @@ public class VetScene extends GameScene {
      * {@inheritDoc}
      */
     @Override
-    protected void updatePetState() {
-        if (pet.isDead()) {
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            screenManager.getVetCooldownTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        if (pet.isSleeping()) {
-            pet.incrementHealth(-40);
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(true);
-            screenManager.getSleepTimer().start();
-        }
-        if (pet.isHungry()) {
-            pet.incrementHealth(-20);
-            pet.incrementHappiness(-20);
-        }
-        if (pet.isAngry()) {
-            commandButton.setDisable(true);
-            screenManager.getAngryTimer().start();
-        }    
-        if (pet.isDead()) {
-            commandButton.setDisable(true);
-            screenOverlay.getLeftArrowButton().setDisable(true);
-            screenOverlay.getRightArrowButton().setDisable(true);
-            screenOverlay.getInventoryButton().setDisable(true);
-            screenOverlay.getSettingsButton().setDisable(false);
-            screenManager.getStatTimer().stop();
-            screenManager.getSleepTimer().stop();
-            screenManager.getAngryTimer().stop();
-            screenManager.getVetCooldownTimer().stop();
-            pet.decrementAllStats(1000);
-            return;
-        }
-        
+    public void onRemove() {
+        onLeave();
+        petOverlay.release();
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void updatePetState() {
+        PetSimulation simulation = screenManager.getSimulation(pet);
+        screenManager.runOnSimulation(simulation::updateState);
     }
 }
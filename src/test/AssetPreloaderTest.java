@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AssetPreloaderTest {
+
+    private AtomicInteger imageDecodes;
+    private AtomicInteger fontDecodes;
+    private Map<String, String> decodingThreads;
+
+    @BeforeEach
+    public void setup() {
+        AssetPreloader.clear();
+        imageDecodes = new AtomicInteger();
+        fontDecodes = new AtomicInteger();
+        decodingThreads = new ConcurrentHashMap<>();
+        // No JavaFX toolkit in tests, so every asset is null
+        AssetPreloader.setDecoders(path -> {
+            if (path.contains("missing")) {
+                throw new FileNotFoundException(path);
+            }
+            imageDecodes.incrementAndGet();
+            decodingThreads.put(path, Thread.currentThread().getName());
+            return null;
+        }, path -> {
+            fontDecodes.incrementAndGet();
+            decodingThreads.put(path, Thread.currentThread().getName());
+            return null;
+        });
+    }
+
+    @Test
+    public void testPreloadDecodesOnBackgroundThreads() throws Exception {
+        AssetPreloader.preload("a.png", "b.png", "font.ttf").get(5, TimeUnit.SECONDS);
+        assertEquals(2, imageDecodes.get());
+        assertEquals(1, fontDecodes.get());
+        for (String thread : decodingThreads.values()) {
+            assertTrue(thread.startsWith("asset-loader"), thread);
+        }
+        assertEquals(3, AssetPreloader.getRequestedCount());
+        assertEquals(3, AssetPreloader.getLoadedCount());
+    }
+
+    @Test
+    public void testAssetsAreOnlyDecodedOnce() throws Exception {
+        AssetPreloader.preload("a.png", "font.ttf").get(5, TimeUnit.SECONDS);
+        AssetPreloader.preload("a.png", "font.ttf").get(5, TimeUnit.SECONDS);
+        AssetPreloader.getImage("a.png");
+        AssetPreloader.getFont("font.ttf", 40);
+        AssetPreloader.getFont("font.ttf", 80);
+        assertEquals(1, imageDecodes.get());
+        assertEquals(1, fontDecodes.get());
+        assertEquals(2, AssetPreloader.getRequestedCount());
+    }
+
+    @Test
+    public void testAssetNotPreloadedIsDecodedByTheCaller() {
+        assertNull(AssetPreloader.getImage("c.png"));
+        assertEquals(Thread.currentThread().getName(), decodingThreads.get("c.png"));
+        assertEquals(1, AssetPreloader.getLoadedCount());
+    }
+
+    @Test
+    public void testMissingAssetDoesNotHoldBackTheOthers() throws Exception {
+        AssetPreloader.preload("missing.png", "a.png").get(5, TimeUnit.SECONDS);
+        assertEquals(2, AssetPreloader.getLoadedCount());
+        assertNull(AssetPreloader.getImage("missing.png"));
+        assertEquals(1, imageDecodes.get());
+    }
+
+    @Test
+    public void testProgressIsPublished() throws Exception {
+        List<Integer> loadedCounts = new CopyOnWriteArrayList<>();
+        AssetPreloader.ProgressListener listener = (loaded, requested) -> {
+            assertTrue(loaded <= requested);
+            loadedCounts.add(loaded);
+        };
+        AssetPreloader.addProgressListener(listener);
+        AssetPreloader.preload("a.png", "b.png", "c.png", "font.ttf").get(5, TimeUnit.SECONDS);
+        assertEquals(4, loadedCounts.size());
+        assertTrue(loadedCounts.containsAll(List.of(1, 2, 3, 4)));
+
+        AssetPreloader.removeProgressListener(listener);
+        AssetPreloader.getImage("d.png");
+        assertEquals(4, loadedCounts.size());
+    }
+}
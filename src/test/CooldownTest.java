@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class CooldownTest {
+
+    private TickScheduler scheduler;
+    private Cooldown cooldown;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = new TickScheduler();
+        cooldown = new Cooldown(scheduler);
+    }
+
+    @Test
+    public void testNewCooldownIsReady() {
+        assertTrue(cooldown.isReady());
+        assertEquals(0, cooldown.getRemainingMillis());
+        assertEquals(0, cooldown.getRemainingSeconds());
+    }
+
+    @Test
+    public void testRemainingTimeCountsDown() {
+        cooldown.start(10_000);
+        assertEquals(10, cooldown.getRemainingSeconds());
+        scheduler.advance(2_500);
+        assertEquals(7_500, cooldown.getRemainingMillis());
+        assertEquals(8, cooldown.getRemainingSeconds());
+        scheduler.advance(7_500);
+        assertTrue(cooldown.isReady());
+    }
+
+    @Test
+    public void testWakesUpOnceAtTheEnd() {
+        int[] runs = new int[1];
+        long[] firedAt = new long[1];
+        cooldown.setOnReady(() -> {
+            runs[0]++;
+            firedAt[0] = scheduler.getTimeMillis();
+        });
+        cooldown.start(15_000);
+        // Only the wake up task is waiting, nothing counts down in between
+        assertEquals(1, scheduler.getWaitingCount());
+
+        scheduler.advance(14_990);
+        assertEquals(0, runs[0]);
+        scheduler.advance(60_000);
+        assertEquals(1, runs[0]);
+        assertEquals(15_000, firedAt[0]);
+        assertEquals(1, scheduler.getFiredTotal());
+        assertEquals(0, scheduler.getWaitingCount());
+    }
+
+    @Test
+    public void testTellsEveryWholeSecondWhileAsked() {
+        StringBuilder seconds = new StringBuilder();
+        cooldown.start(3_500);
+        cooldown.setOnSecond(() -> seconds.append(cooldown.getRemainingSeconds()).append(' '));
+        scheduler.advance(3_000);
+        // 4 until 3,000 ms are left, then 3, 2 and 1. Reaching 0 is told by setOnReady
+        assertEquals("3 2 1 ", seconds.toString());
+        scheduler.advance(5_000);
+        assertEquals("3 2 1 ", seconds.toString());
+        assertEquals(0, scheduler.getWaitingCount());
+
+        cooldown.start(10_000);
+        scheduler.advance(1_000);
+        cooldown.setOnSecond(null);
+        scheduler.advance(5_000);
+        assertEquals("3 2 1 9 ", seconds.toString());
+        assertEquals(0, scheduler.getWaitingCount());
+    }
+
+    @Test
+    public void testRestartingReplacesTheWakeUp() {
+        int[] runs = new int[1];
+        cooldown.setOnReady(() -> runs[0]++);
+        cooldown.start(5_000);
+        scheduler.advance(3_000);
+        cooldown.start(5_000);
+        assertEquals(1, scheduler.getWaitingCount());
+        scheduler.advance(4_000);
+        assertEquals(0, runs[0]);
+        scheduler.advance(1_000);
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void testListenerSetAfterStartStillWakesUp() {
+        int[] runs = new int[1];
+        cooldown.start(5_000);
+        scheduler.advance(2_000);
+        // Like entering the scene after the cooldown was started
+        cooldown.setOnReady(() -> runs[0]++);
+        scheduler.advance(2_990);
+        assertEquals(0, runs[0]);
+        scheduler.advance(10);
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void testElapseShortensTheCooldown() {
+        int[] runs = new int[1];
+        cooldown.setOnReady(() -> runs[0]++);
+        cooldown.start(10_000);
+        cooldown.elapse(4_000);
+        assertEquals(6_000, cooldown.getRemainingMillis());
+        scheduler.advance(6_000);
+        assertEquals(1, runs[0]);
+
+        cooldown.start(10_000);
+        cooldown.elapse(60_000);
+        assertTrue(cooldown.isReady());
+    }
+
+    @Test
+    public void testSerializationKeepsRemainingTime() throws IOException, ClassNotFoundException {
+        cooldown.start(10_000);
+        scheduler.advance(3_000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cooldown);
+        }
+        // Loading in a new session, where the game clock is somewhere else
+        scheduler.advance(1_000_000);
+        Cooldown loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (Cooldown) in.readObject();
+        }
+        assertEquals(7_000, loaded.getRemainingMillis());
+    }
+
+    @Test
+    public void testCatchingUpShortensPetCooldowns() {
+        Inventory inventory = new Inventory();
+        Pet pet = new Pet("Rex", "Dog", inventory, null);
+        pet.getPlayCooldown().start(10_000);
+        pet.getVetCooldown().start(15_000);
+        new PetSimulation(pet).fastForward(12_000);
+        assertTrue(pet.getPlayCooldown().isReady());
+        assertEquals(3_000, pet.getVetCooldown().getRemainingMillis());
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Measures how many stat ticks per second a pet fleet runs at 10 million pets, against one pet object and simulation per pet.
+ * Pets are cared for between rounds, like in SimulationBenchmark, so the ticks cover living, sleeping, hungry and angry pets.
+ * The fleet takes about 420 MB, so run with: java -Xmx1g -cp (classpath) FleetBenchmark [pets] [rounds]
+ */
+public class FleetBenchmark {
+
+    public static void main(String[] args) {
+        int pets = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        PetFleet fleet = new PetFleet(pets);
+        for (int i = 0; i < pets; i++) {
+            fleet.addNew();
+            // Spread the pets over every energy, so they do not all fall asleep on the same tick
+            fleet.incrementStat(i, Pet.ENERGY, i % 76 - 75);
+        }
+
+        long tickNanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            fleet.runSeconds(3);
+            tickNanos += System.nanoTime() - start;
+            care(fleet);
+        }
+        double petTicks = (double) pets * rounds;
+        System.out.printf("Fleet:  %,d pets, %,d rounds of 3 seconds in %.2f s (%.2f fleet ticks/s, %,.0f pet ticks/s, %.2f ns per pet tick)%n",
+                pets, rounds, tickNanos / 1e9, rounds / (tickNanos / 1e9), petTicks / (tickNanos / 1e9), tickNanos / petTicks);
+        fleet = null;
+
+        // The same rules with one pet object and simulation per pet, at a size objects still fit in memory
+        int objects = Math.min(pets, 200_000);
+        Pet[] petObjects = new Pet[objects];
+        PetSimulation[] simulations = new PetSimulation[objects];
+        for (int i = 0; i < objects; i++) {
+            petObjects[i] = new Pet("Bench", "Dog", null, null);
+            petObjects[i].incrementEnergy(i % 76 - 75);
+            simulations[i] = new PetSimulation(petObjects[i]);
+        }
+        long objectNanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < objects; i++) {
+                Pet pet = petObjects[i];
+                for (int s = 0; s < 3 && !pet.isDead(); s++) {
+                    if (pet.IsInSleepingState()) simulations[i].sleepTick();
+                    if (pet.IsInAngryState()) simulations[i].angryTick();
+                }
+                if (!pet.isDead()) simulations[i].tick();
+            }
+            objectNanos += System.nanoTime() - start;
+            for (Pet pet : petObjects) {
+                if (pet.getHealth() < 50) {
+                    pet.incrementHealth(100);
+                    pet.incrementFullness(100);
+                    pet.incrementHappiness(100);
+                }
+            }
+        }
+        double objectTicks = (double) objects * rounds;
+        System.out.printf("Objects:  %,d pets, %,.0f pet ticks/s, %.2f ns per pet tick%n",
+                objects, objectTicks / (objectNanos / 1e9), objectNanos / objectTicks);
+    }
+
+    /** Feeds, plays with and heals every pet that is getting weak, like a player would. Not timed. */
+    private static void care(PetFleet fleet) {
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.getStat(i, Pet.HEALTH) < 50) {
+                fleet.incrementStat(i, Pet.HEALTH, 100);
+                fleet.incrementStat(i, Pet.FULLNESS, 100);
+                fleet.incrementStat(i, Pet.HAPPINESS, 100);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Measures the stat ticks per second of the scalar and the vector kernels of a pet fleet, on the same pets.
+ * Pets are cared for between rounds, like in FleetBenchmark, so the ticks cover living, sleeping, hungry and angry pets.
+ * Compile src/vector/VectorFleetKernel.java (see the README), then run with:
+ * java -Xmx1g --add-modules jdk.incubator.vector -cp (classpath) FleetKernelBenchmark [pets] [rounds]
+ * Without the module, only the scalar kernel is measured.
+ */
+public class FleetKernelBenchmark {
+
+    public static void main(String[] args) {
+        int pets = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        measure("Scalar", pets, rounds, false);
+        if (PetFleet.isVectorAvailable()) {
+            measure("Vector", pets, rounds, true);
+        } else {
+            System.out.println("Vector: not available. Compile VectorFleetKernel and add --add-modules jdk.incubator.vector.");
+        }
+    }
+
+    /** Runs the rounds on a new fleet with one of the kernels, after a warm-up round, and prints the speed. */
+    private static void measure(String name, int pets, int rounds, boolean vectorized) {
+        PetFleet fleet = new PetFleet(pets);
+        fleet.setVectorized(vectorized);
+        for (int i = 0; i < pets; i++) {
+            fleet.addNew();
+            // Spread the pets over every energy, so they do not all fall asleep on the same tick
+            fleet.incrementStat(i, Pet.ENERGY, i % 76 - 75);
+        }
+        // Warm up, so the kernel is compiled before it is timed
+        for (int r = 0; r < 5; r++) {
+            fleet.runSeconds(3);
+            care(fleet);
+        }
+
+        long tickNanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            fleet.runSeconds(3);
+            tickNanos += System.nanoTime() - start;
+            care(fleet);
+        }
+        double petTicks = (double) pets * rounds;
+        System.out.printf("%s: %,d pets, %,d rounds of 3 seconds in %.2f s (%,.0f pet ticks/s, %.2f ns per pet tick)%n",
+                name, pets, rounds, tickNanos / 1e9, petTicks / (tickNanos / 1e9), tickNanos / petTicks);
+    }
+
+    /** Feeds, plays with and heals every pet that is getting weak, like a player would. Not timed. */
+    private static void care(PetFleet fleet) {
+        for (int i = 0; i < fleet.size(); i++) {
+            if (fleet.getStat(i, Pet.HEALTH) < 50) {
+                fleet.incrementStat(i, Pet.HEALTH, 100);
+                fleet.incrementStat(i, Pet.FULLNESS, 100);
+                fleet.incrementStat(i, Pet.HAPPINESS, 100);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GachaRandomTest {
+
+    @Test
+    public void testSameSeedGivesSameValues() {
+        GachaRandom first = new GachaRandom(5L);
+        GachaRandom second = new GachaRandom(5L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    @Test
+    public void testMatchesSplittableRandom() {
+        // Same algorithm and constants as the JDK generator
+        GachaRandom random = new GachaRandom(77L);
+        java.util.SplittableRandom reference = new java.util.SplittableRandom(77L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(reference.nextLong(), random.nextLong());
+        }
+    }
+
+    @Test
+    public void testDoubleAtMatchesDrawnValues() {
+        GachaRandom random = new GachaRandom(9L);
+        double[] drawn = new double[100];
+        for (int i = 0; i < drawn.length; i++) {
+            drawn[i] = random.nextDouble();
+            assertTrue(drawn[i] >= 0 && drawn[i] < 1);
+        }
+        for (int i = drawn.length - 1; i >= 0; i--) {
+            assertEquals(drawn[i], random.doubleAt(i));
+        }
+        assertEquals(100, random.getCount());
+    }
+
+    @Test
+    public void testRestoredPositionContinuesSequence() {
+        GachaRandom random = new GachaRandom(3L);
+        for (int i = 0; i < 10; i++) {
+            random.nextLong();
+        }
+        GachaRandom restored = new GachaRandom(3L, 10);
+        assertEquals(random.nextLong(), restored.nextLong());
+    }
+
+    @Test
+    public void testSplitGivesDifferentSequence() {
+        GachaRandom random = new GachaRandom(3L);
+        GachaRandom split = random.split();
+        assertNotEquals(random.getSeed(), split.getSeed());
+        assertNotEquals(random.nextLong(), split.nextLong());
+    }
+}
@@ -64,4 +64,189 @@ public class GachaTest {
         Item result = gacha.rollGacha();
         assertNull(result);
     }
+
+    /** Rolls the gacha many times and returns the chi-squared statistic of the counts against the configured chances. */
+    private double chiSquared(int rolls) {
+        java.util.Map<Item, Integer> counts = new java.util.HashMap<>();
+        for (int r = 0; r < rolls; r++) {
+            counts.merge(gacha.rollGacha(), 1, Integer::sum);
+        }
+        double chiSquared = 0;
+        for (Item i : gacha.getGachaItems()) {
+            double expected = (double) rolls * i.getGachaChance() / gacha.getTotalGachaChance();
+            double observed = counts.getOrDefault(i, 0);
+            chiSquared += (observed - expected) * (observed - expected) / expected;
+        }
+        return chiSquared;
+    }
+
+    @Test
+    public void testRollDistributionMatchesChances() {
+        Item soccer = new Item("Soccer Ball", "gift", 10);
+        Item toyCar = new Item("Toy Car", "gift", 40);
+        Item rubix = new Item("Rubix Cube", "gift", 70);
+        inventory.addNewItem(soccer);
+        inventory.addNewItem(toyCar);
+        inventory.addNewItem(rubix);
+        gacha.addNewItem(soccer, 60);
+        gacha.addNewItem(toyCar, 30);
+        gacha.addNewItem(rubix, 10);
+        gacha.setSeed(20240517L);
+
+        // 2 degrees of freedom, critical value at p = 0.001
+        assertTrue(chiSquared(3_000_000) < 13.82);
+        assertEquals(3_000_000, inventory.getItemQuantity("Soccer Ball") + inventory.getItemQuantity("Toy Car") + inventory.getItemQuantity("Rubix Cube"));
+    }
+
+    @Test
+    public void testRollDistributionOfLargePool() {
+        for (int i = 1; i <= 50; i++) {
+            Item item = new Item("Item " + i, "gift", i);
+            inventory.addNewItem(item);
+            gacha.addNewItem(item, i * i);
+        }
+        gacha.setSeed(7L);
+
+        // 49 degrees of freedom, critical value at p = 0.001
+        assertTrue(chiSquared(2_000_000) < 85.35);
+    }
+
+    @Test
+    public void testRollUsesUpdatedChances() {
+        Item soccer = new Item("Soccer Ball", "gift", 10);
+        Item rubix = new Item("Rubix Cube", "gift", 70);
+        gacha.addNewItem(soccer, 50);
+        gacha.addNewItem(rubix, 50);
+        gacha.rollGacha();
+
+        gacha.updateItemGachaChance("Soccer Ball", 0);
+        for (int r = 0; r < 1000; r++) {
+            assertSame(rubix, gacha.rollGacha());
+        }
+        gacha.deleteItem("Rubix Cube");
+        gacha.updateItemGachaChance("Soccer Ball", 5);
+        assertSame(soccer, gacha.rollGacha());
+    }
+
+    @Test
+    public void testRollManyUpdatesInventoryOnce() {
+        Item soccer = new Item("Soccer Ball", "gift", 10);
+        Item rubix = new Item("Rubix Cube", "gift", 70);
+        inventory.addNewItem(soccer);
+        inventory.addNewItem(rubix);
+        gacha.addNewItem(soccer, 60);
+        gacha.addNewItem(rubix, 40);
+
+        GachaSummary summary = gacha.rollMany(1000);
+
+        assertEquals(1000, summary.getTotalRolls());
+        assertEquals(summary.getCount("Soccer Ball"), inventory.getItemQuantity("Soccer Ball"));
+        assertEquals(summary.getCount("rubix cube"), inventory.getItemQuantity("Rubix Cube"));
+        assertEquals(1000, summary.getCount("Soccer Ball") + summary.getCount("Rubix Cube"));
+        assertEquals(soccer, summary.getItems().get(0));
+    }
+
+    @Test
+    public void testRollManyHandlesEmptyGacha() {
+        GachaSummary summary = gacha.rollMany(10);
+        assertEquals(0, summary.getTotalRolls());
+        assertTrue(summary.getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> gacha.rollMany(-1));
+    }
+
+    @Test
+    public void testPullGachaSpendsCoinsForAllRolls() {
+        Item soccer = new Item("Soccer Ball", "gift", 10);
+        inventory.addNewItem(soccer);
+        gacha.addNewItem(soccer, 60);
+        Pet pet = new Pet("Fido", "Dog", inventory, gacha);
+        pet.incrementCoins(25);
+
+        GachaSummary summary = pet.pullGacha(10, 2);
+        assertNotNull(summary);
+        assertEquals(5, pet.getCoins());
+        assertEquals(10, inventory.getItemQuantity("Soccer Ball"));
+        assertEquals("10x Soccer Ball", summary.toString());
+
+        // Not enough coins for ten more, so nothing is spent or rolled
+        assertNull(pet.pullGacha(10, 2));
+        assertEquals(5, pet.getCoins());
+        assertEquals(10, inventory.getItemQuantity("Soccer Ball"));
+    }
+
+    /** Creates a gacha with the game's items and chances. */
+    private static Gacha createGameGacha(Inventory inventory, long seed) {
+        Item soccer = new Item("Soccer Ball", "gift", 10);
+        Item toyCar = new Item("Toy Car", "gift", 40);
+        Item rubix = new Item("Rubix Cube", "gift", 70);
+        inventory.addNewItem(soccer);
+        inventory.addNewItem(toyCar);
+        inventory.addNewItem(rubix);
+        Gacha seeded = new Gacha(inventory, seed);
+        seeded.addNewItem(soccer, 60);
+        seeded.addNewItem(toyCar, 30);
+        seeded.addNewItem(rubix, 10);
+        return seeded;
+    }
+
+    @Test
+    public void testSameSeedGivesSameRolls() {
+        Gacha first = createGameGacha(new Inventory(), 42L);
+        Gacha second = createGameGacha(new Inventory(), 42L);
+        for (int r = 0; r < 1000; r++) {
+            assertEquals(first.rollGacha().getItemName(), second.rollGacha().getItemName());
+        }
+        assertEquals(1000, first.getRandom().getCount());
+    }
+
+    @Test
+    public void testSetSeedRestartsRolls() {
+        Gacha seeded = createGameGacha(new Inventory(), 1L);
+        java.util.List<String> rolls = new java.util.ArrayList<>();
+        for (int r = 0; r < 100; r++) {
+            rolls.add(seeded.rollGacha().getItemName());
+        }
+        seeded.setSeed(1L);
+        for (int r = 0; r < 100; r++) {
+            assertEquals(rolls.get(r), seeded.rollGacha().getItemName());
+        }
+    }
+
+    @Test
+    public void testReplayMatchesPullHistory() {
+        Gacha seeded = createGameGacha(new Inventory(), 99L);
+        java.util.List<Item> history = new java.util.ArrayList<>();
+        for (int r = 0; r < 50; r++) {
+            history.add(seeded.rollGacha());
+        }
+        seeded.rollMany(30);
+
+        assertEquals(history, seeded.replay(0, 50));
+        assertEquals(history.subList(20, 50), seeded.replay(20, 30));
+        assertEquals(80, seeded.getRandom().getCount());
+
+        // Replaying does not move the generator or change the inventory
+        int quantity = seeded.getGachaItems().get(0).getQuantity();
+        seeded.replay(0, 1000);
+        assertEquals(80, seeded.getRandom().getCount());
+        assertEquals(quantity, seeded.getGachaItems().get(0).getQuantity());
+    }
+
+    @Test
+    public void testParallelSimulationsAreReproducible() {
+        GachaRandom seeds = new GachaRandom(2024L);
+        long[] threadSeeds = new long[8];
+        for (int t = 0; t < threadSeeds.length; t++) {
+            threadSeeds[t] = seeds.split().getSeed();
+        }
+
+        // Each thread owns its own gacha, so nothing is shared between threads
+        int[] first = java.util.stream.IntStream.range(0, threadSeeds.length).parallel()
+                .map(t -> createGameGacha(new Inventory(), threadSeeds[t]).rollMany(10_000).getCount("Rubix Cube"))
+                .toArray();
+        int[] second = java.util.stream.IntStream.range(0, threadSeeds.length).parallel()
+                .map(t -> createGameGacha(new Inventory(), threadSeeds[t]).rollMany(10_000).getCount("Rubix Cube"))
+                .toArray();
+        assertArrayEquals(first, second);
+    }
 }
@@ -0,0 +1,236 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+
+public class GameStateCodecTest {
+
+    private Pet pet;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        Item burger = new Item("Burger", "Food", 20);
+        Item soccer = new Item("Soccer Ball", "Gift", 10);
+        Item rubix = new Item("Rubix Cube", "Gift", 70);
+
+        Inventory inventory = new Inventory();
+        inventory.addNewItem(burger);
+        inventory.addNewItem(soccer);
+        inventory.addNewItem(rubix);
+        inventory.updateItemQuantity("Burger", 3);
+        inventory.updateItemQuantity("Rubix Cube", 1);
+        Gacha gacha = new Gacha(inventory);
+        gacha.addNewItem(soccer, 60);
+        gacha.addNewItem(rubix, 10);
+
+        pet = new Pet("Fido", "Dog", inventory, gacha);
+        pet.incrementHealth(-30);
+        pet.incrementEnergy(-75);
+        pet.incrementFullness(10);
+        pet.incrementHappiness(-75);
+        pet.isAngry();
+        pet.isSleeping();
+        pet.incrementScore(640);
+        pet.incrementCoins(17);
+        pet.evolve();
+    }
+
+    private static byte[] encode(GameState gameState) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameStateCodec.write(gameState, new DataOutputStream(bytes), 0L);
+        return bytes.toByteArray();
+    }
+
+    private static GameState decode(byte[] bytes) throws IOException {
+        return GameStateCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static void assertSamePet(Pet expected, Pet actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getHealth(), actual.getHealth());
+        assertEquals(expected.getEnergy(), actual.getEnergy());
+        assertEquals(expected.getFullness(), actual.getFullness());
+        assertEquals(expected.getHappiness(), actual.getHappiness());
+        assertEquals(expected.getMaxHealth(), actual.getMaxHealth());
+        assertEquals(expected.getMaxEnergy(), actual.getMaxEnergy());
+        assertEquals(expected.getMaxFullness(), actual.getMaxFullness());
+        assertEquals(expected.getMaxHappiness(), actual.getMaxHappiness());
+        assertEquals(expected.IsInAngryState(), actual.IsInAngryState());
+        assertEquals(expected.IsInSleepingState(), actual.IsInSleepingState());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getCoins(), actual.getCoins());
+        assertEquals(expected.getEvoLevel(), actual.getEvoLevel());
+
+        assertEquals(expected.getInventory().getItems().size(), actual.getInventory().getItems().size());
+        for (Item item : expected.getInventory().getItems()) {
+            String name = item.getItemName();
+            assertEquals(item.getQuantity(), actual.getInventory().getItemQuantity(name));
+            assertEquals(item.getItemType(), actual.getInventory().getItemType(name));
+            assertEquals(item.getScoreIncrease(), actual.getInventory().getItemScoreIncrease(name));
+        }
+        assertEquals(expected.getGacha().getTotalGachaChance(), actual.getGacha().getTotalGachaChance());
+        for (Item item : expected.getGacha().getGachaItems()) {
+            assertEquals(item.getGachaChance(), actual.getGacha().getGachaChance(item.getItemName()));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        GameState loaded = decode(encode(new GameState(pet)));
+        assertSamePet(pet, loaded.getPet());
+    }
+
+    @Test
+    public void testSharedItemsStayShared() throws IOException {
+        Pet loaded = decode(encode(new GameState(pet))).getPet();
+        Item fromGacha = loaded.getGacha().getGachaItems().get(0);
+        Item fromInventory = loaded.getInventory().getItems().get(1);
+        assertSame(fromInventory, fromGacha);
+    }
+
+    @Test
+    public void testGachaRollsIntoLoadedInventory() throws IOException {
+        Pet loaded = decode(encode(new GameState(pet))).getPet();
+        int before = loaded.getInventory().getItemQuantity("Soccer Ball") + loaded.getInventory().getItemQuantity("Rubix Cube");
+        loaded.getGacha().rollGacha();
+        int after = loaded.getInventory().getItemQuantity("Soccer Ball") + loaded.getInventory().getItemQuantity("Rubix Cube");
+        assertEquals(before + 1, after);
+    }
+
+    @Test
+    public void testGachaRandomSurvivesRoundTrip() throws IOException {
+        pet.getGacha().setSeed(1234L);
+        for (int r = 0; r < 17; r++) {
+            pet.getGacha().rollGacha();
+        }
+        Gacha loaded = decode(encode(new GameState(pet))).getPet().getGacha();
+
+        assertEquals(1234L, loaded.getRandom().getSeed());
+        assertEquals(17, loaded.getRandom().getCount());
+        for (int r = 0; r < 100; r++) {
+            assertEquals(pet.getGacha().rollGacha().getItemName(), loaded.rollGacha().getItemName());
+        }
+    }
+
+    @Test
+    public void testCooldownsSurviveRoundTrip() throws IOException {
+        pet.getPlayCooldown().start(4_000);
+        pet.getVetCooldown().start(15_000);
+        Pet loaded = decode(encode(new GameState(pet))).getPet();
+
+        assertEquals(4_000, loaded.getPlayCooldown().getRemainingMillis());
+        assertEquals(15_000, loaded.getVetCooldown().getRemainingMillis());
+        assertTrue(decode(encode(new GameState(loaded))).getPet().getVetCooldown().getRemainingMillis() > 0);
+    }
+
+    @Test
+    public void testEncodingIsStable() throws IOException {
+        byte[] first = encode(new GameState(pet));
+        byte[] second = encode(decode(first));
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void testNewPetRoundTrip() throws IOException {
+        Inventory inventory = new Inventory();
+        Pet fresh = new Pet("Nemo", "Duck", inventory, new Gacha(inventory));
+        assertSamePet(fresh, decode(encode(new GameState(fresh))).getPet());
+    }
+
+    @Test
+    public void testRejectsWrongMagic() {
+        byte[] bytes = new byte[] {0, 1, 2, 3, 0, 1};
+        assertThrows(IOException.class, () -> decode(bytes));
+    }
+
+    @Test
+    public void testRejectsNewerVersion() throws IOException {
+        byte[] bytes = encode(new GameState(pet));
+        bytes[4] = 0x7F;
+        assertThrows(IOException.class, () -> decode(bytes));
+    }
+
+    @Test
+    public void testRejectsTruncatedFile() throws IOException {
+        byte[] bytes = encode(new GameState(pet));
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length / 2);
+        assertThrows(IOException.class, () -> decode(truncated));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= bytes.length; i++) {
+            if (java.util.Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Pattern not found");
+    }
+
+    @Test
+    public void testRejectsBadItemCounts() throws IOException {
+        byte[] bytes = encode(new GameState(pet));
+        // The item table: 3 items, starting with "Burger"
+        int itemCount = indexOf(bytes, new byte[] {0, 0, 0, 3, 0, 6, 'B'});
+        for (int count : new int[] {-1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            byte[] damaged = bytes.clone();
+            java.nio.ByteBuffer.wrap(damaged).putInt(itemCount, count);
+            assertThrows(IOException.class, () -> decode(damaged), "Count " + count);
+        }
+    }
+
+    @Test
+    public void testRejectsRepeatedInventoryItem() throws IOException {
+        byte[] bytes = encode(new GameState(pet));
+        // The inventory: 3 items, at indices 0, 1 and 2
+        int inventory = indexOf(bytes, new byte[] {0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 2});
+        java.nio.ByteBuffer.wrap(bytes).putInt(inventory + 8, 0);
+        assertThrows(IOException.class, () -> decode(bytes));
+    }
+
+    @Test
+    public void testReadsPreviewFromHeader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameStateCodec.write(new GameState(pet), new DataOutputStream(bytes), 123456789L);
+        SavePreview preview = GameStateCodec.readPreview(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), "Fido.ser");
+        assertEquals("Fido.ser", preview.getFileName());
+        assertEquals(pet.getName(), preview.getPetName());
+        assertEquals(pet.getType(), preview.getPetType());
+        assertEquals(pet.getScore(), preview.getScore());
+        assertEquals(pet.getEvoLevel(), preview.getEvoLevel());
+        assertEquals(pet.getHealth(), preview.getHealth());
+        assertEquals(123456789L, preview.getLastModified());
+    }
+
+    @Test
+    public void testSaveAndLoadThroughManager() {
+        String fileName = tempDir.resolve("Fido").toString();
+        SaveLoadManager.saveGame(fileName, new GameState(pet));
+        GameState loaded = SaveLoadManager.loadGame(fileName + ".ser");
+        assertNotNull(loaded);
+        assertSamePet(pet, loaded.getPet());
+    }
+
+    @Test
+    public void testLoadsLegacySerializedSave() throws IOException {
+        Path legacy = tempDir.resolve("Legacy.ser");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(legacy.toFile()))) {
+            out.writeObject(new GameState(pet));
+        }
+        GameState loaded = SaveLoadManager.loadGame(legacy.toString());
+        assertNotNull(loaded);
+        assertSamePet(pet, loaded.getPet());
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.ArrayList;
+
+/**
+ * Compares name lookups in the indexed inventory with the linear scan it replaced, at 6, 100 and 10,000 items.
+ * Run with: java -cp (classpath) InventoryBenchmark [iterations]
+ */
+public class InventoryBenchmark {
+
+    private static final int[] SIZES = {6, 100, 10_000};
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (int size : SIZES) {
+            Inventory inventory = new Inventory();
+            ArrayList<Item> items = new ArrayList<>();
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = "Item " + i;
+                Item item = new Item(names[i], "Food", 10);
+                inventory.addNewItem(item);
+                items.add(item);
+            }
+            // Look names up with different case, like the scenes do
+            String[] lookups = new String[1024];
+            for (int i = 0; i < lookups.length; i++) {
+                lookups[i] = names[(i * 7919) % size].toUpperCase();
+            }
+
+            int scanIterations = Math.max(1000, iterations / Math.max(1, size / 6));
+            for (int warmup = 0; warmup < 3; warmup++) {
+                indexed(inventory, lookups, iterations);
+                scan(items, lookups, scanIterations);
+            }
+            double indexedNanos = indexed(inventory, lookups, iterations);
+            double scanNanos = scan(items, lookups, scanIterations);
+            System.out.printf("%,6d items:  indexed %.1f ns/lookup, linear scan %.1f ns/lookup%n", size, indexedNanos, scanNanos);
+        }
+    }
+
+    /** Measures updateItemQuantity followed by getItemQuantity, the path used by gacha rolls. */
+    private static double indexed(Inventory inventory, String[] lookups, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String name = lookups[i & (lookups.length - 1)];
+            inventory.updateItemQuantity(name, 1);
+            sink += inventory.getItemQuantity(name);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return (double) elapsed / iterations;
+    }
+
+    /** The same work done with the linear equalsIgnoreCase scan the inventory used before. */
+    private static double scan(ArrayList<Item> items, String[] lookups, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String name = lookups[i & (lookups.length - 1)];
+            for (Item item : items) {
+                if (item.getItemName().equalsIgnoreCase(name)) {
+                    item.updateQuantity(1);
+                }
+            }
+            for (Item item : items) {
+                if (item.getItemName().equalsIgnoreCase(name)) {
+                    sink += item.getQuantity();
+                    break;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return (double) elapsed / iterations;
+    }
+}
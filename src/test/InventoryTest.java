@@ -82,4 +82,55 @@ public class InventoryTest {
         inventory.addNewItem(item);
         assertEquals(40, inventory.getItemScoreIncrease("Burger"));
     }
+
+    @Test
+    public void testLookupIgnoresCase() {
+        Item item = new Item("Soccer Ball", "gift", 10);
+        inventory.addNewItem(item);
+        inventory.updateItemQuantity("SOCCER ball", 2);
+        assertEquals(2, inventory.getItemQuantity("soccer BALL"));
+        assertTrue(inventory.hasItem("soccer ball"));
+        assertThrows(IllegalArgumentException.class, () -> inventory.addNewItem(new Item("sOcCeR bAlL", "gift", 5)));
+    }
+
+    @Test
+    public void testDeleteThenAddAgain() {
+        inventory.addNewItem(new Item("Burger", "food", 25));
+        inventory.deleteItem("burger");
+        assertFalse(inventory.hasItem("Burger"));
+        assertEquals(0, inventory.getItems().size());
+
+        inventory.addNewItem(new Item("BURGER", "food", 30));
+        assertEquals(30, inventory.getItemScoreIncrease("Burger"));
+    }
+
+    @Test
+    public void testKeepsInsertionOrder() {
+        inventory.addNewItem(new Item("Burger", "food", 25));
+        inventory.addNewItem(new Item("Pizza", "food", 50));
+        inventory.addNewItem(new Item("Salad", "food", 100));
+        inventory.deleteItem("Pizza");
+        assertEquals("Burger", inventory.getItems().get(0).getItemName());
+        assertEquals("Salad", inventory.getItems().get(1).getItemName());
+    }
+
+    @Test
+    public void testLookupAfterSerialization() throws Exception {
+        inventory.addNewItem(new Item("Burger", "food", 25));
+        inventory.updateItemQuantity("Burger", 3);
+
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        try (java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes)) {
+            out.writeObject(inventory);
+        }
+        Inventory loaded;
+        try (java.io.ObjectInputStream in = new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (Inventory) in.readObject();
+        }
+
+        assertEquals(3, loaded.getItemQuantity("burger"));
+        loaded.addNewItem(new Item("Pizza", "food", 50));
+        assertTrue(loaded.hasItem("PIZZA"));
+        assertThrows(IllegalArgumentException.class, () -> loaded.addNewItem(new Item("burger", "food", 1)));
+    }
 }
@@ -0,0 +1,44 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how many pet journal records per second can be sustained, including batched writes to disk and compaction.
+ * Run with: java -cp (classpath) JournalBenchmark [seconds]
+ */
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path folder = Files.createTempDirectory("journal-benchmark");
+        String fileName = folder.resolve("Bench").toString();
+
+        Inventory inventory = new Inventory();
+        inventory.addNewItem(new Item("Burger", "Food", 20));
+        Pet pet = new Pet("Bench", "Dog", inventory, new Gacha(inventory));
+        PetJournal.attach(fileName, pet);
+        SaveService.flush();
+
+        // Every iteration records 6 changes, like a busy stat tick followed by feeding the pet
+        long records = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++) {
+                pet.decrementAllStats(1);
+                pet.incrementCoins(1);
+                pet.updateItemQuantity("Burger", 1);
+                pet.giveItem("Burger");
+            }
+            records += 6000;
+        }
+        PetJournal.closeCurrent();
+        SaveService.flush();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Records:  %,d in %.2f s (%,.0f records/s, including the final flush)%n",
+                records, elapsed / 1e9, records / (elapsed / 1e9));
+        System.out.printf("Snapshots:  one every %,d records, journal left at %,d bytes%n",
+                PetJournal.COMPACT_AFTER_RECORDS, Files.size(folder.resolve("Bench.journal")));
+        System.out.println("Flushes to disk:  every " + PetJournal.FLUSH_INTERVAL_MILLIS + " ms");
+    }
+}
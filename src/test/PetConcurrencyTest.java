@@ -0,0 +1,213 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Stress tests that change one pet from many threads at once. */
+public class PetConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20_000;
+
+    private Pet pet;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        pet = new Pet("Fido", "Dog", inventory, new Gacha(inventory, 1L));
+    }
+
+    @Test
+    public void testNoUpdateIsLost() throws InterruptedException {
+        AtomicInteger scoreEvents = new AtomicInteger();
+        pet.addListener(new PetListener() {
+            @Override
+            public void onStatChanged(Pet pet, int stat, int oldValue, int newValue) {
+                if (stat == Pet.SCORE) {
+                    scoreEvents.incrementAndGet();
+                }
+            }
+        });
+        runAtOnce(THREADS, i -> {
+            for (int r = 0; r < ROUNDS; r++) {
+                // Every stat goes up and back down, so none of them reaches 0 or 100
+                pet.incrementHealth(1);
+                pet.incrementEnergy(1);
+                pet.incrementFullness(1);
+                pet.incrementHappiness(1);
+                pet.incrementHealth(-1);
+                pet.incrementEnergy(-1);
+                pet.incrementFullness(-1);
+                pet.incrementHappiness(-1);
+                pet.incrementScore(1);
+                pet.incrementCoins(2);
+            }
+        });
+        assertEquals(75, pet.getHealth());
+        assertEquals(75, pet.getEnergy());
+        assertEquals(75, pet.getFullness());
+        assertEquals(75, pet.getHappiness());
+        assertEquals(THREADS * ROUNDS, pet.getScore());
+        assertEquals(2 * THREADS * ROUNDS, pet.getCoins());
+        assertEquals(THREADS * ROUNDS, scoreEvents.get());
+    }
+
+    @Test
+    public void testStatsStayClamped() throws InterruptedException {
+        runAtOnce(THREADS, i -> {
+            for (int r = 0; r < ROUNDS; r++) {
+                pet.incrementHealth(i % 2 == 0 ? 7 : -7);
+                pet.decrementAllStats(3);
+                pet.incrementEnergy(5);
+                int health = pet.getHealth();
+                if (health < 0 || health > 100) {
+                    throw new AssertionError("Health out of range: " + health);
+                }
+            }
+        });
+        PetSnapshot snapshot = pet.snapshot();
+        assertTrue(snapshot.getHealth() >= 0 && snapshot.getHealth() <= 100);
+        assertTrue(snapshot.getEnergy() >= 0 && snapshot.getEnergy() <= 100);
+        assertEquals(0, snapshot.getFullness());
+        assertEquals(0, snapshot.getHappiness());
+    }
+
+    @Test
+    public void testStatsAboveMaxStatAreLowered() {
+        Pet big = PetFixtures.createPet(1_000_000, 1_000_000, 1_000_000, 1_000_000, 1_000_000, false, false, 0);
+        assertEquals(Pet.MAX_STAT, big.getMaxHealth());
+        assertEquals(Pet.MAX_STAT, big.getHealth());
+        assertEquals(Pet.MAX_STAT, big.getHappiness());
+
+        pet.setMaxEnergy(Pet.MAX_STAT + 1);
+        assertEquals(Pet.MAX_STAT, pet.getMaxEnergy());
+        pet.incrementEnergy(Integer.MAX_VALUE / 2);
+        assertEquals(Pet.MAX_STAT, pet.getEnergy());
+    }
+
+    @Test
+    public void testCoinsAreNeverSpentTwice() throws InterruptedException {
+        pet.incrementCoins(10_000);
+        AtomicInteger spent = new AtomicInteger();
+        runAtOnce(THREADS, i -> {
+            while (pet.spendCoins(3)) {
+                spent.addAndGet(3);
+            }
+        });
+        assertEquals(9_999, spent.get());
+        assertEquals(1, pet.getCoins());
+    }
+
+    @Test
+    public void testSnapshotIsAPointInTime() throws InterruptedException {
+        pet.setMaxEnergy(Pet.MAX_STAT);
+        pet.setMaxFullness(Pet.MAX_STAT);
+        pet.setMaxHappiness(Pet.MAX_STAT);
+        pet.incrementEnergy(Pet.MAX_STAT);
+        pet.incrementFullness(Pet.MAX_STAT);
+        pet.incrementHappiness(Pet.MAX_STAT);
+
+        CountDownLatch done = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            // The score goes up just before the stats go down, so score + energy is always MAX_STAT or MAX_STAT + 1
+            for (int i = 0; i < Pet.MAX_STAT; i++) {
+                pet.incrementScore(1);
+                pet.decrementAllStats(1);
+            }
+            done.countDown();
+        });
+        List<String> errors = new ArrayList<>();
+        writer.start();
+        int lastScore = 0;
+        while (done.getCount() > 0) {
+            PetSnapshot snapshot = pet.snapshot();
+            int sum = snapshot.getScore() + snapshot.getEnergy();
+            if (sum != Pet.MAX_STAT && sum != Pet.MAX_STAT + 1) {
+                errors.add("score " + snapshot.getScore() + " with energy " + snapshot.getEnergy());
+            }
+            if (snapshot.getEnergy() != snapshot.getFullness() || snapshot.getFullness() != snapshot.getHappiness()) {
+                errors.add("stats " + snapshot.getEnergy() + " " + snapshot.getFullness() + " " + snapshot.getHappiness());
+            }
+            if (snapshot.getScore() < lastScore) {
+                errors.add("score went back to " + snapshot.getScore());
+            }
+            lastScore = snapshot.getScore();
+        }
+        writer.join();
+        assertEquals(List.of(), errors);
+        assertEquals(Pet.MAX_STAT, pet.getScore());
+        assertEquals(0, pet.getEnergy());
+    }
+
+    @Test
+    public void testSerializationKeepsPackedStats() throws IOException, ClassNotFoundException {
+        pet.incrementHealth(-30);
+        pet.incrementEnergy(10);
+        pet.decrementAllStats(5);
+        pet.incrementScore(1234);
+        pet.incrementCoins(56);
+        pet.setSleepingState(true);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pet);
+        }
+        Pet loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (Pet) in.readObject();
+        }
+        assertEquals("Fido", loaded.getName());
+        assertEquals(45, loaded.getHealth());
+        assertEquals(80, loaded.getEnergy());
+        assertEquals(70, loaded.getFullness());
+        assertEquals(70, loaded.getHappiness());
+        assertEquals(1234, loaded.getScore());
+        assertEquals(56, loaded.getCoins());
+        assertTrue(loaded.IsInSleepingState());
+        assertEquals(100, loaded.getMaxHealth());
+
+        loaded.incrementCoins(4);
+        assertEquals(60, loaded.getCoins());
+    }
+
+    /** Helper interface for the body of each thread. */
+    private interface Worker {
+        void run(int index) throws Exception;
+    }
+
+    /** Helper method that starts every thread at the same time and waits for all of them, failing if any of them failed. */
+    private static void runAtOnce(int threads, Worker worker) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(index);
+                } catch (Throwable t) {
+                    synchronized (failures) {
+                        failures.add(t);
+                    }
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+    }
+}
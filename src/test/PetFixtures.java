@@ -0,0 +1,36 @@
+/** Pets and helpers shared by the simulation and fleet tests. */
+final class PetFixtures {
+
+    private PetFixtures() {
+    }
+
+    /** Creates a pet with the same max for every stat, at the first evolution stage. */
+    static Pet createPet(int health, int energy, int fullness, int happiness, int max,
+            boolean angry, boolean sleeping, int coins) {
+        Inventory inventory = new Inventory();
+        return new Pet("Fido", "Dog", inventory, new Gacha(inventory, 1L),
+                health, energy, fullness, happiness, max, max, max, max, angry, sleeping, 0, coins, 1);
+    }
+
+    /** Runs the timers second by second, like the game does while it is open. */
+    static long runSecondBySecond(Pet pet, long seconds) {
+        PetSimulation reference = new PetSimulation(pet);
+        long statTicks = 0;
+        for (long s = 1; s <= seconds && !pet.isDead(); s++) {
+            if (pet.IsInSleepingState()) reference.sleepTick();
+            if (pet.IsInAngryState()) reference.angryTick();
+            if (s % 3 == 0) {
+                reference.tick();
+                statTicks++;
+            }
+        }
+        return statTicks;
+    }
+
+    /** Describes the stats, coins, score and states of a pet, so two pets can be compared in one assertion. */
+    static String describe(Pet pet) {
+        return pet.getHealth() + "/" + pet.getEnergy() + "/" + pet.getFullness() + "/" + pet.getHappiness()
+                + " coins " + pet.getCoins() + " score " + pet.getScore()
+                + (pet.IsInSleepingState() ? " sleeping" : "") + (pet.IsInAngryState() ? " angry" : "");
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+
+public class PetFleetTest {
+
+    @Test
+    public void testRunsTheSameRulesAsTheSimulation() {
+        Random random = new Random(7);
+        int count = 5000;
+        Pet[] pets = new Pet[count];
+        PetFleet fleet = new PetFleet(0);
+        for (int i = 0; i < count; i++) {
+            int max = random.nextInt(4) == 0 ? 100 + random.nextInt(900) : 100;
+            int[] stats = new int[4];
+            for (int s = 0; s < stats.length; s++) {
+                stats[s] = random.nextInt(5) == 0 ? 0 : random.nextInt(max + 1);
+            }
+            pets[i] = PetFixtures.createPet(stats[0], stats[1], stats[2], stats[3], max, random.nextBoolean(), random.nextBoolean(), random.nextInt(50));
+            assertEquals(i, fleet.add(pets[i]));
+        }
+
+        // Two calls, so the stat ticks must keep their place across calls
+        fleet.runSeconds(40);
+        fleet.runSeconds(80);
+        for (int i = 0; i < count; i++) {
+            PetFixtures.runSecondBySecond(pets[i], 120);
+            assertEquals(PetFixtures.describe(pets[i]), PetFixtures.describe(fleet.toPet(i, "Fido", "Dog", null, null)), "Pet " + i);
+        }
+    }
+
+    @Test
+    public void testTickMatchesOneStatTick() {
+        Pet pet = PetFixtures.createPet(30, 5, 0, 10, 100, false, false, 3);
+        PetFleet fleet = new PetFleet(1);
+        fleet.add(pet);
+        fleet.tick();
+        new PetSimulation(pet).tick();
+        assertEquals(PetFixtures.describe(pet), PetFixtures.describe(fleet.toPet(0, "Fido", "Dog", null, null)));
+        assertTrue(fleet.isSleeping(0));
+        assertTrue(fleet.isAngry(0));
+    }
+
+    @Test
+    public void testDeadPetsAreSkipped() {
+        PetFleet fleet = new PetFleet(2);
+        fleet.addNew();
+        fleet.incrementStat(0, Pet.HEALTH, -1000);
+        fleet.tick();
+        fleet.runSeconds(60);
+        assertTrue(fleet.isDead(0));
+        assertEquals(0, fleet.getStat(0, Pet.COINS));
+        assertEquals(75, fleet.getStat(0, Pet.ENERGY));
+    }
+
+    @Test
+    public void testIncrementStatClamps() {
+        PetFleet fleet = new PetFleet(0);
+        fleet.addNew();
+        fleet.incrementStat(0, Pet.HAPPINESS, 500);
+        assertEquals(100, fleet.getStat(0, Pet.HAPPINESS));
+        fleet.incrementStat(0, Pet.COINS, -5);
+        assertEquals(0, fleet.getStat(0, Pet.COINS));
+        fleet.incrementStat(0, Pet.SCORE, 1200);
+        assertEquals(1200, fleet.getStat(0, Pet.SCORE));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.getStat(1, Pet.HEALTH));
+        assertThrows(IllegalArgumentException.class, () -> fleet.getStat(0, 42));
+    }
+
+    @Test
+    public void testConvertsBackToPet() {
+        Inventory inventory = new Inventory();
+        Pet pet = new Pet("Rex", "Cat", inventory, null);
+        pet.incrementScore(600);
+        pet.evolve();
+        pet.setSleepingState(true);
+        PetFleet fleet = new PetFleet(1);
+        fleet.add(pet);
+
+        Pet copy = fleet.toPet(0, "Rex", "Cat", inventory, null);
+        assertEquals(PetFixtures.describe(pet), PetFixtures.describe(copy));
+        assertEquals(2, copy.getEvoLevel());
+        assertEquals(600, copy.getScore());
+        assertSame(inventory, copy.getInventory());
+    }
+
+    @Test
+    public void testKernelsGiveTheSameResults() {
+        assumeTrue(PetFleet.isVectorAvailable(), "Run with the vector kernel compiled and --add-modules jdk.incubator.vector");
+        // Not a multiple of any vector length, so the scalar tail runs too
+        int count = 10_007;
+        PetFleet scalar = new PetFleet(count);
+        PetFleet vector = new PetFleet(count);
+        scalar.setVectorized(false);
+        vector.setVectorized(true);
+        Random random = new Random(11);
+        for (int i = 0; i < count; i++) {
+            int max = random.nextInt(4) == 0 ? 100 + random.nextInt(900) : 100;
+            int[] stats = new int[4];
+            for (int s = 0; s < stats.length; s++) {
+                stats[s] = random.nextInt(5) == 0 ? 0 : random.nextInt(max + 1);
+            }
+            int coins = random.nextInt(10) == 0 ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt(50);
+            Pet pet = PetFixtures.createPet(stats[0], stats[1], stats[2], stats[3], max, random.nextBoolean(), random.nextBoolean(), coins);
+            scalar.add(pet);
+            vector.add(pet);
+        }
+
+        for (PetFleet fleet : new PetFleet[] {scalar, vector}) {
+            fleet.tick();
+            fleet.runSeconds(7);
+            fleet.runSeconds(50);
+            fleet.tick();
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(PetFixtures.describe(scalar.toPet(i, "Fido", "Dog", null, null)), PetFixtures.describe(vector.toPet(i, "Fido", "Dog", null, null)), "Pet " + i);
+        }
+    }
+
+    @Test
+    public void testChoosingTheKernel() {
+        PetFleet fleet = new PetFleet(0);
+        assertEquals(PetFleet.isVectorAvailable(), fleet.isVectorized());
+        fleet.setVectorized(false);
+        assertFalse(fleet.isVectorized());
+        if (PetFleet.isVectorAvailable()) {
+            fleet.setVectorized(true);
+            assertTrue(fleet.isVectorized());
+        } else {
+            assertThrows(UnsupportedOperationException.class, () -> fleet.setVectorized(true));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class PetJournalTest {
+
+    private Pet pet;
+    private String fileName;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        Item burger = new Item("Burger", "Food", 20);
+        Item soccer = new Item("Soccer Ball", "Gift", 10);
+        inventory.addNewItem(burger);
+        inventory.addNewItem(soccer);
+        Gacha gacha = new Gacha(inventory);
+        gacha.addNewItem(soccer, 60);
+        pet = new Pet("Fido", "Dog", inventory, gacha);
+        fileName = tempDir.resolve("Fido").toString();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PetJournal.closeCurrent();
+        SaveService.flush();
+    }
+
+    private void flush(PetJournal journal) {
+        SaveService.execute(journal::flush);
+        SaveService.flush();
+    }
+
+    private Pet load() {
+        GameState loaded = SaveLoadManager.loadGame(fileName + ".ser");
+        assertNotNull(loaded);
+        return loaded.getPet();
+    }
+
+    private void play() {
+        pet.incrementHealth(-10);
+        pet.incrementEnergy(-75);
+        pet.isSleeping();
+        pet.decrementAllStats(8);
+        pet.incrementScore(120);
+        pet.incrementCoins(7);
+        pet.updateItemQuantity("Burger", 3);
+        pet.giveItem("Burger");
+        pet.evolve();
+    }
+
+    private static void assertSamePet(Pet expected, Pet actual) {
+        assertEquals(expected.getHealth(), actual.getHealth());
+        assertEquals(expected.getEnergy(), actual.getEnergy());
+        assertEquals(expected.getFullness(), actual.getFullness());
+        assertEquals(expected.getHappiness(), actual.getHappiness());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getCoins(), actual.getCoins());
+        assertEquals(expected.getEvoLevel(), actual.getEvoLevel());
+        assertEquals(expected.IsInSleepingState(), actual.IsInSleepingState());
+        assertEquals(expected.IsInAngryState(), actual.IsInAngryState());
+        assertEquals(expected.getInventory().getItemQuantity("Burger"), actual.getInventory().getItemQuantity("Burger"));
+    }
+
+    @Test
+    public void testAttachWritesSnapshot() {
+        PetJournal.attach(fileName, pet);
+        SaveService.flush();
+        assertTrue(Files.exists(tempDir.resolve("Fido.ser")));
+        assertTrue(Files.exists(tempDir.resolve("Fido.journal")));
+    }
+
+    @Test
+    public void testReplaysFlushedChanges() {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        play();
+        flush(journal);
+
+        assertSamePet(pet, load());
+    }
+
+    @Test
+    public void testUnflushedChangesAreLost() {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        pet.incrementScore(50);
+        flush(journal);
+        pet.incrementScore(50);
+
+        assertEquals(50, load().getScore());
+    }
+
+    @Test
+    public void testGachaRollIsRecorded() {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        pet.getGacha().rollGacha();
+        flush(journal);
+
+        assertEquals(1, load().getInventory().getItemQuantity("Soccer Ball"));
+        assertEquals(pet.getGacha().getRandom().getCount(), load().getGacha().getRandom().getCount());
+    }
+
+    @Test
+    public void testCompactsAfterThreshold() throws IOException {
+        PetJournal journal = PetJournal.attach(fileName, pet, 10);
+        for (int i = 0; i < 25; i++) {
+            pet.incrementScore(1);
+        }
+        flush(journal);
+
+        // 25 records, compacted at 10 and 20, leaves 5 records after the header
+        assertEquals(14 + 5 * 5, Files.size(tempDir.resolve("Fido.journal")));
+        assertEquals(25, load().getScore());
+    }
+
+    @Test
+    public void testSaveRestartsJournal() {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        pet.incrementScore(10);
+        SaveService.saveGame(fileName, new GameState(pet), null);
+        pet.incrementScore(10);
+        flush(journal);
+
+        assertEquals(20, load().getScore());
+    }
+
+    @Test
+    public void testJournalOfOlderSaveIsIgnored() {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        pet.incrementScore(10);
+        flush(journal);
+        PetJournal.closeCurrent();
+        SaveService.flush();
+
+        // A save written without the journal, like a revived pet
+        Pet other = new Pet("Fido", "Dog", new Inventory(), null);
+        other.incrementScore(3);
+        SaveLoadManager.saveGame(fileName, new GameState(other));
+
+        assertEquals(3, load().getScore());
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws IOException {
+        PetJournal journal = PetJournal.attach(fileName, pet);
+        pet.incrementScore(10);
+        flush(journal);
+        PetJournal.closeCurrent();
+        SaveService.flush();
+
+        // Half of a score record, as if the game crashed while writing it
+        Files.write(tempDir.resolve("Fido.journal"), new byte[] {PetJournal.SCORE, 0, 0}, StandardOpenOption.APPEND);
+
+        assertEquals(10, load().getScore());
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PetListenerTest {
+
+    private Pet pet;
+    private List<String> events;
+    private PetListener listener;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        pet = new Pet("Fido", "Dog", inventory, new Gacha(inventory, 1L));
+        events = new ArrayList<>();
+        listener = new PetListener() {
+            @Override
+            public void onStatChanged(Pet pet, int stat, int oldValue, int newValue) { events.add("stat " + stat + " " + oldValue + "->" + newValue); }
+            @Override
+            public void onThresholdCrossed(Pet pet, int stat, boolean low) { events.add((low ? "low " : "ok ") + stat); }
+            @Override
+            public void onSleepingChanged(Pet pet, boolean sleeping) { events.add(sleeping ? "asleep" : "awake"); }
+            @Override
+            public void onAngryChanged(Pet pet, boolean angry) { events.add(angry ? "angry" : "calmed"); }
+            @Override
+            public void onDied(Pet pet) { events.add("died"); }
+            @Override
+            public void onEvolved(Pet pet, int evoLevel) { events.add("evolved " + evoLevel); }
+        };
+        pet.addListener(listener);
+    }
+
+    @Test
+    public void testOnlyChangesAreReported() {
+        pet.incrementHealth(10);
+        pet.incrementHealth(10);
+        pet.incrementCoins(-5);
+        assertEquals(List.of("stat " + Pet.HEALTH + " 75->85", "stat " + Pet.HEALTH + " 85->95"), events);
+
+        events.clear();
+        pet.incrementHealth(10);
+        pet.incrementHealth(10);
+        assertEquals(List.of("stat " + Pet.HEALTH + " 95->100"), events);
+    }
+
+    @Test
+    public void testThresholdsAreReportedWhenCrossed() {
+        pet.incrementFullness(-70);
+        pet.incrementFullness(-70);
+        pet.incrementFullness(-70);
+        pet.incrementFullness(30);
+        assertEquals(List.of(
+                "stat " + Pet.FULLNESS + " 75->5",
+                "stat " + Pet.FULLNESS + " 5->0", "low " + Pet.FULLNESS,
+                "stat " + Pet.FULLNESS + " 0->30", "ok " + Pet.FULLNESS), events);
+
+        events.clear();
+        pet.incrementHealth(-50);
+        pet.incrementHealth(-1);
+        assertEquals(List.of("stat " + Pet.HEALTH + " 75->25", "low " + Pet.HEALTH, "stat " + Pet.HEALTH + " 25->24"), events);
+    }
+
+    @Test
+    public void testStateChecksDoNotChangeThePet() {
+        pet.decrementAllStats(75);
+        events.clear();
+        assertTrue(pet.isSleeping());
+        assertTrue(pet.isAngry());
+        assertFalse(pet.isStillSleeping());
+        assertFalse(pet.isStillAngry());
+        assertFalse(pet.isNormal());
+        assertFalse(pet.IsInSleepingState());
+        assertFalse(pet.IsInAngryState());
+        assertTrue(events.isEmpty());
+
+        pet.setSleepingState(true);
+        pet.incrementEnergy(100);
+        // Full energy, but only the simulation wakes the pet up
+        assertFalse(pet.isStillSleeping());
+        assertTrue(pet.IsInSleepingState());
+    }
+
+    @Test
+    public void testSleepingAndAngerReportedOnce() {
+        PetSimulation simulation = new PetSimulation(pet);
+        pet.decrementAllStats(75);
+        simulation.updateState();
+        simulation.updateState();
+        assertEquals(1, events.stream().filter("asleep"::equals).count());
+        assertEquals(1, events.stream().filter("angry"::equals).count());
+
+        events.clear();
+        pet.incrementHappiness(50);
+        simulation.angryTick();
+        simulation.angryTick();
+        assertEquals(List.of("stat " + Pet.HAPPINESS + " 0->50", "ok " + Pet.HAPPINESS, "calmed"), events);
+    }
+
+    @Test
+    public void testDeathReportedOnce() {
+        PetSimulation simulation = new PetSimulation(pet);
+        while (!pet.isDead()) {
+            simulation.tick();
+        }
+        simulation.updateState();
+        simulation.tick();
+        assertEquals(1, events.stream().filter("died"::equals).count());
+    }
+
+    @Test
+    public void testSimulationEvolvesAtScores() {
+        new PetSimulation(pet);
+        pet.incrementScore(499);
+        assertEquals(1, pet.getEvoLevel());
+        pet.incrementScore(1);
+        assertEquals(2, pet.getEvoLevel());
+        pet.incrementScore(5000);
+        assertEquals(3, pet.getEvoLevel());
+        pet.incrementScore(5000);
+        assertEquals(3, pet.getEvoLevel());
+        assertEquals(List.of("evolved 2", "evolved 3"), events.stream().filter(e -> e.startsWith("evolved")).toList());
+    }
+
+    @Test
+    public void testRemovedListenerIsNotTold() {
+        pet.removeListener(listener);
+        pet.incrementHealth(-10);
+        pet.setSleepingState(true);
+        assertTrue(events.isEmpty());
+    }
+}
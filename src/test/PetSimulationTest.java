@@ -0,0 +1,261 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PetSimulationTest {
+
+    private Pet pet;
+    private PetSimulation simulation;
+    private List<String> events;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        pet = new Pet("Fido", "Dog", inventory, new Gacha(inventory, 1L));
+        simulation = new PetSimulation(pet);
+        events = new ArrayList<>();
+        simulation.addListener(new PetSimulationListener() {
+            @Override
+            public void onStatsChanged(Pet pet) { events.add("stats"); }
+            @Override
+            public void onFellAsleep(Pet pet) { events.add("asleep"); }
+            @Override
+            public void onWokeUp(Pet pet) { events.add("awake"); }
+            @Override
+            public void onAngry(Pet pet) { events.add("angry"); }
+            @Override
+            public void onCalmed(Pet pet) { events.add("calmed"); }
+            @Override
+            public void onDied(Pet pet) { events.add("died"); }
+        });
+    }
+
+    @Test
+    public void testTickDecaysStatsAndGivesCoin() {
+        simulation.tick();
+        assertEquals(75, pet.getHealth());
+        assertEquals(67, pet.getEnergy());
+        assertEquals(67, pet.getFullness());
+        assertEquals(67, pet.getHappiness());
+        assertEquals(1, pet.getCoins());
+        assertEquals(List.of("stats"), events);
+    }
+
+    @Test
+    public void testOutOfEnergyFallsAsleepHungryAndAngry() {
+        pet.decrementAllStats(75);
+        simulation.updateState();
+        // Sleeping penalty, then hunger penalty
+        assertEquals(75 - 40 - 20, pet.getHealth());
+        assertTrue(pet.IsInSleepingState());
+        assertTrue(pet.IsInAngryState());
+        assertEquals(List.of("asleep", "angry"), events);
+    }
+
+    @Test
+    public void testSleepTickWakesUpOnceEnergyIsFull() {
+        pet.setSleepingState(true);
+        simulation.sleepTick();
+        simulation.sleepTick();
+        assertEquals(95, pet.getEnergy());
+        assertEquals(List.of("stats", "stats"), events);
+
+        simulation.sleepTick();
+        assertEquals(100, pet.getEnergy());
+        assertFalse(pet.IsInSleepingState());
+        assertEquals(List.of("stats", "stats", "stats", "awake"), events);
+    }
+
+    @Test
+    public void testSleepTickCanGiveScore() {
+        pet.setSleepingState(true);
+        simulation.sleepTick(15, 15);
+        assertEquals(90, pet.getEnergy());
+        assertEquals(15, pet.getScore());
+    }
+
+    @Test
+    public void testBedroomSleepTickGivesEnergyAndScore() {
+        assertEquals(15, BedroomScene.SLEEP_ENERGY_GAIN);
+        assertEquals(15, BedroomScene.SLEEP_SCORE_GAIN);
+        pet.setSleepingState(true);
+        pet.incrementEnergy(-50);
+        simulation.sleepTick(BedroomScene.SLEEP_ENERGY_GAIN, BedroomScene.SLEEP_SCORE_GAIN);
+        simulation.sleepTick(BedroomScene.SLEEP_ENERGY_GAIN, BedroomScene.SLEEP_SCORE_GAIN);
+        assertEquals(75 - 50 + 30, pet.getEnergy());
+        assertEquals(30, pet.getScore());
+        assertTrue(pet.IsInSleepingState());
+    }
+
+    @Test
+    public void testPlayerActionPublishesOneSnapshotAfterTheStateUpdate() {
+        List<PetSnapshot> snapshots = new ArrayList<>();
+        simulation.addListener(new PetSimulationListener() {
+            @Override
+            public void onSnapshot(PetSnapshot snapshot) { snapshots.add(snapshot); }
+        });
+        pet.decrementAllStats(70);
+        snapshots.clear();
+        simulation.runPlayerAction(() -> {
+            pet.incrementHappiness(80);
+            pet.incrementScore(80);
+            pet.incrementEnergy(-5);
+        });
+        assertEquals(1, snapshots.size());
+        assertTrue(snapshots.get(0).isStillSleeping());
+        assertEquals(80, snapshots.get(0).getScore());
+        assertEquals(List.of("asleep"), events);
+    }
+
+    @Test
+    public void testAngryTickCalmsDownAtHalfHappiness() {
+        pet.incrementHappiness(-75);
+        simulation.updateState();
+        assertEquals(List.of("angry"), events);
+
+        pet.incrementHappiness(49);
+        simulation.angryTick();
+        assertTrue(pet.IsInAngryState());
+
+        pet.incrementHappiness(1);
+        simulation.angryTick();
+        assertFalse(pet.IsInAngryState());
+        assertEquals(List.of("angry", "calmed"), events);
+    }
+
+    @Test
+    public void testPetDiesWithoutCare() {
+        int ticks = 0;
+        while (!pet.isDead()) {
+            simulation.tick();
+            ticks++;
+            assertTrue(ticks < 100, "The pet should die without care");
+        }
+        assertEquals(11, ticks);
+        assertEquals(0, pet.getEnergy());
+        assertEquals(0, pet.getFullness());
+        assertEquals(0, pet.getHappiness());
+        assertEquals("died", events.get(events.size() - 2));
+        assertEquals(1, events.stream().filter("died"::equals).count());
+
+        // Once dead, every update only reports the death
+        events.clear();
+        simulation.updateState();
+        assertEquals(List.of("died"), events);
+    }
+
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        PetSimulation other = new PetSimulation(pet);
+        List<String> seen = new ArrayList<>();
+        PetSimulationListener listener = new PetSimulationListener() {
+            @Override
+            public void onStatsChanged(Pet pet) { seen.add("stats"); }
+        };
+        other.addListener(listener);
+        other.tick();
+        other.removeListener(listener);
+        other.tick();
+        assertEquals(1, seen.size());
+        assertEquals(2, pet.getCoins());
+    }
+
+    @Test
+    public void testFastForwardMatchesSecondBySecond() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int max = random.nextInt(4) == 0 ? 100 + random.nextInt(900) : 100;
+            int[] stats = new int[4];
+            for (int s = 0; s < stats.length; s++) {
+                stats[s] = random.nextInt(5) == 0 ? 0 : random.nextInt(max + 1);
+            }
+            boolean angry = random.nextBoolean();
+            boolean sleeping = random.nextBoolean();
+            int coins = random.nextInt(50);
+            long millis = random.nextInt(3) == 0 ? random.nextInt(600_000) : random.nextInt(30_000);
+
+            Pet expected = PetFixtures.createPet(stats[0], stats[1], stats[2], stats[3], max, angry, sleeping, coins);
+            Pet actual = PetFixtures.createPet(stats[0], stats[1], stats[2], stats[3], max, angry, sleeping, coins);
+            long expectedTicks = PetFixtures.runSecondBySecond(expected, millis / 1000);
+            long actualTicks = new PetSimulation(actual).fastForward(millis);
+
+            String start = PetFixtures.describe(PetFixtures.createPet(stats[0], stats[1], stats[2], stats[3], max, angry, sleeping, coins));
+            assertEquals(PetFixtures.describe(expected), PetFixtures.describe(actual), "From " + start + " (max " + max + ") after " + millis + " ms");
+            assertEquals(expectedTicks, actualTicks, "From " + start + " after " + millis + " ms");
+        }
+    }
+
+    @Test
+    public void testFastForwardAWeekKillsAnUnattendedPet() {
+        long week = 7L * 24 * 60 * 60 * 1000;
+        long statTicks = simulation.fastForward(week);
+        assertTrue(pet.isDead());
+        // The pet dies within a minute, so only those ticks are run
+        assertTrue(statTicks < 30, "Ran " + statTicks + " stat ticks");
+        assertEquals(statTicks, pet.getCoins());
+    }
+
+    @Test
+    public void testFastForwardLessThanASecondChangesNothing() {
+        assertEquals(0, simulation.fastForward(999));
+        assertEquals(0, simulation.fastForward(-5000));
+        assertEquals(75, pet.getEnergy());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testFastForwardUsesStretchesForLargeStats() {
+        Pet big = PetFixtures.createPet(Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, false, false, 0);
+        Pet reference = PetFixtures.createPet(Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, Pet.MAX_STAT, false, false, 0);
+        // Long enough for the stats to run out, so the states change between the stretches
+        long millis = 3L * 60 * 60 * 1000;
+        new PetSimulation(big).fastForward(millis);
+        PetFixtures.runSecondBySecond(reference, millis / 1000);
+        assertEquals(PetFixtures.describe(reference), PetFixtures.describe(big));
+    }
+
+    @Test
+    public void testOneSnapshotPerTick() {
+        List<PetSnapshot> snapshots = new ArrayList<>();
+        simulation.addListener(new PetSimulationListener() {
+            @Override
+            public void onSnapshot(PetSnapshot snapshot) { snapshots.add(snapshot); }
+        });
+        simulation.tick();
+        assertEquals(1, snapshots.size());
+        assertSame(simulation.getSnapshot(), snapshots.get(0));
+        assertEquals(67, snapshots.get(0).getEnergy());
+        assertEquals(1, snapshots.get(0).getCoins());
+
+        // The whole catch up is one change
+        snapshots.clear();
+        simulation.fastForward(60_000);
+        assertEquals(1, snapshots.size());
+    }
+
+    @Test
+    public void testPlayerChangesArePublished() {
+        PetSnapshot before = simulation.getSnapshot();
+        pet.incrementHappiness(-10);
+        PetSnapshot after = simulation.getSnapshot();
+        assertNotSame(before, after);
+        // Snapshots never change
+        assertEquals(75, before.getHappiness());
+        assertEquals(65, after.getHappiness());
+    }
+
+    @Test
+    public void testSnapshotHoldsItemQuantities() {
+        pet.addNewItemToInventory(new Item("Apple", "food", 10));
+        pet.updateItemQuantity("Apple", 3);
+        pet.giveItem("Apple");
+        PetSnapshot snapshot = simulation.getSnapshot();
+        assertEquals(1, snapshot.getItemCount());
+        assertEquals(2, snapshot.getItemQuantity(0));
+        assertEquals(85, snapshot.getFullness());
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Compares save and load latency and size of Java serialization and the binary game state codec.
+ * Run with: java -cp (classpath) SaveFormatBenchmark [iterations]
+ */
+public class SaveFormatBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        GameState gameState = createGameState();
+
+        // Cold start: first save and load in a fresh JVM, where class descriptors and reflection are set up
+        long start = System.nanoTime();
+        byte[] legacy = serialize(gameState);
+        deserialize(legacy);
+        long coldLegacy = System.nanoTime() - start;
+        start = System.nanoTime();
+        byte[] binary = encode(gameState);
+        decode(binary);
+        long coldBinary = System.nanoTime() - start;
+
+        System.out.println("File size:  legacy " + legacy.length + " bytes, binary " + binary.length + " bytes");
+        System.out.printf("Cold save+load:  legacy %.1f us, binary %.1f us%n", coldLegacy / 1000.0, coldBinary / 1000.0);
+
+        // Warm up, then measure steady state
+        for (int i = 0; i < iterations; i++) {
+            deserialize(serialize(gameState));
+            decode(encode(gameState));
+        }
+        System.out.printf("Save:  legacy %.2f us, binary %.2f us%n",
+                time(iterations, () -> serialize(gameState)), time(iterations, () -> encode(gameState)));
+        System.out.printf("Load:  legacy %.2f us, binary %.2f us%n",
+                time(iterations, () -> deserialize(legacy)), time(iterations, () -> decode(binary)));
+    }
+
+    private interface Task {
+        Object run() throws Exception;
+    }
+
+    private static double time(int iterations, Task task) throws Exception {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            System.out.println();
+        }
+        return elapsed / 1000.0 / iterations;
+    }
+
+    private static GameState createGameState() {
+        Item burger = new Item("Burger", "Food", 20);
+        Item pizza = new Item("Pizza", "Food", 50);
+        Item salad = new Item("Salad", "Food", 100);
+        Item soccer = new Item("Soccer Ball", "Gift", 10);
+        Item toycar = new Item("Toy Car", "Gift", 40);
+        Item rubix = new Item("Rubix Cube", "Gift", 70);
+
+        Inventory inventory = new Inventory();
+        inventory.addNewItem(burger);
+        inventory.addNewItem(pizza);
+        inventory.addNewItem(salad);
+        inventory.addNewItem(soccer);
+        inventory.addNewItem(toycar);
+        inventory.addNewItem(rubix);
+        Gacha gacha = new Gacha(inventory);
+        gacha.addNewItem(soccer, 60);
+        gacha.addNewItem(toycar, 30);
+        gacha.addNewItem(rubix, 10);
+
+        return new GameState(new Pet("Fido", "Dog", inventory, gacha));
+    }
+
+    private static byte[] serialize(GameState gameState) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(gameState);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static GameState deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (GameState) in.readObject();
+        }
+    }
+
+    private static byte[] encode(GameState gameState) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameStateCodec.write(gameState, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static GameState decode(byte[] bytes) throws IOException {
+        return GameStateCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+public class SaveIndexTest {
+
+    private Pet pet;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        inventory.addNewItem(new Item("Burger", "Food", 20));
+        pet = new Pet("Fido", "Dog", inventory, new Gacha(inventory));
+        pet.incrementScore(50);
+    }
+
+    private Pet newPet(String name) {
+        Inventory inventory = new Inventory();
+        return new Pet(name, "Cat", inventory, new Gacha(inventory));
+    }
+
+    @Test
+    public void testSaveGameUpdatesIndex() {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        assertTrue(Files.exists(tempDir.resolve(SaveIndex.INDEX_FILE_NAME)));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals("Fido.ser", previews.get(0).getFileName());
+        assertEquals("Fido", previews.get(0).getPetName());
+        assertEquals(50, previews.get(0).getScore());
+    }
+
+    @Test
+    public void testResavingReplacesEntry() {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        pet.incrementScore(25);
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals(75, previews.get(0).getScore());
+    }
+
+    @Test
+    public void testSaveReplacedWithoutIndexIsReadAgain() throws IOException {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        assertEquals(50, SaveIndex.getPreviews(tempDir).get(0).getScore());
+
+        // A newer save of the same pet copied in by hand, so the index still has the old preview
+        Path other = Files.createDirectory(tempDir.resolve("other"));
+        pet.incrementScore(500);
+        SaveLoadManager.saveGame(other.resolve("Fido").toString(), new GameState(pet));
+        Path saveFile = tempDir.resolve("Fido.ser");
+        FileTime indexedTime = Files.getLastModifiedTime(saveFile);
+        Files.copy(other.resolve("Fido.ser"), saveFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(saveFile, FileTime.fromMillis(indexedTime.toMillis() + 5000));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals(550, previews.get(0).getScore());
+    }
+
+    @Test
+    public void testNewestSaveFirst() {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        SaveIndex.update(tempDir, new SavePreview("Fido.ser", pet, 1000));
+        SaveLoadManager.saveGame(tempDir.resolve("Tom").toString(), new GameState(newPet("Tom")));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals("Tom", previews.get(0).getPetName());
+        assertEquals("Fido", previews.get(1).getPetName());
+    }
+
+    @Test
+    public void testDeletedSaveIsDropped() throws IOException {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        SaveLoadManager.saveGame(tempDir.resolve("Tom").toString(), new GameState(newPet("Tom")));
+        Files.delete(tempDir.resolve("Tom.ser"));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals("Fido", previews.get(0).getPetName());
+    }
+
+    @Test
+    public void testMissingIndexIsRebuilt() throws IOException {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        Files.delete(tempDir.resolve(SaveIndex.INDEX_FILE_NAME));
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals("Fido", previews.get(0).getPetName());
+        assertTrue(Files.exists(tempDir.resolve(SaveIndex.INDEX_FILE_NAME)));
+    }
+
+    @Test
+    public void testDamagedIndexIsRebuilt() throws IOException {
+        SaveLoadManager.saveGame(tempDir.resolve("Fido").toString(), new GameState(pet));
+        Files.write(tempDir.resolve(SaveIndex.INDEX_FILE_NAME), new byte[] {1, 2, 3});
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals("Fido", previews.get(0).getPetName());
+    }
+
+    @Test
+    public void testLegacySaveIsIndexed() throws IOException {
+        pet.incrementHealth(-1000);
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tempDir.resolve("Legacy.ser").toFile()))) {
+            out.writeObject(new GameState(pet));
+        }
+        Files.write(tempDir.resolve("TimeInformation.ser"), new byte[] {0});
+
+        List<SavePreview> previews = SaveIndex.getPreviews(tempDir);
+        assertEquals(1, previews.size());
+        assertEquals("Legacy.ser", previews.get(0).getFileName());
+        assertTrue(previews.get(0).isDead());
+    }
+}
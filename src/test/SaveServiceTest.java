@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javafx.application.Platform;
+
+public class SaveServiceTest {
+
+    private Pet pet;
+    private List<Boolean> results;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        Inventory inventory = new Inventory();
+        inventory.addNewItem(new Item("Burger", "Food", 20));
+        pet = new Pet("Fido", "Dog", inventory, new Gacha(inventory));
+        results = new CopyOnWriteArrayList<>();
+        SaveService.setCallbackExecutor(Runnable::run);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SaveService.setCallbackExecutor(Platform::runLater);
+    }
+
+    @Test
+    public void testSaveIsWrittenInBackground() {
+        String fileName = tempDir.resolve("Fido").toString();
+        SaveService.saveGame(fileName, new GameState(pet), results::add);
+        SaveService.flush();
+
+        assertEquals(List.of(true), results);
+        GameState loaded = SaveLoadManager.loadGame(fileName + ".ser");
+        assertNotNull(loaded);
+        assertEquals("Fido", loaded.getPet().getName());
+        assertFalse(Files.exists(tempDir.resolve("Fido.ser.tmp")));
+        assertEquals(1, SaveIndex.getPreviews(tempDir).size());
+    }
+
+    @Test
+    public void testSaveIsSnapshotWhenRequested() {
+        String fileName = tempDir.resolve("Fido").toString();
+        pet.incrementScore(10);
+        SaveService.saveGame(fileName, new GameState(pet), results::add);
+        pet.incrementScore(500);
+        SaveService.flush();
+
+        assertEquals(10, SaveLoadManager.loadGame(fileName + ".ser").getPet().getScore());
+    }
+
+    @Test
+    public void testRepeatedSavesKeepNewestAndNotifyEveryone() {
+        String fileName = tempDir.resolve("Fido").toString();
+        for (int i = 0; i < 50; i++) {
+            pet.incrementScore(1);
+            SaveService.saveGame(fileName, new GameState(pet), results::add);
+        }
+        SaveService.flush();
+
+        assertEquals(50, results.size());
+        assertFalse(results.contains(false));
+        assertEquals(50, SaveLoadManager.loadGame(fileName + ".ser").getPet().getScore());
+    }
+
+    @Test
+    public void testFailedSaveReportsFalse() {
+        String fileName = tempDir.resolve("missing").resolve("Fido").toString();
+        SaveService.saveGame(fileName, new GameState(pet), results::add);
+        SaveService.flush();
+
+        assertEquals(List.of(false), results);
+    }
+
+    @Test
+    public void testFailedSaveKeepsOldFile() throws Exception {
+        String fileName = tempDir.resolve("Fido").toString();
+        pet.incrementScore(10);
+        SaveLoadManager.saveGame(fileName, new GameState(pet));
+
+        // A directory in place of the temporary file makes the next write fail
+        Files.createDirectory(tempDir.resolve("Fido.ser.tmp"));
+        pet.incrementScore(10);
+        SaveService.saveGame(fileName, new GameState(pet), results::add);
+        SaveService.flush();
+
+        assertEquals(List.of(false), results);
+        assertEquals(10, SaveLoadManager.loadGame(fileName + ".ser").getPet().getScore());
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Measures the cost of a tick scheduler pulse as the number of timers grows.
+ * Every timer fires every 250 ms, like a sprite animation, and the scheduler is pulsed at 60 frames per second.
+ * Also measures how much game time the pet's timers cover per frame with the time scale FASTEST.
+ * Run with: java -cp (classpath) SchedulerBenchmark
+ */
+public class SchedulerBenchmark {
+
+    public static void main(String[] args) {
+        for (int timers = 1_000; timers <= 1_000_000; timers *= 10) {
+            TickScheduler scheduler = new TickScheduler();
+            TickScheduler.Channel channel = scheduler.createChannel("bench");
+            long[] runs = new long[1];
+            for (int i = 0; i < timers; i++) {
+                // Spread the first runs, like sprites created at different times
+                channel.schedule(1 + i % 250, 250, () -> runs[0]++);
+            }
+
+            int pulses = 600;
+            long maxFired = 0;
+            long start = System.nanoTime();
+            for (int p = 0; p < pulses; p++) {
+                scheduler.advance(16);
+                maxFired = Math.max(maxFired, scheduler.getFiredLastPulse());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%,9d timers:  %,8.1f us per pulse, %,6.1f ns per fired task, at most %,d tasks per pulse%n",
+                    timers, elapsed / 1e3 / pulses, (double) elapsed / runs[0], maxFired);
+        }
+
+        // The pet's stat, sleep and angry timers, as fast as possible
+        TickScheduler simulation = new TickScheduler();
+        TickScheduler.Channel timers = simulation.createChannel("pet");
+        long[] ticks = new long[1];
+        timers.schedule(PetSimulation.STAT_TICK_MILLIS, PetSimulation.STAT_TICK_MILLIS, () -> ticks[0]++);
+        timers.schedule(PetSimulation.SLEEP_TICK_MILLIS, PetSimulation.SLEEP_TICK_MILLIS, () -> { });
+        timers.schedule(PetSimulation.SLEEP_TICK_MILLIS, PetSimulation.SLEEP_TICK_MILLIS, () -> { });
+        simulation.setTimeScale(TickScheduler.FASTEST);
+        int frames = 120;
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            simulation.advance(16);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Fastest:  %,.0f game seconds per frame (%,.0fx real time), %,d stat ticks in %.2f s%n",
+                simulation.getTimeMillis() / 1000.0 / frames, simulation.getTimeMillis() * 1e6 / elapsed, ticks[0], elapsed / 1e9);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Measures how many pet simulation ticks per second can be run without JavaFX, and how long catching up on a week offline takes.
+ * Every pet is cared for before it dies, so the benchmark covers sleeping, hunger and anger, not only dead pets.
+ * Run with: java -cp (classpath) SimulationBenchmark [seconds]
+ */
+public class SimulationBenchmark {
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Inventory inventory = new Inventory();
+        Pet pet = new Pet("Bench", "Dog", inventory, new Gacha(inventory, 1L));
+        PetSimulation simulation = new PetSimulation(pet);
+
+        long ticks = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 10_000; i++) {
+                simulation.tick();
+                if (pet.IsInSleepingState()) {
+                    simulation.sleepTick();
+                }
+                if (pet.getHealth() < 50) {
+                    // Feed, play with and heal the pet, like a player would
+                    pet.incrementHealth(100);
+                    pet.incrementFullness(100);
+                    pet.incrementHappiness(100);
+                    simulation.angryTick();
+                }
+            }
+            ticks += 10_000;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Ticks:  %,d in %.2f s (%,.0f ticks/s)%n", ticks, elapsed / 1e9, ticks / (elapsed / 1e9));
+        System.out.printf("Pet:  health %d, energy %d, coins %d%n", pet.getHealth(), pet.getEnergy(), pet.getCoins());
+
+        // A week away, for pets with every possible energy
+        long week = 7L * 24 * 60 * 60 * 1000;
+        int runs = 0;
+        long caughtUp = 0;
+        start = System.nanoTime();
+        end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int energy = 0; energy <= 100; energy++) {
+                Pet away = new Pet("Away", "Dog", inventory, null);
+                away.incrementEnergy(energy - away.getEnergy());
+                caughtUp += new PetSimulation(away).fastForward(week);
+                runs++;
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        System.out.printf("Week offline:  %.2f us per catch-up (%,d stat ticks caught up in %,d runs)%n",
+                elapsed / 1e3 / runs, caughtUp, runs);
+    }
+}
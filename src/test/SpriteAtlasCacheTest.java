@@ -0,0 +1,113 @@
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SpriteAtlasCacheTest {
+
+    private AtomicInteger decodes;
+    private volatile String decodingThread;
+
+    @BeforeEach
+    public void setup() {
+        decodes = new AtomicInteger();
+        // No JavaFX toolkit in tests, so a stage is 32 empty frames
+        SpriteAtlasCache.setLoader((petType, evoLevel, frameSize) -> {
+            decodes.incrementAndGet();
+            decodingThread = Thread.currentThread().getName();
+            return Collections.nCopies(SpriteAtlasCache.COLUMNS * SpriteAtlasCache.ROWS, (Image) null);
+        });
+    }
+
+    @Test
+    public void testPrefetchDecodesOnceInTheBackground() {
+        CompletableFuture<List<Image>> prefetched = SpriteAtlasCache.prefetch("Dog", 2, 0);
+        List<Image> frames = SpriteAtlasCache.await(prefetched);
+        assertEquals("sprite-prefetch", decodingThread);
+
+        assertSame(frames, SpriteAtlasCache.acquire("Dog", 2, 0));
+        assertEquals(1, decodes.get());
+        assertEquals(2, SpriteAtlasCache.getReferenceCount("Dog", 2, 0));
+
+        SpriteAtlasCache.release("Dog", 2, 0);
+        SpriteAtlasCache.release("Dog", 2, 0);
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Dog", 2, 0));
+    }
+
+    @Test
+    public void testOnlyAcquiredStagesAreDecoded() {
+        SpriteAtlasCache.acquire("Cat", 1, 0);
+        assertEquals(1, decodes.get());
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Cat", 2, 0));
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Cat", 3, 0));
+        SpriteAtlasCache.release("Cat", 1, 0);
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Cat", 1, 0));
+    }
+
+    @Test
+    public void testFailedDecodeIsTriedAgain() {
+        SpriteAtlasCache.setLoader((petType, evoLevel, frameSize) -> {
+            if (decodes.incrementAndGet() == 1) {
+                throw new NullPointerException("Sprite file could not be found!");
+            }
+            return Collections.emptyList();
+        });
+        assertThrows(NullPointerException.class, () -> SpriteAtlasCache.await(SpriteAtlasCache.prefetch("Duck", 3, 0)));
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Duck", 3, 0));
+
+        assertEquals(List.of(), SpriteAtlasCache.acquire("Duck", 3, 0));
+        assertEquals(2, decodes.get());
+        SpriteAtlasCache.release("Duck", 3, 0);
+    }
+
+    @Test
+    public void testUnknownStageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SpriteAtlasCache.prefetch("Dog", 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> SpriteAtlasCache.acquire("Fish", 1, 0));
+        assertEquals(0, decodes.get());
+    }
+
+    @Test
+    public void testTiersAreCachedApart() {
+        List<Image> small = SpriteAtlasCache.acquire("Dog", 1, 0);
+        List<Image> full = SpriteAtlasCache.acquire("Dog", 1, SpriteAtlasCache.FRAME_SIZES.length - 1);
+        assertNotSame(small, full);
+        assertEquals(2, decodes.get());
+        SpriteAtlasCache.release("Dog", 1, 0);
+        assertEquals(0, SpriteAtlasCache.getReferenceCount("Dog", 1, 0));
+        assertEquals(1, SpriteAtlasCache.getReferenceCount("Dog", 1, SpriteAtlasCache.FRAME_SIZES.length - 1));
+        SpriteAtlasCache.release("Dog", 1, SpriteAtlasCache.FRAME_SIZES.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> SpriteAtlasCache.acquire("Dog", 1, SpriteAtlasCache.FRAME_SIZES.length));
+    }
+
+    @Test
+    public void testTierFitsTheFramesOnScreen() {
+        // A 1280x720 window at 100% shows a frame at 360 pixels
+        assertEquals(1, SpriteAtlasCache.tierFor(360));
+        assertEquals(0, SpriteAtlasCache.tierFor(100));
+        assertEquals(2, SpriteAtlasCache.tierFor(512));
+        assertEquals(SpriteAtlasCache.FRAME_SIZES.length - 1, SpriteAtlasCache.tierFor(5000));
+        assertEquals(18_874_368, SpriteAtlasCache.getStageBytes(1));
+        assertTrue(SpriteAtlasCache.describeTier(1).endsWith("(67% saved)"), SpriteAtlasCache.describeTier(1));
+    }
+
+    @Test
+    public void testTierOnlyGoesUp() {
+        int tier = SpriteAtlasCache.fitFrameSize(600);
+        assertEquals(SpriteAtlasCache.FRAME_SIZES.length - 1, tier);
+        assertEquals(tier, SpriteAtlasCache.fitFrameSize(100));
+        assertEquals(tier, SpriteAtlasCache.getTier());
+    }
+
+    @Test
+    public void testPrefetchFractionIsChecked() {
+        assertThrows(IllegalArgumentException.class, () -> UIUpdate.setPrefetchFraction(1.5));
+        assertThrows(IllegalArgumentException.class, () -> UIUpdate.setPrefetchFraction(Double.NaN));
+        assertEquals(0.8, UIUpdate.getPrefetchFraction());
+    }
+}
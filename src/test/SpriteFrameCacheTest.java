@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SpriteFrameCacheTest {
+
+    private static final int WIDTH = 6;
+    private static final int HEIGHT = 5;
+    private static final int COUNT = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private Path sheet;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        SpriteFrameCache.setFolder(tempDir.resolve(SpriteFrameCache.FOLDER_NAME));
+        sheet = tempDir.resolve("babyDogSprite.png");
+        Files.write(sheet, new byte[] {1, 2, 3, 4, 5});
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SpriteFrameCache.setFolder(Paths.get(System.getProperty("user.dir"), SpriteFrameCache.FOLDER_NAME));
+    }
+
+    /** Fills every frame with its own pattern, so frames that are swapped or shifted are noticed. */
+    private static void fill(int index, byte[] pixels) {
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (byte) (index * 31 + i);
+        }
+    }
+
+    private void writeFrames() {
+        SpriteFrameCache.write(sheet, WIDTH, HEIGHT, COUNT, SpriteFrameCacheTest::fill);
+    }
+
+    /** Returns the names of the files in the cache folder. */
+    private List<String> listCacheFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve(SpriteFrameCache.FOLDER_NAME))) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testReadsBackTheWrittenFrames() throws IOException {
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+        writeFrames();
+        assertTrue(Files.exists(SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT)));
+        // No temporary file is left behind
+        assertEquals(List.of(SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT).getFileName().toString()), listCacheFiles());
+
+        List<ByteBuffer> frames = SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT);
+        assertNotNull(frames);
+        assertEquals(COUNT, frames.size());
+        byte[] expected = new byte[WIDTH * HEIGHT * SpriteFrameCache.BYTES_PER_PIXEL];
+        for (int i = 0; i < COUNT; i++) {
+            ByteBuffer frame = frames.get(i);
+            assertTrue(frame.isDirect());
+            assertEquals(expected.length, frame.remaining());
+            byte[] actual = new byte[expected.length];
+            frame.get(actual);
+            fill(i, expected);
+            assertArrayEquals(expected, actual, "Frame " + i);
+        }
+    }
+
+    @Test
+    public void testCacheIsKeptApartByFrameSize() throws IOException {
+        writeFrames();
+        assertNull(SpriteFrameCache.read(sheet, WIDTH * 2, HEIGHT * 2, COUNT));
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT + 1));
+        assertNotEquals(SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT), SpriteFrameCache.getCachePath(sheet, WIDTH * 2, HEIGHT * 2));
+    }
+
+    @Test
+    public void testChangedSheetMakesCacheStale() throws IOException {
+        writeFrames();
+        Files.setLastModifiedTime(sheet, FileTime.fromMillis(Files.getLastModifiedTime(sheet).toMillis() + 5000));
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+
+        // Writing again makes the file of the new version, and deletes the stale one nothing mapped
+        writeFrames();
+        assertNotNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+        assertEquals(1, listCacheFiles().size());
+
+        FileTime modified = Files.getLastModifiedTime(sheet);
+        Files.write(sheet, new byte[] {1, 2, 3, 4, 5, 6});
+        Files.setLastModifiedTime(sheet, modified);
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+    }
+
+    @Test
+    public void testMappedFileIsNeverReplaced() throws IOException {
+        writeFrames();
+        Path oldPath = SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT);
+        List<ByteBuffer> oldFrames = SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT);
+        assertNotNull(oldFrames);
+        long oldModified = Files.getLastModifiedTime(oldPath).toMillis();
+
+        // Written again while mapped: nothing to do
+        writeFrames();
+        assertEquals(List.of(oldPath.getFileName().toString()), listCacheFiles());
+
+        // The sheet changed while its old frames are still shown: they go to a new file beside the mapped one
+        Files.setLastModifiedTime(sheet, FileTime.fromMillis(Files.getLastModifiedTime(sheet).toMillis() + 5000));
+        Path newPath = SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT);
+        assertNotEquals(oldPath, newPath);
+        writeFrames();
+        assertTrue(Files.exists(oldPath));
+        assertEquals(oldModified, Files.getLastModifiedTime(oldPath).toMillis());
+        assertTrue(Files.exists(newPath));
+        assertNotNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+        assertEquals((byte) 31, oldFrames.get(1).get(0));
+    }
+
+    @Test
+    public void testOlderUnversionedFileIsDeleted() throws IOException {
+        Path folder = Files.createDirectories(tempDir.resolve(SpriteFrameCache.FOLDER_NAME));
+        Files.write(folder.resolve("babyDogSprite-6x5.frames"), new byte[] {1, 2, 3});
+        Files.write(folder.resolve("babyDogSprite-6x50.frames"), new byte[] {1, 2, 3});
+        writeFrames();
+        // Only the file of another frame size is kept
+        assertEquals(List.of(SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT).getFileName().toString(), "babyDogSprite-6x50.frames"),
+                listCacheFiles());
+    }
+
+    @Test
+    public void testSheetWithTheSameNameElsewhereIsNotCached() throws IOException {
+        writeFrames();
+        Path other = Files.createDirectory(tempDir.resolve("other")).resolve(sheet.getFileName());
+        Files.copy(sheet, other);
+        Files.setLastModifiedTime(other, Files.getLastModifiedTime(sheet));
+        assertNull(SpriteFrameCache.read(other, WIDTH, HEIGHT, COUNT));
+    }
+
+    @Test
+    public void testDamagedCacheIsIgnored() throws IOException {
+        writeFrames();
+        Path cachePath = SpriteFrameCache.getCachePath(sheet, WIDTH, HEIGHT);
+        try (RandomAccessFile file = new RandomAccessFile(cachePath.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+
+        Files.write(cachePath, new byte[] {0, 1});
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+    }
+
+    @Test
+    public void testMissingSheetIsNotCached() throws IOException {
+        writeFrames();
+        Files.delete(sheet);
+        assertNull(SpriteFrameCache.read(sheet, WIDTH, HEIGHT, COUNT));
+    }
+}
@@ -0,0 +1,33 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatBarTest {
+
+    @Test
+    public void testLevelMatchesOldSpriteFrames() {
+        // The old sprite frame was 16 - ceil(percent / 6.25), or the empty frame below 1%
+        for (int percent = 0; percent <= 100; percent++) {
+            int oldFrame = percent < 1 ? 16 : (int) (16 - Math.ceil(percent / 6.25));
+            assertEquals(16 - oldFrame, StatBar.levelFor(percent), "Wrong level at " + percent + "%");
+        }
+    }
+
+    @Test
+    public void testLevelIsClampedAboveMax() {
+        assertEquals(StatBar.LEVELS, StatBar.levelFor(150));
+    }
+
+    @Test
+    public void testEmptyBelowOnePercent() {
+        assertEquals(0, StatBar.levelFor(0.5));
+    }
+
+    @Test
+    public void testColorBuckets() {
+        assertEquals(StatBar.colorFor(16), StatBar.colorFor(12));
+        assertEquals(StatBar.colorFor(11), StatBar.colorFor(5));
+        assertEquals(StatBar.colorFor(4), StatBar.colorFor(1));
+        assertNotEquals(StatBar.colorFor(12), StatBar.colorFor(11));
+        assertNotEquals(StatBar.colorFor(5), StatBar.colorFor(4));
+    }
+}
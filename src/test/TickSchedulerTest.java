@@ -0,0 +1,323 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TickSchedulerTest {
+
+    private TickScheduler scheduler;
+    private TickScheduler.Channel channel;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = new TickScheduler();
+        channel = scheduler.createChannel("test");
+    }
+
+    @Test
+    public void testPeriodicTaskFiresEveryPeriod() {
+        int[] runs = new int[1];
+        channel.schedule(1000, 1000, () -> runs[0]++);
+        scheduler.advance(999);
+        assertEquals(0, runs[0]);
+        scheduler.advance(1);
+        assertEquals(1, runs[0]);
+        scheduler.advance(5000);
+        assertEquals(6, runs[0]);
+        assertEquals(5, scheduler.getFiredLastPulse());
+        assertEquals(6, scheduler.getFiredTotal());
+    }
+
+    @Test
+    public void testOneShotTaskFiresOnce() {
+        int[] runs = new int[1];
+        TickScheduler.Task task = channel.schedule(50, () -> runs[0]++);
+        scheduler.advance(10_000);
+        assertEquals(1, runs[0]);
+        assertTrue(task.isCancelled());
+        assertEquals(0, channel.getTaskCount());
+        assertEquals(0, scheduler.getWaitingCount());
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotFire() {
+        int[] runs = new int[1];
+        TickScheduler.Task task = channel.schedule(100, 100, () -> runs[0]++);
+        scheduler.advance(250);
+        task.cancel();
+        scheduler.advance(1000);
+        assertEquals(2, runs[0]);
+        assertEquals(0, scheduler.getWaitingCount());
+    }
+
+    @Test
+    public void testPauseKeepsRemainingTime() {
+        int[] runs = new int[1];
+        channel.schedule(1000, 1000, () -> runs[0]++);
+        scheduler.advance(600);
+        channel.pause();
+        scheduler.advance(60_000);
+        assertEquals(0, runs[0]);
+        assertEquals(0, scheduler.getWaitingCount());
+
+        channel.resume();
+        scheduler.advance(399);
+        assertEquals(0, runs[0]);
+        scheduler.advance(1);
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void testPausingOneChannelDoesNotAffectOthers() {
+        TickScheduler.Channel other = scheduler.createChannel("other");
+        int[] runs = new int[2];
+        channel.schedule(100, 100, () -> runs[0]++);
+        other.schedule(100, 100, () -> runs[1]++);
+        channel.pause();
+        scheduler.advance(1000);
+        assertEquals(0, runs[0]);
+        assertEquals(10, runs[1]);
+    }
+
+    @Test
+    public void testTaskCanPauseItsOwnChannel() {
+        int[] runs = new int[1];
+        channel.schedule(100, 100, () -> {
+            runs[0]++;
+            channel.pause();
+            channel.resume();
+            channel.pause();
+        });
+        scheduler.advance(1000);
+        assertEquals(1, runs[0]);
+        channel.resume();
+        scheduler.advance(100);
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void testTimeScale() {
+        int[] runs = new int[1];
+        channel.schedule(1000, 1000, () -> runs[0]++);
+        scheduler.setTimeScale(10);
+        scheduler.advance(1000);
+        assertEquals(10, runs[0]);
+        scheduler.setTimeScale(0);
+        scheduler.advance(1000);
+        assertEquals(10, runs[0]);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setTimeScale(-1));
+    }
+
+    @Test
+    public void testLatePulseKeepsTheBacklog() {
+        int[] runs = new int[1];
+        channel.schedule(TickScheduler.TICK_MILLIS, TickScheduler.TICK_MILLIS, () -> runs[0]++);
+        // A hitch two and a half times longer than one pulse can catch up on
+        long hitchTicks = TickScheduler.MAX_TICKS_PER_PULSE * 5L / 2;
+        scheduler.advance(hitchTicks * TickScheduler.TICK_MILLIS);
+        assertEquals(TickScheduler.MAX_TICKS_PER_PULSE, runs[0]);
+        assertEquals((hitchTicks - runs[0]) * TickScheduler.TICK_MILLIS, scheduler.getBacklogMillis());
+
+        scheduler.advance(0);
+        scheduler.advance(0);
+        assertEquals(hitchTicks, runs[0]);
+        assertEquals(0, scheduler.getBacklogMillis());
+        assertEquals(hitchTicks * TickScheduler.TICK_MILLIS, scheduler.getTimeMillis());
+    }
+
+    @Test
+    public void testSameFireTimesAtAnyScaleAndFrameRate() {
+        List<Long> normal = fireTimes(1, 16, 16, 600_000);
+        List<Long> fast = fireTimes(1000, 1, 250, 600_000);
+        List<Long> fastest = fireTimes(TickScheduler.FASTEST, 16, 16, 600_000);
+        assertEquals(600 + 200 + 600, normal.size());
+        assertEquals(normal, fast);
+        assertEquals(normal, fastest.subList(0, normal.size()));
+    }
+
+    /** Helper method that records the fire times of a stat timer and two sleep timers until a game time is reached. */
+    private List<Long> fireTimes(double timeScale, int minFrameMillis, int maxFrameMillis, long untilMillis) {
+        TickScheduler clock = new TickScheduler();
+        TickScheduler.Channel timers = clock.createChannel("timers");
+        List<Long> fired = new ArrayList<>();
+        timers.schedule(3000, 3000, () -> fired.add(clock.getTimeMillis() * 10 + 1));
+        timers.schedule(1000, 1000, () -> fired.add(clock.getTimeMillis() * 10 + 2));
+        timers.schedule(1000, 1000, () -> fired.add(clock.getTimeMillis() * 10 + 3));
+        clock.setTimeScale(timeScale);
+        Random random = new Random(3);
+        while (clock.getTimeMillis() < untilMillis) {
+            clock.advance(minFrameMillis + random.nextInt(maxFrameMillis - minFrameMillis + 1));
+        }
+        fired.removeIf(time -> time / 10 > untilMillis);
+        return fired;
+    }
+
+    @Test
+    public void testFastestRunsAheadOfRealTime() {
+        int[] runs = new int[1];
+        channel.schedule(3000, 3000, () -> runs[0]++);
+        scheduler.setTimeScale(TickScheduler.FASTEST);
+        scheduler.advance(16);
+        assertTrue(runs[0] > 10, "Ran " + runs[0] + " stat ticks in one frame");
+        assertEquals(runs[0] * 3000L, scheduler.getTimeMillis() - scheduler.getTimeMillis() % 3000);
+    }
+
+    @Test
+    public void testParseTimeScale() {
+        assertEquals(1, TickScheduler.parseTimeScale("1"));
+        assertEquals(10, TickScheduler.parseTimeScale("10x"));
+        assertEquals(1000, TickScheduler.parseTimeScale(" 1000 "));
+        assertEquals(TickScheduler.FASTEST, TickScheduler.parseTimeScale("MAX"));
+        assertThrows(IllegalArgumentException.class, () -> TickScheduler.parseTimeScale("fast"));
+        assertThrows(IllegalArgumentException.class, () -> TickScheduler.parseTimeScale("-2"));
+    }
+
+    @Test
+    public void testSmallPulsesAddUp() {
+        int[] runs = new int[1];
+        channel.schedule(3000, 3000, () -> runs[0]++);
+        // 60 frames per second, with a pulse that is not a whole number of ticks
+        for (int frame = 0; frame < 60 * 30; frame++) {
+            scheduler.advance(16);
+            scheduler.advance(1);
+        }
+        // 30.6 seconds passed in total
+        assertEquals(10, runs[0]);
+    }
+
+    @Test
+    public void testLongDelaysCascadeThroughEveryWheel() {
+        long[] delays = { 10, 640, 650, 40_960, 41_000, 2_621_440, 3_000_000, 167_772_160, 200_000_000, 400_000_000 };
+        List<Long> fired = new ArrayList<>();
+        for (long delay : delays) {
+            channel.schedule(delay, () -> fired.add(scheduler.getTimeMillis()));
+        }
+        for (int hour = 0; hour < 120; hour++) {
+            scheduler.advance(60 * 60 * 1000);
+        }
+        assertEquals(delays.length, fired.size());
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], fired.get(i));
+        }
+    }
+
+    @Test
+    public void testMatchesBruteForceOrder() {
+        Random random = new Random(7);
+        List<long[]> expected = new ArrayList<>();
+        List<long[]> actual = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            long delay = TickScheduler.TICK_MILLIS * (1 + random.nextInt(random.nextBoolean() ? 100 : 100_000));
+            long period = random.nextBoolean() ? 0 : TickScheduler.TICK_MILLIS * (1 + random.nextInt(5000));
+            long taskId = id;
+            channel.schedule(delay, period, () -> actual.add(new long[] { scheduler.getTimeMillis(), taskId }));
+            for (long time = delay; time <= 1_000_000; time += period) {
+                expected.add(new long[] { time, id });
+                if (period == 0) {
+                    break;
+                }
+            }
+        }
+        for (int step = 0; step < 1000; step++) {
+            scheduler.advance(1000);
+        }
+        expected.sort((a, b) -> Long.compare(a[0], b[0]));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], actual.get(i)[0], "Fire time of event " + i);
+        }
+    }
+
+    @Test
+    public void testThreadRunsTimersAndChangesFromOtherThreads() throws InterruptedException {
+        scheduler.setTimeScale(100);
+        scheduler.startThread("test scheduler");
+        try {
+            CountDownLatch ticked = new CountDownLatch(5);
+            List<String> threads = new ArrayList<>();
+            GameTimer timer = new GameTimer(scheduler, 1, () -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread().getName());
+                }
+                ticked.countDown();
+            });
+            // Started from the test thread, but scheduled on the scheduler's thread
+            timer.start();
+            assertTrue(ticked.await(5, TimeUnit.SECONDS));
+
+            timer.pause();
+            CountDownLatch paused = new CountDownLatch(1);
+            scheduler.execute(paused::countDown);
+            assertTrue(paused.await(5, TimeUnit.SECONDS));
+            int runs;
+            synchronized (threads) {
+                runs = threads.size();
+            }
+            Thread.sleep(100);
+            synchronized (threads) {
+                assertEquals(runs, threads.size());
+                assertTrue(threads.stream().allMatch("test scheduler"::equals));
+            }
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testCooldownWakesUpOnSchedulerThread() throws InterruptedException {
+        scheduler.setTimeScale(1000);
+        scheduler.startThread("test scheduler");
+        try {
+            Cooldown cooldown = new Cooldown(scheduler);
+            CountDownLatch ready = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            cooldown.setOnReady(() -> {
+                runs.incrementAndGet();
+                ready.countDown();
+            });
+            cooldown.start(10_000);
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            assertTrue(cooldown.isReady());
+            Thread.sleep(50);
+            assertEquals(1, runs.get());
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testGameTimerStartPauseStop() {
+        int[] runs = new int[1];
+        GameTimer timer = new GameTimer(scheduler, 1, () -> runs[0]++);
+        scheduler.advance(5000);
+        assertEquals(0, runs[0]);
+
+        timer.start();
+        timer.start();
+        scheduler.advance(2500);
+        assertEquals(2, runs[0]);
+
+        // Paused halfway through the third second, so it fires 500 ms after starting again
+        timer.pause();
+        assertFalse(timer.isRunning());
+        scheduler.advance(5000);
+        timer.start();
+        scheduler.advance(500);
+        assertEquals(3, runs[0]);
+
+        // Stopped, so it starts a full second over
+        scheduler.advance(300);
+        timer.stop();
+        timer.start();
+        scheduler.advance(999);
+        assertEquals(3, runs[0]);
+        scheduler.advance(1);
+        assertEquals(4, runs[0]);
+    }
+}
@@ -0,0 +1,170 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.EQ;
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.NE;
+
+/** Represents the kernel that runs the timers of a pet fleet on many pets at once, one pet per vector lane.
+ * <p>
+ * It uses the incubating Vector API, so it is kept out of src/*.java and compiled on its own:
+ * javac --add-modules jdk.incubator.vector -cp (classes of src) -d (same output) src/vector/VectorFleetKernel.java
+ * and the game or benchmark is run with --add-modules jdk.incubator.vector. Without both, PetFleet uses its scalar kernel.
+ * <p>
+ * Every rule of PetFleet's per-pet methods is applied to whole vectors: the stat is computed for every lane,
+ * then kept only in the lanes where the rule applies (blend), so no lane branches. Pets left over after the last
+ * full vector are run by PetFleet one at a time.
+ * @see PetFleet
+ */
+class VectorFleetKernel implements PetFleet.Kernel {
+
+    /** The widest vector of ints the CPU supports, e.g. 8 lanes with AVX2. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /** The number of pets run together, one second after the other: 1024 pets take 45 KB, which stays in the cache. */
+    private static final int BLOCK = 1024;
+
+    /** The passes of a second, depending on whether it has a stat tick and whether the timers run. */
+    private static final Pass[] TIMERS_AND_STAT_TICK = {Pass.TIMERS, Pass.DECAY, Pass.STATE};
+    private static final Pass[] STAT_TICK = {Pass.DECAY, Pass.STATE};
+    private static final Pass[] TIMERS = {Pass.TIMERS};
+    private static final Pass[] NOTHING = {};
+
+    /** Represents one step of a second, run over every vector of a block. */
+    private enum Pass {
+        /** PetFleet.sleepTick and PetFleet.angryTick. */
+        TIMERS {
+            @Override
+            void run(PetFleet fleet, int start, int end) {
+                for (int i = start; i < end; i += SPECIES.length()) timerTick(fleet, i);
+            }
+        },
+        /** The first half of PetFleet.statTick: PetSimulation.tick. */
+        DECAY {
+            @Override
+            void run(PetFleet fleet, int start, int end) {
+                for (int i = start; i < end; i += SPECIES.length()) decay(fleet, i);
+            }
+        },
+        /** The second half of PetFleet.statTick: PetSimulation.updateState. */
+        STATE {
+            @Override
+            void run(PetFleet fleet, int start, int end) {
+                for (int i = start; i < end; i += SPECIES.length()) updateState(fleet, i);
+            }
+        };
+
+        /** Runs the pass on the pets from start up to end, a multiple of the vector length apart. */
+        abstract void run(PetFleet fleet, int start, int end);
+    }
+
+    @Override
+    public void run(PetFleet fleet, int from, int to, int firstPhase, long count, boolean timers) {
+        int bound = from + SPECIES.loopBound(to - from);
+        for (int start = from; start < bound; start += BLOCK) {
+            int end = Math.min(bound, start + BLOCK);
+            int phase = firstPhase;
+            for (long s = 0; s < count; s++) {
+                Pass[] passes = phase == 0 ? (timers ? TIMERS_AND_STAT_TICK : STAT_TICK) : (timers ? TIMERS : NOTHING);
+                // This call sees every kind of pass, so the JIT compiles each pass on its own instead of inlining all of them here.
+                // One method with all of them is too big for it to turn the Vector API calls into vector instructions.
+                for (Pass pass : passes) {
+                    pass.run(fleet, start, end);
+                }
+                if (++phase == PetSimulation.SLEEP_TICKS_PER_STAT_TICK) phase = 0;
+            }
+        }
+        // The pets that do not fill a vector
+        PetFleet.SCALAR_KERNEL.run(fleet, bound, to, firstPhase, count, timers);
+    }
+
+    /** Helper method that runs the sleep and angry ticks of the pets in one vector, starting at index i. Dead pets are not changed. */
+    private static void timerTick(PetFleet fleet, int i) {
+        IntVector flags = IntVector.fromArray(SPECIES, fleet.flags, i);
+        if (!flags.compare(NE, 0).anyTrue()) {
+            return;
+        }
+        VectorMask<Integer> alive = IntVector.fromArray(SPECIES, fleet.health, i).compare(NE, 0);
+        IntVector energy = IntVector.fromArray(SPECIES, fleet.energy, i);
+        IntVector maxEnergy = IntVector.fromArray(SPECIES, fleet.maxEnergy, i);
+        IntVector happiness = IntVector.fromArray(SPECIES, fleet.happiness, i);
+        IntVector maxHappiness = IntVector.fromArray(SPECIES, fleet.maxHappiness, i);
+
+        // Sleep tick: PetFleet.sleepTick
+        VectorMask<Integer> sleeping = flags.and(PetFleet.SLEEPING).compare(NE, 0).and(alive);
+        energy = energy.blend(clamp(energy.add(PetSimulation.SLEEP_ENERGY), maxEnergy), sleeping.and(energy.compare(NE, maxEnergy)));
+        flags = flags.blend(flags.and(~PetFleet.SLEEPING), sleeping.and(energy.compare(EQ, maxEnergy)));
+
+        // Angry tick: PetFleet.angryTick. happiness >= max / 2 is happiness * 2 >= max in ints
+        VectorMask<Integer> calm = flags.and(PetFleet.ANGRY).compare(NE, 0).and(alive)
+                .and(happiness.add(happiness).compare(GE, maxHappiness));
+        flags = flags.blend(flags.and(~PetFleet.ANGRY), calm);
+
+        energy.intoArray(fleet.energy, i);
+        flags.intoArray(fleet.flags, i);
+    }
+
+    /** Helper method that runs PetSimulation.tick on the pets in one vector. Every lane is ticked, then only the living ones are written back. */
+    private static void decay(PetFleet fleet, int i) {
+        VectorMask<Integer> alive = IntVector.fromArray(SPECIES, fleet.health, i).compare(NE, 0);
+        if (!alive.anyTrue()) {
+            return;
+        }
+        IntVector energy = IntVector.fromArray(SPECIES, fleet.energy, i);
+        IntVector fullness = IntVector.fromArray(SPECIES, fleet.fullness, i);
+        IntVector happiness = IntVector.fromArray(SPECIES, fleet.happiness, i);
+        IntVector coins = IntVector.fromArray(SPECIES, fleet.coins, i);
+        IntVector maxHappiness = IntVector.fromArray(SPECIES, fleet.maxHappiness, i);
+
+        IntVector newHappiness = happiness.blend(clamp(happiness.sub(PetSimulation.HUNGER_PENALTY), maxHappiness), fullness.compare(EQ, 0));
+        newHappiness = clamp(newHappiness.sub(PetSimulation.STAT_DECAY), maxHappiness);
+        IntVector newEnergy = clamp(energy.sub(PetSimulation.STAT_DECAY), IntVector.fromArray(SPECIES, fleet.maxEnergy, i));
+        IntVector newFullness = clamp(fullness.sub(PetSimulation.STAT_DECAY), IntVector.fromArray(SPECIES, fleet.maxFullness, i));
+        // min(coins, MAX - c) + c is min(coins + c, MAX) without overflowing
+        IntVector newCoins = coins.min(Integer.MAX_VALUE - PetSimulation.COINS_PER_TICK).add(PetSimulation.COINS_PER_TICK);
+
+        energy.blend(newEnergy, alive).intoArray(fleet.energy, i);
+        fullness.blend(newFullness, alive).intoArray(fleet.fullness, i);
+        happiness.blend(newHappiness, alive).intoArray(fleet.happiness, i);
+        coins.blend(newCoins, alive).intoArray(fleet.coins, i);
+    }
+
+    /** Helper method that runs PetSimulation.updateState on the pets in one vector, right after their decay, which never changes health. */
+    private static void updateState(PetFleet fleet, int i) {
+        IntVector health = IntVector.fromArray(SPECIES, fleet.health, i);
+        VectorMask<Integer> alive = health.compare(NE, 0);
+        if (!alive.anyTrue()) {
+            return;
+        }
+        IntVector happiness = IntVector.fromArray(SPECIES, fleet.happiness, i);
+        IntVector flags = IntVector.fromArray(SPECIES, fleet.flags, i);
+        IntVector maxHealth = IntVector.fromArray(SPECIES, fleet.maxHealth, i);
+        IntVector maxHappiness = IntVector.fromArray(SPECIES, fleet.maxHappiness, i);
+        VectorMask<Integer> asleep = IntVector.fromArray(SPECIES, fleet.energy, i).compare(EQ, 0);
+        VectorMask<Integer> starving = IntVector.fromArray(SPECIES, fleet.fullness, i).compare(EQ, 0);
+
+        IntVector newHealth = health.blend(clamp(health.sub(PetSimulation.SLEEP_PENALTY), maxHealth), asleep);
+        newHealth = newHealth.blend(clamp(newHealth.sub(PetSimulation.HUNGER_PENALTY), maxHealth), starving);
+        IntVector newHappiness = happiness.blend(clamp(happiness.sub(PetSimulation.HUNGER_PENALTY), maxHappiness), starving);
+        IntVector newFlags = flags.blend(flags.or(PetFleet.SLEEPING), asleep);
+        newFlags = newFlags.blend(newFlags.or(PetFleet.ANGRY), newHappiness.compare(EQ, 0));
+
+        health.blend(newHealth, alive).intoArray(fleet.health, i);
+        happiness.blend(newHappiness, alive).intoArray(fleet.happiness, i);
+        flags.blend(newFlags, alive).intoArray(fleet.flags, i);
+
+        // Pets rarely die, so they are emptied one at a time, which keeps this method small
+        VectorMask<Integer> died = newHealth.compare(EQ, 0).and(alive);
+        if (died.anyTrue()) {
+            for (int lane = 0; lane < SPECIES.length(); lane++) {
+                if (died.laneIsSet(lane)) fleet.die(i + lane);
+            }
+        }
+    }
+
+    /** Helper method that keeps every lane between 0 and its max, like PetFleet's clamp. */
+    private static IntVector clamp(IntVector values, IntVector max) {
+        return values.min(max).max(0);
+    }
+}